@@ -0,0 +1,49 @@
+package com.example.slshopping_ut_answer;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * ベンチマーク用のアプリケーションコンテキスト
+ * 組み込みデータベース(H2)に接続した状態でアプリケーションを1度だけ起動し、各ベンチマークで共有する
+ */
+public final class BenchmarkContext {
+
+    private static ConfigurableApplicationContext context;
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * アプリケーションコンテキストを取得する
+     * 初回呼び出し時にアプリケーションを起動する
+     *
+     * @return アプリケーションコンテキスト
+     */
+    public static synchronized ConfigurableApplicationContext get() {
+        if (context == null) {
+            // application.propertiesより優先させるため、コマンドライン引数として指定する
+            context = new SpringApplicationBuilder(SlshoppingUtAnswerApplication.class)
+                .run(
+                    "--server.port=0",
+                    "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--slshop.query-log.sample-rate=0",
+                    "--logging.level.root=WARN");
+        }
+        return context;
+    }
+
+    /**
+     * アプリケーションコンテキストからBeanを取得する
+     *
+     * @param <T> Beanの型
+     * @param type Beanの型
+     * @return Bean
+     */
+    public static <T> T getBean(Class<T> type) {
+        return get().getBean(type);
+    }
+
+}
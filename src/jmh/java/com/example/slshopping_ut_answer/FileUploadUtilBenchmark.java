@@ -0,0 +1,91 @@
+package com.example.slshopping_ut_answer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * FileUploadUtilのファイル保存・削除処理のベンチマーク
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FileUploadUtilBenchmark {
+
+    /** 保存するファイルのサイズ(KB) */
+    @Param({ "16", "512", "2048" })
+    public int sizeKb;
+
+    /** cleanDirで削除するファイル数 */
+    @Param({ "10" })
+    public int filesPerDir;
+
+    private Path baseDir;
+
+    private String uploadDir;
+
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        baseDir = Files.createTempDirectory("file-upload-benchmark");
+        uploadDir = baseDir.resolve("product-images/1").toString();
+        file = new MockMultipartFile("file", "image.png", "image/png", new byte[sizeKb * 1024]);
+    }
+
+    @Setup(Level.Invocation)
+    public void fillDir() throws IOException {
+        Path dir = Files.createDirectories(Path.of(uploadDir));
+        for (int i = 0; i < filesPerDir; i++) {
+            Files.write(dir.resolve("old-" + i + ".png"), new byte[1024]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        try (Stream<Path> paths = Files.walk(baseDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void saveFile() throws IOException {
+        FileUploadUtil.saveFile(uploadDir, "image.png", file);
+    }
+
+    @Benchmark
+    public void cleanDir() {
+        FileUploadUtil.cleanDir(uploadDir);
+    }
+
+    /**
+     * 画像の更新時と同じく、ディレクトリを空にしてから保存する
+     */
+    @Benchmark
+    public void cleanDirAndSaveFile() throws IOException {
+        FileUploadUtil.cleanDir(uploadDir);
+        FileUploadUtil.saveFile(uploadDir, "image.png", file);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.example.slshopping_ut_answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.slshopping_ut_answer.brand.BrandRepository;
+import com.example.slshopping_ut_answer.category.CategoryRepository;
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.product.ProductRepository;
+import com.example.slshopping_ut_answer.product.ProductService;
+
+/**
+ * 一覧取得を読み取り専用トランザクションで実行した場合と、通常のトランザクションで実行した場合の比較
+ * 読み取り専用の場合は、エンティティの変更検知用のスナップショットを作らず、コミット時のフラッシュ(変更検知)も行わない
+ * ヒープの削減量は -prof gc の gc.alloc.rate.norm(1回あたりの割り当てバイト数)で比較する
+ *
+ * <pre>
+ * ./gradlew jmhJar
+ * java -jar build/libs/slshopping_ut_answer-0.0.1-SNAPSHOT-jmh.jar ReadOnlyTransactionBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadOnlyTransactionBenchmark {
+
+    /** 一覧に表示する商品の件数 */
+    @Param({ "1000", "10000" })
+    public int rows;
+
+    /** 一覧取得を実行するトランザクションを読み取り専用にするか */
+    @Param({ "true", "false" })
+    public boolean readOnly;
+
+    private ProductService productService;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setup() {
+        productService = BenchmarkContext.getBean(ProductService.class);
+        // サービスのトランザクションは呼び出し元のトランザクションに参加するため、呼び出し元で読み取り専用かを切り替える
+        transactionTemplate = new TransactionTemplate(BenchmarkContext.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(readOnly);
+
+        List<Brand> brands = new ArrayList<>();
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            brands.add(new Brand(null, "brand" + i));
+            categories.add(new Category(null, "category" + i));
+        }
+        brands = BenchmarkContext.getBean(BrandRepository.class).saveAll(brands);
+        categories = BenchmarkContext.getBean(CategoryRepository.class).saveAll(categories);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            // 商品名は10文字以内のため、件数が多くても収まる名前にする
+            products.add(new Product(null, "商品" + i, "説明" + i, 100 + i, "image.png", 1.0, 1.0, 1.0, 1.0,
+                categories.get(i % 100), brands.get(i % 100)));
+        }
+        BenchmarkContext.getBean(ProductRepository.class).saveAll(products);
+    }
+
+    @Benchmark
+    public List<Product> productListAll() {
+        return transactionTemplate.execute(status -> productService.listAll());
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.slshopping_ut_answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.slshopping_ut_answer.brand.BrandRepository;
+import com.example.slshopping_ut_answer.brand.BrandService;
+import com.example.slshopping_ut_answer.category.CategoryRepository;
+import com.example.slshopping_ut_answer.category.CategoryService;
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.Role;
+import com.example.slshopping_ut_answer.entity.User;
+import com.example.slshopping_ut_answer.product.ProductRepository;
+import com.example.slshopping_ut_answer.product.ProductService;
+import com.example.slshopping_ut_answer.user.RoleRepository;
+import com.example.slshopping_ut_answer.user.UserRepository;
+import com.example.slshopping_ut_answer.user.UserService;
+
+/**
+ * 各サービスのcheckUnique・listAllのベンチマーク
+ * 組み込みデータベースに指定件数のデータを登録した状態で計測する
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    /** 各テーブルに登録するデータの件数 */
+    @Param({ "100", "1000" })
+    public int rows;
+
+    private ProductService productService;
+
+    private BrandService brandService;
+
+    private CategoryService categoryService;
+
+    private UserService userService;
+
+    private Product product;
+
+    private Brand brand;
+
+    private Category category;
+
+    private User user;
+
+    @Setup
+    public void setup() {
+        productService = BenchmarkContext.getBean(ProductService.class);
+        brandService = BenchmarkContext.getBean(BrandService.class);
+        categoryService = BenchmarkContext.getBean(CategoryService.class);
+        userService = BenchmarkContext.getBean(UserService.class);
+
+        Role role = BenchmarkContext.getBean(RoleRepository.class).save(new Role(null, "Admin", "管理者"));
+        List<Brand> brands = new ArrayList<>();
+        List<Category> categories = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            brands.add(new Brand(null, "brand" + i));
+            categories.add(new Category(null, "category" + i));
+            users.add(new User(null, "user" + i + "@example.com", "password", "user" + i, true, Set.of(role)));
+        }
+        brands = BenchmarkContext.getBean(BrandRepository.class).saveAll(brands);
+        categories = BenchmarkContext.getBean(CategoryRepository.class).saveAll(categories);
+        users = BenchmarkContext.getBean(UserRepository.class).saveAll(users);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            products.add(new Product(null, "product" + i, "説明" + i, 100 + i, "image.png", 1.0, 1.0, 1.0, 1.0,
+                categories.get(i), brands.get(i)));
+        }
+        products = BenchmarkContext.getBean(ProductRepository.class).saveAll(products);
+
+        // 更新時の重複チェックを想定し、登録済みのデータを対象にする
+        product = products.get(rows / 2);
+        brand = brands.get(rows / 2);
+        category = categories.get(rows / 2);
+        user = users.get(rows / 2);
+    }
+
+    @Benchmark
+    public boolean productCheckUnique() {
+        return productService.checkUnique(product);
+    }
+
+    @Benchmark
+    public boolean brandCheckUnique() {
+        return brandService.checkUnique(brand);
+    }
+
+    @Benchmark
+    public boolean categoryCheckUnique() {
+        return categoryService.checkUnique(category);
+    }
+
+    @Benchmark
+    public boolean userCheckUnique() {
+        return userService.checkUnique(user);
+    }
+
+    @Benchmark
+    public List<Product> productListAll() {
+        return productService.listAll();
+    }
+
+    @Benchmark
+    public List<Brand> brandListAll() {
+        return brandService.listAll();
+    }
+
+    @Benchmark
+    public List<Category> categoryListAll() {
+        return categoryService.listAll();
+    }
+
+    @Benchmark
+    public List<User> userListAll() {
+        return userService.listAll(null);
+    }
+
+}
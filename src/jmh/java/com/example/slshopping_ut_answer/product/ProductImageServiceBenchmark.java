@@ -0,0 +1,57 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.slshopping_ut_answer.storage.LocalImageStorage;
+
+/**
+ * ProductImageService#isValidのベンチマーク
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductImageServiceBenchmark {
+
+    /** 添付ファイル名 空文字の場合はファイルなし */
+    @Param({ "", "image.png", "photo.JPEG", "document.pdf" })
+    public String fileName;
+
+    private ProductImageService productImageService;
+
+    private List<MultipartFile> files;
+
+    @Setup
+    public void setup() {
+        LocalImageStorage imageStorage = new LocalImageStorage(Path.of("product-images"));
+        productImageService = new ProductImageService(imageStorage, new ProductImageCache(imageStorage,
+            new ProductImageCacheProperties(DataSize.ofMegabytes(1), DataSize.ofMegabytes(1))), null);
+        byte[] content = fileName.isEmpty() ? new byte[0] : new byte[64 * 1024];
+        files = List.of(new MockMultipartFile("files", fileName, "application/octet-stream", content));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return productImageService.isValid(files);
+    }
+
+}
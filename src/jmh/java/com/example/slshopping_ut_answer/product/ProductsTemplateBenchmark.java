@@ -0,0 +1,94 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import com.example.slshopping_ut_answer.BenchmarkContext;
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.Role;
+import com.example.slshopping_ut_answer.entity.User;
+import com.example.slshopping_ut_answer.security.SLShopUserDetails;
+
+/**
+ * 商品一覧画面(products/products.html)のレンダリングのベンチマーク
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductsTemplateBenchmark {
+
+    /** 一覧に表示する商品の件数 */
+    @Param({ "1000", "10000" })
+    public int rows;
+
+    private SpringTemplateEngine templateEngine;
+
+    private WebContext context;
+
+    @Setup
+    public void setup() {
+        templateEngine = BenchmarkContext.getBean(SpringTemplateEngine.class);
+
+        // ヘッダー・サイドバーでログイン者名を表示するため、認証情報を設定する
+        User admin = new User(1L, "admin@example.com", "password", "admin", true,
+            Set.of(new Role(1L, "Admin", "管理者")));
+        SLShopUserDetails userDetails = new SLShopUserDetails(admin);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Brand brand = new Brand((long) i % 50, "brand" + i % 50);
+            Category category = new Category((long) i % 20, "category" + i % 20);
+            products.add(new Product((long) i, "product" + i, "説明" + i, 100 + i, "image.png", 1.0, 1.0, 1.0, 1.0,
+                category, brand));
+        }
+
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/products");
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(servletContext);
+        context = new WebContext(application.buildExchange(request, new MockHttpServletResponse()), Locale.JAPANESE);
+        context.setVariable("listProducts", products);
+        context.setVariable("condition", new ProductSearchCondition());
+        context.setVariable("facets", new ProductFacets());
+        context.setVariable("listBrands", List.of());
+        context.setVariable("listCategories", List.of());
+    }
+
+    @Benchmark
+    public int render() {
+        StringWriter writer = new StringWriter();
+        templateEngine.process("products/products", context, writer);
+        return writer.getBuffer().length();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.example.slshopping_ut_answer.security;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.example.slshopping_ut_answer.entity.Role;
+import com.example.slshopping_ut_answer.entity.User;
+
+/**
+ * SLShopUserDetails#getAuthoritiesのベンチマーク
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SLShopUserDetailsBenchmark {
+
+    /** 管理者が持つロールの数 */
+    @Param({ "1", "5" })
+    public int roleCount;
+
+    private SLShopUserDetails userDetails;
+
+    @Setup
+    public void setup() {
+        Set<Role> roles = new HashSet<>();
+        for (long i = 1; i <= roleCount; i++) {
+            roles.add(new Role(i, "Role" + i, "ロール" + i));
+        }
+        userDetails = new SLShopUserDetails(new User(1L, "admin@example.com", "password", "admin", true, roles));
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return userDetails.getAuthorities();
+    }
+
+}
@@ -0,0 +1,300 @@
+package com.example.slshopping_ut_answer.datagen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.slshopping_ut_answer.entity.ProductFacet;
+import com.example.slshopping_ut_answer.product.PriceRange;
+import com.example.slshopping_ut_answer.product.ProductFacets;
+
+/**
+ * 大量の商品カタログ(ブランド・カテゴリー・管理者・商品)を生成して登録する
+ * JPAを経由せずJDBCのバッチ更新で登録し、100万件規模でも数分で終わるようにする
+ * 同じシードであれば同じデータを生成する
+ */
+public class CatalogGenerator {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogGenerator.class);
+
+    /** 商品に設定する画像ファイル名 */
+    static final String PLACEHOLDER_IMAGE = "placeholder.png";
+
+    /** 生成する管理者のロール(名前, 説明) */
+    private static final String[][] ROLES = {
+        { "Admin", "管理者" },
+        { "Salesperson", "販売担当者" },
+        { "Editor", "編集者" },
+        { "Shipper", "配送担当者" } };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final CatalogOptions options;
+
+    public CatalogGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, CatalogOptions options) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.options = options;
+    }
+
+    /**
+     * カタログを生成して登録する
+     */
+    public void generate() throws IOException {
+        Random random = new Random(options.seed());
+        CatalogWords words = new CatalogWords(random);
+        if (options.products() > words.maxProducts()) {
+            throw new IllegalArgumentException("商品名を一意にできる件数(" + words.maxProducts() + ")を超えています");
+        }
+
+        List<Long> roleIds = insertRoles();
+        List<Long> brandIds = insertNamed("brands", words.brandNames(options.brands(), random));
+        List<Long> categoryIds = insertNamed("categories", words.categoryNames(options.categories()));
+        insertUsers(words, random, roleIds);
+        Map<FacetKey, Long> facetCounts = insertProducts(words, random, brandIds, categoryIds);
+        addFacetCounts(facetCounts);
+        addProductCounts(facetCounts);
+        addProductImages();
+        writePlaceholderImages();
+    }
+
+    /**
+     * ロールを登録する 既に同名のロールがある場合はそれを使う
+     *
+     * @return ロールIDのリスト
+     */
+    private List<Long> insertRoles() {
+        List<Long> ids = new ArrayList<>();
+        for (String[] role : ROLES) {
+            List<Long> existing = jdbcTemplate.queryForList("SELECT id FROM roles WHERE name = ?", Long.class, role[0]);
+            if (existing.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO roles (name, description) VALUES (?, ?)", role[0], role[1]);
+                existing = jdbcTemplate.queryForList("SELECT id FROM roles WHERE name = ?", Long.class, role[0]);
+            }
+            ids.add(existing.get(0));
+        }
+        return ids;
+    }
+
+    /**
+     * 名前のみを持つテーブル(brands, categories)にバッチで登録する
+     *
+     * @param table テーブル名
+     * @param names 登録する名前
+     * @return 登録した順のIDのリスト
+     */
+    private List<Long> insertNamed(String table, List<String> names) {
+        long start = System.nanoTime();
+        for (int from = 0; from < names.size(); from += options.batchSize()) {
+            List<Object[]> batch = new ArrayList<>();
+            for (String name : names.subList(from, Math.min(from + options.batchSize(), names.size()))) {
+                batch.add(new Object[] { name });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (name) VALUES (?)", batch);
+        }
+
+        Map<String, Long> idsByName = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM " + table,
+            rs -> {
+                idsByName.put(rs.getString("name"), rs.getLong("id"));
+            });
+        List<Long> ids = new ArrayList<>(names.size());
+        for (String name : names) {
+            ids.add(idsByName.get(name));
+        }
+        LOGGER.info("{}: {}件 {}ms", table, names.size(), (System.nanoTime() - start) / 1_000_000);
+        return ids;
+    }
+
+    /**
+     * 管理者とロールの紐づけを登録する
+     * パスワードのハッシュ化は重いため、全管理者で同じハッシュ値を使う
+     */
+    private void insertUsers(CatalogWords words, Random random, List<Long> roleIds) {
+        long start = System.nanoTime();
+        String password = passwordEncoder.encode(options.userPassword());
+        List<Object[]> users = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            String[] user = words.user(i, random);
+            users.add(new Object[] { user[1], password, user[0], true });
+            emails.add(user[1]);
+        }
+        for (int from = 0; from < users.size(); from += options.batchSize()) {
+            jdbcTemplate.batchUpdate("INSERT INTO users (email, password, name, enabled) VALUES (?, ?, ?, ?)",
+                users.subList(from, Math.min(from + options.batchSize(), users.size())));
+        }
+
+        Map<String, Long> idsByEmail = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM users",
+            rs -> {
+                idsByEmail.put(rs.getString("email"), rs.getLong("id"));
+            });
+        List<Object[]> userRoles = new ArrayList<>();
+        for (String email : emails) {
+            Long userId = idsByEmail.get(email);
+            // 1人あたり1〜2件のロールを重複なく割り当てる
+            int first = random.nextInt(roleIds.size());
+            userRoles.add(new Object[] { userId, roleIds.get(first) });
+            if (random.nextBoolean()) {
+                userRoles.add(new Object[] { userId, roleIds.get((first + 1 + random.nextInt(roleIds.size() - 1)) % roleIds.size()) });
+            }
+        }
+        for (int from = 0; from < userRoles.size(); from += options.batchSize()) {
+            jdbcTemplate.batchUpdate("INSERT INTO users_roles (user_id, role_id) VALUES (?, ?)",
+                userRoles.subList(from, Math.min(from + options.batchSize(), userRoles.size())));
+        }
+        LOGGER.info("users: {}件 {}ms", users.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 商品をバッチで登録する
+     * 全件をメモリに載せないよう、バッチごとに生成する
+     *
+     * @return ブランド×カテゴリー×価格帯とその小計ごとの登録件数
+     */
+    private Map<FacetKey, Long> insertProducts(CatalogWords words, Random random, List<Long> brandIds,
+            List<Long> categoryIds) {
+        long start = System.nanoTime();
+        Map<FacetKey, Long> facetCounts = new HashMap<>();
+        String sql = "INSERT INTO products (name, description, price, image, length, width, height, weight, category_id, brand_id)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> batch = new ArrayList<>(options.batchSize());
+        for (long i = 0; i < options.products(); i++) {
+            String name = words.productName(i);
+            String description = words.description(name, random);
+            // 100円〜10万円を10円単位で、安価な商品ほど多くなるように分布させる
+            int price = (int) Math.round(Math.exp(Math.log(100) + random.nextDouble() * Math.log(1000)) / 10) * 10;
+            double length = dimension(random, 1, 120);
+            double width = dimension(random, 1, 80);
+            double height = dimension(random, 1, 60);
+            double weight = dimension(random, 0.1, 30);
+            Long categoryId = categoryIds.get(random.nextInt(categoryIds.size()));
+            Long brandId = brandIds.get(random.nextInt(brandIds.size()));
+            batch.add(new Object[] {
+                name, description, price, PLACEHOLDER_IMAGE, length, width, height, weight, categoryId, brandId });
+            for (ProductFacet rollup : ProductFacets.rollups(brandId, categoryId, PriceRange.of(price).getMin(), 1)) {
+                facetCounts.merge(new FacetKey(rollup.getBrandId(), rollup.getCategoryId(), rollup.getMinPrice()), 1L,
+                    Long::sum);
+            }
+            if (batch.size() == options.batchSize()) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+            if ((i + 1) % 100_000 == 0) {
+                LOGGER.info("products: {}件 {}ms", i + 1, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        LOGGER.info("products: {}件 {}ms", options.products(), (System.nanoTime() - start) / 1_000_000);
+        return facetCounts;
+    }
+
+    /**
+     * 登録した商品の件数を、商品件数の集計(product_facets)に加算する
+     * JDBCで登録した商品はProductServiceを経由しないため、ここで集計する
+     */
+    private void addFacetCounts(Map<FacetKey, Long> facetCounts) {
+        List<FacetKey> keys = new ArrayList<>(facetCounts.keySet());
+        List<Object[]> updates = new ArrayList<>(keys.size());
+        for (FacetKey key : keys) {
+            updates.add(new Object[] { facetCounts.get(key), key.brandId(), key.categoryId(), key.minPrice() });
+        }
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE product_facets SET product_count = product_count + ?"
+            + " WHERE brand_id = ? AND category_id = ? AND min_price = ?", updates);
+
+        // 既存の行がない組み合わせは追加する
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] == 0) {
+                FacetKey key = keys.get(i);
+                inserts.add(new Object[] { key.brandId(), key.categoryId(), key.minPrice(), facetCounts.get(key) });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product_facets (brand_id, category_id, min_price, product_count)"
+            + " VALUES (?, ?, ?, ?)", inserts);
+        LOGGER.info("product_facets: {}件", keys.size());
+    }
+
+    /**
+     * 登録した商品の件数を、ブランド・カテゴリーごとの商品件数に加算する
+     * ブランド・カテゴリーごとの件数は、集計区分の小計(他の項目を問わない行)と同じ値になる
+     */
+    private void addProductCounts(Map<FacetKey, Long> facetCounts) {
+        List<Object[]> brands = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        facetCounts.forEach((key, count) -> {
+            if (key.minPrice() != ProductFacet.ALL_PRICE) {
+                return;
+            }
+            if (key.brandId() != ProductFacet.ALL_ID && key.categoryId() == ProductFacet.ALL_ID) {
+                brands.add(new Object[] { count, key.brandId() });
+            } else if (key.brandId() == ProductFacet.ALL_ID && key.categoryId() != ProductFacet.ALL_ID) {
+                categories.add(new Object[] { count, key.categoryId() });
+            }
+        });
+        jdbcTemplate.batchUpdate("UPDATE brands SET product_count = product_count + ? WHERE id = ?", brands);
+        jdbcTemplate.batchUpdate("UPDATE categories SET product_count = product_count + ? WHERE id = ?", categories);
+    }
+
+    /**
+     * 登録した商品の画像を、ギャラリーの1枚目の画像(product_images)として登録する
+     * 大きさは不明のため、縮小画像なしで表示する(既存の商品画像のマイグレーションと同じ)
+     */
+    private void addProductImages() {
+        long start = System.nanoTime();
+        int count = jdbcTemplate.update("INSERT INTO product_images (product_id, display_order, file_name)"
+            + " SELECT p.id, 0, p.image FROM products p WHERE p.image = ?"
+            + " AND NOT EXISTS (SELECT 1 FROM product_images i WHERE i.product_id = p.id)", PLACEHOLDER_IMAGE);
+        LOGGER.info("product_images: {}件 {}ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 先頭から指定件数の商品に、画像ファイル(product-images/{id}/placeholder.png)を配置する
+     */
+    private void writePlaceholderImages() throws IOException {
+        if (options.imageFiles() <= 0) {
+            return;
+        }
+        byte[] image;
+        try (InputStream in = getClass().getResourceAsStream("/static/images/image-thumbnail.png")) {
+            image = in.readAllBytes();
+        }
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM products WHERE image = ? ORDER BY id",
+            Long.class, PLACEHOLDER_IMAGE);
+        for (Long id : ids.subList(0, Math.min(options.imageFiles(), ids.size()))) {
+            Path dir = Files.createDirectories(Path.of("product-images", String.valueOf(id)));
+            Files.write(dir.resolve(PLACEHOLDER_IMAGE), image);
+        }
+    }
+
+    /**
+     * 商品件数の集計区分(ブランド×カテゴリー×価格帯の下限価格 小計の場合は項目を問わない値)
+     */
+    private record FacetKey(Long brandId, Long categoryId, int minPrice) {
+    }
+
+    /**
+     * 小数点以下1桁の寸法・重さを生成する
+     */
+    private static double dimension(Random random, double min, double max) {
+        return Math.round((min + random.nextDouble() * (max - min)) * 10) / 10.0;
+    }
+
+}
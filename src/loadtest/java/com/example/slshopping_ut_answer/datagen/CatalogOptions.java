@@ -0,0 +1,47 @@
+package com.example.slshopping_ut_answer.datagen;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * カタログ生成のオプション
+ * --name=value 形式の引数で指定する
+ *
+ * @param brands ブランドの件数
+ * @param categories カテゴリーの件数
+ * @param users 管理者の件数
+ * @param products 商品の件数
+ * @param seed 乱数のシード
+ * @param batchSize 1回のバッチ更新で登録する件数
+ * @param imageFiles 画像ファイルを配置する商品の件数
+ * @param userPassword 生成する管理者のパスワード
+ */
+public record CatalogOptions(
+        int brands,
+        int categories,
+        int users,
+        long products,
+        long seed,
+        int batchSize,
+        int imageFiles,
+        String userPassword) {
+
+    public static CatalogOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return new CatalogOptions(
+            Integer.parseInt(values.getOrDefault("brands", "500")),
+            Integer.parseInt(values.getOrDefault("categories", "100")),
+            Integer.parseInt(values.getOrDefault("users", "1000")),
+            Long.parseLong(values.getOrDefault("products", "1000000")),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            Integer.parseInt(values.getOrDefault("batch-size", "5000")),
+            Integer.parseInt(values.getOrDefault("image-files", "0")),
+            values.getOrDefault("user-password", "password"));
+    }
+
+}
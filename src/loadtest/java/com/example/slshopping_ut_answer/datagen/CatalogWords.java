@@ -0,0 +1,172 @@
+package com.example.slshopping_ut_answer.datagen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 日本語の商品名・説明・ブランド名・カテゴリー名・管理者名を組み立てる
+ * 同じシードの乱数を渡せば、同じ文字列を同じ順序で返す
+ */
+final class CatalogWords {
+
+    /** 商品名の修飾語(2文字以内) */
+    private static final String[] ADJECTIVES = {
+        "新", "高級", "軽量", "極細", "特大", "小型", "厚手", "薄型", "丸型", "角型",
+        "強力", "静音", "防水", "速乾", "極上", "純白", "漆黒", "天然", "国産", "北欧",
+        "和風", "限定", "定番", "万能", "携帯", "折畳", "充電", "無線", "木製", "革製" };
+
+    /** 商品名の名詞(4文字以内) */
+    private static final String[] NOUNS = {
+        "バッグ", "財布", "腕時計", "椅子", "机", "照明", "掛時計", "マグ", "急須", "茶碗",
+        "包丁", "鍋", "弁当箱", "水筒", "タオル", "枕", "毛布", "傘", "帽子", "手袋",
+        "靴下", "靴", "眼鏡", "鉛筆", "万年筆", "ノート", "手帳", "扇風機", "加湿器", "ケトル",
+        "炊飯器", "ラジオ", "イヤホン", "マウス", "カメラ", "花瓶", "皿", "箸", "座布団", "風鈴" };
+
+    private static final String[] FEATURES = {
+        "毎日使いやすい", "丈夫で長持ちする", "職人が仕上げた", "手入れが簡単な", "持ち運びに便利な",
+        "省スペースな", "肌ざわりの良い", "シンプルな", "季節を問わず使える", "人気の" };
+
+    private static final String[] USAGES = {
+        "贈り物にもおすすめです。", "ご家庭用に最適です。", "オフィスでも活躍します。", "旅行のお供にどうぞ。",
+        "数量限定の入荷です。", "長く愛用いただけます。", "初めての方にも安心です。", "まとめ買いにも対応します。" };
+
+    private static final String[] SYLLABLES = {
+        "ア", "カ", "サ", "タ", "ナ", "ハ", "マ", "ヤ", "ラ", "ワ", "イ", "キ", "シ", "チ", "ニ",
+        "ヒ", "ミ", "リ", "ウ", "ク", "ス", "ツ", "フ", "ム", "ル", "エ", "ケ", "セ", "テ", "ネ",
+        "メ", "レ", "オ", "コ", "ソ", "ト", "ノ", "ホ", "モ", "ロ", "ン", "ー" };
+
+    private static final String[] BRAND_SUFFIXES = { "", "", "", "堂", "工房", "屋", "商会" };
+
+    private static final String[] CATEGORY_PARENTS = {
+        "キッチン用品", "生活雑貨", "家具", "家電", "ファッション", "文房具", "アウトドア", "インテリア", "美容・健康", "和雑貨" };
+
+    private static final String[] CATEGORY_CHILDREN = {
+        "定番", "新作", "限定", "小物", "大型", "収納", "ギフト", "セール品", "輸入品", "国産品" };
+
+    /** 姓(漢字, ローマ字) */
+    private static final String[][] FAMILY_NAMES = {
+        { "佐藤", "sato" }, { "鈴木", "suzuki" }, { "高橋", "takahashi" }, { "田中", "tanaka" },
+        { "伊藤", "ito" }, { "渡辺", "watanabe" }, { "山本", "yamamoto" }, { "中村", "nakamura" },
+        { "小林", "kobayashi" }, { "加藤", "kato" }, { "吉田", "yoshida" }, { "山田", "yamada" },
+        { "佐々木", "sasaki" }, { "山口", "yamaguchi" }, { "松本", "matsumoto" }, { "井上", "inoue" } };
+
+    /** 名(漢字, ローマ字) */
+    private static final String[][] GIVEN_NAMES = {
+        { "翔太", "shota" }, { "蓮", "ren" }, { "大翔", "hiroto" }, { "陽菜", "hina" },
+        { "結衣", "yui" }, { "美咲", "misaki" }, { "健一", "kenichi" }, { "直樹", "naoki" },
+        { "さくら", "sakura" }, { "葵", "aoi" }, { "拓海", "takumi" }, { "優子", "yuko" },
+        { "大輔", "daisuke" }, { "真由美", "mayumi" }, { "和也", "kazuya" }, { "恵", "megumi" } };
+
+    private final List<String> adjectives;
+
+    private final List<String> nouns;
+
+    CatalogWords(Random random) {
+        this.adjectives = shuffled(ADJECTIVES, random);
+        this.nouns = shuffled(NOUNS, random);
+    }
+
+    /**
+     * 一意な商品名を生成できる最大件数
+     * 修飾語2文字+名詞4文字+連番4桁で10文字以内に収める
+     */
+    long maxProducts() {
+        return (long) adjectives.size() * nouns.size() * 9999;
+    }
+
+    /**
+     * 通番から一意な商品名を組み立てる
+     *
+     * @param index 0始まりの通番
+     * @return 10文字以内の商品名
+     */
+    String productName(long index) {
+        int combinations = adjectives.size() * nouns.size();
+        int combination = (int) (index % combinations);
+        long serial = index / combinations + 1;
+        return adjectives.get(combination / nouns.size()) + nouns.get(combination % nouns.size()) + serial;
+    }
+
+    /**
+     * 商品説明を組み立てる
+     *
+     * @param productName 商品名
+     * @param random 乱数
+     * @return 50文字以内の商品説明
+     */
+    String description(String productName, Random random) {
+        String description = pick(FEATURES, random) + productName + "。" + pick(USAGES, random);
+        return description.length() > 50 ? description.substring(0, 50) : description;
+    }
+
+    /**
+     * カタカナのブランド名を重複なく組み立てる
+     *
+     * @param count 件数
+     * @param random 乱数
+     * @return 10文字以内のブランド名のリスト
+     */
+    List<String> brandNames(int count, Random random) {
+        Set<String> names = new HashSet<>();
+        List<String> result = new ArrayList<>(count);
+        while (result.size() < count) {
+            StringBuilder name = new StringBuilder();
+            int length = 2 + random.nextInt(4);
+            for (int i = 0; i < length; i++) {
+                name.append(pick(SYLLABLES, random));
+            }
+            name.append(pick(BRAND_SUFFIXES, random));
+            if (name.length() <= 10 && names.add(name.toString())) {
+                result.add(name.toString());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * カテゴリー名を重複なく組み立てる
+     * 組み合わせを使い切った場合は連番を付ける
+     *
+     * @param count 件数
+     * @return 32文字以内のカテゴリー名のリスト
+     */
+    List<String> categoryNames(int count) {
+        List<String> result = new ArrayList<>(count);
+        int combinations = CATEGORY_PARENTS.length * CATEGORY_CHILDREN.length;
+        for (int i = 0; i < count; i++) {
+            int combination = i % combinations;
+            String name = CATEGORY_PARENTS[combination / CATEGORY_CHILDREN.length] + "/"
+                + CATEGORY_CHILDREN[combination % CATEGORY_CHILDREN.length];
+            result.add(i < combinations ? name : name + (i / combinations + 1));
+        }
+        return result;
+    }
+
+    /**
+     * 管理者の氏名とメールアドレスを組み立てる
+     *
+     * @param index 0始まりの通番 メールアドレスを一意にするために使う
+     * @param random 乱数
+     * @return [氏名, メールアドレス]
+     */
+    String[] user(int index, Random random) {
+        String[] family = FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)];
+        String[] given = GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+        return new String[] { family[0] + given[0], given[1] + "." + family[1] + index + "@example.jp" };
+    }
+
+    private static String pick(String[] words, Random random) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private static List<String> shuffled(String[] words, Random random) {
+        List<String> list = new ArrayList<>(List.of(words));
+        Collections.shuffle(list, random);
+        return list;
+    }
+
+}
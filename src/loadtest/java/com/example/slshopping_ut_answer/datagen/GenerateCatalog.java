@@ -0,0 +1,64 @@
+package com.example.slshopping_ut_answer.datagen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.slshopping_ut_answer.SlshoppingUtAnswerApplication;
+
+/**
+ * application.propertiesの接続先(または引数で指定した接続先)に大量の商品カタログを登録する
+ * テーブルはアプリケーションの起動時に作成されたものを使う
+ *
+ * <pre>
+ * gradle generateCatalog -PcatalogArgs="--products=1000000 --seed=42"
+ * </pre>
+ */
+public class GenerateCatalog {
+
+    private static final String URL_ARG = "--spring.datasource.url=";
+
+    private static final String REWRITE_BATCHED_INSERTS = "reWriteBatchedInserts";
+
+    public static void main(String[] args) throws Exception {
+        CatalogOptions options = CatalogOptions.parse(args);
+        // バッチ更新は遅いSQLの閾値を必ず超えるため、SQLログは出力しない
+        List<String> appArgs = new ArrayList<>(List.of(
+            "--slshop.query-log.slow-threshold=1h",
+            "--slshop.query-log.sample-rate=0"));
+        // PostgreSQLではバッチ更新を複数行のINSERT文にまとめて送信する
+        if (List.of(args).stream().noneMatch(arg -> arg.startsWith(URL_ARG))) {
+            appArgs.add("--spring.datasource.hikari.data-source-properties." + REWRITE_BATCHED_INSERTS + "=true");
+        }
+        // 接続先などのSpringの設定も引数で上書きできるようにする
+        for (String arg : args) {
+            appArgs.add(arg.startsWith(URL_ARG) ? URL_ARG + withRewriteBatchedInserts(arg.substring(URL_ARG.length()))
+                : arg);
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SlshoppingUtAnswerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(appArgs.toArray(String[]::new))) {
+            long start = System.nanoTime();
+            new CatalogGenerator(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class), options)
+                .generate();
+            System.out.printf("catalog generated in %.1fs: %s%n", (System.nanoTime() - start) / 1e9, options);
+        }
+    }
+
+    /**
+     * 引数で指定したPostgreSQLの接続先に、バッチ更新をまとめる設定がなければ追加する
+     * PostgreSQL以外のドライバーは未知の設定でエラーになることがあるため、接続先はそのまま使う
+     */
+    static String withRewriteBatchedInserts(String url) {
+        if (!url.startsWith("jdbc:postgresql:") || url.contains(REWRITE_BATCHED_INSERTS + "=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + REWRITE_BATCHED_INSERTS + "=true";
+    }
+
+}
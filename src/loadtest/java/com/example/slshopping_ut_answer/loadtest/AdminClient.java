@@ -0,0 +1,179 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 管理画面にログインした状態でリクエストを送るHTTPクライアント
+ * セッション(Cookie)とCSRFトークンをクライアントごとに保持する
+ */
+class AdminClient {
+
+    private static final Pattern CSRF_PATTERN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private static final Pattern ROLE_INPUT_PATTERN = Pattern.compile("<input[^>]*name=\"roles\"[^>]*>");
+
+    private static final Pattern VALUE_PATTERN = Pattern.compile("value=\"(\\d+)\"");
+
+    private final HttpClient http;
+
+    private final String baseUrl;
+
+    private String csrfToken;
+
+    AdminClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    /**
+     * ログイン画面からログインし、以降のPOSTで使用するCSRFトークンを取得する
+     *
+     * @param email メールアドレス
+     * @param password パスワード
+     */
+    void login(String email, String password) throws IOException, InterruptedException {
+        String loginToken = extractCsrf(get("/loginForm").body());
+        HttpResponse<String> response = postForm("/login", Map.of(
+            "email", email,
+            "password", password,
+            "_csrf", loginToken));
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("ログインに失敗しました: " + email);
+        }
+        // ログイン時にCSRFトークンが再生成されるため、取得し直す
+        this.csrfToken = extractCsrf(get("/brands/new").body());
+    }
+
+    HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * application/x-www-form-urlencoded形式でPOSTする
+     * CSRFトークンを取得済みの場合は自動で付与する
+     */
+    HttpResponse<String> postForm(String path, Map<String, String> params) throws IOException, InterruptedException {
+        List<String> pairs = new ArrayList<>();
+        params.forEach((name, value) -> pairs.add(encode(name) + "=" + encode(value)));
+        if (csrfToken != null) {
+            pairs.add("_csrf=" + encode(csrfToken));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(String.join("&", pairs)))
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * multipart/form-data形式でファイルを1件添付してPOSTする
+     */
+    HttpResponse<String> postMultipart(String path, Map<String, String> params, String fileField, String fileName,
+            byte[] content) throws IOException, InterruptedException {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            writePart(body, boundary, "name=\"" + param.getKey() + "\"", null, param.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        writePart(body, boundary, "name=\"_csrf\"", null, csrfToken.getBytes(StandardCharsets.UTF_8));
+        writePart(body, boundary, "name=\"" + fileField + "\"; filename=\"" + fileName + "\"", "image/png", content);
+        body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * 画面のHTMLに含まれるリンクからIDを抽出する
+     *
+     * @param html 画面のHTML
+     * @param linkPrefix リンクのパス(例: /products/detail/)
+     * @return IDのリスト
+     */
+    static List<Long> extractIds(String html, String linkPrefix) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Matcher matcher = Pattern.compile(Pattern.quote(linkPrefix) + "(\\d+)").matcher(html);
+        while (matcher.find()) {
+            ids.add(Long.valueOf(matcher.group(1)));
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * 管理者登録画面のHTMLからロールIDを抽出する
+     *
+     * @param html 管理者登録画面のHTML
+     * @return ロールIDのリスト
+     */
+    static List<Long> extractRoleIds(String html) {
+        Matcher inputs = ROLE_INPUT_PATTERN.matcher(html);
+        List<Long> ids = new ArrayList<>();
+        while (inputs.find()) {
+            Matcher value = VALUE_PATTERN.matcher(inputs.group());
+            if (value.find()) {
+                ids.add(Long.valueOf(value.group(1)));
+            }
+        }
+        return ids;
+    }
+
+    private static String extractCsrf(String html) {
+        Matcher matcher = CSRF_PATTERN.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("CSRFトークンが見つかりません");
+        }
+        return matcher.group(1);
+    }
+
+    private static void writePart(ByteArrayOutputStream body, String boundary, String disposition, String contentType,
+            byte[] content) throws IOException {
+        StringBuilder header = new StringBuilder()
+            .append("--").append(boundary).append("\r\n")
+            .append("Content-Disposition: form-data; ").append(disposition).append("\r\n");
+        if (contentType != null) {
+            header.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        header.append("\r\n");
+        body.write(header.toString().getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    static String query(Map<String, String> params) {
+        return params.entrySet().stream()
+            .map(param -> encode(param.getKey()) + "=" + encode(param.getValue()))
+            .collect(Collectors.joining("&", "?", ""));
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 管理画面の操作(一覧・検索・詳細・登録・削除)を組み合わせたシナリオ
+ * 全クライアントで共有し、登録した名前を削除操作で使い回す
+ */
+class AdminScenario {
+
+    private static final String[] KEYWORDS = { "1", "2", "a", "e", "ー", "ン" };
+
+    private final Map<Resource, List<Long>> detailIds = new EnumMap<>(Resource.class);
+
+    private final Map<Resource, Queue<String>> createdNames = new EnumMap<>(Resource.class);
+
+    private final List<Long> brandIds;
+
+    private final List<Long> categoryIds;
+
+    private final List<Long> roleIds;
+
+    private final byte[] image;
+
+    private final String runPrefix;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 一覧画面からID等を収集し、シナリオを準備する
+     *
+     * @param client ログイン済みのクライアント
+     * @param seed 実行ごとの名前の接頭辞に使う乱数のシード
+     */
+    AdminScenario(AdminClient client, long seed) throws IOException, InterruptedException {
+        for (Resource resource : Resource.values()) {
+            String html = client.get(resource.path).body();
+            List<Long> ids = AdminClient.extractIds(html, resource.path + "/detail/");
+            if (ids.isEmpty()) {
+                throw new IllegalStateException(resource.path + "にデータがありません");
+            }
+            detailIds.put(resource, ids);
+            createdNames.put(resource, new ConcurrentLinkedQueue<>());
+        }
+        this.brandIds = detailIds.get(Resource.BRANDS);
+        this.categoryIds = detailIds.get(Resource.CATEGORIES);
+        this.roleIds = AdminClient.extractRoleIds(client.get("/users/new").body());
+        // 同じDBに対して繰り返し実行しても名前が重複しないよう、実行ごとに接頭辞を変える
+        this.runPrefix = "t" + Long.toString(Math.floorMod(seed ^ System.nanoTime(), 36L * 36), 36);
+        try (InputStream in = getClass().getResourceAsStream("/static/images/image-thumbnail.png")) {
+            this.image = in.readAllBytes();
+        }
+    }
+
+    /**
+     * 操作を1回実行する
+     *
+     * @param client ログイン済みのクライアント
+     * @param resource 対象画面
+     * @param operation 操作
+     * @param random 乱数
+     * @return 実行結果 削除対象がない場合はnull
+     */
+    Result execute(AdminClient client, Resource resource, Operation operation, Random random)
+            throws IOException, InterruptedException {
+        return switch (operation) {
+            case LIST -> measure(() -> client.get(resource.path), 200);
+            case SEARCH -> measure(() -> client.get(resource.path
+                + AdminClient.query(Map.of("keyword", KEYWORDS[random.nextInt(KEYWORDS.length)]))), 200);
+            case DETAIL -> {
+                List<Long> ids = detailIds.get(resource);
+                long id = ids.get(random.nextInt(ids.size()));
+                yield measure(() -> client.get(resource.path + "/detail/" + id), 200);
+            }
+            case SAVE -> save(client, resource, random);
+            case DELETE -> delete(client, resource);
+        };
+    }
+
+    private Result save(AdminClient client, Resource resource, Random random) throws IOException, InterruptedException {
+        String name = nextName();
+        Map<String, String> params = new LinkedHashMap<>();
+        Result result;
+        switch (resource) {
+            case PRODUCTS -> {
+                params.put("name", name);
+                params.put("description", "負荷試験用の商品です");
+                params.put("price", String.valueOf(100 + random.nextInt(10000)));
+                params.put("brand", String.valueOf(brandIds.get(random.nextInt(brandIds.size()))));
+                params.put("category", String.valueOf(categoryIds.get(random.nextInt(categoryIds.size()))));
+                params.put("length", "10.0");
+                params.put("width", "20.0");
+                params.put("height", "30.0");
+                params.put("weight", "1.5");
+                result = measure(() -> client.postMultipart("/products/save", params, "files", name + ".png", image), 302);
+            }
+            case USERS -> {
+                params.put("email", name + "@loadtest.example.com");
+                params.put("name", name);
+                params.put("password", "loadtest");
+                params.put("roles", String.valueOf(roleIds.get(random.nextInt(roleIds.size()))));
+                result = measure(() -> client.postForm("/users/save", params), 302);
+            }
+            default -> {
+                params.put("name", name);
+                result = measure(() -> client.postForm(resource.path + "/save", params), 302);
+            }
+        }
+        if (result.success()) {
+            createdNames.get(resource).add(resource == Resource.USERS ? name + "@loadtest.example.com" : name);
+        }
+        return result;
+    }
+
+    /**
+     * 負荷試験で登録したデータを1件削除する
+     * 削除対象のIDは検索画面から取得し、削除リクエストのみを計測する
+     */
+    private Result delete(AdminClient client, Resource resource) throws IOException, InterruptedException {
+        String name = createdNames.get(resource).poll();
+        if (name == null) {
+            return null;
+        }
+        String html = client.get(resource.path + AdminClient.query(Map.of("keyword", name))).body();
+        List<Long> ids = AdminClient.extractIds(html, resource.path + "/delete/");
+        if (ids.size() != 1) {
+            return new Result(false, 0);
+        }
+        return measure(() -> client.get(resource.path + "/delete/" + ids.get(0)), 302);
+    }
+
+    /**
+     * 10文字以内で、他の名前の部分文字列にならない固定長の名前を採番する
+     */
+    private String nextName() {
+        String number = Long.toString(sequence.incrementAndGet(), 36);
+        return runPrefix + "0".repeat(Math.max(0, 10 - runPrefix.length() - number.length())) + number;
+    }
+
+    private static Result measure(Request request, int expectedStatus) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response = request.send();
+        long latency = System.nanoTime() - start;
+        return new Result(response.statusCode() == expectedStatus, latency);
+    }
+
+    List<Resource> resources() {
+        return new ArrayList<>(detailIds.keySet());
+    }
+
+    /**
+     * 操作の実行結果
+     *
+     * @param success 期待したステータスコードが返ったか
+     * @param latencyNanos レイテンシ(ナノ秒)
+     */
+    record Result(boolean success, long latencyNanos) {
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        HttpResponse<String> send() throws IOException, InterruptedException;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.ApplicationContext;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * 接続プールの使用中の接続数を一定間隔で記録し、1操作あたりの接続の保持時間を求める
+ * 接続の保持時間の合計は、使用中の接続数の平均×計測時間に等しい(リトルの法則)ため、
+ * アプリケーションに手を加えずに、同一プロセスで起動したアプリケーションの接続プールから求められる
+ */
+class ConnectionPoolSampler implements AutoCloseable {
+
+    /** 使用中の接続数を記録する間隔 */
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** 接続プール(レプリカを使う場合はプライマリとレプリカ) */
+    private final Set<HikariDataSource> pools;
+
+    private final AtomicLong samples = new AtomicLong();
+
+    private final AtomicLong activeConnections = new AtomicLong();
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private ConnectionPoolSampler(Set<HikariDataSource> pools) {
+        this.pools = pools;
+        this.thread = Thread.ofPlatform().daemon().name("connection-pool-sampler").start(this::sample);
+    }
+
+    /**
+     * アプリケーションの接続プールの記録を開始する
+     *
+     * @param context アプリケーションコンテキスト
+     * @return 記録中のサンプラー
+     */
+    static ConnectionPoolSampler start(ApplicationContext context) throws SQLException {
+        // SQLログ・レプリカへの振り分け用にラップされているため、ラップ元の接続プールを取り出す
+        Set<HikariDataSource> pools = new LinkedHashSet<>();
+        for (DataSource dataSource : context.getBeansOfType(DataSource.class).values()) {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                pools.add(dataSource.unwrap(HikariDataSource.class));
+            }
+        }
+        return new ConnectionPoolSampler(pools);
+    }
+
+    private void sample() {
+        while (running) {
+            long active = 0;
+            for (HikariDataSource pool : pools) {
+                // 最初の接続を取得するまでは、接続プールが作成されていない
+                HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+                if (bean != null) {
+                    active += bean.getActiveConnections();
+                }
+            }
+            activeConnections.addAndGet(active);
+            samples.incrementAndGet();
+            LockSupport.parkNanos(INTERVAL_NANOS);
+        }
+    }
+
+    /**
+     * ウォームアップ中の記録を破棄する
+     */
+    void reset() {
+        samples.set(0);
+        activeConnections.set(0);
+    }
+
+    /**
+     * 記録を終了する
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    /**
+     * 使用中の接続数の平均と、1操作あたりの接続の保持時間を出力する
+     *
+     * @param out 出力先
+     * @param elapsedNanos 計測時間(ナノ秒)
+     * @param operations 計測時間内に実行した操作の数
+     */
+    void print(PrintStream out, long elapsedNanos, long operations) {
+        double averageActive = samples.get() == 0 ? 0 : (double) activeConnections.get() / samples.get();
+        double holdMillis = operations == 0 ? 0 : averageActive * elapsedNanos / operations / 1e6;
+        out.printf("connections: active(avg)=%.2f hold/operation(avg)=%.3fms%n", averageActive, holdMillis);
+    }
+
+}
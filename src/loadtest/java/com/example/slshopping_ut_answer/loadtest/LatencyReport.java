@@ -0,0 +1,112 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 画面・操作ごとのレイテンシ分布とエラー数を記録し、集計結果を出力する
+ */
+class LatencyReport {
+
+    /** 記録するレイテンシの上限(60秒) */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    LatencyReport() {
+        for (Resource resource : Resource.values()) {
+            for (Operation operation : Operation.values()) {
+                recorders.put(key(resource, operation), new Recorder(MAX_LATENCY_NANOS, 3));
+                errors.put(key(resource, operation), new LongAdder());
+            }
+        }
+    }
+
+    void record(Resource resource, Operation operation, AdminScenario.Result result) {
+        if (result.success()) {
+            recorders.get(key(resource, operation)).recordValue(Math.min(result.latencyNanos(), MAX_LATENCY_NANOS));
+        } else {
+            errors.get(key(resource, operation)).increment();
+        }
+    }
+
+    /**
+     * ウォームアップ中の記録を破棄する
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * 集計結果を出力し、レイテンシ分布をファイルに保存する
+     *
+     * @param out 出力先
+     * @param elapsedNanos 計測時間(ナノ秒)
+     * @param reportDir レイテンシ分布(.hgrm)の出力先
+     * @return 計測時間内に実行した操作の数(エラーを含む)
+     */
+    long print(PrintStream out, long elapsedNanos, Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        double seconds = elapsedNanos / 1e9;
+        Histogram total = new Histogram(MAX_LATENCY_NANOS, 3);
+        long totalErrors = 0;
+
+        out.printf("%-22s %9s %7s %10s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            long errorCount = errors.get(entry.getKey()).sum();
+            if (histogram.getTotalCount() == 0 && errorCount == 0) {
+                continue;
+            }
+            printRow(out, entry.getKey(), histogram, errorCount, seconds);
+            writeDistribution(reportDir.resolve(entry.getKey().replace(" /", "-") + ".hgrm"), histogram);
+            total.add(histogram);
+            totalErrors += errorCount;
+        }
+        printRow(out, "TOTAL", total, totalErrors, seconds);
+        writeDistribution(reportDir.resolve("total.hgrm"), total);
+        return total.getTotalCount() + totalErrors;
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errorCount, double seconds) {
+        out.printf("%-22s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+            name,
+            histogram.getTotalCount(),
+            errorCount,
+            histogram.getTotalCount() / seconds,
+            millis(histogram.getValueAtPercentile(50)),
+            millis(histogram.getValueAtPercentile(99)),
+            millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+    }
+
+    private static void writeDistribution(Path file, Histogram histogram) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            // ミリ秒単位で出力する
+            histogram.outputPercentileDistribution(out, 1e6);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static String key(Resource resource, Operation operation) {
+        return operation.name().toLowerCase() + " " + resource.path;
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.slshopping_ut_answer.SlshoppingUtAnswerApplication;
+import com.example.slshopping_ut_answer.datagen.CatalogGenerator;
+import com.example.slshopping_ut_answer.datagen.CatalogOptions;
+import com.example.slshopping_ut_answer.entity.Role;
+import com.example.slshopping_ut_answer.entity.User;
+import com.example.slshopping_ut_answer.product.ProductRepository;
+import com.example.slshopping_ut_answer.user.RoleRepository;
+import com.example.slshopping_ut_answer.user.UserRepository;
+
+/**
+ * 管理画面の負荷試験
+ * 一覧・検索・詳細・登録・削除を指定した比率で混在させ、指定した並列数でリクエストし続ける
+ *
+ * <pre>
+ * gradle loadTest -PloadTestArgs="--concurrency=32 --duration=120"
+ * gradle loadTest -PloadTestArgs="--target=http://localhost:8080 --email=admin@example.com --password=secret"
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.target();
+        try {
+            ConnectionPoolSampler sampler = null;
+            if (baseUrl == null) {
+                context = boot(options);
+                seed(context, options);
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                sampler = ConnectionPoolSampler.start(context);
+            }
+            run(baseUrl, options, sampler);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * アプリケーションを同一プロセスで起動する
+     */
+    private static ConfigurableApplicationContext boot(LoadTestOptions options) {
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--slshop.query-log.sample-rate=0",
+            "--logging.level.root=WARN"));
+        if ("h2".equals(options.db())) {
+            args.addAll(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="));
+        }
+        return new SpringApplicationBuilder(SlshoppingUtAnswerApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * ログインする管理者と、一覧に表示するデータを登録する
+     * 既にデータがある場合は、ログインする管理者のみ登録する
+     */
+    private static void seed(ConfigurableApplicationContext context, LoadTestOptions options) throws IOException {
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+
+        if (context.getBean(ProductRepository.class).count() == 0) {
+            CatalogOptions catalog = new CatalogOptions(50, 20, 20, options.rows(), options.seed(), 1000, 0, "password");
+            new CatalogGenerator(context.getBean(JdbcTemplate.class), passwordEncoder, catalog).generate();
+        }
+        if (userRepository.findByEmail(options.email()) == null) {
+            Role admin = roleRepository.findAll().stream()
+                .filter(role -> role.getName().equals("Admin"))
+                .findFirst()
+                .orElseGet(() -> roleRepository.save(new Role(null, "Admin", "管理者")));
+            String password = passwordEncoder.encode(options.password());
+            userRepository.save(new User(null, options.email(), password, "loadtest", true, Set.of(admin)));
+        }
+    }
+
+    /**
+     * 負荷をかけ、集計結果を出力する
+     * 同一プロセスで起動した場合は、接続プールの使用状況も出力する
+     */
+    private static void run(String baseUrl, LoadTestOptions options, ConnectionPoolSampler sampler) throws Exception {
+        AdminClient setupClient = new AdminClient(baseUrl);
+        setupClient.login(options.email(), options.password());
+        AdminScenario scenario = new AdminScenario(setupClient, options.seed());
+        LatencyReport report = new LatencyReport();
+
+        List<Operation> weightedOperations = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> weight : options.mix().entrySet()) {
+            for (int i = 0; i < weight.getValue(); i++) {
+                weightedOperations.add(weight.getKey());
+            }
+        }
+        List<Resource> resources = scenario.resources();
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        System.out.printf("target=%s concurrency=%d warmup=%ds duration=%ds mix=%s%n",
+            baseUrl, options.concurrency(), options.warmupSeconds(), options.durationSeconds(), options.mix());
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        List<Future<?>> workers = new ArrayList<>();
+        for (int worker = 0; worker < options.concurrency(); worker++) {
+            // クライアントごとにシードを固定し、同じ引数なら同じ操作列になるようにする
+            Random random = new Random(options.seed() + worker);
+            workers.add(executor.submit(() -> {
+                AdminClient client = new AdminClient(baseUrl);
+                client.login(options.email(), options.password());
+                while (System.nanoTime() < end) {
+                    Resource resource = resources.get(random.nextInt(resources.size()));
+                    Operation operation = weightedOperations.get(random.nextInt(weightedOperations.size()));
+                    AdminScenario.Result result = scenario.execute(client, resource, operation, random);
+                    if (result != null) {
+                        report.record(resource, operation, result);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        report.reset();
+        if (sampler != null) {
+            sampler.reset();
+        }
+        long start = System.nanoTime();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long operations = report.print(System.out, elapsed, Path.of(options.reportDir()));
+        if (sampler != null) {
+            sampler.close();
+            sampler.print(System.out, elapsed, operations);
+        }
+    }
+
+}
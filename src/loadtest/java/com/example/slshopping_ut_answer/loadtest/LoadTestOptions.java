@@ -0,0 +1,73 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 負荷試験の実行オプション
+ * --name=value 形式の引数で指定する
+ *
+ * @param target 負荷をかける起動済みアプリケーションのURL 未指定の場合はアプリケーションを同一プロセスで起動する
+ * @param db 同一プロセスで起動する場合の接続先(h2:組み込みDB postgres:application.propertiesの接続先)
+ * @param concurrency 同時に処理を実行するクライアント数
+ * @param warmupSeconds 計測前のウォームアップ時間(秒)
+ * @param durationSeconds 計測時間(秒)
+ * @param rows 同一プロセスで起動し、データがない場合に生成する商品の件数
+ * @param seed 操作の選択に使う乱数のシード
+ * @param email ログインするメールアドレス
+ * @param password ログインするパスワード
+ * @param mix 操作ごとの重み
+ * @param reportDir レイテンシ分布(.hgrm)の出力先
+ */
+record LoadTestOptions(
+        String target,
+        String db,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        int rows,
+        long seed,
+        String email,
+        String password,
+        Map<Operation, Integer> mix,
+        String reportDir) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("引数は --name=value 形式で指定してください: " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestOptions(
+            values.get("target"),
+            values.getOrDefault("db", "h2"),
+            Integer.parseInt(values.getOrDefault("concurrency", "16")),
+            Integer.parseInt(values.getOrDefault("warmup", "10")),
+            Integer.parseInt(values.getOrDefault("duration", "60")),
+            Integer.parseInt(values.getOrDefault("rows", "500")),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            values.getOrDefault("email", "loadtest@example.com"),
+            values.getOrDefault("password", "loadtest"),
+            parseMix(values.getOrDefault("mix", "list:30,search:20,detail:30,save:10,delete:10")),
+            values.getOrDefault("report-dir", "reports"));
+    }
+
+    /**
+     * 操作ごとの重みを解析する
+     *
+     * @param mix list:30,search:20 形式の文字列
+     * @return 操作ごとの重み
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.split(":");
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return weights;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+/**
+ * 負荷試験で実行する操作の種類
+ */
+enum Operation {
+    /** 一覧画面表示 */
+    LIST,
+    /** キーワード検索 */
+    SEARCH,
+    /** 詳細画面表示 */
+    DETAIL,
+    /** 登録(商品の場合は画像アップロードを含む) */
+    SAVE,
+    /** 削除 */
+    DELETE
+}
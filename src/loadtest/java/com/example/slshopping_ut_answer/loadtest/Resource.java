@@ -0,0 +1,18 @@
+package com.example.slshopping_ut_answer.loadtest;
+
+/**
+ * 負荷試験の対象画面
+ */
+enum Resource {
+    PRODUCTS("/products"),
+    BRANDS("/brands"),
+    CATEGORIES("/categories"),
+    USERS("/users");
+
+    /** 画面のパス */
+    final String path;
+
+    Resource(String path) {
+        this.path = path;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.slshopping_ut_answer.stack;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.util.FileSystemUtils;
+
+import com.example.slshopping_ut_answer.SlshoppingUtAnswerApplication;
+
+/**
+ * サーブレット版(Spring MVC)とリアクティブ版(WebFlux・R2DBC)の商品カタログのスループット比較
+ * アプリケーションをreactiveプロファイルで別プロセスとして起動し、同じリクエストを両方のポートに順に送る
+ * アプリケーションのプロセスが使ったCPU時間も計測し、CPU 1秒(1コア)あたりの処理件数を求める
+ *
+ * <pre>
+ * gradle stackComparison -PstackArgs="--concurrency=64 --duration=30"
+ * gradle stackComparison -PstackArgs="--spring.datasource.url=jdbc:postgresql://db:5432/slshoput_db"
+ * </pre>
+ *
+ * シナリオ
+ * <ul>
+ * <li>list: 商品情報一覧取得API(/api/products) 開始IDはランダム</li>
+ * <li>image: 商品画像(/product-images/...) 一時ディレクトリに作成した画像を返す</li>
+ * </ul>
+ *
+ * ログインの処理を比較に含めないよう、devプロファイル(ログイン不要)で起動する
+ */
+public class StackComparison {
+
+    /** 起動を待つ最大時間 */
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(120);
+
+    /** 計測する最大のレイテンシ */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    /** imageシナリオで返す画像 */
+    private static final String IMAGE_KEY = "1/0_stack-comparison.jpg";
+
+    /** imageシナリオで返す画像のバイト数 */
+    private static final int IMAGE_BYTES = 64 * 1024;
+
+    /**
+     * 1つのスタック・シナリオの計測結果
+     *
+     * @param histogram レイテンシの分布(ナノ秒)
+     * @param errors 200以外を返した、または失敗したリクエスト数
+     * @param seconds 計測時間(秒)
+     * @param cpuSeconds アプリケーションのプロセスが使ったCPU時間(秒)
+     */
+    private record Result(Histogram histogram, long errors, double seconds, double cpuSeconds) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            String name = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : "";
+            if (List.of("concurrency", "warmup", "duration", "limit", "products", "scenarios").contains(name)) {
+                options.put(name, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                // それ以外の引数はアプリケーションにそのまま渡す
+                appArgs.add(arg);
+            }
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int limit = Integer.parseInt(options.getOrDefault("limit", "20"));
+        long products = Long.parseLong(options.getOrDefault("products", "1000000"));
+        List<String> scenarios = Arrays.asList(options.getOrDefault("scenarios", "list,image").split(","));
+
+        Path imageDir = Files.createTempDirectory("stack-comparison");
+        byte[] image = new byte[IMAGE_BYTES];
+        new Random(42).nextBytes(image);
+        Files.createDirectories(imageDir.resolve(IMAGE_KEY).getParent());
+        Files.write(imageDir.resolve(IMAGE_KEY), image);
+
+        int servletPort = freePort();
+        int reactivePort = freePort();
+        List<String> command = new ArrayList<>(List.of(
+            ProcessHandle.current().info().command().orElse("java"),
+            "-cp", System.getProperty("java.class.path"),
+            SlshoppingUtAnswerApplication.class.getName(),
+            "--spring.profiles.active=dev,reactive",
+            "--server.port=" + servletPort,
+            "--slshop.reactive.port=" + reactivePort,
+            "--slshop.image-storage.local.dir=" + imageDir,
+            "--logging.level.root=WARN"));
+        command.addAll(appArgs);
+        Path log = Files.createTempFile("stack-comparison", ".log");
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        try {
+            Map<String, String> stacks = Map.of(
+                "servlet", "http://localhost:" + servletPort,
+                "reactive", "http://localhost:" + reactivePort);
+            for (String baseUrl : stacks.values()) {
+                awaitStartup(client, process, URI.create(baseUrl + "/api/products?limit=1"), log);
+            }
+            System.out.printf("concurrency=%d warmup=%ds duration=%ds limit=%d cores=%d%n", concurrency,
+                warmupSeconds, durationSeconds, limit, Runtime.getRuntime().availableProcessors());
+            System.out.printf("%-8s %-8s %10s %9s %9s %7s %10s %12s%n", "scenario", "stack", "req/s", "p50(ms)",
+                "p99(ms)", "errors", "cpu(s)", "req/cpu-s");
+            for (String scenario : scenarios) {
+                for (String stack : List.of("servlet", "reactive")) {
+                    Supplier<URI> uri = requestUri(scenario, stacks.get(stack), limit, products);
+                    run(client, process, uri, concurrency, warmupSeconds);
+                    Result result = run(client, process, uri, concurrency, durationSeconds);
+                    long count = result.histogram().getTotalCount();
+                    System.out.printf("%-8s %-8s %10.1f %9.2f %9.2f %7d %10.1f %12.1f%n", scenario, stack,
+                        count / result.seconds(), millis(result.histogram().getValueAtPercentile(50)),
+                        millis(result.histogram().getValueAtPercentile(99)), result.errors(), result.cpuSeconds(),
+                        count / result.cpuSeconds());
+                }
+            }
+            Files.delete(log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            FileSystemUtils.deleteRecursively(imageDir);
+        }
+    }
+
+    /**
+     * シナリオのリクエストのURIを返す処理を作成する
+     *
+     * @return リクエストごとにURIを返す処理
+     */
+    private static Supplier<URI> requestUri(String scenario, String baseUrl, int limit, long products) {
+        return switch (scenario) {
+            case "list" -> () -> URI.create(baseUrl + "/api/products?after="
+                + ThreadLocalRandom.current().nextLong(Math.max(products - limit, 1)) + "&limit=" + limit);
+            case "image" -> () -> URI.create(baseUrl + "/product-images/" + IMAGE_KEY);
+            default -> throw new IllegalArgumentException("シナリオは list, image から指定してください: " + scenario);
+        };
+    }
+
+    /**
+     * 指定した時間、クライアントごとに前のリクエストの応答を待ってから次のリクエストを送り続ける
+     *
+     * @return 計測結果
+     */
+    private static Result run(HttpClient client, Process process, Supplier<URI> uri, int concurrency,
+            int seconds) throws InterruptedException {
+        Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+        AtomicLong errors = new AtomicLong();
+        long cpuStart = cpuNanos(process);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = HttpRequest.newBuilder(uri.get()).GET().build();
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    recorder.recordValue(Math.min(System.nanoTime() - requestStart, MAX_LATENCY_NANOS));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        double cpuSeconds = (cpuNanos(process) - cpuStart) / 1e9;
+        return new Result(recorder.getIntervalHistogram(), errors.get(), elapsed, cpuSeconds);
+    }
+
+    /**
+     * アプリケーションが指定したURIに200を返すまで待つ
+     */
+    private static void awaitStartup(HttpClient client, Process process, URI uri, Path log)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).build();
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < TIMEOUT_NANOS) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("アプリケーションが終了しました ログ: " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // 起動中
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        throw new IllegalStateException("起動がタイムアウトしました ログ: " + log);
+    }
+
+    /**
+     * アプリケーションのプロセスが使ったCPU時間(全スレッドの合計)を返す
+     */
+    private static long cpuNanos(Process process) {
+        return process.info().totalCpuDuration()
+            .orElseThrow(() -> new IllegalStateException("プロセスのCPU時間を取得できません"))
+            .toNanos();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.slshopping_ut_answer.startup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 起動方式ごとの起動時間の計測
+ * プロセスを起動してから /loginForm が初めて200を返すまでの時間を、起動方式ごとに複数回計測する
+ *
+ * <pre>
+ * gradle startupBenchmark -PstartupArgs="--runs=10 --modes=default,optimized"
+ * gradle startupBenchmark -PstartupArgs="--spring.datasource.url=jdbc:postgresql://db:5432/slshoput_db"
+ * </pre>
+ *
+ * 起動方式
+ * <ul>
+ * <li>default: 通常の起動</li>
+ * <li>aot: Spring AOTで生成したBean定義を使う</li>
+ * <li>cds: CDSアーカイブから読み込んだクラスを使う</li>
+ * <li>optimized: aotとcdsの両方を使う</li>
+ * </ul>
+ */
+public class StartupBenchmark {
+
+    /** 起動を待つ最大時間 */
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(120);
+
+    /** 起動方式ごとのJVMオプション */
+    private static final Map<String, List<String>> MODES = Map.of(
+        "default", List.of(),
+        "aot", List.of("-Dspring.aot.enabled=true"),
+        "cds", List.of("-XX:SharedArchiveFile=application.jsa"),
+        "optimized", List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"));
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            String name = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : "";
+            if (List.of("app-dir", "runs", "modes").contains(name)) {
+                options.put(name, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                // それ以外の引数はアプリケーションにそのまま渡す
+                appArgs.add(arg);
+            }
+        }
+        Path appDir = Path.of(options.getOrDefault("app-dir", "build/cds"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "default,aot,cds,optimized").split(","));
+        if (!Files.exists(appDir.resolve("application.jar"))) {
+            throw new IllegalArgumentException(appDir.resolve("application.jar") + " がありません");
+        }
+
+        System.out.printf("%-10s %6s %9s %10s %9s%n", "mode", "runs", "min(ms)", "median(ms)", "max(ms)");
+        for (String mode : modes) {
+            List<String> jvmOptions = MODES.get(mode);
+            if (jvmOptions == null) {
+                throw new IllegalArgumentException("起動方式は " + MODES.keySet() + " から指定してください: " + mode);
+            }
+            // 1回目はOSのページキャッシュに載っていないため計測から除く
+            measure(appDir, jvmOptions, appArgs);
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = TimeUnit.NANOSECONDS.toMillis(measure(appDir, jvmOptions, appArgs));
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-10s %6d %9d %10d %9d%n", mode, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+    }
+
+    /**
+     * アプリケーションを起動し、/loginForm が200を返すまでの時間を計測して停止する
+     *
+     * @return 起動時間(ナノ秒)
+     */
+    private static long measure(Path appDir, List<String> jvmOptions, List<String> appArgs)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmOptions);
+        // CDSアーカイブ作成時と同じクラスパスにするため、-jarで起動する
+        command.addAll(List.of("-jar", "application.jar", "--server.port=" + port));
+        command.addAll(appArgs);
+        Path log = Files.createTempFile("startup-benchmark", ".log");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/loginForm"))
+            .timeout(Duration.ofSeconds(5))
+            .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .directory(appDir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT_NANOS) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("アプリケーションが終了しました ログ: " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long elapsed = System.nanoTime() - start;
+                        Files.delete(log);
+                        return elapsed;
+                    }
+                } catch (ConnectException e) {
+                    // 起動中
+                }
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            throw new IllegalStateException("起動がタイムアウトしました ログ: " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
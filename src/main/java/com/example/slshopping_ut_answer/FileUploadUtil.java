@@ -45,6 +45,7 @@ public class FileUploadUtil {
 
     /**
      * 指定したディレクトリ内のファイルを削除する
+     * 縮小画像などのサブディレクトリは、中のファイルごと削除する
      *
      * @param dir
      */
@@ -53,12 +54,14 @@ public class FileUploadUtil {
 
         try {
             Files.list(dirPath).forEach(file -> {
-                if (!Files.isDirectory(file)) {
-                    try {
-                        Files.delete(file);
-                    } catch (IOException ex) {
-                        LOGGER.error("Could not delete file: " + file);
-                    }
+                if (Files.isDirectory(file)) {
+                    removeDir(file.toString());
+                    return;
+                }
+                try {
+                    Files.delete(file);
+                } catch (IOException ex) {
+                    LOGGER.error("Could not delete file: " + file);
                 }
             });
         } catch (IOException ex) {
@@ -2,8 +2,11 @@ package com.example.slshopping_ut_answer;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBCの接続はリアクティブ版の商品カタログ(reactive.ReactiveCatalogConfig)のみで使う
+// 自動構成でConnectionFactoryのBeanを作成すると、JPAのDataSourceが作成されなくなるため除外する
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class SlshoppingUtAnswerApplication {
 
 	public static void main(String[] args) {
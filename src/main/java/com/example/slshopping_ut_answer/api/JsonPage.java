@@ -0,0 +1,176 @@
+package com.example.slshopping_ut_answer.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * IDをキーにしたページ単位のJSON出力
+ * 1ページ分の情報をリストとして取得した後(トランザクションの終了後)に、JSONとして出力する
+ *
+ * <pre>
+ * {"items": [{"id": 1, "name": "..."}, ...], "next": 100}
+ * </pre>
+ *
+ * nextは次のページを取得するときにafterに指定する値(最終ページの場合はnull)
+ *
+ * @param <T> 出力する情報の型
+ */
+public class JsonPage<T> {
+
+    /** 1ページの件数の初期値 */
+    public static final int DEFAULT_LIMIT = 100;
+
+    /** 1ページの件数の上限 */
+    public static final int MAX_LIMIT = 1000;
+
+    /** 項目名と値の取得方法(出力順) */
+    private final Map<String, Function<T, Object>> fields = new LinkedHashMap<>();
+
+    /** ページのキー(ID)の取得方法 */
+    private final Function<T, Long> key;
+
+    /**
+     * ページの情報を取得する処理
+     *
+     * @param <T> 情報の型
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+
+        /**
+         * 指定したIDより後の情報を、ID順に指定件数まで取得する
+         * レスポンスの出力中に接続を保持しないよう、取得はこの処理のトランザクション内で完了させる
+         *
+         * @param afterId このIDより後の情報を取得する
+         * @param limit 取得件数
+         * @return 情報のリスト
+         */
+        List<T> findPage(Long afterId, int limit);
+    }
+
+    public JsonPage(Function<T, Long> key) {
+        this.key = key;
+    }
+
+    /**
+     * 出力する項目を追加する
+     *
+     * @param name 項目名
+     * @param getter 値の取得方法
+     * @return this
+     */
+    public JsonPage<T> field(String name, Function<T, Object> getter) {
+        fields.put(name, getter);
+        return this;
+    }
+
+    /**
+     * 1ページ分の情報を取得し、JSONとしてレスポンスに出力する
+     *
+     * @param response レスポンス
+     * @param objectMapper JSONの出力に使うObjectMapper
+     * @param source 情報の取得処理
+     * @param afterId このIDより後の情報を出力する
+     * @param limit 1ページの件数
+     * @param fieldNames 出力する項目名(カンマ区切り) 未指定の場合は全項目
+     * @throws ResponseStatusException 件数が範囲外、または存在しない項目名が指定された場合(400)
+     */
+    public void write(HttpServletResponse response, ObjectMapper objectMapper, Source<T> source,
+            Long afterId, int limit, String fieldNames) throws IOException {
+        List<String> selected = select(limit, fieldNames);
+
+        // 1ページ分(上限MAX_LIMIT件)を取得してトランザクションを終えてから出力し、
+        // クライアントへの書き込みが遅くても接続を保持しない
+        List<T> items = source.findPage(afterId, limit);
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = objectMapper.createGenerator(response.getOutputStream())) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("items");
+            for (T item : items) {
+                json.writeStartObject();
+                for (String name : selected) {
+                    json.writeObjectField(name, fields.get(name).apply(item));
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeObjectField("next", next(items, limit));
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * 件数・項目名をチェックし、出力する項目名を返す
+     * 情報を取得する前に呼び出し、指定が不正な場合は情報を取得しない
+     *
+     * @param limit 1ページの件数
+     * @param fieldNames 出力する項目名(カンマ区切り) 未指定の場合は全項目
+     * @return 出力する項目名(出力順)
+     * @throws ResponseStatusException 件数が範囲外、または存在しない項目名が指定された場合(400)
+     */
+    public List<String> select(int limit, String fieldNames) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limitは1以上" + MAX_LIMIT + "以下で指定してください");
+        }
+        if (fieldNames == null || fieldNames.isBlank()) {
+            return List.copyOf(fields.keySet());
+        }
+        List<String> selected = new ArrayList<>();
+        for (String name : fieldNames.split(",")) {
+            if (!fields.containsKey(name.trim())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "fieldsは " + fields.keySet() + " から指定してください: " + name.trim());
+            }
+            selected.add(name.trim());
+        }
+        return selected;
+    }
+
+    /**
+     * 取得済みの1ページ分の情報を、出力する項目のみのMapにする
+     * リアクティブ版のAPIのように、ページ全体をまとめてJSONに変換する場合に使う
+     *
+     * @param items 取得した情報(ID順)
+     * @param limit 1ページの件数
+     * @param selected 出力する項目名(selectメソッドの戻り値)
+     * @return {"items": [...], "next": ...}の形式のMap
+     */
+    public Map<String, Object> toMap(List<T> items, int limit, List<String> selected) {
+        List<Map<String, Object>> values = new ArrayList<>(items.size());
+        for (T item : items) {
+            Map<String, Object> value = new LinkedHashMap<>();
+            for (String name : selected) {
+                value.put(name, fields.get(name).apply(item));
+            }
+            values.add(value);
+        }
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", values);
+        page.put("next", next(items, limit));
+        return page;
+    }
+
+    /**
+     * 次のページを取得するときにafterに指定する値
+     * 件数が1ページ分に満たない場合は最終ページのため、nullを返す
+     */
+    private Long next(List<T> items, int limit) {
+        return items.size() == limit ? key.apply(items.get(items.size() - 1)) : null;
+    }
+
+}
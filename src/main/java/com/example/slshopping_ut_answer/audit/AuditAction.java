@@ -0,0 +1,17 @@
+package com.example.slshopping_ut_answer.audit;
+
+/**
+ * 監査ログに記録する操作
+ */
+public enum AuditAction {
+
+    /** 登録 */
+    CREATE,
+
+    /** 更新 */
+    UPDATE,
+
+    /** 削除 */
+    DELETE;
+
+}
@@ -0,0 +1,24 @@
+package com.example.slshopping_ut_answer.audit;
+
+import java.time.Instant;
+
+/**
+ * 監査ログの1件分
+ *
+ * @param occurredAt 操作日時
+ * @param userId 操作した管理者のID ログインしていない処理(バッチなど)の場合はnull
+ * @param userEmail 操作した管理者のメールアドレス ログインしていない処理の場合はnull
+ * @param action 操作
+ * @param entityType 対象の種類(エンティティのクラス名)
+ * @param entityId 対象のID
+ * @param entityName 対象の名前(管理者の場合はメールアドレス)
+ */
+public record AuditEvent(
+        Instant occurredAt,
+        Long userId,
+        String userEmail,
+        AuditAction action,
+        String entityType,
+        Long entityId,
+        String entityName) {
+}
@@ -0,0 +1,223 @@
+package com.example.slshopping_ut_answer.audit;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.slshopping_ut_answer.security.SLShopUserDetails;
+
+/**
+ * 管理画面の登録・更新・削除の監査ログ
+ * 各サービスの登録・更新・削除と同じトランザクションで書き込むと更新が遅くなるため、
+ * メモリ上のキュー(ロックなし)に溜め、バックグラウンドのスレッドがまとめてバッチで書き込む
+ * 書き込みが追いつかずキューが上限に達した場合や、書き込みに失敗した場合は、更新を止めずに監査ログを破棄し件数を記録する
+ */
+@Component
+@EnableConfigurationProperties(AuditLogProperties.class)
+public class AuditLog implements InitializingBean, DisposableBean {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs"
+        + " (occurred_at, user_id, user_email, action, entity_type, entity_id, entity_name)"
+        + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AuditLogProperties properties;
+
+    /** 書き込み待ちの監査ログ */
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+
+    /** 書き込み待ちの件数(ConcurrentLinkedQueueのsizeは全件を数えるため別に数える) */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicInteger maxPending = new AtomicInteger();
+
+    private final LongAdder written = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    /** 前回警告を出力した時点の破棄件数 */
+    private long reportedLoss;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    public AuditLog(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            AuditLogProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * 書き込みスレッドを開始する
+     */
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("audit-log-writer").start(this::run);
+    }
+
+    /**
+     * 書き込みスレッドを停止し、書き込み待ちの監査ログを書き込む
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+        flush();
+    }
+
+    /**
+     * 監査ログを記録する
+     * 操作した管理者はログイン情報から取得する
+     * トランザクション内で呼ばれた場合は、コミット後に記録する(ロールバックした操作を記録しないため)
+     *
+     * @param action 操作
+     * @param entityType 対象のエンティティのクラス
+     * @param entityId 対象のID
+     * @param entityName 対象の名前
+     */
+    public void record(AuditAction action, Class<?> entityType, Long entityId, String entityName) {
+        // ログイン情報はリクエストのスレッドにのみあるため、コミット前に取得する
+        Long userId = null;
+        String userEmail = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof SLShopUserDetails userDetails) {
+            userId = userDetails.getUser().getId();
+            userEmail = userDetails.getUsername();
+        }
+        AuditEvent event = new AuditEvent(Instant.now(), userId, userEmail, action,
+            entityType.getSimpleName(), entityId, entityName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(event);
+                }
+            });
+        } else {
+            offer(event);
+        }
+    }
+
+    /**
+     * 監査ログを書き込み待ちに追加する
+     * 上限に達している場合は追加せずに破棄する(書き込みを待って更新を遅くしないため)
+     */
+    void offer(AuditEvent event) {
+        int size = pending.incrementAndGet();
+        if (size > properties.capacity()) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(event);
+        maxPending.accumulateAndGet(size, Math::max);
+        // 1バッチ分溜まった場合は、間隔を待たずに書き込ませる
+        if (size == properties.batchSize() && writer != null) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * 書き込み待ちの監査ログを、バッチの件数ずつ書き込む
+     * 書き込みに失敗したバッチは、再試行せずに破棄する(失敗し続けてキューが溢れないようにするため)
+     */
+    synchronized void flush() {
+        List<AuditEvent> batch = new ArrayList<>(properties.batchSize());
+        while (true) {
+            AuditEvent event;
+            while (batch.size() < properties.batchSize() && (event = queue.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pending.addAndGet(-batch.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+                written.add(batch.size());
+                batches.increment();
+            } catch (RuntimeException e) {
+                failed.add(batch.size());
+                LOGGER.error("監査ログの書き込みに失敗しました: {}件", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+            ps.setObject(2, event.userId(), Types.BIGINT);
+            ps.setString(3, event.userEmail());
+            ps.setString(4, event.action().name());
+            ps.setString(5, event.entityType());
+            ps.setLong(6, event.entityId());
+            ps.setString(7, event.entityName());
+        });
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(properties.flushInterval().toNanos());
+            flush();
+            reportLoss();
+        }
+    }
+
+    /**
+     * 前回から破棄した監査ログがあれば警告する
+     */
+    private void reportLoss() {
+        long loss = dropped.sum() + failed.sum();
+        if (loss > reportedLoss) {
+            LOGGER.warn("監査ログを破棄しました: 上限超過{}件 書き込み失敗{}件(累計)", dropped.sum(), failed.sum());
+            reportedLoss = loss;
+        }
+    }
+
+    /**
+     * 書き込み状況を返す
+     *
+     * @return 書き込み状況
+     */
+    public AuditLogMetrics metrics() {
+        return new AuditLogMetrics(pending.get(), maxPending.get(), written.sum(), batches.sum(),
+            dropped.sum(), failed.sum());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.example.slshopping_ut_answer.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class AuditLogApiController {
+
+    @Autowired
+    private AuditLog auditLog;
+
+    /**
+     * 監査ログの書き込み状況取得API
+     * 書き込みが追いついているか(書き込み待ちの件数)、破棄した監査ログがないかを確認する
+     *
+     * @return 書き込み状況
+     */
+    @GetMapping("/api/audit-logs/metrics")
+    public AuditLogMetrics metrics() {
+        return auditLog.metrics();
+    }
+
+}
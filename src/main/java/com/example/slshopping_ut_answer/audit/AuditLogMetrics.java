@@ -0,0 +1,21 @@
+package com.example.slshopping_ut_answer.audit;
+
+/**
+ * 監査ログの書き込み状況
+ * 書き込みが追いつかない場合は、pendingとmaxPendingが増え、上限に達するとdroppedが増える
+ *
+ * @param pending 書き込み待ちの件数
+ * @param maxPending 書き込み待ちの件数の最大値
+ * @param written 書き込んだ件数
+ * @param batches 書き込んだバッチの数
+ * @param dropped 書き込み待ちが上限に達したため破棄した件数
+ * @param failed 書き込みに失敗したため破棄した件数
+ */
+public record AuditLogMetrics(
+        int pending,
+        int maxPending,
+        long written,
+        long batches,
+        long dropped,
+        long failed) {
+}
@@ -0,0 +1,20 @@
+package com.example.slshopping_ut_answer.audit;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 監査ログの設定
+ *
+ * @param capacity 書き込み待ちの監査ログを保持する上限件数 超えた分は破棄する
+ * @param batchSize 1回のバッチで書き込む件数 書き込み待ちがこの件数に達した場合は、間隔を待たずに書き込む
+ * @param flushInterval 書き込む間隔
+ */
+@ConfigurationProperties("slshop.audit-log")
+public record AuditLogProperties(
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("200") int batchSize,
+        @DefaultValue("1s") Duration flushInterval) {
+}
@@ -0,0 +1,50 @@
+package com.example.slshopping_ut_answer.brand;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.slshopping_ut_answer.api.JsonPage;
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/brands")
+public class BrandApiController {
+
+    /** 出力できる項目 */
+    private static final JsonPage<Brand> PAGE = new JsonPage<Brand>(Brand::getId)
+        .field("id", Brand::getId)
+        .field("name", Brand::getName);
+
+    @Autowired
+    private BrandService brandService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * ブランド情報一覧取得API
+     * ID順に1ページ分のブランド情報をJSONで返す
+     *
+     * @param after このIDより後のブランド情報を返す(前ページのnextの値)
+     * @param limit 1ページの件数
+     * @param fields 返す項目名(カンマ区切り) 未指定の場合は全項目
+     * @param response レスポンス
+     * @throws IOException
+     */
+    @GetMapping
+    public void listBrands(@RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "" + JsonPage.DEFAULT_LIMIT) int limit,
+            @RequestParam(name = "fields", required = false) String fields,
+            HttpServletResponse response) throws IOException {
+        PAGE.write(response, objectMapper, (afterId, size) -> brandService.listAll(null, afterId, size), after,
+            limit, fields);
+    }
+}
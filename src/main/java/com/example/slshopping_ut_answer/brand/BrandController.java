@@ -1,8 +1,7 @@
 package com.example.slshopping_ut_answer.brand;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,10 +12,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.view.StreamingRows;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
@@ -26,17 +29,29 @@ public class BrandController {
     @Autowired
     private BrandService brandService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     /**
      * ブランド一覧画面表示
+     * ブランド情報は描画しながら一定件数ずつ取得し、描画済みの行から順に送信する
      *
      * @param model
+     * @param webRequest
+     * @param response
      * @return ブランド一覧画面
      */
     @GetMapping
-    public String listBrands(@RequestParam(name = "keyword", required = false) String keyword, Model model) {
-        // 全ブランド情報の取得
-        List<Brand> listBrands = brandService.listAll(keyword);
-        model.addAttribute("listBrands", listBrands);
+    public String listBrands(@RequestParam(name = "keyword", required = false) String keyword, Model model,
+            WebRequest webRequest, HttpServletResponse response) {
+        // 前回表示からブランド情報が更新されていない場合は、一覧を取得せずに304を返す
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        // 全ブランド情報の取得(描画しながら取得する)
+        model.addAttribute("listBrands", new StreamingRows<Brand>(
+            (last, limit) -> brandService.listAll(keyword, last == null ? 0L : last.getId(), limit),
+            response::flushBuffer));
         model.addAttribute("keyword", keyword);
         return "brands/brands";
     }
@@ -92,13 +107,22 @@ public class BrandController {
      * @param id ブランドID
      * @param model
      * @param ra
+     * @param webRequest
      * @return ブランド詳細画面
      */
     @GetMapping("/detail/{id}")
-    public String detailBrand(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra) {
+    public String detailBrand(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra,
+            WebRequest webRequest) {
+        // 前回表示からブランド情報が更新されていない場合は、ブランド情報を取得せずに304を返す
+        if (catalogVersion.isNotModified(webRequest)) {
+            return null;
+        }
         try {
             // ブランドIDに紐づくブランド情報取得
             Brand brand = brandService.get(id);
+            if (catalogVersion.checkNotModified(webRequest, brand.getUpdatedAt())) {
+                return null;
+            }
             model.addAttribute("brand", brand);
             return "brands/brand_detail";
         } catch (NotFoundException e) {
@@ -174,6 +198,8 @@ public class BrandController {
             ra.addFlashAttribute("success_message", "削除に成功しました");
         } catch (NotFoundException e) {
             ra.addFlashAttribute("error_message", "対象のデータが見つかりませんでした");
+        } catch (DataIntegrityViolationException e) {
+            ra.addFlashAttribute("error_message", "商品に登録されているため削除できません");
         }
         return "redirect:/brands";
     }
@@ -2,7 +2,9 @@ package com.example.slshopping_ut_answer.brand;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -28,4 +30,45 @@ public interface BrandRepository extends JpaRepository<Brand, Long> {
     @Query("SELECT b FROM Brand b WHERE b.name LIKE %?1%")
     public List<Brand> search(String keyword);
 
+    /**
+     * ブランド情報検索クエリ(ページ単位)
+     * 指定したIDより後のブランド情報を、ID順に指定件数まで取得する
+     *
+     * @param id このIDより後のブランド情報を取得する
+     * @param keyword 検索キーワード
+     * @param limit 取得件数
+     * @return ブランド情報のリスト
+     */
+    @Query("SELECT b FROM Brand b WHERE b.id > ?1 AND b.name LIKE %?2% ORDER BY b.id")
+    public List<Brand> search(Long id, String keyword, Limit limit);
+
+    /**
+     * ブランド情報取得クエリ(ページ単位)
+     * 指定したIDより後のブランド情報を、ID順に指定件数まで取得する
+     *
+     * @param id このIDより後のブランド情報を取得する
+     * @param limit 取得件数
+     * @return ブランド情報のリスト
+     */
+    public List<Brand> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    /**
+     * ブランド名全件取得クエリ
+     * 入力候補の読み込みに使う エンティティとして読み込まず、名前のみを取得する
+     *
+     * @return ブランド名のリスト
+     */
+    @Query("SELECT b.name FROM Brand b")
+    public List<String> findAllNames();
+
+    /**
+     * 商品件数の増減クエリ
+     *
+     * @param id ブランドID
+     * @param delta 増減する件数
+     * @return 更新した行数
+     */
+    @Modifying
+    @Query("UPDATE Brand b SET b.productCount = b.productCount + ?2 WHERE b.id = ?1")
+    public int addProductCount(Long id, long delta);
 }
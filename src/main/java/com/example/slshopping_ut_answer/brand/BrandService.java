@@ -3,10 +3,18 @@ package com.example.slshopping_ut_answer.brand;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.slshopping_ut_answer.audit.AuditAction;
+import com.example.slshopping_ut_answer.audit.AuditLog;
+import com.example.slshopping_ut_answer.cache.CacheInvalidationBus;
 import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.suggest.SuggestIndex;
+import com.example.slshopping_ut_answer.suggest.SuggestionType;
 
 @Service
 public class BrandService {
@@ -14,11 +22,21 @@ public class BrandService {
     @Autowired
     private BrandRepository brandRepository;
 
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     /**
      * ブランド情報全件取得
      *
      * @return ブランド情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<Brand> listAll() {
         return brandRepository.findAll();
     }
@@ -29,6 +47,7 @@ public class BrandService {
      * @param keyword 検索キーワード
      * @return ブランド情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<Brand> listAll(String keyword) {
         // 検索キーワードがあった場合
         if (keyword != null && !keyword.isEmpty()) {
@@ -40,6 +59,27 @@ public class BrandService {
         }
     }
 
+    /**
+     * ブランド情報検索処理(ページ単位)
+     * 一覧画面を描画しながら一定件数ずつ取得するため、ID順に指定件数まで取得する
+     *
+     * @param keyword 検索キーワード
+     * @param afterId このIDより後のブランド情報を取得する
+     * @param limit 取得件数
+     * @return ブランド情報のリスト
+     */
+    @Transactional(readOnly = true)
+    public List<Brand> listAll(String keyword, Long afterId, int limit) {
+        // 検索キーワードがあった場合
+        if (keyword != null && !keyword.isEmpty()) {
+            return brandRepository.search(afterId, keyword, Limit.of(limit));
+        }
+        // それ以外の場合
+        else {
+            return brandRepository.findByIdGreaterThanOrderById(afterId, Limit.of(limit));
+        }
+    }
+
     /**
      * IDに紐づくブランド情報取得処理
      *
@@ -47,6 +87,7 @@ public class BrandService {
      * @return ブランド情報
      * @throws NotFoundException
      */
+    @Transactional(readOnly = true)
     public Brand get(Long id) throws NotFoundException {
         return brandRepository.findById(id)
             .orElseThrow(() -> new NotFoundException());
@@ -58,8 +99,17 @@ public class BrandService {
      * @param brand 保存したいブランド情報
      * @return 保存したブランド情報
      */
+    @Transactional
     public Brand save(Brand brand) {
-        return brandRepository.save(brand);
+        // 変更前の名前は、保存(マージ)される前に取得する
+        String oldName = brand.getId() == null ? null
+            : brandRepository.findById(brand.getId()).map(Brand::getName).orElse(null);
+        Brand savedBrand = brandRepository.save(brand);
+        suggestIndex.put(SuggestionType.BRAND, oldName, savedBrand.getName());
+        auditLog.record(oldName == null ? AuditAction.CREATE : AuditAction.UPDATE, Brand.class,
+            savedBrand.getId(), savedBrand.getName());
+        cacheInvalidationBus.publish(Brand.class, savedBrand.getId(), oldName, savedBrand.getName());
+        return savedBrand;
     }
 
     /**
@@ -68,6 +118,7 @@ public class BrandService {
      * @param name 重複確認したいブランド情報
      * @return true:重複なし false:重複あり
      */
+    @Transactional(readOnly = true)
     public boolean checkUnique(Brand brand) {
         boolean isCreatingNew = (brand.getId() == null || brand.getId() == 0);
         Brand brandByName = brandRepository.findByName(brand.getName());
@@ -89,11 +140,20 @@ public class BrandService {
      *
      * @param id ブランドID
      * @throws NotFoundException
+     * @throws DataIntegrityViolationException 商品から参照されている場合
      */
+    @Transactional
     public void delete(Long id) throws NotFoundException {
         // IDに紐づくブランド情報が存在するか確認するため、getメソッドを呼び出す
         Brand brand = get(id);
+        // 商品から参照されている場合は、外部キー制約違反になる削除を発行せずに失敗させる
+        if (brand.getProductCount() > 0) {
+            throw new DataIntegrityViolationException("商品に登録されているブランドは削除できません");
+        }
         brandRepository.deleteById(brand.getId());
+        suggestIndex.remove(SuggestionType.BRAND, brand.getName());
+        auditLog.record(AuditAction.DELETE, Brand.class, brand.getId(), brand.getName());
+        cacheInvalidationBus.publish(Brand.class, brand.getId(), brand.getName(), null);
     }
 
 }
@@ -0,0 +1,18 @@
+package com.example.slshopping_ut_answer.cache;
+
+/**
+ * 他のノードに通知するエンティティの変更
+ *
+ * @param node 変更したノード(自ノードの通知を無視するために使う)
+ * @param entityType 変更したエンティティの種類(エンティティのクラス名)
+ * @param entityId 変更したエンティティのID
+ * @param oldName 変更前の名前 新規登録の場合はnull
+ * @param newName 変更後の名前 削除の場合はnull
+ */
+public record CacheInvalidation(
+        String node,
+        String entityType,
+        Long entityId,
+        String oldName,
+        String newName) {
+}
@@ -0,0 +1,204 @@
+package com.example.slshopping_ut_answer.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * ノード間でキャッシュを無効にするための通知
+ * 各サービスの登録・更新・削除時にPostgreSQLのNOTIFYで変更を通知し、全ノードがLISTENで受け取って
+ * {@link CacheInvalidationListener}に渡す(ノード内のキャッシュを無効にする)
+ * NOTIFYは変更と同じトランザクションで発行するため、コミットした変更のみがコミット時に通知される
+ * PostgreSQL以外のデータベース(テストのH2など)の場合は、1ノードとみなして通知しない
+ *
+ * データベースの種類は接続先のURLから判定し、Beanの作成時には接続しない
+ * 通知を受け取るスレッドはアプリケーションの開始時(start)に開始する
+ * (-Dspring.context.exit=onRefreshで終了するCDSの学習実行では開始せず、データベースなしでビルドできる)
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /** 通知のチャネル */
+    static final String CHANNEL = "slshop_cache_invalidation";
+
+    /** 通知を待つ時間 停止時はこの時間内に待機を終える */
+    private static final int POLL_MILLIS = 500;
+
+    /** 通知の接続が切れた場合に、再接続するまでの時間 */
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+
+    /** このノードの識別子 */
+    private final String node = UUID.randomUUID().toString();
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<CacheInvalidationListener> listeners;
+
+    /** PostgreSQLに接続する場合のみtrue */
+    private final boolean enabled;
+
+    private Thread listener;
+
+    private volatile boolean running;
+
+    public CacheInvalidationBus(DataSourceProperties dataSourceProperties, JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper, List<CacheInvalidationListener> listeners) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.listeners = listeners;
+        this.enabled = dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:");
+    }
+
+    /**
+     * PostgreSQLに接続する場合は、通知を受け取るスレッドを開始する
+     */
+    @Override
+    public void start() {
+        if (enabled && !running) {
+            running = true;
+            listener = Thread.ofPlatform().daemon().name("cache-invalidation-listener").start(this::listen);
+        }
+    }
+
+    /**
+     * 通知を受け取るスレッドを停止する
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 他のノードにエンティティの変更を通知する
+     * トランザクション内で呼ばれた場合は、コミット時に通知される(ロールバックした場合は通知されない)
+     *
+     * @param entityType 変更したエンティティのクラス
+     * @param entityId 変更したエンティティのID
+     * @param oldName 変更前の名前 新規登録の場合はnull
+     * @param newName 変更後の名前 削除の場合はnull
+     */
+    public void publish(Class<?> entityType, Long entityId, String oldName, String newName) {
+        if (!enabled) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(
+                new CacheInvalidation(node, entityType.getSimpleName(), entityId, oldName, newName));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+    }
+
+    /**
+     * 通知を受け取り、他のノードの変更をリスナーに渡す
+     *
+     * @param payload 通知の内容
+     */
+    void receive(String payload) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(payload, CacheInvalidation.class);
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("不正なキャッシュ無効化の通知を無視しました: {}", payload, e);
+            return;
+        }
+        // 自ノードの変更は、コミット時に反映済み
+        if (node.equals(invalidation.node())) {
+            return;
+        }
+        for (CacheInvalidationListener cacheListener : listeners) {
+            cacheListener.invalidate(invalidation);
+        }
+    }
+
+    /**
+     * 全てのリスナーのキャッシュを無効にする
+     */
+    void invalidateAll() {
+        for (CacheInvalidationListener cacheListener : listeners) {
+            cacheListener.invalidateAll();
+        }
+    }
+
+    /**
+     * 接続プールとは別の専用の接続でLISTENし、通知を待つ
+     * 接続が切れた場合は再接続し、切れている間の通知を受け取れないため、全てのキャッシュを無効にする
+     */
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    invalidateAll();
+                    LOGGER.info("キャッシュ無効化の通知に再接続しました");
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                LOGGER.warn("キャッシュ無効化の通知の接続が切れました {}秒後に再接続します", RETRY_INTERVAL.toSeconds(), e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RETRY_INTERVAL);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.example.slshopping_ut_answer.cache;
+
+/**
+ * 他のノードでのエンティティの変更を受け取り、ノード内のキャッシュを無効にする
+ * Beanとして登録すると{@link CacheInvalidationBus}から呼ばれる
+ */
+public interface CacheInvalidationListener {
+
+    /**
+     * 他のノードでコミットされた変更を反映する
+     *
+     * @param invalidation 変更
+     */
+    void invalidate(CacheInvalidation invalidation);
+
+    /**
+     * 通知を受け取れなかった可能性がある場合(通知の接続が切れた場合など)に、キャッシュ全体を無効にする
+     */
+    void invalidateAll();
+
+}
@@ -0,0 +1,144 @@
+package com.example.slshopping_ut_answer.cache;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * カタログ(商品・ブランド・カテゴリー・管理者)全体の更新バージョン
+ * 更新のたびにバージョンを上げ、一覧・詳細画面のETag・Last-Modifiedに使う
+ * 前回表示から更新がなければ、データの取得や画面の描画をせずに304を返せるようにする
+ * 他のノードで更新された場合も、{@link CacheInvalidationBus}の通知を受けてバージョンを上げる
+ */
+@Component
+public class CatalogVersion implements CacheInvalidationListener {
+
+    /** 起動ごとに異なる値 再起動前に発行したETagと一致させないために使う */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong version = new AtomicLong();
+
+    /** 最終更新日時(ミリ秒) */
+    private volatile long lastModified = System.currentTimeMillis();
+
+    /**
+     * バージョンを上げる
+     * トランザクション内で呼ばれた場合は、コミット後に上げる(コミット前のデータに新しいETagを付けないため)
+     */
+    public void increment() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+            });
+        } else {
+            bump();
+        }
+    }
+
+    /**
+     * 他のノードで更新された場合は、バージョンを上げる
+     */
+    @Override
+    public void invalidate(CacheInvalidation invalidation) {
+        bump();
+    }
+
+    @Override
+    public void invalidateAll() {
+        bump();
+    }
+
+    private void bump() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    /**
+     * 一覧画面の条件付きGETを判定する
+     * ETagとLast-Modifiedをレスポンスに設定し、前回表示から更新がなければ304にする
+     *
+     * @param request リクエスト
+     * @return true:304を返す(画面を描画しない) false:画面を描画する
+     */
+    public boolean checkNotModified(WebRequest request) {
+        if (!isCacheable(request)) {
+            return false;
+        }
+        return request.checkNotModified(etag(request), lastModified);
+    }
+
+    /**
+     * 詳細画面の条件付きGETを、データを取得する前にETagのみで判定する
+     * 一致しない場合はレスポンスを変更しない
+     *
+     * @param request リクエスト
+     * @return true:304を返す(データを取得しない) false:データを取得して{@link #checkNotModified(WebRequest, Instant...)}で判定する
+     */
+    public boolean isNotModified(WebRequest request) {
+        if (!isCacheable(request)) {
+            return false;
+        }
+        String etag = etag(request);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !ifNoneMatch.contains(etag.substring(2))) {
+            return false;
+        }
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * 詳細画面の条件付きGETを判定する
+     * 表示するデータの更新日時のうち最も新しいものをLast-Modifiedにする
+     *
+     * @param request リクエスト
+     * @param updatedAt 表示するデータの更新日時
+     * @return true:304を返す(画面を描画しない) false:画面を描画する
+     */
+    public boolean checkNotModified(WebRequest request, Instant... updatedAt) {
+        if (!isCacheable(request)) {
+            return false;
+        }
+        long latest = -1;
+        for (Instant instant : updatedAt) {
+            if (instant != null) {
+                latest = Math.max(latest, instant.toEpochMilli());
+            }
+        }
+        return request.checkNotModified(etag(request), latest);
+    }
+
+    /**
+     * ETagを組み立てる
+     * ヘッダーのログイン情報やCSRFトークンはセッションごとに異なるため、セッションも含める
+     */
+    private String etag(WebRequest request) {
+        String session = Integer.toHexString(request.getSessionId().hashCode());
+        return "W/\"" + epoch + "-" + version.get() + "-" + session + "\"";
+    }
+
+    /**
+     * 条件付きGETの対象か判定し、対象の場合はブラウザに再検証させるCache-Controlを設定する
+     * 登録・削除後のメッセージ(フラッシュスコープ)を表示するリクエストは、毎回描画する
+     */
+    private boolean isCacheable(WebRequest request) {
+        if (request.getAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return false;
+        }
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return true;
+    }
+
+}
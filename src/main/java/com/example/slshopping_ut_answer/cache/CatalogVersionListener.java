@@ -0,0 +1,27 @@
+package com.example.slshopping_ut_answer.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * エンティティの登録・更新・削除時に{@link CatalogVersion}を上げるエンティティリスナー
+ */
+public class CatalogVersionListener {
+
+    /** JPAのみを起動するテストなど、CatalogVersionがない場合はnull */
+    @Autowired(required = false)
+    private CatalogVersion catalogVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (catalogVersion != null) {
+            catalogVersion.increment();
+        }
+    }
+
+}
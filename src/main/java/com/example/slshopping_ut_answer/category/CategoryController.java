@@ -1,8 +1,7 @@
 package com.example.slshopping_ut_answer.category;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,10 +12,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.view.StreamingRows;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
@@ -26,17 +29,29 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     /**
      * カテゴリー一覧画面表示
+     * カテゴリー情報は一覧に保持せず、描画しながら一定件数ずつ取得する
      *
      * @param model
+     * @param webRequest
+     * @param response
      * @return カテゴリー一覧画面
      */
     @GetMapping
-    public String listCategories(@RequestParam(name = "keyword", required = false) String keyword, Model model) {
-        // 全カテゴリー情報の取得
-        List<Category> listCategories = categoryService.listAll(keyword);
-        model.addAttribute("listCategories", listCategories);
+    public String listCategories(@RequestParam(name = "keyword", required = false) String keyword, Model model,
+            WebRequest webRequest, HttpServletResponse response) {
+        // 前回表示からカテゴリー情報が更新されていない場合は、一覧を取得せずに304を返す
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        // 全カテゴリー情報の取得(描画しながら取得する)
+        model.addAttribute("listCategories", new StreamingRows<Category>(
+            (last, limit) -> categoryService.listAll(keyword, last == null ? 0L : last.getId(), limit),
+            response::flushBuffer));
         model.addAttribute("keyword", keyword);
         return "categories/categories";
     }
@@ -91,13 +106,22 @@ public class CategoryController {
      * @param id カテゴリーID
      * @param model
      * @param ra
+     * @param webRequest
      * @return カテゴリー詳細画面
      */
     @GetMapping("/detail/{id}")
-    public String detailCategory(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra) {
+    public String detailCategory(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra,
+            WebRequest webRequest) {
+        // 前回表示からカテゴリー情報が更新されていない場合は、カテゴリー情報を取得せずに304を返す
+        if (catalogVersion.isNotModified(webRequest)) {
+            return null;
+        }
         try {
             // カテゴリーIDに紐づくカテゴリー情報取得
             Category category = categoryService.get(id);
+            if (catalogVersion.checkNotModified(webRequest, category.getUpdatedAt())) {
+                return null;
+            }
             model.addAttribute("category", category);
             return "categories/category_detail";
         } catch (NotFoundException e) {
@@ -173,6 +197,8 @@ public class CategoryController {
             ra.addFlashAttribute("success_message", "削除に成功しました");
         } catch (NotFoundException e) {
             ra.addFlashAttribute("error_message", "対象のデータが見つかりませんでした");
+        } catch (DataIntegrityViolationException e) {
+            ra.addFlashAttribute("error_message", "商品に登録されているため削除できません");
         }
         return "redirect:/categories";
     }
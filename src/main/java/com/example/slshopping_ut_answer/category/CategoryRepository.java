@@ -2,7 +2,9 @@ package com.example.slshopping_ut_answer.category;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -28,4 +30,45 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c WHERE c.name LIKE %?1%")
     public List<Category> search(String keyword);
 
+    /**
+     * カテゴリー情報検索クエリ(ページ単位)
+     * 指定したIDより後のカテゴリー情報を、ID順に指定件数まで取得する
+     *
+     * @param id このIDより後のカテゴリー情報を取得する
+     * @param keyword 検索キーワード
+     * @param limit 取得件数
+     * @return カテゴリー情報のリスト
+     */
+    @Query("SELECT c FROM Category c WHERE c.id > ?1 AND c.name LIKE %?2% ORDER BY c.id")
+    public List<Category> search(Long id, String keyword, Limit limit);
+
+    /**
+     * カテゴリー情報取得クエリ(ページ単位)
+     * 指定したIDより後のカテゴリー情報を、ID順に指定件数まで取得する
+     *
+     * @param id このIDより後のカテゴリー情報を取得する
+     * @param limit 取得件数
+     * @return カテゴリー情報のリスト
+     */
+    public List<Category> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    /**
+     * カテゴリー名全件取得クエリ
+     * 入力候補の読み込みに使う エンティティとして読み込まず、名前のみを取得する
+     *
+     * @return カテゴリー名のリスト
+     */
+    @Query("SELECT c.name FROM Category c")
+    public List<String> findAllNames();
+
+    /**
+     * 商品件数の増減クエリ
+     *
+     * @param id カテゴリーID
+     * @param delta 増減する件数
+     * @return 更新した行数
+     */
+    @Modifying
+    @Query("UPDATE Category c SET c.productCount = c.productCount + ?2 WHERE c.id = ?1")
+    public int addProductCount(Long id, long delta);
 }
@@ -3,10 +3,18 @@ package com.example.slshopping_ut_answer.category;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.slshopping_ut_answer.audit.AuditAction;
+import com.example.slshopping_ut_answer.audit.AuditLog;
+import com.example.slshopping_ut_answer.cache.CacheInvalidationBus;
 import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.suggest.SuggestIndex;
+import com.example.slshopping_ut_answer.suggest.SuggestionType;
 
 @Service
 public class CategoryService {
@@ -14,11 +22,21 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     /**
      * カテゴリー情報全件取得
      *
      * @return カテゴリー情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<Category> listAll() {
         return categoryRepository.findAll();
     }
@@ -29,6 +47,7 @@ public class CategoryService {
      * @param keyword 検索キーワード
      * @return カテゴリー情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<Category> listAll(String keyword) {
         // 検索キーワードがあった場合
         if (keyword != null && !keyword.isEmpty()) {
@@ -40,6 +59,27 @@ public class CategoryService {
         }
     }
 
+    /**
+     * カテゴリー情報検索処理(ページ単位)
+     * 一覧画面を描画しながら一定件数ずつ取得するため、ID順に指定件数まで取得する
+     *
+     * @param keyword 検索キーワード
+     * @param afterId このIDより後のカテゴリー情報を取得する
+     * @param limit 取得件数
+     * @return カテゴリー情報のリスト
+     */
+    @Transactional(readOnly = true)
+    public List<Category> listAll(String keyword, Long afterId, int limit) {
+        // 検索キーワードがあった場合
+        if (keyword != null && !keyword.isEmpty()) {
+            return categoryRepository.search(afterId, keyword, Limit.of(limit));
+        }
+        // それ以外の場合
+        else {
+            return categoryRepository.findByIdGreaterThanOrderById(afterId, Limit.of(limit));
+        }
+    }
+
     /**
      * IDに紐づくカテゴリー情報取得処理
      *
@@ -47,6 +87,7 @@ public class CategoryService {
      * @return カテゴリー情報
      * @throws NotFoundException
      */
+    @Transactional(readOnly = true)
     public Category get(Long id) throws NotFoundException {
         return categoryRepository.findById(id)
             .orElseThrow(() -> new NotFoundException());
@@ -58,8 +99,17 @@ public class CategoryService {
      * @param category 保存したいカテゴリー情報
      * @return 保存したカテゴリー情報
      */
+    @Transactional
     public Category save(Category category) {
-        return categoryRepository.save(category);
+        // 変更前の名前は、保存(マージ)される前に取得する
+        String oldName = category.getId() == null ? null
+            : categoryRepository.findById(category.getId()).map(Category::getName).orElse(null);
+        Category savedCategory = categoryRepository.save(category);
+        suggestIndex.put(SuggestionType.CATEGORY, oldName, savedCategory.getName());
+        auditLog.record(oldName == null ? AuditAction.CREATE : AuditAction.UPDATE, Category.class,
+            savedCategory.getId(), savedCategory.getName());
+        cacheInvalidationBus.publish(Category.class, savedCategory.getId(), oldName, savedCategory.getName());
+        return savedCategory;
     }
 
     /**
@@ -68,6 +118,7 @@ public class CategoryService {
      * @param name 重複確認したいブランド情報
      * @return true:重複なし false:重複あり
      */
+    @Transactional(readOnly = true)
     public boolean checkUnique(Category category) {
         boolean isCreatingNew = (category.getId() == null || category.getId() == 0);
         Category categoryByName = categoryRepository.findByName(category.getName());
@@ -89,11 +140,20 @@ public class CategoryService {
      *
      * @param id カテゴリーID
      * @throws NotFoundException
+     * @throws DataIntegrityViolationException 商品から参照されている場合
      */
+    @Transactional
     public void delete(Long id) throws NotFoundException {
         // IDに紐づくブランド情報が存在するか確認するため、getメソッドを呼び出す
         Category category = get(id);
+        // 商品から参照されている場合は、外部キー制約違反になる削除を発行せずに失敗させる
+        if (category.getProductCount() > 0) {
+            throw new DataIntegrityViolationException("商品に登録されているカテゴリーは削除できません");
+        }
         categoryRepository.deleteById(category.getId());
+        suggestIndex.remove(SuggestionType.CATEGORY, category.getName());
+        auditLog.record(AuditAction.DELETE, Category.class, category.getId(), category.getName());
+        cacheInvalidationBus.publish(Category.class, category.getId(), category.getName(), null);
     }
 
 }
@@ -0,0 +1,36 @@
+package com.example.slshopping_ut_answer.datasource;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * AOTモード(-Dspring.aot.enabled=true)で、レプリカの設定が無視される場合に起動を止める
+ *
+ * AOTモードではBean定義をビルド時に生成するため、{@link ReplicaDataSourceConfig}の条件(slshop.datasource.replica.url)は
+ * ビルド時の設定で決まる ビルド時に未設定の場合は、起動時に指定しても振り分けが行われず、すべてプライマリに接続する
+ */
+@Component
+public class ReplicaAotGuard implements InitializingBean {
+
+    private final Environment environment;
+
+    private final ObjectProvider<ReplicaDataSourceConfig> replicaDataSourceConfig;
+
+    public ReplicaAotGuard(Environment environment, ObjectProvider<ReplicaDataSourceConfig> replicaDataSourceConfig) {
+        this.environment = environment;
+        this.replicaDataSourceConfig = replicaDataSourceConfig;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (AotDetector.useGeneratedArtifacts() && environment.containsProperty("slshop.datasource.replica.url")
+                && replicaDataSourceConfig.getIfAvailable() == null) {
+            throw new IllegalStateException("slshop.datasource.replica.url is set, but the AOT build was generated "
+                + "without it; rebuild with the replica configured or start without -Dspring.aot.enabled=true");
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.slshopping_ut_answer.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 読み取り用レプリカを設定した場合に、プライマリとレプリカの接続プールを作成し、
+ * 読み取り専用トランザクションをレプリカに振り分けるDataSourceを使わせる
+ */
+@Configuration
+@ConditionalOnProperty("slshop.datasource.replica.url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    /**
+     * プライマリの接続プール
+     * 接続先とプールの設定は、レプリカを使わない場合と同じspring.datasource.*を使う
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * レプリカの接続プール
+     * 誤って更新しないよう、接続を読み取り専用にする
+     */
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, ReplicaProperties replica) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(replica.url())
+            .username(replica.username() != null ? replica.username() : properties.determineUsername())
+            .password(replica.password() != null ? replica.password() : properties.determinePassword())
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(replica.maximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * JPA・Flywayが使うDataSource
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica, ReplicaProperties properties) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, properties.lagGuard()));
+    }
+
+}
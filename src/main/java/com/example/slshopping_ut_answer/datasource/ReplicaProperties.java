@@ -0,0 +1,25 @@
+package com.example.slshopping_ut_answer.datasource;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 読み取り用レプリカの接続設定
+ * urlを指定した場合のみ、読み取り専用トランザクションをレプリカに振り分ける
+ *
+ * @param url レプリカのJDBC URL
+ * @param username ユーザー名 省略時はプライマリと同じ
+ * @param password パスワード 省略時はプライマリと同じ
+ * @param maximumPoolSize レプリカの最大接続数
+ * @param lagGuard 更新をコミットしたセッションが、プライマリから読み取り続ける時間(レプリカの遅延の上限)
+ */
+@ConfigurationProperties("slshop.datasource.replica")
+public record ReplicaProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5s") Duration lagGuard) {
+}
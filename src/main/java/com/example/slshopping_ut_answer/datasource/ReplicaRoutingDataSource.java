@@ -0,0 +1,93 @@
+package com.example.slshopping_ut_answer.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 読み取り専用トランザクションをレプリカに、それ以外をプライマリに振り分けるDataSource
+ * トランザクションの読み取り専用フラグは接続の取得後に設定されるため、
+ * LazyConnectionDataSourceProxyで包み、最初のSQLの発行時に接続先を決める
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /** 接続先 */
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    /** 最後に更新をコミットした日時(ミリ秒)を保持するセッション属性 */
+    static final String LAST_WRITE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".LAST_WRITE";
+
+    private final long lagGuardMillis;
+
+    /**
+     * @param primary プライマリ
+     * @param replica レプリカ
+     * @param lagGuard 更新をコミットしたセッションが、プライマリから読み取り続ける時間
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration lagGuard) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.lagGuardMillis = lagGuard.toMillis();
+        afterPropertiesSet();
+    }
+
+    /**
+     * 接続先を決める
+     * トランザクション外(Flywayやスキーマ検証など)と更新するトランザクションはプライマリに接続する
+     * 読み取り専用トランザクションでも、直前に更新したセッションはレプリカの遅延で更新前のデータを表示しないようプライマリに接続する
+     */
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // 更新したかは判定できないため、コミットした時点で更新したものとして記録する
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite();
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        return isWrittenRecently() ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    /**
+     * 更新をコミットした日時をセッションに記録する
+     * リクエスト外(バッチなど)の場合は記録しない
+     */
+    private void recordWrite() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis(), RequestAttributes.SCOPE_SESSION);
+        }
+    }
+
+    /**
+     * セッションが直前に更新をコミットしたか判定する
+     *
+     * @return true:レプリカの遅延の上限以内に更新した false:更新していない
+     */
+    private boolean isWrittenRecently() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        return attributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_SESSION) instanceof Long lastWrite
+            && System.currentTimeMillis() - lastWrite < lagGuardMillis;
+    }
+
+}
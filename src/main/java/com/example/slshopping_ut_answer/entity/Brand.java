@@ -1,7 +1,14 @@
 package com.example.slshopping_ut_answer.entity;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.example.slshopping_ut_answer.cache.CatalogVersionListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -12,6 +19,7 @@ import jakarta.validation.constraints.Size;
  * ブランド情報
  */
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "brands")
 public class Brand {
 
@@ -23,6 +31,18 @@ public class Brand {
     @Column(nullable = false, length = 10, unique = true)
     private String name;
 
+    /**
+     * このブランドを参照する商品の件数
+     * 商品の登録・更新・削除時にProductServiceが増減させるため、エンティティの保存では書き込まない
+     */
+    @Column(name = "product_count", nullable = false, insertable = false, updatable = false)
+    private long productCount;
+
+    /** 更新日時 */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public Brand() {
     }
 
@@ -47,4 +67,20 @@ public class Brand {
         this.name = name;
     }
 
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
 }
@@ -1,12 +1,24 @@
 package com.example.slshopping_ut_answer.entity;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.example.slshopping_ut_answer.cache.CatalogVersionListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -17,6 +29,7 @@ import jakarta.validation.constraints.Size;
  * 商品情報
  */
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "products")
 public class Product {
 
@@ -37,7 +50,8 @@ public class Product {
     @Column(nullable = false)
     private int price;
 
-    @Column
+    /** 1枚目の画像のファイル名 画像の切り替え時にProductServiceのsaveImagesメソッドで更新する */
+    @Column(updatable = false)
     private String image;
 
     @PositiveOrZero(message = "長さは0.0以上で入力してください")
@@ -57,15 +71,29 @@ public class Product {
     private double weight;
 
     @NotNull(message = "カテゴリーを選択してください")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
     @NotNull(message = "ブランドを選択してください")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brand_id", nullable = false)
     private Brand brand;
 
+    /**
+     * ギャラリーの画像(表示順)
+     * 1枚目の画像のファイル名はimageにも保持し、一覧などでは画像を取得せずに表示する
+     * 画像はProductServiceのsaveImagesメソッドで保存するため、商品情報の保存では書き込まない
+     */
+    @OneToMany(mappedBy = "product")
+    @OrderBy("displayOrder")
+    private List<ProductImage> images = new ArrayList<>();
+
+    /** 更新日時 */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public Product() {
     }
 
@@ -100,6 +128,14 @@ public class Product {
         this.name = name;
     }
 
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -172,4 +208,8 @@ public class Product {
         this.image = image;
     }
 
+    public List<ProductImage> getImages() {
+        return images;
+    }
+
 }
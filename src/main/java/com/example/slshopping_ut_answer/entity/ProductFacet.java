@@ -0,0 +1,94 @@
+package com.example.slshopping_ut_answer.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * 商品件数の集計
+ * ブランド×カテゴリー×価格帯ごとの商品件数と、その小計 商品一覧の絞り込み条件ごとの件数表示に使う
+ */
+@Entity
+@Table(name = "product_facets")
+public class ProductFacet {
+
+    /** ブランド・カテゴリーを問わない小計のID */
+    public static final long ALL_ID = 0L;
+
+    /** 価格帯を問わない小計の下限価格 */
+    public static final int ALL_PRICE = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** ブランドID 小計の場合は{@link #ALL_ID} */
+    @Column(name = "brand_id", nullable = false)
+    private Long brandId;
+
+    /** カテゴリーID 小計の場合は{@link #ALL_ID} */
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    /** 価格帯の下限価格 小計の場合は{@link #ALL_PRICE} */
+    @Column(name = "min_price", nullable = false)
+    private int minPrice;
+
+    /** 商品件数 */
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+
+    public ProductFacet() {
+    }
+
+    public ProductFacet(Long brandId, Long categoryId, int minPrice, long productCount) {
+        this.brandId = brandId;
+        this.categoryId = categoryId;
+        this.minPrice = minPrice;
+        this.productCount = productCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBrandId() {
+        return brandId;
+    }
+
+    public void setBrandId(Long brandId) {
+        this.brandId = brandId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(int minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(long productCount) {
+        this.productCount = productCount;
+    }
+
+}
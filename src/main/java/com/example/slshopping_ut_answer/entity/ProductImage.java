@@ -0,0 +1,148 @@
+package com.example.slshopping_ut_answer.entity;
+
+import java.util.List;
+
+import org.springframework.util.StringUtils;
+
+import com.example.slshopping_ut_answer.cache.CatalogVersionListener;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * 商品画像(ギャラリーの1枚分)
+ * 元画像のほかに、元画像より小さい幅の縮小画像を保存し、画面の表示幅に合うものをブラウザに選ばせる(srcset)
+ */
+@Entity
+@EntityListeners(CatalogVersionListener.class)
+@Table(name = "product_images")
+public class ProductImage {
+
+    /** 縮小画像の幅 元画像の幅以上のものは作成しない */
+    public static final List<Integer> VARIANT_WIDTHS = List.of(320, 640, 1280);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    /** 表示順(0から) */
+    @Column(name = "display_order", nullable = false)
+    private int displayOrder;
+
+    /** ファイル名(商品のディレクトリからの相対パス 移行前の画像以外は、アップロードごとのディレクトリを含む) */
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    /** 元画像の幅 画像として読み込めなかった場合・移行前の画像の場合はnull */
+    @Column
+    private Integer width;
+
+    /** 元画像の高さ */
+    @Column
+    private Integer height;
+
+    public ProductImage() {
+    }
+
+    public ProductImage(Product product, int displayOrder, String fileName, Integer width, Integer height) {
+        this.product = product;
+        this.displayOrder = displayOrder;
+        this.fileName = fileName;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * アップロードされたファイル名から、保存するファイル名を決める
+     * 同じ名前のファイルを複数アップロードしても上書きしないよう、表示順を付ける
+     *
+     * @param displayOrder 表示順
+     * @param originalFilename アップロードされたファイル名
+     * @return 保存するファイル名
+     */
+    public static String fileName(int displayOrder, String originalFilename) {
+        // ディレクトリを含むファイル名で、商品のディレクトリ外に保存しないようにする
+        return displayOrder + "_" + StringUtils.getFilename(StringUtils.cleanPath(originalFilename));
+    }
+
+    /**
+     * 縮小画像のファイル名(商品のディレクトリからの相対パス)
+     * アップロードごとのディレクトリに保存した画像は、そのディレクトリの中に幅ごとのディレクトリを作る
+     *
+     * @param fileName 元画像のファイル名(アップロードごとのディレクトリを含む)
+     * @param width 縮小画像の幅
+     * @return 縮小画像のファイル名
+     */
+    public static String variantFileName(String fileName, int width) {
+        int slash = fileName.lastIndexOf('/');
+        return fileName.substring(0, slash + 1) + "w" + width + "/" + fileName.substring(slash + 1);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public int getDisplayOrder() {
+        return displayOrder;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    /**
+     * 元画像のURL
+     */
+    public String getUrl() {
+        return "/product-images/" + product.getId() + "/" + fileName;
+    }
+
+    /**
+     * img要素のsrcset属性の値
+     * 元画像より小さい縮小画像と元画像を、幅の昇順に並べる
+     *
+     * @return srcset属性の値 元画像の幅が不明の場合はnull(srcset属性を出力しない)
+     */
+    public String getSrcset() {
+        if (width == null) {
+            return null;
+        }
+        StringBuilder srcset = new StringBuilder();
+        for (int variantWidth : VARIANT_WIDTHS) {
+            if (variantWidth < width) {
+                srcset.append("/product-images/").append(product.getId()).append('/')
+                    .append(variantFileName(fileName, variantWidth)).append(' ').append(variantWidth).append("w, ");
+            }
+        }
+        return srcset.append(getUrl()).append(' ').append(width).append('w').toString();
+    }
+
+}
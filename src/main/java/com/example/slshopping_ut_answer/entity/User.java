@@ -1,10 +1,16 @@
 package com.example.slshopping_ut_answer.entity;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.example.slshopping_ut_answer.cache.CatalogVersionListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -22,6 +28,7 @@ import jakarta.validation.constraints.Size;
  * 管理者情報
  */
 @Entity
+@EntityListeners(CatalogVersionListener.class)
 @Table(name = "users")
 public class User {
 
@@ -47,10 +54,15 @@ public class User {
     private boolean enabled;
 
     @NotEmpty(message = "ロールを選択してください")
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "users_roles", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
+    /** 更新日時 */
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     public User() {
     }
 
@@ -100,6 +112,14 @@ public class User {
         this.name = name;
     }
 
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public boolean isEnabled() {
         return enabled;
     }
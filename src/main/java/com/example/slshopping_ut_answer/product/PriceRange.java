@@ -0,0 +1,59 @@
+package com.example.slshopping_ut_answer.product;
+
+/**
+ * 商品一覧の絞り込みに使う価格帯
+ * 境界を変更する場合は、商品件数の集計(product_facets)を作り直すマイグレーションを追加すること
+ */
+public enum PriceRange {
+
+    UNDER_1000(0, 1000, "1,000円未満"),
+    FROM_1000(1000, 3000, "1,000〜2,999円"),
+    FROM_3000(3000, 5000, "3,000〜4,999円"),
+    FROM_5000(5000, 10000, "5,000〜9,999円"),
+    FROM_10000(10000, 30000, "10,000〜29,999円"),
+    FROM_30000(30000, null, "30,000円以上");
+
+    /** 下限価格(この価格を含む) */
+    private final int min;
+
+    /** 上限価格(この価格を含まない) 上限がない場合はnull */
+    private final Integer max;
+
+    /** 画面に表示する名前 */
+    private final String label;
+
+    private PriceRange(int min, Integer max, String label) {
+        this.min = min;
+        this.max = max;
+        this.label = label;
+    }
+
+    /**
+     * 価格が含まれる価格帯を返す
+     *
+     * @param price 価格
+     * @return 価格帯
+     */
+    public static PriceRange of(int price) {
+        PriceRange[] ranges = values();
+        for (int i = ranges.length - 1; i > 0; i--) {
+            if (price >= ranges[i].min) {
+                return ranges[i];
+            }
+        }
+        return ranges[0];
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public Integer getMax() {
+        return max;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.slshopping_ut_answer.api.JsonPage;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/products")
+public class ProductApiController {
+
+    /** 出力できる項目 */
+    private static final JsonPage<Product> PAGE = new JsonPage<Product>(Product::getId)
+        .field("id", Product::getId)
+        .field("name", Product::getName)
+        .field("description", Product::getDescription)
+        .field("price", Product::getPrice)
+        .field("image", Product::getImage)
+        .field("length", Product::getLength)
+        .field("width", Product::getWidth)
+        .field("height", Product::getHeight)
+        .field("weight", Product::getWeight)
+        .field("brand", product -> reference(product.getBrand().getId(), product.getBrand().getName()))
+        .field("category", product -> reference(product.getCategory().getId(), product.getCategory().getName()));
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 商品情報一覧取得API
+     * ID順に1ページ分の商品情報をJSONで返す
+     *
+     * @param after このIDより後の商品情報を返す(前ページのnextの値)
+     * @param limit 1ページの件数
+     * @param fields 返す項目名(カンマ区切り) 未指定の場合は全項目
+     * @param response レスポンス
+     * @throws IOException
+     */
+    @GetMapping
+    public void listProducts(@RequestParam(name = "after", defaultValue = "0") Long after,
+            @RequestParam(name = "limit", defaultValue = "" + JsonPage.DEFAULT_LIMIT) int limit,
+            @RequestParam(name = "fields", required = false) String fields,
+            HttpServletResponse response) throws IOException {
+        PAGE.write(response, objectMapper, productService::listPage, after, limit, fields);
+    }
+
+    /**
+     * 関連する情報をIDと名前のみのJSONオブジェクトにする
+     */
+    private static Map<String, Object> reference(Long id, String name) {
+        Map<String, Object> reference = new LinkedHashMap<>();
+        reference.put("id", id);
+        reference.put("name", name);
+        return reference;
+    }
+}
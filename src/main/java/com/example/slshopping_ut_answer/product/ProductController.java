@@ -14,15 +14,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.thymeleaf.context.LazyContextVariable;
 
 import com.example.slshopping_ut_answer.brand.BrandService;
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.category.CategoryService;
 import com.example.slshopping_ut_answer.entity.Brand;
 import com.example.slshopping_ut_answer.entity.Category;
 import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.suggest.SuggestIndex;
+import com.example.slshopping_ut_answer.suggest.Suggestion;
+import com.example.slshopping_ut_answer.view.FlushingLazyContextVariable;
+import com.example.slshopping_ut_answer.view.StreamingRows;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 
@@ -30,9 +42,21 @@ import jakarta.validation.Valid;
 @RequestMapping("/products")
 public class ProductController {
 
+    /** 商品一覧の1ページあたりの件数 */
+    static final int PAGE_SIZE = 50;
+
+    /** 商品一覧を描画しながら1回に取得する件数 1ページを複数回に分けて取得し、取得済みの行から送信する */
+    static final int CHUNK_SIZE = 20;
+
+    /** 入力候補の最大件数の上限 */
+    static final int MAX_SUGGESTIONS = 50;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     @Autowired
     private ProductImageService productImageService;
 
@@ -42,43 +66,107 @@ public class ProductController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private SuggestIndex suggestIndex;
+
     /**
      * ブランドリストをmodelに追加する処理
      * 複数のハンドラメソッドでlistBrandsをmodelに追加する必要があるため、共通化する
+     * 画面で参照された場合のみ取得し、一覧画面などでは取得しない
+     * 取得する前に、描画済みのレイアウトの先頭を送信する
      *
+     * @param response
      * @return
      */
     @ModelAttribute(name = "listBrands")
-    public List<Brand> setBrandsToModel() {
-        return brandService.listAll();
+    public LazyContextVariable<List<Brand>> setBrandsToModel(HttpServletResponse response) {
+        return new FlushingLazyContextVariable<>(response::flushBuffer) {
+            @Override
+            protected List<Brand> load() {
+                return brandService.listAll();
+            }
+        };
     }
 
     /**
      * カテゴリーリストをmodelに追加する処理
      * 複数のハンドラメソッドでlistCategoriesをmodelに追加する必要があるため、共通化する
+     * 画面で参照された場合のみ取得し、一覧画面などでは取得しない
+     * 取得する前に、描画済みの部分を送信する
      *
+     * @param response
      * @return
      */
     @ModelAttribute(name = "listCategories")
-    public List<Category> setCategoriesToModel() {
-        return categoryService.listAll();
+    public LazyContextVariable<List<Category>> setCategoriesToModel(HttpServletResponse response) {
+        return new FlushingLazyContextVariable<>(response::flushBuffer) {
+            @Override
+            protected List<Category> load() {
+                return categoryService.listAll();
+            }
+        };
     }
 
     /**
      * 商品一覧画面表示
+     * 商品情報・商品件数は画面の描画中に取得し、取得を待つ間に描画済みの部分(レイアウトの先頭など)を先に送信する
      *
+     * @param condition 検索条件
      * @param model
+     * @param webRequest
+     * @param response
      * @return 商品一覧画面
      */
     @GetMapping
-    public String listProducts(@RequestParam(name = "keyword", required = false) String keyword, Model model) {
-        // 全商品情報の取得
-        List<Product> listProducts = productService.listAll(keyword);
+    public String listProducts(@ModelAttribute("condition") ProductSearchCondition condition, Model model,
+            WebRequest webRequest, HttpServletResponse response) {
+        // 前回表示から商品情報が更新されていない場合は、一覧を取得せずに304を返す
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        // 条件に該当する商品情報の取得(1ページ分を描画しながら、前のチャンクの最後の商品の次から取得する)
+        StreamingRows<Product> listProducts = new StreamingRows<>(
+            (last, limit) -> productService.search(last == null ? condition : condition.continueAfter(last), limit),
+            CHUNK_SIZE, PAGE_SIZE, response::flushBuffer);
         model.addAttribute("listProducts", listProducts);
-        model.addAttribute("keyword", keyword);
+        // 1ページ分取得できた場合は、最後の商品の次から表示するリンクを追加する(一覧の描画後に参照する)
+        UriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        model.addAttribute("nextUrl", new LazyContextVariable<String>() {
+            @Override
+            protected String loadValue() {
+                if (listProducts.getCount() < PAGE_SIZE) {
+                    return null;
+                }
+                UriComponents next = current.replaceQueryParam("after", listProducts.getLast().getId()).build();
+                return next.getPath() + "?" + next.getQuery();
+            }
+        });
+        // 絞り込み条件ごとの商品件数の取得
+        model.addAttribute("facets", new FlushingLazyContextVariable<ProductFacets>(response::flushBuffer) {
+            @Override
+            protected ProductFacets load() {
+                return productService.getFacets(condition.getKeyword(), condition.getBrandId(),
+                    condition.getCategoryId(), condition.getPriceRange());
+            }
+        });
         return "products/products";
     }
 
+    /**
+     * 検索キーワードの入力候補取得
+     * 入力された文字列から始まる商品名・ブランド名・カテゴリー名をJSONで返す
+     *
+     * @param q 入力された文字列
+     * @param limit 最大件数(1からMAX_SUGGESTIONSの範囲に丸める)
+     * @return 入力候補のリスト
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    public List<Suggestion> suggest(@RequestParam(name = "q", defaultValue = "") String q,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return suggestIndex.suggest(q.strip(), Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     /**
      * 商品新規登録画面表示
      *
@@ -98,7 +186,7 @@ public class ProductController {
      *
      * @param product 商品情報
      * @param result
-     * @param file 商品画像
+     * @param files 商品画像(表示順)
      * @param model
      * @param ra
      * @return 商品一覧画面 or 商品登録画面
@@ -106,7 +194,7 @@ public class ProductController {
      */
     @PostMapping("/save")
     public String saveProduct(@Valid @ModelAttribute Product product, BindingResult result,
-        MultipartFile file, Model model, RedirectAttributes ra) throws IOException {
+        List<MultipartFile> files, Model model, RedirectAttributes ra) throws IOException {
 
         // 入力値のチェック
         if (result.hasErrors()) {
@@ -121,17 +209,15 @@ public class ProductController {
         }
 
         // 画像ファイルのチェック
-        if (!productImageService.isValid(file)) {
-            model.addAttribute("file_error_message", "画像は2MB以内かつpng・jpg・jpeg形式で添付してください");
+        if (!productImageService.isValid(files)) {
+            model.addAttribute("file_error_message", "画像は10枚以内、1枚2MB以内かつpng・jpg・jpeg形式で添付してください");
             return "products/product_form";
         }
 
-        // 商品画像のファイル名を取得し、商品情報に格納する
-        productImageService.setMainImageName(file, product);
         // 商品情報の登録
         Product savedProduct = productService.save(product);
-        // 商品画像のファイルを保存する
-        productImageService.saveUploadedImages(file, savedProduct);
+        // 商品画像のファイルをすべて保存してから、商品の画像を保存した画像に切り替える
+        productImageService.saveUploadedImages(files, savedProduct);
         ra.addFlashAttribute("success_message", "登録に成功しました");
         return "redirect:/products";
     }
@@ -142,13 +228,24 @@ public class ProductController {
      * @param id 商品ID
      * @param model
      * @param ra
+     * @param webRequest
      * @return 商品詳細画面
      */
     @GetMapping("/detail/{id}")
-    public String detailUser(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra) {
+    public String detailUser(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra,
+            WebRequest webRequest) {
+        // 前回表示から商品情報が更新されていない場合は、商品情報を取得せずに304を返す
+        if (catalogVersion.isNotModified(webRequest)) {
+            return null;
+        }
         try {
             // 商品IDに紐づく商品情報取得
             Product product = productService.get(id);
+            // ブランド名・カテゴリー名も表示するため、それぞれの更新日時も含めて判定する
+            if (catalogVersion.checkNotModified(webRequest, product.getUpdatedAt(),
+                    product.getBrand().getUpdatedAt(), product.getCategory().getUpdatedAt())) {
+                return null;
+            }
             model.addAttribute("product", product);
             return "products/product_detail";
         } catch (NotFoundException e) {
@@ -184,7 +281,7 @@ public class ProductController {
      *
      * @param product 商品情報
      * @param result
-     * @param file 商品画像
+     * @param files 商品画像(表示順)
      * @param model
      * @param ra
      * @return 商品一覧画面 or 商品更新画面
@@ -192,7 +289,7 @@ public class ProductController {
      */
     @PostMapping("/edit/{id}")
     public String editProduct(@Valid @ModelAttribute Product product, BindingResult result,
-        MultipartFile file, Model model, RedirectAttributes ra) throws IOException {
+        List<MultipartFile> files, Model model, RedirectAttributes ra) throws IOException {
 
         // 入力値のチェック
         if (result.hasErrors()) {
@@ -207,17 +304,15 @@ public class ProductController {
         }
 
         // 画像ファイルのチェック
-        if (!productImageService.isValid(file)) {
-            model.addAttribute("file_error_message", "画像は2MB以内かつpng・jpg・jpeg形式で添付してください");
+        if (!productImageService.isValid(files)) {
+            model.addAttribute("file_error_message", "画像は10枚以内、1枚2MB以内かつpng・jpg・jpeg形式で添付してください");
             return "products/product_edit";
         }
 
-        // 商品画像のファイル名を取得し、商品情報に格納する
-        productImageService.setMainImageName(file, product);
         // 商品情報の更新
         Product savedProduct = productService.save(product);
-        // 商品画像のファイルを保存する
-        productImageService.saveUploadedImages(file, savedProduct);
+        // 商品画像のファイルをすべて保存してから、商品の画像を保存した画像に切り替える
+        productImageService.saveUploadedImages(files, savedProduct);
         ra.addFlashAttribute("success_message", "更新に成功しました");
         return "redirect:/products";
     }
@@ -0,0 +1,86 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.slshopping_ut_answer.entity.ProductFacet;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ProductFacetRepository extends JpaRepository<ProductFacet, Long> {
+
+    /**
+     * 絞り込み条件ごとの商品件数取得クエリ
+     * 選択中の条件で絞り込んだ、ブランドごと・カテゴリーごと・価格帯ごとの小計を取得する
+     * 件数の計算にのみ使うため、エンティティとして管理しない
+     *
+     * @param brandId 選択中のブランドID 未選択の場合は{@link ProductFacet#ALL_ID}
+     * @param categoryId 選択中のカテゴリーID 未選択の場合は{@link ProductFacet#ALL_ID}
+     * @param minPrice 選択中の価格帯の下限価格 未選択の場合は{@link ProductFacet#ALL_PRICE}
+     * @return 商品件数の集計のリスト(件数が0の行は除く)
+     */
+    @Query("SELECT new com.example.slshopping_ut_answer.entity.ProductFacet(f.brandId, f.categoryId, f.minPrice, f.productCount) "
+            + "FROM ProductFacet f WHERE f.productCount > 0 AND ("
+            + "(f.brandId <> 0 AND f.categoryId = ?2 AND f.minPrice = ?3) "
+            + "OR (f.brandId = ?1 AND f.categoryId <> 0 AND f.minPrice = ?3) "
+            + "OR (f.brandId = ?1 AND f.categoryId = ?2 AND f.minPrice <> -1))")
+    public List<ProductFacet> findFacets(Long brandId, Long categoryId, int minPrice);
+
+    /**
+     * 商品1件が属する集計の行の取得クエリ
+     * ブランド×カテゴリー×価格帯の行と、その小計の行(最大7行)を取得する
+     *
+     * @param brandId ブランドID
+     * @param categoryId カテゴリーID
+     * @param minPrice 価格帯の下限価格
+     * @return 商品件数の集計のリスト
+     */
+    @Query("SELECT f FROM ProductFacet f WHERE f.brandId IN (?1, 0) AND f.categoryId IN (?2, 0) AND f.minPrice IN (?3, -1) "
+            + "AND NOT (f.brandId = 0 AND f.categoryId = 0 AND f.minPrice = -1)")
+    public List<ProductFacet> findRollups(Long brandId, Long categoryId, int minPrice);
+
+    /**
+     * 商品1件が属する集計の行数取得クエリ
+     *
+     * @param brandId ブランドID
+     * @param categoryId カテゴリーID
+     * @param minPrice 価格帯の下限価格
+     * @return 行数 全ての行がある場合は7
+     */
+    @Query("SELECT COUNT(f) FROM ProductFacet f WHERE f.brandId IN (?1, 0) AND f.categoryId IN (?2, 0) AND f.minPrice IN (?3, -1) "
+            + "AND NOT (f.brandId = 0 AND f.categoryId = 0 AND f.minPrice = -1)")
+    public long countRollups(Long brandId, Long categoryId, int minPrice);
+
+    /**
+     * 商品件数の増減クエリ
+     * 商品1件が属する集計の行(最大7行)の件数をまとめて増減する
+     *
+     * @param brandId ブランドID
+     * @param categoryId カテゴリーID
+     * @param minPrice 価格帯の下限価格
+     * @param delta 増減する件数
+     * @return 更新した行数
+     */
+    @Modifying
+    @Query("UPDATE ProductFacet f SET f.productCount = f.productCount + ?4 "
+            + "WHERE f.brandId IN (?1, 0) AND f.categoryId IN (?2, 0) AND f.minPrice IN (?3, -1) "
+            + "AND NOT (f.brandId = 0 AND f.categoryId = 0 AND f.minPrice = -1)")
+    public int addProductCount(Long brandId, Long categoryId, int minPrice, long delta);
+
+    /**
+     * ロック用の行の取得クエリ
+     * 集計の同じ行を、複数のトランザクションから同時に追加しないために使う
+     *
+     * @return ロック用の行
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM ProductFacet f WHERE f.brandId = 0 AND f.categoryId = 0 AND f.minPrice = -1")
+    public Optional<ProductFacet> lockForInsert();
+}
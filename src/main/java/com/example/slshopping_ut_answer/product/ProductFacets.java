@@ -0,0 +1,159 @@
+package com.example.slshopping_ut_answer.product;
+
+import static com.example.slshopping_ut_answer.entity.ProductFacet.*;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.slshopping_ut_answer.entity.ProductFacet;
+
+/**
+ * 商品一覧の絞り込み条件(ブランド・カテゴリー・価格帯)ごとの商品件数
+ * 各条件の件数は、その条件以外の選択中の条件で絞り込んだ件数とする(選択を切り替えた場合の件数を表示するため)
+ */
+public class ProductFacets {
+
+    private final Map<Long, Long> brandCounts = new HashMap<>();
+
+    private final Map<Long, Long> categoryCounts = new HashMap<>();
+
+    private final Map<PriceRange, Long> priceRangeCounts = new EnumMap<>(PriceRange.class);
+
+    /** 選択中の全条件に該当する商品件数 */
+    private long total;
+
+    /**
+     * 商品件数の集計の小計から、絞り込み条件ごとの件数を求める
+     * 小計は{@link ProductFacetRepository#findFacets}で選択中の条件に合わせて取得したものを使う
+     *
+     * @param facets 商品件数の集計の小計
+     * @param brandId 選択中のブランドID 未選択の場合はnull
+     * @param categoryId 選択中のカテゴリーID 未選択の場合はnull
+     * @param priceRange 選択中の価格帯 未選択の場合はnull
+     * @return 絞り込み条件ごとの商品件数
+     */
+    public static ProductFacets of(List<ProductFacet> facets, Long brandId, Long categoryId, PriceRange priceRange) {
+        long selectedBrandId = brandId == null ? ALL_ID : brandId;
+        long selectedCategoryId = categoryId == null ? ALL_ID : categoryId;
+        int selectedMinPrice = priceRange == null ? ALL_PRICE : priceRange.getMin();
+
+        ProductFacets result = new ProductFacets();
+        for (ProductFacet facet : facets) {
+            boolean brandMatches = facet.getBrandId() == selectedBrandId;
+            boolean categoryMatches = facet.getCategoryId() == selectedCategoryId;
+            boolean priceRangeMatches = facet.getMinPrice() == selectedMinPrice;
+            long count = facet.getProductCount();
+
+            if (facet.getBrandId() != ALL_ID && categoryMatches && priceRangeMatches) {
+                result.brandCounts.merge(facet.getBrandId(), count, Long::sum);
+            }
+            if (facet.getCategoryId() != ALL_ID && brandMatches && priceRangeMatches) {
+                result.categoryCounts.merge(facet.getCategoryId(), count, Long::sum);
+            }
+            if (facet.getMinPrice() != ALL_PRICE && brandMatches && categoryMatches) {
+                result.priceRangeCounts.merge(PriceRange.of(facet.getMinPrice()), count, Long::sum);
+            }
+        }
+        result.total = brandId == null
+            ? result.brandCounts.values().stream().mapToLong(Long::longValue).sum()
+            : result.brandCount(brandId);
+        return result;
+    }
+
+    /**
+     * 商品を数えた結果から、絞り込み条件ごとの件数を求める
+     * 集計を使えない場合(キーワード検索時)に使う
+     *
+     * @param facets ブランド×カテゴリー×価格ごとの商品件数
+     * @param brandId 選択中のブランドID 未選択の場合はnull
+     * @param categoryId 選択中のカテゴリーID 未選択の場合はnull
+     * @param priceRange 選択中の価格帯 未選択の場合はnull
+     * @return 絞り込み条件ごとの商品件数
+     */
+    public static ProductFacets count(List<ProductFacet> facets, Long brandId, Long categoryId, PriceRange priceRange) {
+        ProductFacets result = new ProductFacets();
+        for (ProductFacet facet : facets) {
+            PriceRange range = PriceRange.of(facet.getMinPrice());
+            boolean brandMatches = brandId == null || brandId.equals(facet.getBrandId());
+            boolean categoryMatches = categoryId == null || categoryId.equals(facet.getCategoryId());
+            boolean priceRangeMatches = priceRange == null || priceRange == range;
+            long count = facet.getProductCount();
+
+            if (categoryMatches && priceRangeMatches) {
+                result.brandCounts.merge(facet.getBrandId(), count, Long::sum);
+            }
+            if (brandMatches && priceRangeMatches) {
+                result.categoryCounts.merge(facet.getCategoryId(), count, Long::sum);
+            }
+            if (brandMatches && categoryMatches) {
+                result.priceRangeCounts.merge(range, count, Long::sum);
+            }
+            if (brandMatches && categoryMatches && priceRangeMatches) {
+                result.total += count;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 商品が属する集計の行を返す
+     * ブランド×カテゴリー×価格帯の行と、いずれかの項目を問わない小計の行の7行
+     *
+     * @param brandId ブランドID
+     * @param categoryId カテゴリーID
+     * @param minPrice 価格帯の下限価格
+     * @param productCount 各行の商品件数
+     * @return 集計の行のリスト
+     */
+    public static List<ProductFacet> rollups(Long brandId, Long categoryId, int minPrice, long productCount) {
+        return List.of(
+            new ProductFacet(brandId, categoryId, minPrice, productCount),
+            new ProductFacet(brandId, categoryId, ALL_PRICE, productCount),
+            new ProductFacet(brandId, ALL_ID, minPrice, productCount),
+            new ProductFacet(brandId, ALL_ID, ALL_PRICE, productCount),
+            new ProductFacet(ALL_ID, categoryId, minPrice, productCount),
+            new ProductFacet(ALL_ID, categoryId, ALL_PRICE, productCount),
+            new ProductFacet(ALL_ID, ALL_ID, minPrice, productCount));
+    }
+
+    /**
+     * ブランドで絞り込んだ場合の商品件数
+     *
+     * @param brandId ブランドID
+     * @return 商品件数
+     */
+    public long brandCount(Long brandId) {
+        return brandCounts.getOrDefault(brandId, 0L);
+    }
+
+    /**
+     * カテゴリーで絞り込んだ場合の商品件数
+     *
+     * @param categoryId カテゴリーID
+     * @return 商品件数
+     */
+    public long categoryCount(Long categoryId) {
+        return categoryCounts.getOrDefault(categoryId, 0L);
+    }
+
+    /**
+     * 価格帯で絞り込んだ場合の商品件数
+     *
+     * @param priceRange 価格帯
+     * @return 商品件数
+     */
+    public long priceRangeCount(PriceRange priceRange) {
+        return priceRangeCounts.getOrDefault(priceRange, 0L);
+    }
+
+    public PriceRange[] getPriceRanges() {
+        return PriceRange.values();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+}
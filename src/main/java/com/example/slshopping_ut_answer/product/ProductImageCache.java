@@ -0,0 +1,249 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.slshopping_ut_answer.cache.CacheInvalidation;
+import com.example.slshopping_ut_answer.cache.CacheInvalidationListener;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductImage;
+import com.example.slshopping_ut_answer.storage.ImageMetadata;
+import com.example.slshopping_ut_answer.storage.ImageStorage;
+import com.example.slshopping_ut_answer.storage.StoredImage;
+
+/**
+ * よく表示される商品画像の内容を、メモリ上に保持するキャッシュ
+ * 合計バイト数が上限を超えた場合は、最後に表示されてから最も時間が経った画像から追い出す(LRU)
+ * 画像の内容はヒープ外(ダイレクトバッファ)に保持し、GCの対象となるヒープを増やさない
+ *
+ * 商品の画像をアップロード・削除した場合は、その商品の画像をキャッシュから削除する
+ * 他のノードでの変更も、{@link com.example.slshopping_ut_answer.cache.CacheInvalidationBus}の通知を受けて削除する
+ */
+@Component
+@EnableConfigurationProperties(ProductImageCacheProperties.class)
+public class ProductImageCache implements CacheInvalidationListener {
+
+    /**
+     * キャッシュした画像
+     *
+     * @param content 画像の内容(読み取り専用)
+     * @param contentType 画像の種類 不明な場合はnull
+     * @param lastModified 最終更新日時(エポックミリ秒) 不明な場合は-1
+     * @param etag ETag 不明な場合はnull
+     */
+    private record CachedImage(ByteBuffer content, String contentType, long lastModified, String etag) {
+    }
+
+    private final ImageStorage imageStorage;
+
+    private final long maxBytes;
+
+    private final long maxEntryBytes;
+
+    /** キャッシュした画像(アクセス順) 以下のフィールドとともにthisで排他する */
+    private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    /** 無効にした回数 読み込み中に無効にされた画像をキャッシュしないために使う */
+    private long generation;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public ProductImageCache(ImageStorage imageStorage, ProductImageCacheProperties properties) {
+        this.imageStorage = imageStorage;
+        this.maxBytes = properties.maxSize().toBytes();
+        this.maxEntryBytes = Math.min(properties.maxEntrySize().toBytes(), maxBytes);
+    }
+
+    /**
+     * 画像を返す
+     * キャッシュにない場合は保存先から読み込み、上限以下の大きさであればキャッシュする
+     *
+     * @param key 画像のキー
+     * @return 画像 存在しない場合は空 内容のストリームは呼び出し元で閉じる
+     * @throws IOException 保存先から読み込めなかった場合
+     */
+    public Optional<StoredImage> load(String key) throws IOException {
+        long loadGeneration;
+        synchronized (this) {
+            CachedImage cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return Optional.of(toStoredImage(cached));
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        Optional<StoredImage> loaded = imageStorage.load(key);
+        if (loaded.isEmpty() || loaded.get().contentLength() < 0 || loaded.get().contentLength() > maxEntryBytes) {
+            return loaded;
+        }
+        CachedImage cached;
+        try (StoredImage image = loaded.get()) {
+            cached = new CachedImage(read(image), image.contentType(), image.lastModified(), image.etag());
+        }
+        put(key, cached, loadGeneration);
+        return Optional.of(toStoredImage(cached));
+    }
+
+    /**
+     * 画像の情報(最終更新日時・ETagなど)を返す 内容は読み込まない
+     * キャッシュにある場合は保存先に問い合わせない キャッシュのヒット・ミスには数えない
+     *
+     * @param key 画像のキー
+     * @return 画像の情報 存在しない場合は空
+     * @throws IOException 保存先から取得できなかった場合
+     */
+    public Optional<ImageMetadata> metadata(String key) throws IOException {
+        synchronized (this) {
+            CachedImage cached = entries.get(key);
+            if (cached != null) {
+                return Optional.of(new ImageMetadata(cached.content().capacity(), cached.contentType(),
+                    cached.lastModified(), cached.etag()));
+            }
+        }
+        return imageStorage.metadata(key);
+    }
+
+    /**
+     * 商品の画像をキャッシュから削除する
+     * 読み込み中の画像もキャッシュしない(削除前の画像をキャッシュしないため)
+     *
+     * @param productId 商品ID
+     */
+    public synchronized void invalidate(Long productId) {
+        generation++;
+        String prefix = productId + "/";
+        Iterator<Map.Entry<String, CachedImage>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, CachedImage> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix)) {
+                bytes -= entry.getValue().content().capacity();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 他のノードで商品・商品画像が変更された場合は、その商品の画像をキャッシュから削除する
+     */
+    @Override
+    public void invalidate(CacheInvalidation invalidation) {
+        if (invalidation.entityId() != null
+                && (invalidation.entityType().equals(Product.class.getSimpleName())
+                    || invalidation.entityType().equals(ProductImage.class.getSimpleName()))) {
+            invalidate(invalidation.entityId());
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * キャッシュの状況を返す
+     *
+     * @return キャッシュの状況
+     */
+    public synchronized ProductImageCacheMetrics metrics() {
+        long requests = hits + misses;
+        return new ProductImageCacheMetrics(hits, misses, requests == 0 ? 0 : (double) hits / requests,
+            entries.size(), bytes, maxBytes, evictions);
+    }
+
+    /**
+     * 画像をキャッシュし、上限を超えた分を古い順に追い出す
+     * 読み込みを始めてから無効にされた場合はキャッシュしない
+     */
+    private synchronized void put(String key, CachedImage cached, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        CachedImage previous = entries.put(key, cached);
+        if (previous != null) {
+            bytes -= previous.content().capacity();
+        }
+        bytes += cached.content().capacity();
+        Iterator<CachedImage> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().content().capacity();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * 画像の内容をダイレクトバッファに読み込む
+     */
+    private static ByteBuffer read(StoredImage image) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) image.contentLength());
+        ReadableByteChannel channel = Channels.newChannel(image.content());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Image was shorter than its content length: " + image.contentLength());
+            }
+        }
+        return buffer.flip().asReadOnlyBuffer();
+    }
+
+    private static StoredImage toStoredImage(CachedImage cached) {
+        return new StoredImage(new ByteBufferInputStream(cached.content().duplicate()), cached.content().capacity(),
+            cached.contentType(), cached.lastModified(), cached.etag());
+    }
+
+    /**
+     * バッファの内容を読み込むストリーム
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.slshopping_ut_answer.product;
+
+/**
+ * 商品画像のキャッシュの状況
+ * hitRateが低く、evictionsが増え続ける場合は、キャッシュの上限(maxBytes)が小さすぎる
+ *
+ * @param hits キャッシュから返した回数
+ * @param misses 保存先から読み込んだ回数
+ * @param hitRate キャッシュから返した割合(0〜1)
+ * @param entries キャッシュしている画像の枚数
+ * @param bytes キャッシュしている画像の合計バイト数
+ * @param maxBytes キャッシュする画像の合計バイト数の上限
+ * @param evictions 上限を超えたため、キャッシュから追い出した画像の枚数
+ */
+public record ProductImageCacheMetrics(
+        long hits,
+        long misses,
+        double hitRate,
+        int entries,
+        long bytes,
+        long maxBytes,
+        long evictions) {
+}
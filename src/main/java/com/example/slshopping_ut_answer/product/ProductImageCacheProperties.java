@@ -0,0 +1,17 @@
+package com.example.slshopping_ut_answer.product;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 商品画像のキャッシュの設定
+ *
+ * @param maxSize キャッシュする画像の合計バイト数の上限 0の場合はキャッシュしない
+ * @param maxEntrySize キャッシュする画像1枚のバイト数の上限 これより大きい画像は毎回保存先から読み込む
+ */
+@ConfigurationProperties("slshop.image-cache")
+public record ProductImageCacheProperties(
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("2MB") DataSize maxEntrySize) {
+}
@@ -0,0 +1,86 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.slshopping_ut_answer.storage.ImageMetadata;
+import com.example.slshopping_ut_answer.storage.StoredImage;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 商品画像の配信
+ * 保存先(ローカルのディレクトリ、S3互換のオブジェクトストレージ)によらず、同じURLで配信する
+ */
+@Controller
+public class ProductImageController {
+
+    /** 商品画像のCache-Control ブラウザには保持させるが、表示のたびに再検証させる */
+    public static final String CACHE_CONTROL = "private, no-cache";
+
+    /** よく表示される画像はキャッシュから返し、それ以外は保存先から読み込む */
+    @Autowired
+    private ProductImageCache productImageCache;
+
+    /**
+     * 商品画像の取得
+     * 前回取得時から変更がない画像(ETag・Last-Modifiedが一致)は、内容を読み込まずに304を返す
+     * キャッシュにない画像は、保存先から読み込みながらレスポンスに書き込む
+     *
+     * @param key 画像のキー(/商品ID/アップロードID/ファイル名、/商品ID/アップロードID/w320/ファイル名)
+     * @param webRequest
+     * @param response
+     * @throws IOException
+     */
+    @GetMapping("/product-images/{*key}")
+    public void image(@PathVariable(name = "key") String key, WebRequest webRequest, HttpServletResponse response)
+            throws IOException {
+        String imageKey = key.substring(1);
+        Optional<ImageMetadata> metadata = productImageCache.metadata(imageKey);
+        if (metadata.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        // 再アップロードで同じキーの画像が置き換わるため、毎回ETagで再検証させる
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (webRequest.checkNotModified(metadata.get().etag(), metadata.get().lastModified())) {
+            return;
+        }
+        Optional<StoredImage> image = productImageCache.load(imageKey);
+        if (image.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        try (StoredImage storedImage = image.get()) {
+            response.setContentType(storedImage.contentType() != null ? storedImage.contentType()
+                : MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+            if (storedImage.contentLength() >= 0) {
+                response.setContentLengthLong(storedImage.contentLength());
+            }
+            storedImage.content().transferTo(response.getOutputStream());
+        }
+    }
+
+    /**
+     * 商品画像のキャッシュの状況取得API
+     *
+     * @return キャッシュの状況(ヒット率など)
+     */
+    @GetMapping("/api/product-images/cache")
+    @ResponseBody
+    public ProductImageCacheMetrics cacheMetrics() {
+        return productImageCache.metrics();
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.slshopping_ut_answer.entity.ProductImage;
+
+@Repository
+public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
+
+    /**
+     * 商品の画像の一括削除クエリ
+     * 画像を1件ずつ取得して削除しないよう、1文で削除する
+     *
+     * @param productId 商品ID
+     * @return 削除した件数
+     */
+    @Modifying
+    @Query("DELETE FROM ProductImage i WHERE i.product.id = ?1")
+    public int deleteByProductId(Long productId);
+
+    /**
+     * 商品の画像のファイル名取得クエリ
+     *
+     * @param productId 商品ID
+     * @return ファイル名のリスト
+     */
+    @Query("SELECT i.fileName FROM ProductImage i WHERE i.product.id = ?1")
+    public List<String> findFileNamesByProductId(Long productId);
+
+}
@@ -1,13 +1,33 @@
 package com.example.slshopping_ut_answer.product;
 
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.example.slshopping_ut_answer.FileUploadUtil;
 import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductImage;
+import com.example.slshopping_ut_answer.storage.ImageStorage;
 
 /**
  * 商品画像関連の処理を行うサービスクラス
@@ -16,70 +36,234 @@ import com.example.slshopping_ut_answer.entity.Product;
 @Service
 public class ProductImageService {
 
-    private static final String UPLOADED_DIR = "product-images/";
+    /** ロガー */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductImageService.class);
+
+    /** 1商品にアップロードできる画像の枚数 */
+    public static final int MAX_IMAGES = 10;
+
+    /** 画像の保存先(ローカルのディレクトリ、S3互換のオブジェクトストレージ) */
+    private final ImageStorage imageStorage;
+
+    /** よく表示される画像のキャッシュ 画像を変更した商品の画像を削除する */
+    private final ProductImageCache productImageCache;
+
+    /** 保存した画像への切り替え */
+    private final ProductService productService;
+
+    public ProductImageService(ImageStorage imageStorage, ProductImageCache productImageCache,
+            ProductService productService) {
+        this.imageStorage = imageStorage;
+        this.productImageCache = productImageCache;
+        this.productService = productService;
+    }
 
     /**
      * 画像ファイルアップロード処理
+     * アップロードごとの新しいディレクトリに、画像ごとに元画像と縮小画像を並行して保存する
+     * すべて保存できた場合のみ商品の画像を切り替え、切り替えのコミット後に以前の画像を削除する
+     * 保存・切り替えに失敗した場合は、保存した画像を削除し、以前の画像をそのまま表示する
      *
-     * @param mainImageMultipart 商品画像
+     * @param imageMultiparts 商品画像(表示順)
      * @param savedProduct 商品情報
+     * @return 保存した画像 画像が添付されていない場合は空のリスト
      * @throws IOException
      */
-    public void saveUploadedImages(MultipartFile mainImageMultipart, Product savedProduct) throws IOException {
-        if (!mainImageMultipart.isEmpty()) {
-            String fileName = mainImageMultipart.getOriginalFilename();
-            String uploadDir = UPLOADED_DIR + savedProduct.getId();
+    public List<ProductImage> saveUploadedImages(List<MultipartFile> imageMultiparts, Product savedProduct)
+            throws IOException {
+        List<MultipartFile> uploaded = attached(imageMultiparts);
+        if (uploaded.isEmpty()) {
+            return List.of();
+        }
+        Long productId = savedProduct.getId();
+        String uploadDir = UUID.randomUUID().toString();
+        List<ProductImage> images;
+        List<String> replaced;
+        try {
+            images = saveImages(productId, uploadDir, uploaded);
+            replaced = productService.saveImages(productId, images);
+        } catch (IOException | RuntimeException e) {
+            deleteUpload(productId, uploadDir);
+            throw e;
+        }
+        deleteReplaced(productId, replaced);
+        return images;
+    }
 
-            FileUploadUtil.cleanDir(uploadDir);
-            FileUploadUtil.saveFile(uploadDir, fileName, mainImageMultipart);
+    /**
+     * 画像ごとに並行して保存する
+     */
+    private List<ProductImage> saveImages(Long productId, String uploadDir, List<MultipartFile> uploaded)
+            throws IOException {
+        // 縮小画像の作成は画像ごとに時間がかかるため、画像ごとに別のスレッドで保存する
+        List<Future<ProductImage>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < uploaded.size(); i++) {
+                int displayOrder = i;
+                MultipartFile multipart = uploaded.get(i);
+                futures.add(executor.submit(() -> saveImage(productId, uploadDir, displayOrder, multipart)));
+            }
+        }
+        List<ProductImage> images = new ArrayList<>();
+        for (Future<ProductImage> future : futures) {
+            try {
+                images.add(future.get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
         }
+        return images;
     }
 
     /**
-     * 商品画像名をProductエンティティにセットする
-     *
-     * @param mainImageMultipart 商品画像
-     * @param product 商品情報
+     * 保存に失敗したアップロードの画像を削除する
+     * 元の例外を投げるため、削除できなかった場合はログに出力するのみとする
+     */
+    private void deleteUpload(Long productId, String uploadDir) {
+        try {
+            imageStorage.deleteDirectory(productId + "/" + uploadDir);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Could not delete failed product image upload: " + productId + "/" + uploadDir, e);
+        }
+    }
+
+    /**
+     * 切り替え前の画像を削除する
+     * 画像は切り替え済みのため、削除できなかった場合もエラーにしない
      */
-    public void setMainImageName(MultipartFile mainImageMultipart, Product product) {
-        if (!mainImageMultipart.isEmpty()) {
-            String fileName = mainImageMultipart.getOriginalFilename();
-            product.setImage(fileName);
+    private void deleteReplaced(Long productId, List<String> fileNames) {
+        try {
+            Set<String> uploadDirs = new LinkedHashSet<>();
+            for (String fileName : fileNames) {
+                int slash = fileName.lastIndexOf('/');
+                if (slash >= 0) {
+                    uploadDirs.add(fileName.substring(0, slash));
+                    continue;
+                }
+                // アップロードごとのディレクトリがない移行前の画像は、元画像と縮小画像を1件ずつ削除する
+                imageStorage.delete(productId + "/" + fileName);
+                for (int width : ProductImage.VARIANT_WIDTHS) {
+                    imageStorage.delete(productId + "/" + ProductImage.variantFileName(fileName, width));
+                }
+            }
+            for (String uploadDir : uploadDirs) {
+                imageStorage.deleteDirectory(productId + "/" + uploadDir);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not delete replaced product images: " + productId, e);
+        } finally {
+            productImageCache.invalidate(productId);
         }
     }
 
     /**
-     * 商品画像のサイズと種類をチェックする
+     * 元画像と、元画像より幅の小さい縮小画像を保存する
+     * 画像として読み込めないファイルは、元のファイルのみを保存する
+     */
+    private ProductImage saveImage(Long productId, String uploadDir, int displayOrder, MultipartFile multipart)
+            throws IOException {
+        String fileName = uploadDir + "/" + ProductImage.fileName(displayOrder, multipart.getOriginalFilename());
+        String formatName = fileName.toLowerCase().endsWith(".png") ? "png" : "jpg";
+        String contentType = formatName.equals("png") ? "image/png" : "image/jpeg";
+        try (InputStream inputStream = multipart.getInputStream()) {
+            imageStorage.store(productId + "/" + fileName, inputStream, multipart.getSize(), contentType);
+        }
+
+        BufferedImage source;
+        try (InputStream inputStream = multipart.getInputStream()) {
+            source = ImageIO.read(inputStream);
+        }
+        if (source == null) {
+            return new ProductImage(null, displayOrder, fileName, null, null);
+        }
+        for (int width : ProductImage.VARIANT_WIDTHS) {
+            if (width >= source.getWidth()) {
+                break;
+            }
+            ByteArrayOutputStream variant = new ByteArrayOutputStream();
+            ImageIO.write(scale(source, width, formatName.equals("png")), formatName, variant);
+            imageStorage.store(productId + "/" + ProductImage.variantFileName(fileName, width),
+                new ByteArrayInputStream(variant.toByteArray()), variant.size(), contentType);
+        }
+        return new ProductImage(null, displayOrder, fileName, source.getWidth(), source.getHeight());
+    }
+
+    /**
+     * 縦横比を保って、指定した幅に縮小する
+     * JPEGは透過色を保存できないため、透過色のない画像にする
+     */
+    private static BufferedImage scale(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height,
+            alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * 商品画像の枚数・サイズ・種類をチェックする
      *
-     * @param mainImageMultipart 商品画像
+     * @param imageMultiparts 商品画像
      * @return
      */
-    public boolean isValid(MultipartFile mainImageMultipart) {
-        // ファイルが添付されていない場合
-        if (mainImageMultipart.isEmpty()) {
-            return true;
-        }
-        // ファイルサイズが2MBより大きい場合
-        if (mainImageMultipart.getSize() > 2 * 1024 * 1024) {
+    public boolean isValid(List<MultipartFile> imageMultiparts) {
+        List<MultipartFile> uploaded = attached(imageMultiparts);
+        // 枚数が上限を超える場合
+        if (uploaded.size() > MAX_IMAGES) {
             return false;
         }
+        for (MultipartFile imageMultipart : uploaded) {
+            // ファイルサイズが2MBより大きい場合
+            if (imageMultipart.getSize() > 2 * 1024 * 1024) {
+                return false;
+            }
 
-        String originalFileName = mainImageMultipart.getOriginalFilename();
-        String fileExtension = originalFileName.substring(originalFileName.lastIndexOf(".") + 1).toLowerCase();
-        // ファイルの種類が画像じゃない場合
-        if (!Arrays.asList("png", "jpg", "jpeg").contains(fileExtension)) {
-            return false;
+            String originalFileName = imageMultipart.getOriginalFilename();
+            String fileExtension = originalFileName.substring(originalFileName.lastIndexOf(".") + 1).toLowerCase();
+            // ファイルの種類が画像じゃない場合
+            if (!Arrays.asList("png", "jpg", "jpeg").contains(fileExtension)) {
+                return false;
+            }
         }
         return true;
     }
 
     /**
      * 商品画像を削除する
+     * 商品は削除済みのため、画像を削除できなかった場合もエラーにしない
      *
      * @param id
      */
     public void delete(Long id) {
-        String deleteDir= UPLOADED_DIR + id;
-        FileUploadUtil.removeDir(deleteDir);
+        try {
+            imageStorage.deleteDirectory(String.valueOf(id));
+        } catch (IOException e) {
+            LOGGER.error("Could not delete product images: " + id, e);
+        } finally {
+            productImageCache.invalidate(id);
+        }
+    }
+
+    /**
+     * 添付された画像のみを返す(ファイルを選択していない入力欄は空のファイルとして送信される)
+     */
+    private static List<MultipartFile> attached(List<MultipartFile> imageMultiparts) {
+        if (imageMultiparts == null) {
+            return List.of();
+        }
+        return imageMultiparts.stream().filter(multipart -> !multipart.isEmpty()).toList();
     }
 }
@@ -1,15 +1,42 @@
 package com.example.slshopping_ut_answer.product;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductFacet;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /**
+     * 商品情報全件取得クエリ
+     * ブランド・カテゴリーを結合して取得し、商品ごとの取得クエリを発行しない
+     *
+     * @return 商品情報のリスト
+     */
+    @Override
+    @EntityGraph(attributePaths = { "brand", "category" })
+    public List<Product> findAll();
+
+    /**
+     * IDに紐づく商品情報取得クエリ
+     * 詳細画面に表示するギャラリーの画像も結合して取得する
+     *
+     * @param id 商品ID
+     * @return 商品情報
+     */
+    @Override
+    @EntityGraph(attributePaths = { "brand", "category", "images" })
+    public Optional<Product> findById(Long id);
 
     /**
      * 商品情報検索クエリ
@@ -25,10 +52,61 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param keyword 検索キーワード
      * @return 商品情報のリスト
      */
+    @EntityGraph(attributePaths = { "brand", "category" })
     @Query("SELECT p FROM Product p WHERE p.name LIKE %?1% "
             + "OR p.description LIKE %?1% "
             + "OR p.brand.name LIKE %?1% "
             + "OR p.category.name LIKE %?1%")
     public List<Product> search(String keyword);
 
+    /**
+     * 検索キーワードに該当する商品の件数集計クエリ
+     * キーワード検索時は集計(product_facets)を使えないため、該当する商品を価格ごとに数える
+     * 価格帯の下限価格の代わりに価格を返す
+     *
+     * @param keyword 検索キーワード
+     * @return ブランド×カテゴリー×価格ごとの商品件数
+     */
+    @Query("SELECT new com.example.slshopping_ut_answer.entity.ProductFacet(p.brand.id, p.category.id, p.price, COUNT(p)) "
+            + "FROM Product p WHERE p.name LIKE %?1% "
+            + "OR p.description LIKE %?1% "
+            + "OR p.brand.name LIKE %?1% "
+            + "OR p.category.name LIKE %?1% "
+            + "GROUP BY p.brand.id, p.category.id, p.price")
+    public List<ProductFacet> countFacets(String keyword);
+
+    /**
+     * 商品情報取得クエリ(ページ単位)
+     * IDをキーに、指定したIDより後の商品情報をID順に取得する
+     * ブランド・カテゴリーを結合して取得し、商品ごとの取得クエリを発行しない
+     *
+     * @param id このIDより後の商品情報を取得する
+     * @param limit 取得件数
+     * @return 商品情報のリスト
+     */
+    @EntityGraph(attributePaths = { "brand", "category" })
+    public List<Product> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    /**
+     * 商品名全件取得クエリ
+     * 入力候補の読み込みに使う エンティティとして読み込まず、名前のみを取得する
+     *
+     * @return 商品名のリスト
+     */
+    @Query("SELECT p.name FROM Product p")
+    public List<String> findAllNames();
+
+    /**
+     * 1枚目の画像のファイル名の更新クエリ
+     * 商品情報の保存では画像のファイル名を書き込まないため、画像の切り替え時にこのクエリで更新する
+     * 商品詳細画面を再取得させるため、更新日時も更新する
+     *
+     * @param id 商品ID
+     * @param image 1枚目の画像のファイル名
+     * @param updatedAt 更新日時
+     * @return 更新した件数
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.image = ?2, p.updatedAt = ?3 WHERE p.id = ?1")
+    public int updateImage(Long id, String image, Instant updatedAt);
 }
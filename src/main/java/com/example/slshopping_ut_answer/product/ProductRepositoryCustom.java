@@ -0,0 +1,23 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.util.List;
+
+import com.example.slshopping_ut_answer.entity.Product;
+
+/**
+ * 条件によってクエリの形が変わるため、ProductRepositoryのメソッド名やJPQLで表せない検索
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * 商品情報絞り込みクエリ(ページ単位)
+     * 指定された条件のみをWHERE句に含め、並び順の列とIDの組をキーに、前のページの続きから取得する
+     * ブランド・カテゴリーを結合して取得し、商品ごとの取得クエリを発行しない
+     *
+     * @param condition 検索条件
+     * @param limit 取得件数
+     * @return 商品情報のリスト
+     */
+    public List<Product> search(ProductSearchCondition condition, int limit);
+
+}
@@ -0,0 +1,122 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.slshopping_ut_answer.entity.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * ProductRepositoryCustomの実装
+ * Spring Data JPAが、ProductRepositoryの実装の一部として使う
+ */
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> search(ProductSearchCondition condition, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Product p JOIN FETCH p.brand b JOIN FETCH p.category c WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        String keyword = condition.getKeyword();
+        if (keyword != null && !keyword.isEmpty()) {
+            jpql.append(" AND (p.name LIKE :keyword OR p.description LIKE :keyword OR b.name LIKE :keyword OR c.name LIKE :keyword)");
+            parameters.put("keyword", "%" + keyword + "%");
+        }
+        if (condition.getBrandId() != null) {
+            jpql.append(" AND b.id = :brandId");
+            parameters.put("brandId", condition.getBrandId());
+        }
+        if (condition.getCategoryId() != null) {
+            jpql.append(" AND c.id = :categoryId");
+            parameters.put("categoryId", condition.getCategoryId());
+        }
+        // 価格帯の上限は含まない
+        PriceRange priceRange = condition.getPriceRange();
+        if (priceRange != null) {
+            jpql.append(" AND p.price >= :rangeMin");
+            parameters.put("rangeMin", priceRange.getMin());
+            if (priceRange.getMax() != null) {
+                jpql.append(" AND p.price < :rangeMax");
+                parameters.put("rangeMax", priceRange.getMax());
+            }
+        }
+        between(jpql, parameters, "price", condition.getMinPrice(), condition.getMaxPrice());
+        between(jpql, parameters, "length", condition.getMinLength(), condition.getMaxLength());
+        between(jpql, parameters, "width", condition.getMinWidth(), condition.getMaxWidth());
+        between(jpql, parameters, "height", condition.getMinHeight(), condition.getMaxHeight());
+        between(jpql, parameters, "weight", condition.getMinWeight(), condition.getMaxWeight());
+
+        // 並び順の列はenumの値のみを使い、画面から渡された文字列を直接クエリに含めない
+        String property = condition.getSort().getProperty();
+        boolean descending = condition.getOrder() == Sort.Direction.DESC;
+        String direction = descending ? " DESC" : " ASC";
+
+        // 前のページの最後の商品より後ろのみを取得する(OFFSETで読み飛ばさない)
+        if (condition.getAfter() != null) {
+            if (condition.getSort() == ProductSort.ID) {
+                jpql.append(" AND p.id ").append(descending ? "<" : ">").append(" :afterId");
+                parameters.put("afterId", condition.getAfter());
+            } else {
+                Object afterKey = condition.getAfterKey();
+                if (afterKey == null) {
+                    // 前のページの最後の商品が削除されていた場合は、先頭のページを返す
+                    afterKey = entityManager
+                        .createQuery("SELECT p." + property + " FROM Product p WHERE p.id = :id", Object.class)
+                        .setParameter("id", condition.getAfter())
+                        .getResultStream()
+                        .findFirst()
+                        .orElse(null);
+                }
+                if (afterKey != null) {
+                    jpql.append(" AND (p.").append(property).append(", p.id) ").append(descending ? "<" : ">")
+                        .append(" (:afterKey, :afterId)");
+                    parameters.put("afterKey", afterKey);
+                    parameters.put("afterId", condition.getAfter());
+                }
+            }
+        }
+
+        // 同じ値の商品はIDの順に並べ、ページの境界で重複・欠落しないようにする
+        jpql.append(" ORDER BY ");
+        if (condition.getSort() != ProductSort.ID) {
+            jpql.append("p.").append(property).append(direction).append(", ");
+        }
+        jpql.append("p.id").append(direction);
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * 範囲の条件をWHERE句に追加する 下限・上限の値を含む
+     *
+     * @param jpql 組み立て中のクエリ
+     * @param parameters クエリのパラメータ
+     * @param property 絞り込むプロパティ名
+     * @param min 下限 nullの場合は絞り込まない
+     * @param max 上限 nullの場合は絞り込まない
+     */
+    private static void between(StringBuilder jpql, Map<String, Object> parameters, String property, Object min,
+            Object max) {
+        String name = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        if (min != null) {
+            jpql.append(" AND p.").append(property).append(" >= :min").append(name);
+            parameters.put("min" + name, min);
+        }
+        if (max != null) {
+            jpql.append(" AND p.").append(property).append(" <= :max").append(name);
+            parameters.put("max" + name, max);
+        }
+    }
+
+}
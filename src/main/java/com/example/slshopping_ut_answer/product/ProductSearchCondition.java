@@ -0,0 +1,251 @@
+package com.example.slshopping_ut_answer.product;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.slshopping_ut_answer.entity.Product;
+
+/**
+ * 商品一覧の検索条件
+ * 各条件がnullの場合は、その条件で絞り込まない 範囲の条件は下限・上限の値を含む
+ */
+public class ProductSearchCondition {
+
+    /** 検索キーワード */
+    private String keyword;
+
+    /** ブランドID */
+    private Long brandId;
+
+    /** カテゴリーID */
+    private Long categoryId;
+
+    /** 価格帯 */
+    private PriceRange priceRange;
+
+    /** 下限価格 */
+    private Integer minPrice;
+
+    /** 上限価格 */
+    private Integer maxPrice;
+
+    /** 長さの下限 */
+    private Double minLength;
+
+    /** 長さの上限 */
+    private Double maxLength;
+
+    /** 幅の下限 */
+    private Double minWidth;
+
+    /** 幅の上限 */
+    private Double maxWidth;
+
+    /** 高さの下限 */
+    private Double minHeight;
+
+    /** 高さの上限 */
+    private Double maxHeight;
+
+    /** 重さの下限 */
+    private Double minWeight;
+
+    /** 重さの上限 */
+    private Double maxWeight;
+
+    /** 並び順 */
+    private ProductSort sort = ProductSort.ID;
+
+    /** 並び順の向き */
+    private Sort.Direction order = Sort.Direction.ASC;
+
+    /** このIDの商品の次から表示する(前のページの最後の商品ID) */
+    private Long after;
+
+    /**
+     * afterの商品の並び替えの値 nullの場合はafterのIDから取得する
+     * 画面からは指定できず、{@link #continueAfter(Product)}でのみ設定する
+     */
+    private Object afterKey;
+
+    /**
+     * 同じ条件で、指定した商品の次から取得する検索条件を返す(一覧の続きのチャンクの取得に使う)
+     * 並び替えの値も商品から設定し、チャンクごとに前の商品を検索しない
+     *
+     * @param last 前のチャンクの最後の商品
+     * @return 検索条件(この検索条件は変更しない)
+     */
+    public ProductSearchCondition continueAfter(Product last) {
+        ProductSearchCondition next = new ProductSearchCondition();
+        next.keyword = keyword;
+        next.brandId = brandId;
+        next.categoryId = categoryId;
+        next.priceRange = priceRange;
+        next.minPrice = minPrice;
+        next.maxPrice = maxPrice;
+        next.minLength = minLength;
+        next.maxLength = maxLength;
+        next.minWidth = minWidth;
+        next.maxWidth = maxWidth;
+        next.minHeight = minHeight;
+        next.maxHeight = maxHeight;
+        next.minWeight = minWeight;
+        next.maxWeight = maxWeight;
+        next.sort = sort;
+        next.order = order;
+        next.after = last.getId();
+        next.afterKey = sort.sortKey(last);
+        return next;
+    }
+
+    /**
+     * 価格・寸法・重さの範囲で絞り込むか
+     * 範囲での絞り込みは、絞り込み条件ごとの商品件数に反映されない
+     *
+     * @return true:範囲で絞り込む false:範囲で絞り込まない
+     */
+    public boolean hasRangeFilter() {
+        return minPrice != null || maxPrice != null || minLength != null || maxLength != null || minWidth != null
+            || maxWidth != null || minHeight != null || maxHeight != null || minWeight != null || maxWeight != null;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public Long getBrandId() {
+        return brandId;
+    }
+
+    public void setBrandId(Long brandId) {
+        this.brandId = brandId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public PriceRange getPriceRange() {
+        return priceRange;
+    }
+
+    public void setPriceRange(PriceRange priceRange) {
+        this.priceRange = priceRange;
+    }
+
+    public Integer getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Integer minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Integer getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Integer maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getMinLength() {
+        return minLength;
+    }
+
+    public void setMinLength(Double minLength) {
+        this.minLength = minLength;
+    }
+
+    public Double getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(Double maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public Double getMinWidth() {
+        return minWidth;
+    }
+
+    public void setMinWidth(Double minWidth) {
+        this.minWidth = minWidth;
+    }
+
+    public Double getMaxWidth() {
+        return maxWidth;
+    }
+
+    public void setMaxWidth(Double maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public Double getMinHeight() {
+        return minHeight;
+    }
+
+    public void setMinHeight(Double minHeight) {
+        this.minHeight = minHeight;
+    }
+
+    public Double getMaxHeight() {
+        return maxHeight;
+    }
+
+    public void setMaxHeight(Double maxHeight) {
+        this.maxHeight = maxHeight;
+    }
+
+    public Double getMinWeight() {
+        return minWeight;
+    }
+
+    public void setMinWeight(Double minWeight) {
+        this.minWeight = minWeight;
+    }
+
+    public Double getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(Double maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public ProductSort getSort() {
+        return sort;
+    }
+
+    public void setSort(ProductSort sort) {
+        this.sort = sort == null ? ProductSort.ID : sort;
+    }
+
+    public Sort.Direction getOrder() {
+        return order;
+    }
+
+    public void setOrder(Sort.Direction order) {
+        this.order = order == null ? Sort.Direction.ASC : order;
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public void setAfter(Long after) {
+        this.after = after;
+    }
+
+    public Object getAfterKey() {
+        return afterKey;
+    }
+
+}
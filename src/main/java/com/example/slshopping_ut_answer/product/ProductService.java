@@ -1,25 +1,65 @@
 package com.example.slshopping_ut_answer.product;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.ObjLongConsumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.slshopping_ut_answer.audit.AuditAction;
+import com.example.slshopping_ut_answer.audit.AuditLog;
+import com.example.slshopping_ut_answer.brand.BrandRepository;
+import com.example.slshopping_ut_answer.cache.CacheInvalidationBus;
+import com.example.slshopping_ut_answer.category.CategoryRepository;
 import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductFacet;
+import com.example.slshopping_ut_answer.entity.ProductImage;
+import com.example.slshopping_ut_answer.suggest.SuggestIndex;
+import com.example.slshopping_ut_answer.suggest.SuggestionType;
 
 
 @Service
 public class ProductService {
 
+    /** 集計の行のキー(ブランド・カテゴリー・価格帯)の順序 */
+    private static final Comparator<ProductFacet> FACET_KEY_ORDER = Comparator.comparing(ProductFacet::getBrandId)
+        .thenComparing(ProductFacet::getCategoryId).thenComparingInt(ProductFacet::getMinPrice);
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductFacetRepository productFacetRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     /**
      * 商品情報全件取得
      *
      * @return 商品情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<Product> listAll() {
         return productRepository.findAll();
     }
@@ -30,6 +70,7 @@ public class ProductService {
      * @param keyword 検索キーワード
      * @return 商品情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<Product> listAll(String keyword) {
         // 検索キーワードがあった場合
         if (keyword != null && !keyword.isEmpty()) {
@@ -41,6 +82,58 @@ public class ProductService {
         }
     }
 
+    /**
+     * 商品情報絞り込み処理(ページ単位)
+     * 前のページの最後の商品の並び順の値を取得してから検索するため、同じトランザクションで実行する
+     *
+     * @param condition 検索条件
+     * @param limit 取得件数
+     * @return 商品情報のリスト
+     */
+    @Transactional(readOnly = true)
+    public List<Product> search(ProductSearchCondition condition, int limit) {
+        return productRepository.search(condition, limit);
+    }
+
+    /**
+     * 絞り込み条件ごとの商品件数取得処理
+     * 商品の登録・更新・削除時に増減させた集計から、条件ごとに1行ずつ読み出す(商品数に依存しない)
+     *
+     * @param keyword 検索キーワード
+     * @param brandId 選択中のブランドID
+     * @param categoryId 選択中のカテゴリーID
+     * @param priceRange 選択中の価格帯
+     * @return 絞り込み条件ごとの商品件数
+     */
+    @Transactional(readOnly = true)
+    public ProductFacets getFacets(String keyword, Long brandId, Long categoryId, PriceRange priceRange) {
+        // 検索キーワードがあった場合は、集計を使えないため該当する商品を数える
+        if (keyword != null && !keyword.isEmpty()) {
+            return ProductFacets.count(productRepository.countFacets(keyword), brandId, categoryId, priceRange);
+        }
+        // それ以外の場合
+        else {
+            List<ProductFacet> facets = productFacetRepository.findFacets(
+                brandId == null ? ProductFacet.ALL_ID : brandId,
+                categoryId == null ? ProductFacet.ALL_ID : categoryId,
+                priceRange == null ? ProductFacet.ALL_PRICE : priceRange.getMin());
+            return ProductFacets.of(facets, brandId, categoryId, priceRange);
+        }
+    }
+
+    /**
+     * 商品情報のページ単位取得処理
+     * ID順に指定件数まで、ブランド・カテゴリーを含めて取得する
+     *
+     * @param afterId このIDより後の商品情報を取得する
+     * @param limit 取得件数
+     * @return 商品情報のリスト
+     */
+    @Transactional(readOnly = true)
+    public List<Product> listPage(Long afterId, int limit) {
+        return productRepository.findByIdGreaterThanOrderById(afterId, Limit.of(limit));
+    }
+
     /**
      * IDに紐づく商品情報取得処理
      *
@@ -48,6 +141,7 @@ public class ProductService {
      * @return 商品情報
      * @throws NotFoundException
      */
+    @Transactional(readOnly = true)
     public Product get(Long id) throws NotFoundException {
         return productRepository.findById(id)
             .orElseThrow(() -> new NotFoundException());
@@ -55,12 +149,67 @@ public class ProductService {
 
     /**
      * 商品情報登録処理
+     * 更新前と更新後の集計区分が異なる場合は、商品件数の集計とブランド・カテゴリーごとの商品件数を増減させる
      *
      * @param product 保存したい商品情報
      * @return 保存した商品情報
      */
+    @Transactional
     public Product save(Product product) {
-        return productRepository.save(product);
+        // 更新前の集計区分・商品名は、保存(マージ)される前に取得する
+        // 取得した商品情報にマージされるため、保存時に再度取得しない
+        Product current = product.getId() == null ? null : productRepository.findById(product.getId()).orElse(null);
+        ProductFacet before = current == null ? null
+            : facetOf(current.getBrand().getId(), current.getCategory().getId(), current.getPrice());
+        String oldName = current == null ? null : current.getName();
+        Product savedProduct = productRepository.save(product);
+        suggestIndex.put(SuggestionType.PRODUCT, oldName, savedProduct.getName());
+        auditLog.record(current == null ? AuditAction.CREATE : AuditAction.UPDATE, Product.class,
+            savedProduct.getId(), savedProduct.getName());
+        cacheInvalidationBus.publish(Product.class, savedProduct.getId(), oldName, savedProduct.getName());
+        ProductFacet after = facetOf(savedProduct.getBrand().getId(), savedProduct.getCategory().getId(),
+            savedProduct.getPrice());
+
+        // 商品を逆向きに移動する(A→BとB→A)更新が同時に行われてもデッドロックしないよう、
+        // 件数の行は常にブランド・カテゴリー・集計の順に、同じテーブルではキーの昇順にロック(更新)する
+        // ブランド・カテゴリーが変わった場合は、それぞれの商品件数を増減させる
+        if (before == null || !before.getBrandId().equals(after.getBrandId())) {
+            addInKeyOrder(before == null ? null : before.getBrandId(), after.getBrandId(), Comparator.naturalOrder(),
+                brandRepository::addProductCount);
+        }
+        if (before == null || !before.getCategoryId().equals(after.getCategoryId())) {
+            addInKeyOrder(before == null ? null : before.getCategoryId(), after.getCategoryId(),
+                Comparator.naturalOrder(), categoryRepository::addProductCount);
+        }
+
+        // ブランド・カテゴリー・価格帯のいずれも変わらない場合は、集計を更新しない
+        if (before != null && FACET_KEY_ORDER.compare(before, after) == 0) {
+            return savedProduct;
+        }
+        addInKeyOrder(before, after, FACET_KEY_ORDER, this::addProductCount);
+        return savedProduct;
+    }
+
+    /**
+     * 更新前の行の件数を1減らし、更新後の行の件数を1増やす
+     * 2つの行は、キーの小さい方から更新する
+     *
+     * @param before 更新前の行のキー 新規登録の場合はnull
+     * @param after 更新後の行のキー
+     * @param keyOrder キーの順序
+     * @param addProductCount 件数の増減処理
+     */
+    private static <K> void addInKeyOrder(K before, K after, Comparator<K> keyOrder,
+            ObjLongConsumer<K> addProductCount) {
+        if (before != null && keyOrder.compare(before, after) < 0) {
+            addProductCount.accept(before, -1);
+            addProductCount.accept(after, 1);
+            return;
+        }
+        addProductCount.accept(after, 1);
+        if (before != null) {
+            addProductCount.accept(before, -1);
+        }
     }
 
     /**
@@ -69,6 +218,7 @@ public class ProductService {
      * @param name 重複確認したい商品情報
      * @return true:重複なし false:重複あり
      */
+    @Transactional(readOnly = true)
     public boolean checkUnique(Product product) {
         boolean isCreatingNew = (product.getId() == null || product.getId() == 0);
         Product productByName = productRepository.findByName(product.getName());
@@ -91,9 +241,81 @@ public class ProductService {
      * @param id 商品ID
      * @throws NotFoundException
      */
+    @Transactional
     public void delete(Long id) throws NotFoundException {
         // IDに紐づく商品情報が存在するか確認するため、getメソッドを呼び出す
         Product product = get(id);
         productRepository.deleteById(product.getId());
+        suggestIndex.remove(SuggestionType.PRODUCT, product.getName());
+        auditLog.record(AuditAction.DELETE, Product.class, product.getId(), product.getName());
+        cacheInvalidationBus.publish(Product.class, product.getId(), product.getName(), null);
+        brandRepository.addProductCount(product.getBrand().getId(), -1);
+        categoryRepository.addProductCount(product.getCategory().getId(), -1);
+        addProductCount(facetOf(product.getBrand().getId(), product.getCategory().getId(), product.getPrice()), -1);
+    }
+
+    /**
+     * 商品画像の切り替え処理
+     * 1枚目の画像のファイル名とギャラリーの画像を、1つのトランザクションでアップロードした画像に切り替える
+     * 画像ファイルの保存中に接続を保持しないよう、ファイルをすべて保存した後に呼び出す
+     *
+     * @param productId 商品ID
+     * @param images 保存した画像(表示順)
+     * @return 切り替え前の画像のファイル名 ファイルはコミット後に呼び出し元で削除する
+     */
+    @Transactional
+    public List<String> saveImages(Long productId, List<ProductImage> images) {
+        // 商品の行を先に更新(ロック)し、同じ商品の画像の切り替えが同時に行われた場合は順番に切り替える
+        productRepository.updateImage(productId, images.get(0).getFileName(), Instant.now());
+        List<String> replaced = productImageRepository.findFileNamesByProductId(productId);
+        Product product = productRepository.getReferenceById(productId);
+        productImageRepository.deleteByProductId(productId);
+        for (ProductImage image : images) {
+            image.setProduct(product);
+        }
+        productImageRepository.saveAll(images);
+        // 画像の保存は商品情報の保存と別のトランザクションのため、改めて他のノードに通知する
+        cacheInvalidationBus.publish(ProductImage.class, productId, null, null);
+        return replaced;
+    }
+
+    /**
+     * 商品件数の集計の増減処理
+     * 商品が属する集計の行(ブランド×カテゴリー×価格帯とその小計)の件数をまとめて増減する
+     *
+     * @param facet 集計区分
+     * @param delta 増減する件数
+     */
+    private void addProductCount(ProductFacet facet, long delta) {
+        Long brandId = facet.getBrandId();
+        Long categoryId = facet.getCategoryId();
+        int minPrice = facet.getMinPrice();
+        List<ProductFacet> rollups = ProductFacets.rollups(brandId, categoryId, minPrice, 0);
+
+        // 初めての組み合わせの場合は、件数0の行を先に追加する
+        // 同じ行を同時に追加しないよう、ロック用の行をロックしてから確認する
+        if (delta > 0 && productFacetRepository.countRollups(brandId, categoryId, minPrice) < rollups.size()) {
+            productFacetRepository.lockForInsert();
+            List<ProductFacet> existing = productFacetRepository.findRollups(brandId, categoryId, minPrice);
+            for (ProductFacet rollup : rollups) {
+                if (existing.stream().noneMatch(e -> e.getBrandId().equals(rollup.getBrandId())
+                        && e.getCategoryId().equals(rollup.getCategoryId()) && e.getMinPrice() == rollup.getMinPrice())) {
+                    productFacetRepository.save(rollup);
+                }
+            }
+        }
+        productFacetRepository.addProductCount(brandId, categoryId, minPrice, delta);
+    }
+
+    /**
+     * 商品1件分の集計区分を作成する
+     *
+     * @param brandId ブランドID
+     * @param categoryId カテゴリーID
+     * @param price 価格
+     * @return 集計区分
+     */
+    private static ProductFacet facetOf(Long brandId, Long categoryId, int price) {
+        return new ProductFacet(brandId, categoryId, PriceRange.of(price).getMin(), 1);
     }
 }
@@ -0,0 +1,42 @@
+package com.example.slshopping_ut_answer.product;
+
+import java.util.function.Function;
+
+import com.example.slshopping_ut_answer.entity.Product;
+
+/**
+ * 商品一覧の並び順
+ * 同じ値の商品はIDの順に並べる(ページの続きをIDとの組で指定するため)
+ */
+public enum ProductSort {
+
+    ID("id", Product::getId),
+    NAME("name", Product::getName),
+    PRICE("price", Product::getPrice);
+
+    /** 並び替えに使うプロパティ名 */
+    private final String property;
+
+    /** 商品から並び替えに使う値を取得する処理 */
+    private final Function<Product, Object> sortKey;
+
+    private ProductSort(String property, Function<Product, Object> sortKey) {
+        this.property = property;
+        this.sortKey = sortKey;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * 商品の並び替えに使う値を返す
+     *
+     * @param product 商品
+     * @return 並び替えに使うプロパティの値
+     */
+    public Object sortKey(Product product) {
+        return sortKey.apply(product);
+    }
+
+}
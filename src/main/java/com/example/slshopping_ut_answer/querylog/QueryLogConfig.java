@@ -0,0 +1,47 @@
+package com.example.slshopping_ut_answer.querylog;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * DataSourceをラップし、実行したSQLを{@link QueryLogListener}に渡す
+ */
+@Configuration
+@EnableConfigurationProperties(QueryLogProperties.class)
+public class QueryLogConfig {
+
+    @Bean
+    public static BeanPostProcessor queryLogDataSourcePostProcessor(ObjectProvider<QueryLogProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // 振り分け用のDataSourceは、振り分け先の接続プールをラップするため除く
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)
+                        && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    return wrap(dataSource, properties.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static DataSource wrap(DataSource dataSource, QueryLogProperties properties) {
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+            .name("slshop")
+            .listener(new QueryLogListener(properties));
+        if (properties.tagOrigin()) {
+            builder.queryTransformer(transformInfo -> QueryOrigin.tag(transformInfo.getQuery()));
+        }
+        return builder.build();
+    }
+
+}
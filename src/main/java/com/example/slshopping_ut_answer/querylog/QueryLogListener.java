@@ -0,0 +1,101 @@
+package com.example.slshopping_ut_answer.querylog;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * 実行したSQLのうち、遅いものと一定割合で抽出したものだけをログに出力する
+ * 全件を出力するshow-sqlと違い、高負荷時でもログ出力が処理時間を占めないようにする
+ */
+public class QueryLogListener implements QueryExecutionListener {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryLogListener.class);
+
+    /** バッチ実行時に出力するバインド変数の最大組数 */
+    private static final int MAX_BATCH_PARAMETERS = 3;
+
+    /** 出力するバインド変数1件あたりの最大文字数 */
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final long slowThresholdMillis;
+
+    private final double sampleRate;
+
+    public QueryLogListener(QueryLogProperties properties) {
+        this.slowThresholdMillis = properties.slowThreshold().toMillis();
+        this.sampleRate = properties.sampleRate();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed >= slowThresholdMillis) {
+            if (LOGGER.isWarnEnabled()) {
+                for (QueryInfo query : queryInfoList) {
+                    LOGGER.warn("slow query {}ms origin={} sql={} params={}",
+                        elapsed, origin(query), query.getQuery(), parameters(query));
+                }
+            }
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            if (LOGGER.isInfoEnabled()) {
+                for (QueryInfo query : queryInfoList) {
+                    LOGGER.info("sampled query {}ms origin={} sql={}", elapsed, origin(query), query.getQuery());
+                }
+            }
+        }
+    }
+
+    private static String origin(QueryInfo query) {
+        return QueryOrigin.of(query.getQuery()).orElse("-");
+    }
+
+    /**
+     * バインド変数を出力用の文字列にする
+     * パスワードを含むSQLの値は伏せる
+     *
+     * @param query SQL
+     * @return [1:値, 2:値] 形式の文字列 バッチ実行時は組ごとに並べる
+     */
+    static String parameters(QueryInfo query) {
+        boolean masked = query.getQuery().toLowerCase(Locale.ROOT).contains("password");
+        List<List<ParameterSetOperation>> parametersList = query.getParametersList();
+        String parameters = parametersList.stream()
+            .limit(MAX_BATCH_PARAMETERS)
+            .map(operations -> operations.stream()
+                .map(operation -> operation.getArgs()[0] + ":" + (masked ? "***" : value(operation)))
+                .collect(Collectors.joining(", ", "[", "]")))
+            .collect(Collectors.joining(" "));
+        if (parametersList.size() > MAX_BATCH_PARAMETERS) {
+            parameters += " ...(" + parametersList.size() + "件)";
+        }
+        return parameters;
+    }
+
+    private static String value(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "null";
+        }
+        Object[] args = operation.getArgs();
+        String value = args.length > 1 ? String.valueOf(args[1]) : "";
+        if (value.length() > MAX_PARAMETER_LENGTH) {
+            value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        return args.length > 1 && args[1] instanceof CharSequence ? "'" + value + "'" : value;
+    }
+
+}
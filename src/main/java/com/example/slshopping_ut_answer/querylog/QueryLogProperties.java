@@ -0,0 +1,20 @@
+package com.example.slshopping_ut_answer.querylog;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * SQLログの設定
+ *
+ * @param slowThreshold この時間以上かかったSQLをバインド変数付きで出力する
+ * @param sampleRate 閾値未満のSQLを出力する割合(0〜1)
+ * @param tagOrigin SQLの先頭に発行元のメソッド名をコメントとして付けるか
+ */
+@ConfigurationProperties("slshop.query-log")
+public record QueryLogProperties(
+        @DefaultValue("200ms") Duration slowThreshold,
+        @DefaultValue("0.01") double sampleRate,
+        @DefaultValue("true") boolean tagOrigin) {
+}
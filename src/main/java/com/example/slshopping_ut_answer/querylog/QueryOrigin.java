@@ -0,0 +1,66 @@
+package com.example.slshopping_ut_answer.querylog;
+
+import java.lang.StackWalker.Option;
+import java.lang.StackWalker.StackFrame;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Service;
+
+/**
+ * SQLを発行したコントローラー・サービスのメソッドを特定する
+ */
+final class QueryOrigin {
+
+    private static final StackWalker WALKER = StackWalker.getInstance(Option.RETAIN_CLASS_REFERENCE);
+
+    /** SQLの先頭に付けたコメントからメソッド名を取り出す */
+    private static final Pattern TAG = Pattern.compile("^/\\* ([\\w.$]+) \\*/ ");
+
+    private QueryOrigin() {
+    }
+
+    /**
+     * 呼び出し元をさかのぼり、最も内側のサービス(なければコントローラー)のメソッドを返す
+     *
+     * @return クラス名.メソッド名 見つからない場合はnull
+     */
+    static String find() {
+        return WALKER.walk(frames -> frames
+            .filter(QueryOrigin::isOrigin)
+            .findFirst()
+            .map(frame -> frame.getDeclaringClass().getSimpleName() + "." + frame.getMethodName())
+            .orElse(null));
+    }
+
+    /**
+     * SQLの先頭に発行元のメソッド名をコメントとして付ける
+     * pg_stat_statementsなどでSQLの発行元を追えるようにする
+     *
+     * @param sql SQL
+     * @return コメントを付けたSQL 発行元が見つからない場合はそのまま
+     */
+    static String tag(String sql) {
+        String origin = find();
+        return origin == null ? sql : "/* " + origin + " */ " + sql;
+    }
+
+    /**
+     * {@link #tag(String)}で付けたコメントからメソッド名を取り出す
+     *
+     * @param sql SQL
+     * @return メソッド名
+     */
+    static Optional<String> of(String sql) {
+        Matcher matcher = TAG.matcher(sql);
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private static boolean isOrigin(StackFrame frame) {
+        Class<?> type = frame.getDeclaringClass();
+        return type.isAnnotationPresent(Service.class) || type.isAnnotationPresent(Controller.class);
+    }
+
+}
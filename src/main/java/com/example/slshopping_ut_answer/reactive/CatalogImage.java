@@ -0,0 +1,36 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * リアクティブ版の商品カタログで返す商品画像(ギャラリーの1枚)
+ *
+ * @param id 商品画像ID
+ * @param productId 商品ID
+ * @param displayOrder 表示順
+ * @param fileName ファイル名
+ * @param width 元画像の幅 不明な場合はnull
+ * @param height 元画像の高さ 不明な場合はnull
+ */
+@Table("product_images")
+public record CatalogImage(
+        @Id Long id,
+        @JsonIgnore Long productId,
+        int displayOrder,
+        String fileName,
+        Integer width,
+        Integer height) {
+
+    /**
+     * 元画像のURL
+     */
+    @JsonProperty("url")
+    public String url() {
+        return "/product-images/" + productId + "/" + fileName;
+    }
+
+}
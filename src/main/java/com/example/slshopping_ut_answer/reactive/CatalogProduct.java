@@ -0,0 +1,72 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * リアクティブ版の商品カタログで返す商品情報
+ * 商品にブランド名・カテゴリー名を結合した1行を、そのまま読み込む(R2DBCは関連エンティティを読み込まないため)
+ * JSONでは、ブランド・カテゴリーをIDと名前のみのオブジェクトとして出力する(/api/productsと同じ形式)
+ *
+ * @param id 商品ID
+ * @param name 商品名
+ * @param description 説明
+ * @param price 価格
+ * @param imageFile 画像のファイル名(ギャラリーの1枚目) JSONでは画像のURL(image)として出力する
+ * @param length 長さ
+ * @param width 幅
+ * @param height 高さ
+ * @param weight 重さ
+ * @param brandId ブランドID
+ * @param brandName ブランド名
+ * @param categoryId カテゴリーID
+ * @param categoryName カテゴリー名
+ */
+@Table("products")
+public record CatalogProduct(
+        @Id Long id,
+        String name,
+        String description,
+        int price,
+        @Column("image") @JsonIgnore String imageFile,
+        double length,
+        double width,
+        double height,
+        double weight,
+        @JsonIgnore Long brandId,
+        @JsonIgnore String brandName,
+        @JsonIgnore Long categoryId,
+        @JsonIgnore String categoryName) {
+
+    /**
+     * 関連する情報(IDと名前のみ)
+     *
+     * @param id ID
+     * @param name 名前
+     */
+    public record Reference(Long id, String name) {
+    }
+
+    /**
+     * 画像のURL({@link com.example.slshopping_ut_answer.entity.Product#getImage()}と同じ形式)
+     */
+    @JsonProperty("image")
+    public String image() {
+        return imageFile != null ? "/product-images/" + id + "/" + imageFile : null;
+    }
+
+    @JsonProperty("brand")
+    public Reference brand() {
+        return new Reference(brandId, brandName);
+    }
+
+    @JsonProperty("category")
+    public Reference category() {
+        return new Reference(categoryId, categoryName);
+    }
+
+}
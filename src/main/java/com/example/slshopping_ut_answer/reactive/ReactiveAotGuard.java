@@ -0,0 +1,51 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.stereotype.Component;
+
+/**
+ * AOTモード(-Dspring.aot.enabled=true)で、リアクティブ版の商品カタログの設定が起動時のプロファイルと合わない場合に起動を止める
+ *
+ * AOTモードでは{@link ReactiveCatalogConfig}の@Profile("reactive")と、Basic認証の@Profile("!dev")がビルド時に評価される
+ * reactiveプロファイルなしでビルドした場合は、起動時に指定してもリアクティブ版のポートで待ち受けない
+ * devプロファイルでビルドした場合は、devプロファイルなしで起動してもBasic認証が行われない
+ */
+@Component
+public class ReactiveAotGuard implements InitializingBean {
+
+    private final Environment environment;
+
+    private final ObjectProvider<ReactiveCatalogConfig> reactiveCatalogConfig;
+
+    private final ObjectProvider<SecurityWebFilterChain> securityWebFilterChain;
+
+    public ReactiveAotGuard(Environment environment, ObjectProvider<ReactiveCatalogConfig> reactiveCatalogConfig,
+            ObjectProvider<SecurityWebFilterChain> securityWebFilterChain) {
+        this.environment = environment;
+        this.reactiveCatalogConfig = reactiveCatalogConfig;
+        this.securityWebFilterChain = securityWebFilterChain;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        boolean configured = reactiveCatalogConfig.getIfAvailable() != null;
+        if (environment.acceptsProfiles(Profiles.of("reactive")) && !configured) {
+            throw new IllegalStateException("The reactive profile is active, but the AOT build was generated "
+                + "without it; rebuild with the reactive profile or start without -Dspring.aot.enabled=true");
+        }
+        if (configured && !environment.acceptsProfiles(Profiles.of("dev"))
+                && securityWebFilterChain.getIfAvailable() == null) {
+            throw new IllegalStateException("The AOT build was generated with the dev profile, so the reactive "
+                + "catalog would run without authentication; rebuild without the dev profile");
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import com.example.slshopping_ut_answer.product.ProductImageCache;
+import com.example.slshopping_ut_answer.storage.ImageStorage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * リアクティブ版の商品カタログの設定(reactiveプロファイルで有効)
+ * 店舗向けの商品一覧・詳細を、WebFlux(Reactor Netty)とR2DBCで別のポートから返す
+ *
+ * R2DBCの接続プールはこの設定内でのみ保持し、Beanとして登録しない
+ * (ConnectionFactoryのBeanがあると、Spring BootがJPAのDataSourceを作成しなくなるため)
+ * 接続先はJPAの接続先(spring.datasource.url)から求め、別のデータベースを参照しないようにする
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(ReactiveCatalogProperties.class)
+@EnableR2dbcRepositories(entityOperationsRef = "catalogEntityTemplate")
+public class ReactiveCatalogConfig implements DisposableBean {
+
+    private final ReactiveCatalogProperties properties;
+
+    private final ConnectionPool connectionPool;
+
+    public ReactiveCatalogConfig(ReactiveCatalogProperties properties, DataSourceProperties dataSourceProperties) {
+        this.properties = properties;
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions
+            .parse(r2dbcUrl(dataSourceProperties.determineUrl())).mutate();
+        if (dataSourceProperties.determineUsername() != null) {
+            options.option(USER, dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            options.option(PASSWORD, dataSourceProperties.determinePassword());
+        }
+        this.connectionPool = new ConnectionPool(
+            ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .maxSize(properties.poolSize())
+                .build());
+    }
+
+    /**
+     * JDBCの接続先のURLを、同じデータベースに接続するR2DBCのURLに変換する
+     * PostgreSQL(jdbc:postgresql://ホスト:ポート/データベース名)と、H2のインメモリデータベース(テスト用)に対応する
+     *
+     * @param jdbcUrl JDBCの接続先のURL
+     * @return R2DBCの接続先のURL
+     * @throws IllegalStateException 変換できないURLの場合(起動を止める)
+     */
+    static String r2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:postgresql://")) {
+            return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+        }
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:h2:mem:")) {
+            return "r2dbc:h2:mem:///" + jdbcUrl.substring("jdbc:h2:mem:".length());
+        }
+        throw new IllegalStateException("The reactive profile cannot derive an R2DBC URL from spring.datasource.url="
+            + jdbcUrl + "; use jdbc:postgresql://host:port/database");
+    }
+
+    @Bean
+    public R2dbcEntityTemplate catalogEntityTemplate() {
+        return new R2dbcEntityTemplate(connectionPool);
+    }
+
+    @Bean
+    public ReactiveProductHandler reactiveProductHandler(ReactiveProductRepository productRepository,
+            ImageStorage imageStorage, ProductImageCache productImageCache) {
+        return new ReactiveProductHandler(productRepository, imageStorage, productImageCache);
+    }
+
+    /**
+     * 管理画面(SecurityConfig)と同じユーザーのBasic認証を必要とする(devプロファイル以外)
+     * パスワードの照合(BCrypt)とユーザーの取得(JPA)は、イベントループの外で行う
+     */
+    @Bean
+    @Profile("!dev")
+    public SecurityWebFilterChain catalogSecurityWebFilterChain(UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder) {
+        ReactiveUserDetailsService reactiveUserDetailsService = username -> Mono
+            .fromCallable(() -> userDetailsService.loadUserByUsername(username))
+            .subscribeOn(Schedulers.boundedElastic())
+            // 存在しないユーザーもパスワードの誤りと同じ401にする
+            .onErrorResume(UsernameNotFoundException.class, e -> Mono.empty());
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+            new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUserDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        return ServerHttpSecurity.http()
+            .authenticationManager(authenticationManager)
+            .httpBasic(Customizer.withDefaults())
+            .authorizeExchange(exchanges -> exchanges.anyExchange().authenticated())
+            .build();
+    }
+
+    @Bean
+    public ReactiveCatalogServer reactiveCatalogServer(ReactiveProductHandler handler, ObjectMapper objectMapper,
+            ObjectProvider<SecurityWebFilterChain> securityWebFilterChain) {
+        // JSONはMVC版と同じ設定(Spring BootのObjectMapper)で出力する
+        HandlerStrategies.Builder strategies = HandlerStrategies.builder()
+            .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)));
+        securityWebFilterChain.ifAvailable(chain -> strategies.webFilter(new WebFilterChainProxy(chain)));
+        return new ReactiveCatalogServer(properties.port(),
+            RouterFunctions.toHttpHandler(handler.routes(), strategies.build()));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+}
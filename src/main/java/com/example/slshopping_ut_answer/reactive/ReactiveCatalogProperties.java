@@ -0,0 +1,17 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * リアクティブ版の商品カタログの設定
+ * データベースの接続先・ユーザーは、JPAと同じ設定(spring.datasource.*)を使う
+ *
+ * @param port 待ち受けるポート 0の場合は空いているポート
+ * @param poolSize 接続プールの最大接続数
+ */
+@ConfigurationProperties("slshop.reactive")
+public record ReactiveCatalogProperties(
+        @DefaultValue("8081") int port,
+        @DefaultValue("10") int poolSize) {
+}
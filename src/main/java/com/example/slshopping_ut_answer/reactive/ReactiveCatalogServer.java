@@ -0,0 +1,60 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+
+/**
+ * リアクティブ版の商品カタログを返すサーバー(Reactor Netty)
+ * 管理画面(サーブレット)とは別のポートで待ち受け、アプリケーションの起動・終了に合わせて開始・停止する
+ */
+public class ReactiveCatalogServer implements SmartLifecycle {
+
+    private final int port;
+
+    private final HttpHandler httpHandler;
+
+    private volatile WebServer webServer;
+
+    /**
+     * @param port 待ち受けるポート 0の場合は空いているポート
+     * @param httpHandler リクエストの処理
+     */
+    public ReactiveCatalogServer(int port, HttpHandler httpHandler) {
+        this.port = port;
+        this.httpHandler = httpHandler;
+    }
+
+    @Override
+    public void start() {
+        WebServer server = new NettyReactiveWebServerFactory(port).getWebServer(httpHandler);
+        server.start();
+        webServer = server;
+    }
+
+    @Override
+    public void stop() {
+        WebServer server = webServer;
+        if (server != null) {
+            webServer = null;
+            server.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return webServer != null;
+    }
+
+    /**
+     * 待ち受けているポートを返す
+     *
+     * @return ポート 開始していない場合は-1
+     */
+    public int getPort() {
+        WebServer server = webServer;
+        return server != null ? server.getPort() : -1;
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.slshopping_ut_answer.api.JsonPage;
+import com.example.slshopping_ut_answer.product.ProductImageCache;
+import com.example.slshopping_ut_answer.product.ProductImageController;
+import com.example.slshopping_ut_answer.storage.ImageMetadata;
+import com.example.slshopping_ut_answer.storage.ImageStorage;
+import com.example.slshopping_ut_answer.storage.StoredImage;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * リアクティブ版の商品カタログ(商品一覧・詳細のAPI、商品画像の配信)
+ * 認証(Basic認証)は{@link ReactiveCatalogConfig}で、このハンドラーの前に行う
+ *
+ * データベースの読み込みはR2DBC、ローカルの画像の送信はファイルからの直接送信(sendfile)で行い、
+ * イベントループのスレッドをブロックしない
+ * ストリームでしか読み込めない保存先(S3互換のオブジェクトストレージ)の画像は、ブロックしてもよいスレッドで読み込む
+ */
+public class ReactiveProductHandler {
+
+    /** 商品画像のURLの接頭辞 */
+    private static final String IMAGE_PATH = "/product-images/";
+
+    /** 保存先から画像を読み込む単位(バイト数) */
+    private static final int IMAGE_BUFFER_SIZE = 8192;
+
+    /** 一覧で出力できる項目(MVC版の/api/productsと同じ項目名・形式) */
+    private static final JsonPage<CatalogProduct> PAGE = new JsonPage<CatalogProduct>(CatalogProduct::id)
+        .field("id", CatalogProduct::id)
+        .field("name", CatalogProduct::name)
+        .field("description", CatalogProduct::description)
+        .field("price", CatalogProduct::price)
+        .field("image", CatalogProduct::image)
+        .field("length", CatalogProduct::length)
+        .field("width", CatalogProduct::width)
+        .field("height", CatalogProduct::height)
+        .field("weight", CatalogProduct::weight)
+        .field("brand", CatalogProduct::brand)
+        .field("category", CatalogProduct::category);
+
+    /**
+     * 商品情報の詳細
+     *
+     * @param product 商品情報(商品情報の項目として出力する)
+     * @param images ギャラリーの画像(表示順)
+     */
+    public record CatalogProductDetail(@JsonUnwrapped CatalogProduct product, List<CatalogImage> images) {
+    }
+
+    private final ReactiveProductRepository productRepository;
+
+    private final ImageStorage imageStorage;
+
+    private final ProductImageCache productImageCache;
+
+    public ReactiveProductHandler(ReactiveProductRepository productRepository, ImageStorage imageStorage,
+            ProductImageCache productImageCache) {
+        this.productRepository = productRepository;
+        this.imageStorage = imageStorage;
+        this.productImageCache = productImageCache;
+    }
+
+    /**
+     * URLと処理の対応を返す
+     *
+     * @return URLと処理の対応
+     */
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+            .GET("/api/products/{id}", this::getProduct)
+            .GET("/api/products", this::listProducts)
+            .GET(IMAGE_PATH + "**", this::image)
+            .build();
+    }
+
+    /**
+     * 商品情報一覧取得API
+     * ID順に1ページ分の商品情報をJSONで返す
+     * パラメーター(after、limit、fields)・出力形式・不正な指定の扱いはMVC版(/api/products)と同じ
+     *
+     * @param request リクエスト(after、limit、fields)
+     * @return 商品情報一覧 limitが範囲外、またはfieldsに存在しない項目名が指定された場合は400
+     */
+    public Mono<ServerResponse> listProducts(ServerRequest request) {
+        long after;
+        int limit;
+        List<String> fields;
+        try {
+            after = request.queryParam("after").map(Long::parseLong).orElse(0L);
+            limit = request.queryParam("limit").map(Integer::parseInt).orElse(JsonPage.DEFAULT_LIMIT);
+            fields = PAGE.select(limit, request.queryParam("fields").orElse(null));
+        } catch (NumberFormatException e) {
+            return badRequest("afterとlimitは数値で指定してください");
+        } catch (ResponseStatusException e) {
+            return badRequest(e.getReason());
+        }
+        return productRepository.findPage(after, limit)
+            .collectList()
+            .map(items -> PAGE.toMap(items, limit, fields))
+            .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    /**
+     * 商品情報詳細取得API
+     * 商品情報とギャラリーの画像を、別々の接続で並行して取得する
+     *
+     * @param request リクエスト(商品ID)
+     * @return 商品情報の詳細 商品が存在しない場合は404
+     */
+    public Mono<ServerResponse> getProduct(ServerRequest request) {
+        long id;
+        try {
+            id = Long.parseLong(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.notFound().build();
+        }
+        return Mono.zip(productRepository.findDetail(id), productRepository.findImages(id).collectList(),
+                CatalogProductDetail::new)
+            .flatMap(detail -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(detail))
+            .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    /**
+     * 商品画像の取得
+     * ローカルのディレクトリに保存した画像は、ファイルから直接送信する
+     * それ以外の保存先の画像は、MVC版と同じキャッシュを通して読み込む
+     * どちらも、前回取得時から変更がない画像は内容を読み込まずに304を返す(MVC版と同じ)
+     *
+     * @param request リクエスト(/product-images/商品ID/アップロードID/ファイル名、/product-images/商品ID/アップロードID/w320/ファイル名)
+     * @return 画像 存在しない場合は404
+     */
+    public Mono<ServerResponse> image(ServerRequest request) {
+        String key = request.path().substring(IMAGE_PATH.length());
+        MediaType contentType = MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        Optional<Path> file;
+        try {
+            file = imageStorage.localFile(key);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.notFound().build();
+        }
+        Callable<Optional<ImageMetadata>> metadata = file.isPresent()
+            ? () -> imageStorage.metadata(key)
+            : () -> productImageCache.metadata(key);
+        // ファイルの確認(stat)・保存先への問い合わせもイベントループの外で行う
+        return Mono.fromCallable(metadata)
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(found -> found
+                .map(imageMetadata -> checkNotModified(request, imageMetadata)
+                    .switchIfEmpty(Mono.defer(() -> file.isPresent()
+                        ? ok(imageMetadata).contentType(contentType)
+                            .body(BodyInserters.fromResource(new FileSystemResource(file.get())))
+                        : loadImage(key, imageMetadata, contentType))))
+                .orElseGet(() -> ServerResponse.notFound().build()));
+    }
+
+    /**
+     * キャッシュを通して読み込んだ画像を送信する
+     */
+    private Mono<ServerResponse> loadImage(String key, ImageMetadata metadata, MediaType contentType) {
+        return Mono.fromCallable(() -> productImageCache.load(key))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(image -> image.map(storedImage -> streamImage(storedImage, metadata, contentType))
+                .orElseGet(() -> ServerResponse.notFound().build()));
+    }
+
+    /**
+     * 保存先から読み込みながら画像を送信する
+     */
+    private Mono<ServerResponse> streamImage(StoredImage image, ImageMetadata metadata, MediaType contentType) {
+        ServerResponse.BodyBuilder response = ok(metadata)
+            .contentType(image.contentType() != null ? MediaType.parseMediaType(image.contentType()) : contentType);
+        if (image.contentLength() >= 0) {
+            response.contentLength(image.contentLength());
+        }
+        // 読み込み終わった(またはクライアントが切断した)時点でストリームを閉じる
+        return response.body(DataBufferUtils.readInputStream(image::content, DefaultDataBufferFactory.sharedInstance,
+                IMAGE_BUFFER_SIZE).subscribeOn(Schedulers.boundedElastic()), DataBuffer.class);
+    }
+
+    /**
+     * リクエストのIf-None-Match・If-Modified-Sinceが画像のETag・最終更新日時と一致する場合は、304を返す
+     * 一致しない場合は空
+     */
+    private static Mono<ServerResponse> checkNotModified(ServerRequest request, ImageMetadata metadata) {
+        Instant lastModified = metadata.lastModified() >= 0 ? Instant.ofEpochMilli(metadata.lastModified()) : null;
+        if (metadata.etag() != null && lastModified != null) {
+            return request.checkNotModified(lastModified, metadata.etag());
+        }
+        if (metadata.etag() != null) {
+            return request.checkNotModified(metadata.etag());
+        }
+        if (lastModified != null) {
+            return request.checkNotModified(lastModified);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 画像のETag・最終更新日時とCache-Controlを設定した200のレスポンス
+     */
+    private static ServerResponse.BodyBuilder ok(ImageMetadata metadata) {
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+            .header(HttpHeaders.CACHE_CONTROL, ProductImageController.CACHE_CONTROL);
+        if (metadata.etag() != null) {
+            response.eTag(metadata.etag());
+        }
+        if (metadata.lastModified() >= 0) {
+            response.lastModified(Instant.ofEpochMilli(metadata.lastModified()));
+        }
+        return response;
+    }
+
+    private static Mono<ServerResponse> badRequest(String message) {
+        return ServerResponse.status(HttpStatus.BAD_REQUEST).contentType(MediaType.TEXT_PLAIN).bodyValue(message);
+    }
+
+}
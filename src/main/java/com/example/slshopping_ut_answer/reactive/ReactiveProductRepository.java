@@ -0,0 +1,55 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * リアクティブ版の商品カタログの取得クエリ(R2DBC)
+ * 商品一覧・詳細で{@link com.example.slshopping_ut_answer.product.ProductRepository}と同じ情報を取得する
+ * ブランド・カテゴリーは結合して1つのクエリで取得する
+ */
+public interface ReactiveProductRepository extends Repository<CatalogProduct, Long> {
+
+    /** 商品にブランド名・カテゴリー名を結合して取得する */
+    String SELECT_PRODUCT = "SELECT p.id, p.name, p.description, p.price, p.image, "
+            + "p.length, p.width, p.height, p.weight, "
+            + "p.brand_id, b.name AS brand_name, p.category_id, c.name AS category_name "
+            + "FROM products p "
+            + "JOIN brands b ON b.id = p.brand_id "
+            + "JOIN categories c ON c.id = p.category_id ";
+
+    /**
+     * 商品情報取得クエリ(ページ単位)
+     * IDをキーに、指定したIDより後の商品情報をID順に取得する
+     *
+     * @param after このIDより後の商品情報を取得する
+     * @param limit 取得件数
+     * @return 商品情報
+     */
+    @Query(SELECT_PRODUCT + "WHERE p.id > :after ORDER BY p.id LIMIT :limit")
+    Flux<CatalogProduct> findPage(@Param("after") Long after, @Param("limit") int limit);
+
+    /**
+     * IDに紐づく商品情報取得クエリ
+     *
+     * @param id 商品ID
+     * @return 商品情報 存在しない場合は空
+     */
+    @Query(SELECT_PRODUCT + "WHERE p.id = :id")
+    Mono<CatalogProduct> findDetail(@Param("id") Long id);
+
+    /**
+     * 商品のギャラリーの画像取得クエリ
+     *
+     * @param productId 商品ID
+     * @return 商品画像(表示順)
+     */
+    @Query("SELECT id, product_id, display_order, file_name, width, height FROM product_images "
+            + "WHERE product_id = :productId ORDER BY display_order")
+    Flux<CatalogImage> findImages(@Param("productId") Long productId);
+
+}
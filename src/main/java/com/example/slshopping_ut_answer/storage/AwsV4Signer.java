@@ -0,0 +1,146 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * AWS署名バージョン4によるS3へのリクエストの署名
+ * S3互換のオブジェクトストレージ(MinIOなど)も同じ方式で署名を検証する
+ */
+final class AwsV4Signer {
+
+    /** 本文を署名に含めない場合のハッシュ値 本文をストリームで送るリクエストで使う */
+    static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+    /** 本文がない場合のハッシュ値 */
+    static final String EMPTY_PAYLOAD_HASH = sha256Hex(new byte[0]);
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+        .withZone(ZoneOffset.UTC);
+
+    private final String region;
+
+    private final String accessKey;
+
+    private final String secretKey;
+
+    AwsV4Signer(String region, String accessKey, String secretKey) {
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+    }
+
+    /**
+     * リクエストに署名する
+     *
+     * @param method HTTPメソッド
+     * @param uri リクエストのURI パス・クエリはencodeでエンコード済みのもの
+     * @param headers 署名に含めるヘッダー(host・x-amz-date・x-amz-content-sha256以外)
+     * @param payloadHash 本文のSHA-256(16進数) またはUNSIGNED_PAYLOAD
+     * @param now 署名する日時
+     * @return リクエストに付けるヘッダー(hostを除く) 引数のヘッダーとAuthorizationなどを含む
+     */
+    Map<String, String> sign(String method, URI uri, Map<String, String> headers, String payloadHash, Instant now) {
+        String dateTime = DATE_TIME.format(now);
+        String date = dateTime.substring(0, 8);
+
+        Map<String, String> signed = new TreeMap<>();
+        headers.forEach((name, value) -> signed.put(name.toLowerCase(Locale.ROOT), value.trim()));
+        signed.put("host", uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort());
+        signed.put("x-amz-content-sha256", payloadHash);
+        signed.put("x-amz-date", dateTime);
+
+        StringBuilder canonicalHeaders = new StringBuilder();
+        signed.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value).append('\n'));
+        String signedHeaders = String.join(";", signed.keySet());
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String canonicalRequest = method + "\n" + path + "\n" + canonicalQuery(uri.getRawQuery()) + "\n"
+            + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + dateTime + "\n" + scope + "\n"
+            + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+        byte[] signingKey = hmac(hmac(hmac(hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date),
+            region), "s3"), "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        Map<String, String> result = new LinkedHashMap<>(signed);
+        result.remove("host");
+        result.put("authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+            + ",SignedHeaders=" + signedHeaders + ",Signature=" + signature);
+        return result;
+    }
+
+    /**
+     * S3の署名の規則でURIの一部をエンコードする
+     * 英数字と「-_.~」以外をUTF-8でパーセントエンコードする
+     *
+     * @param value エンコードする値
+     * @param keepSlash 「/」をエンコードしない場合はtrue(オブジェクトのキーをパスに含める場合)
+     * @return エンコードした値
+     */
+    static String encode(String value, boolean keepSlash) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (keepSlash && c == '/')) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+            }
+        }
+        return encoded.toString();
+    }
+
+    static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * クエリのパラメーターを名前・値の順に並べる(値のないパラメーターは空文字の値とする)
+     */
+    private static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> parameters = new ArrayList<>();
+        for (String parameter : rawQuery.split("&")) {
+            parameters.add(parameter.contains("=") ? parameter : parameter + "=");
+        }
+        parameters.sort(Comparator.comparing((String parameter) -> parameter.substring(0, parameter.indexOf('=')))
+            .thenComparing(parameter -> parameter.substring(parameter.indexOf('=') + 1)));
+        return String.join("&", parameters);
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.example.slshopping_ut_answer.storage;
+
+/**
+ * 保存先の画像の情報(内容以外)
+ * 画像の内容を読み込む前に、条件付きGET(ETag・Last-Modified)を判定するために使う
+ *
+ * @param contentLength 画像のバイト数 不明な場合は-1
+ * @param contentType 画像の種類 不明な場合はnull
+ * @param lastModified 最終更新日時(エポックミリ秒) 不明な場合は-1
+ * @param etag ETag(引用符を含む) 不明な場合はnull
+ */
+public record ImageMetadata(long contentLength, String contentType, long lastModified, String etag) {
+}
@@ -0,0 +1,73 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * 商品画像の保存先
+ * 画像は「商品ID/アップロードID/ファイル名」「商品ID/アップロードID/w320/ファイル名」のようなキーで保存する
+ * (アップロードIDのディレクトリがない「商品ID/ファイル名」は、アップロードごとに分ける前に保存した画像)
+ * 保存・読み込みはストリームで行い、画像全体をメモリに読み込まない
+ */
+public interface ImageStorage {
+
+    /**
+     * 画像を保存する 同じキーの画像がある場合は置き換える
+     *
+     * @param key キー
+     * @param content 画像の内容 呼び出し元で閉じる
+     * @param contentLength 画像のバイト数 不明な場合は-1
+     * @param contentType 画像の種類(image/pngなど)
+     * @throws IOException 保存できなかった場合
+     */
+    void store(String key, InputStream content, long contentLength, String contentType) throws IOException;
+
+    /**
+     * 画像を読み込む
+     *
+     * @param key キー
+     * @return 画像 存在しない場合は空 内容のストリームは呼び出し元で閉じる
+     * @throws IOException 読み込めなかった場合
+     */
+    Optional<StoredImage> load(String key) throws IOException;
+
+    /**
+     * 画像の情報(バイト数・最終更新日時・ETagなど)を返す 画像の内容は読み込まない
+     * 前回取得時から変更がない画像は、内容を読み込まずに304を返すために使う
+     *
+     * @param key キー
+     * @return 画像の情報 存在しない場合は空
+     * @throws IOException 取得できなかった場合
+     */
+    Optional<ImageMetadata> metadata(String key) throws IOException;
+
+    /**
+     * 画像をファイルとして直接読み込める場合は、そのファイルのパスを返す
+     * ストリームを経由せず、ファイルから直接(ゼロコピーで)送信する場合に使う
+     *
+     * @param key キー
+     * @return ファイルのパス(ファイルが存在するとは限らない) ファイルとして読み込めない保存先の場合は空
+     */
+    default Optional<Path> localFile(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * 画像を削除する 存在しない場合は何もしない
+     *
+     * @param key キー
+     * @throws IOException 削除できなかった場合
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * 指定したディレクトリ(キーの接頭辞)配下の画像をすべて削除する
+     *
+     * @param dir ディレクトリ(末尾の/は不要)
+     * @throws IOException 削除できなかった場合
+     */
+    void deleteDirectory(String dir) throws IOException;
+
+}
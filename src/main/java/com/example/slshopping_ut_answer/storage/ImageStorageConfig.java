@@ -0,0 +1,31 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 商品画像の保存先の設定
+ * slshop.image-storage.typeがs3の場合はS3互換のオブジェクトストレージ、それ以外はローカルのディレクトリに保存する
+ */
+@Configuration
+@EnableConfigurationProperties(S3ImageStorageProperties.class)
+public class ImageStorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "slshop.image-storage.type", havingValue = "local", matchIfMissing = true)
+    public ImageStorage localImageStorage(@Value("${slshop.image-storage.local.dir:product-images}") Path dir) {
+        return new LocalImageStorage(dir);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "slshop.image-storage.type", havingValue = "s3")
+    public ImageStorage s3ImageStorage(S3ImageStorageProperties properties) {
+        return new S3ImageStorage(properties);
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+
+import com.example.slshopping_ut_answer.FileUploadUtil;
+
+/**
+ * ローカルのディレクトリに画像を保存する
+ * ノード間で画像を共有できないため、1ノードで動かす場合(開発環境など)に使う
+ */
+public class LocalImageStorage implements ImageStorage {
+
+    private final Path baseDir;
+
+    /**
+     * @param baseDir 画像を保存するディレクトリ
+     */
+    public LocalImageStorage(Path baseDir) {
+        this.baseDir = baseDir.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void store(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        Path file = resolve(key);
+        Files.createDirectories(file.getParent());
+        // 書き込み中の画像を読み込まれないよう、一時ファイルに書き込んでから置き換える
+        Path tempFile = Files.createTempFile(file.getParent(), ".upload", ".tmp");
+        try {
+            Files.copy(content, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public Optional<StoredImage> load(String key) throws IOException {
+        Optional<ImageMetadata> metadata = metadata(key);
+        if (metadata.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredImage(Files.newInputStream(resolve(key)), metadata.get().contentLength(), null,
+            metadata.get().lastModified(), metadata.get().etag()));
+    }
+
+    /**
+     * ファイルの属性(1回のstat)から情報を求める ETagはバイト数と最終更新日時から作る
+     */
+    @Override
+    public Optional<ImageMetadata> metadata(String key) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        return Optional.of(new ImageMetadata(attributes.size(), null, lastModified,
+            "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\""));
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void deleteDirectory(String dir) {
+        Path path = resolve(dir);
+        if (Files.isDirectory(path)) {
+            FileUploadUtil.removeDir(path.toString());
+        }
+    }
+
+    /**
+     * キーからファイルのパスを求める
+     * 保存先のディレクトリ外のファイルは扱わない
+     */
+    private Path resolve(String key) {
+        Path path = baseDir.resolve(key).normalize();
+        if (!path.startsWith(baseDir) || path.equals(baseDir)) {
+            throw new IllegalArgumentException("Invalid image key: " + key);
+        }
+        return path;
+    }
+
+}
@@ -0,0 +1,269 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * S3互換のオブジェクトストレージに画像を保存する
+ * 全ノードが同じバケットを参照するため、複数ノードで動かす場合に使う
+ *
+ * 画像の内容はストリームのまま送受信する
+ * 大きな画像はマルチパートアップロードで、1パート分ずつ読み込んで送る(メモリに保持するのは1パート分のみ)
+ */
+public class S3ImageStorage implements ImageStorage {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3ImageStorage.class);
+
+    private final S3ImageStorageProperties properties;
+
+    private final AwsV4Signer signer;
+
+    private final HttpClient httpClient;
+
+    /** バケットのURI(末尾の/なし) */
+    private final String bucketUri;
+
+    public S3ImageStorage(S3ImageStorageProperties properties) {
+        this.properties = properties;
+        this.signer = new AwsV4Signer(properties.region(), properties.accessKey(), properties.secretKey());
+        // S3互換のストレージにはHTTP/2に対応していないものがあるため、HTTP/1.1で接続する
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(properties.connectTimeout())
+            .build();
+        this.bucketUri = properties.endpoint().replaceAll("/+$", "") + "/"
+            + AwsV4Signer.encode(properties.bucket(), false);
+    }
+
+    @Override
+    public void store(String key, InputStream content, long contentLength, String contentType) throws IOException {
+        if (contentLength < 0 || contentLength >= properties.multipartThreshold().toBytes()) {
+            storeMultipart(key, content, contentType);
+            return;
+        }
+        BodyPublisher body = contentLength == 0 ? BodyPublishers.noBody()
+            : BodyPublishers.fromPublisher(BodyPublishers.ofInputStream(() -> content), contentLength);
+        HttpResponse<byte[]> response = send("PUT", objectUri(key, null), contentTypeHeader(contentType), body,
+            AwsV4Signer.UNSIGNED_PAYLOAD, BodyHandlers.ofByteArray());
+        check(response, "PutObject " + key);
+    }
+
+    @Override
+    public Optional<StoredImage> load(String key) throws IOException {
+        HttpResponse<InputStream> response = send("GET", objectUri(key, null), Map.of(), BodyPublishers.noBody(),
+            AwsV4Signer.EMPTY_PAYLOAD_HASH, BodyHandlers.ofInputStream());
+        if (response.statusCode() == 404) {
+            response.body().close();
+            return Optional.empty();
+        }
+        if (response.statusCode() / 100 != 2) {
+            try (InputStream body = response.body()) {
+                throw error(response.statusCode(), body.readAllBytes(), "GetObject " + key);
+            }
+        }
+        ImageMetadata metadata = metadata(response.headers());
+        return Optional.of(new StoredImage(response.body(), metadata.contentLength(), metadata.contentType(),
+            metadata.lastModified(), metadata.etag()));
+    }
+
+    /**
+     * HeadObjectで、画像の内容を受信せずに情報のみを取得する
+     */
+    @Override
+    public Optional<ImageMetadata> metadata(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", objectUri(key, null), Map.of(), BodyPublishers.noBody(),
+            AwsV4Signer.EMPTY_PAYLOAD_HASH, BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw error(response.statusCode(), new byte[0], "HeadObject " + key);
+        }
+        return Optional.of(metadata(response.headers()));
+    }
+
+    /**
+     * DeleteObjectで削除する 存在しないキーでも成功(204)を返す
+     */
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<byte[]> response = send("DELETE", objectUri(key, null), Map.of(), BodyPublishers.noBody(),
+            AwsV4Signer.EMPTY_PAYLOAD_HASH, BodyHandlers.ofByteArray());
+        check(response, "DeleteObject " + key);
+    }
+
+    @Override
+    public void deleteDirectory(String dir) throws IOException {
+        String prefix = dir + "/";
+        // 一覧は1回に最大1000件のため、続きがある間は続きから取得する
+        List<String> keys = new ArrayList<>();
+        String continuationToken = null;
+        do {
+            String query = "list-type=2&prefix=" + AwsV4Signer.encode(prefix, false);
+            if (continuationToken != null) {
+                query += "&continuation-token=" + AwsV4Signer.encode(continuationToken, false);
+            }
+            HttpResponse<byte[]> response = send("GET", URI.create(bucketUri + "?" + query), Map.of(),
+                BodyPublishers.noBody(), AwsV4Signer.EMPTY_PAYLOAD_HASH, BodyHandlers.ofByteArray());
+            check(response, "ListObjectsV2 " + prefix);
+            Document result = parse(response.body());
+            NodeList keyNodes = result.getElementsByTagName("Key");
+            for (int i = 0; i < keyNodes.getLength(); i++) {
+                keys.add(keyNodes.item(i).getTextContent());
+            }
+            continuationToken = "true".equals(text(result, "IsTruncated"))
+                ? text(result, "NextContinuationToken")
+                : null;
+        } while (continuationToken != null);
+
+        for (String key : keys) {
+            delete(key);
+        }
+    }
+
+    /**
+     * マルチパートアップロードで保存する
+     * 途中で失敗した場合は、アップロード済みのパートが残らないようアップロードを中止する
+     */
+    private void storeMultipart(String key, InputStream content, String contentType) throws IOException {
+        HttpResponse<byte[]> initiated = send("POST", objectUri(key, "uploads"), contentTypeHeader(contentType),
+            BodyPublishers.noBody(), AwsV4Signer.EMPTY_PAYLOAD_HASH, BodyHandlers.ofByteArray());
+        check(initiated, "CreateMultipartUpload " + key);
+        String uploadId = text(parse(initiated.body()), "UploadId");
+        String uploadIdQuery = "uploadId=" + AwsV4Signer.encode(uploadId, false);
+
+        try {
+            StringBuilder completion = new StringBuilder("<CompleteMultipartUpload>");
+            byte[] buffer = new byte[(int) properties.partSize().toBytes()];
+            for (int partNumber = 1;; partNumber++) {
+                int length = content.readNBytes(buffer, 0, buffer.length);
+                if (length == 0 && partNumber > 1) {
+                    break;
+                }
+                URI partUri = objectUri(key, "partNumber=" + partNumber + "&" + uploadIdQuery);
+                HttpResponse<byte[]> part = send("PUT", partUri, Map.of(), BodyPublishers.ofByteArray(buffer, 0, length),
+                    AwsV4Signer.UNSIGNED_PAYLOAD, BodyHandlers.ofByteArray());
+                check(part, "UploadPart " + key + " #" + partNumber);
+                completion.append("<Part><PartNumber>").append(partNumber).append("</PartNumber><ETag>")
+                    .append(part.headers().firstValue("etag").orElseThrow(() -> new IOException("No ETag: " + key)))
+                    .append("</ETag></Part>");
+                if (length < buffer.length) {
+                    break;
+                }
+            }
+            byte[] completionXml = completion.append("</CompleteMultipartUpload>").toString()
+                .getBytes(StandardCharsets.UTF_8);
+            HttpResponse<byte[]> completed = send("POST", objectUri(key, uploadIdQuery), Map.of(),
+                BodyPublishers.ofByteArray(completionXml), AwsV4Signer.sha256Hex(completionXml),
+                BodyHandlers.ofByteArray());
+            check(completed, "CompleteMultipartUpload " + key);
+            // 完了の処理中に失敗した場合は、ステータスが200のままエラーが返る
+            if (parse(completed.body()).getDocumentElement().getTagName().equals("Error")) {
+                throw error(completed.statusCode(), completed.body(), "CompleteMultipartUpload " + key);
+            }
+        } catch (IOException | RuntimeException e) {
+            abortMultipart(key, uploadIdQuery);
+            throw e;
+        }
+    }
+
+    private void abortMultipart(String key, String uploadIdQuery) {
+        try {
+            HttpResponse<byte[]> response = send("DELETE", objectUri(key, uploadIdQuery), Map.of(),
+                BodyPublishers.noBody(), AwsV4Signer.EMPTY_PAYLOAD_HASH, BodyHandlers.ofByteArray());
+            check(response, "AbortMultipartUpload " + key);
+        } catch (IOException e) {
+            LOGGER.error("Could not abort multipart upload: " + key, e);
+        }
+    }
+
+    private static Map<String, String> contentTypeHeader(String contentType) {
+        return contentType != null ? Map.of("content-type", contentType) : Map.of();
+    }
+
+    /**
+     * GetObject・HeadObjectのレスポンスヘッダーから画像の情報を求める
+     */
+    private static ImageMetadata metadata(HttpHeaders headers) {
+        long lastModified = headers.firstValue("last-modified")
+            .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+            .orElse(-1L);
+        return new ImageMetadata(headers.firstValueAsLong("content-length").orElse(-1),
+            headers.firstValue("content-type").orElse(null), lastModified, headers.firstValue("etag").orElse(null));
+    }
+
+    private URI objectUri(String key, String query) {
+        return URI.create(bucketUri + "/" + AwsV4Signer.encode(key, true) + (query != null ? "?" + query : ""));
+    }
+
+    /**
+     * 署名したリクエストを送信する
+     */
+    private <T> HttpResponse<T> send(String method, URI uri, Map<String, String> headers, BodyPublisher body,
+            String payloadHash, BodyHandler<T> bodyHandler) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).method(method, body);
+        signer.sign(method, uri, headers, payloadHash, Instant.now()).forEach(request::header);
+        try {
+            return httpClient.send(request.build(), bodyHandler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(method + " " + uri + " was interrupted");
+        }
+    }
+
+    private static void check(HttpResponse<byte[]> response, String operation) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw error(response.statusCode(), response.body(), operation);
+        }
+    }
+
+    private static IOException error(int statusCode, byte[] body, String operation) {
+        return new IOException(operation + " failed with status " + statusCode + ": "
+            + new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static Document parse(byte[] xml) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Invalid response: " + new String(xml, StandardCharsets.UTF_8), e);
+        }
+    }
+
+    private static String text(Document document, String tagName) {
+        NodeList nodes = document.getElementsByTagName(tagName);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent() : null;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * S3互換のオブジェクトストレージの接続設定
+ *
+ * @param endpoint エンドポイント(https://s3.ap-northeast-1.amazonaws.com、http://localhost:9000など)
+ * @param region リージョン
+ * @param bucket バケット名 パス形式(エンドポイント/バケット/キー)でアクセスする
+ * @param accessKey アクセスキー
+ * @param secretKey シークレットキー
+ * @param multipartThreshold この大きさ以上の画像(大きさが不明な画像を含む)はマルチパートアップロードで保存する
+ * @param partSize マルチパートアップロードの1パートの大きさ S3では最後のパート以外は5MB以上にする
+ * @param connectTimeout 接続のタイムアウト
+ */
+@ConfigurationProperties("slshop.image-storage.s3")
+public record S3ImageStorageProperties(
+        String endpoint,
+        @DefaultValue("us-east-1") String region,
+        String bucket,
+        String accessKey,
+        String secretKey,
+        @DefaultValue("8MB") DataSize multipartThreshold,
+        @DefaultValue("8MB") DataSize partSize,
+        @DefaultValue("5s") Duration connectTimeout) {
+}
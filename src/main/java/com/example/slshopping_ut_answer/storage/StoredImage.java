@@ -0,0 +1,40 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 保存先から読み込んだ画像
+ *
+ * @param content 画像の内容
+ * @param contentLength 画像のバイト数 不明な場合は-1
+ * @param contentType 画像の種類 不明な場合はnull
+ * @param lastModified 最終更新日時(エポックミリ秒) 不明な場合は-1
+ * @param etag ETag(引用符を含む) 不明な場合はnull
+ */
+public record StoredImage(InputStream content, long contentLength, String contentType, long lastModified,
+        String etag) implements Closeable {
+
+    /**
+     * 最終更新日時・ETagが不明な画像
+     */
+    public StoredImage(InputStream content, long contentLength, String contentType) {
+        this(content, contentLength, contentType, -1, null);
+    }
+
+    /**
+     * 画像の情報(内容以外)を返す
+     *
+     * @return 画像の情報
+     */
+    public ImageMetadata metadata() {
+        return new ImageMetadata(contentLength, contentType, lastModified, etag);
+    }
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+
+}
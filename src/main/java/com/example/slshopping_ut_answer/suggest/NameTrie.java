@@ -0,0 +1,277 @@
+package com.example.slshopping_ut_answer.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 名前の前方一致検索に使うトライ木
+ * 子が1つしかない節を1つにまとめ(パトリシア木)、節の数を名前の数程度に抑える
+ * 変更しない木として扱い、追加・削除では変更する経路の節のみを作り直した新しい木を返す
+ * そのため、検索はロックせずに古い木・新しい木のどちらを参照していても正しく動く
+ */
+final class NameTrie {
+
+    /** 空の木 */
+    static final NameTrie EMPTY = new NameTrie(new Node(new char[0], Node.NO_CHILDREN, 0), 0);
+
+    private final Node root;
+
+    /** 登録されている名前と種類の組の数 */
+    private final int size;
+
+    private NameTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 名前を追加した木を返す 既に同じ種類で登録されている場合は、この木をそのまま返す
+     *
+     * @param name 名前
+     * @param type 種類
+     * @return 名前を追加した木
+     */
+    NameTrie add(String name, SuggestionType type) {
+        if (name == null || name.isEmpty()) {
+            return this;
+        }
+        Node added = root.add(name.toCharArray(), 0, type.bit());
+        return added == root ? this : new NameTrie(added, size + 1);
+    }
+
+    /**
+     * 名前を削除した木を返す 登録されていない場合は、この木をそのまま返す
+     *
+     * @param name 名前
+     * @param type 種類
+     * @return 名前を削除した木
+     */
+    NameTrie remove(String name, SuggestionType type) {
+        if (name == null || name.isEmpty()) {
+            return this;
+        }
+        Node removed = root.remove(name.toCharArray(), 0, type.bit());
+        return removed == root ? this : new NameTrie(removed, size - 1);
+    }
+
+    /**
+     * 前方一致する名前を、文字コード順に指定件数まで返す
+     * 同じ名前が複数の種類で登録されている場合は、種類ごとに返す
+     *
+     * @param prefix 名前の先頭の文字列
+     * @param limit 最大件数
+     * @return 入力候補のリスト
+     */
+    List<Suggestion> prefixed(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, 16));
+        char[] key = prefix.toCharArray();
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length) {
+            Node child = node.child(key[offset]);
+            if (child == null) {
+                return result;
+            }
+            int common = child.commonPrefix(key, offset);
+            if (offset + common == key.length) {
+                // 入力の末尾が子の途中または末尾にある場合は、子以下の名前がすべて該当する
+                StringBuilder name = new StringBuilder(prefix.length() + 8).append(key, 0, offset);
+                child.collect(name, result, limit);
+                return result;
+            }
+            if (common < child.label.length) {
+                return result;
+            }
+            node = child;
+            offset += common;
+        }
+        return result;
+    }
+
+    /**
+     * 木の節
+     * labelは親からこの節までの文字列、kindsはこの節で終わる名前の種類のビット
+     */
+    private static final class Node {
+
+        static final Node[] NO_CHILDREN = new Node[0];
+
+        final char[] label;
+
+        /** 先頭の文字の順に並べた子 */
+        final Node[] children;
+
+        final int kinds;
+
+        Node(char[] label, Node[] children, int kinds) {
+            this.label = label;
+            this.children = children;
+            this.kinds = kinds;
+        }
+
+        /**
+         * この節まで一致した名前の残り(key[offset]以降)を追加した節を返す
+         */
+        Node add(char[] key, int offset, int bit) {
+            if (offset == key.length) {
+                return (kinds & bit) != 0 ? this : new Node(label, children, kinds | bit);
+            }
+            int index = indexOf(key[offset]);
+            if (index < 0) {
+                Node leaf = new Node(Arrays.copyOfRange(key, offset, key.length), NO_CHILDREN, bit);
+                return withChildren(inserted(children, -index - 1, leaf));
+            }
+            Node child = children[index];
+            int common = child.commonPrefix(key, offset);
+            if (common == child.label.length) {
+                Node added = child.add(key, offset + common, bit);
+                return added == child ? this : withChild(index, added);
+            }
+            // 子のラベルの途中で分かれる場合は、共通部分の節を間に入れる
+            Node rest = new Node(Arrays.copyOfRange(child.label, common, child.label.length), child.children,
+                child.kinds);
+            char[] shared = Arrays.copyOf(child.label, common);
+            Node split;
+            if (offset + common == key.length) {
+                split = new Node(shared, new Node[] { rest }, bit);
+            } else {
+                Node leaf = new Node(Arrays.copyOfRange(key, offset + common, key.length), NO_CHILDREN, bit);
+                split = new Node(shared, leaf.label[0] < rest.label[0] ? new Node[] { leaf, rest }
+                    : new Node[] { rest, leaf }, 0);
+            }
+            return withChild(index, split);
+        }
+
+        /**
+         * この節まで一致した名前の残り(key[offset]以降)を削除した節を返す
+         * 名前がなくなった節は取り除き、子が1つのみになった節は子とまとめる
+         */
+        Node remove(char[] key, int offset, int bit) {
+            if (offset == key.length) {
+                return (kinds & bit) == 0 ? this : new Node(label, children, kinds & ~bit);
+            }
+            int index = indexOf(key[offset]);
+            if (index < 0) {
+                return this;
+            }
+            Node child = children[index];
+            int common = child.commonPrefix(key, offset);
+            if (common < child.label.length) {
+                return this;
+            }
+            Node removed = child.remove(key, offset + common, bit);
+            if (removed == child) {
+                return this;
+            }
+            if (removed.kinds == 0 && removed.children.length == 0) {
+                return withChildren(removedAt(children, index));
+            }
+            if (removed.kinds == 0 && removed.children.length == 1) {
+                Node only = removed.children[0];
+                char[] merged = Arrays.copyOf(removed.label, removed.label.length + only.label.length);
+                System.arraycopy(only.label, 0, merged, removed.label.length, only.label.length);
+                removed = new Node(merged, only.children, only.kinds);
+            }
+            return withChild(index, removed);
+        }
+
+        /**
+         * この節以下の名前を、文字コード順に指定件数まで集める
+         *
+         * @param name 親までの文字列(呼び出し後は元の長さに戻す)
+         */
+        void collect(StringBuilder name, List<Suggestion> result, int limit) {
+            int length = name.length();
+            name.append(label);
+            if (kinds != 0) {
+                for (SuggestionType type : SuggestionType.values()) {
+                    if ((kinds & type.bit()) != 0 && result.size() < limit) {
+                        result.add(new Suggestion(name.toString(), type));
+                    }
+                }
+            }
+            for (Node child : children) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                child.collect(name, result, limit);
+            }
+            name.setLength(length);
+        }
+
+        Node child(char first) {
+            int index = indexOf(first);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * ラベルとkey[offset]以降が先頭から一致する文字数
+         */
+        int commonPrefix(char[] key, int offset) {
+            int max = Math.min(label.length, key.length - offset);
+            int i = 0;
+            while (i < max && label[i] == key[offset + i]) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * 先頭の文字で子を二分探索する 見つからない場合は(-(挿入位置) - 1)を返す
+         */
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label[0];
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Node withChild(int index, Node child) {
+            Node[] copy = children.clone();
+            copy[index] = child;
+            return withChildren(copy);
+        }
+
+        private Node withChildren(Node[] newChildren) {
+            return new Node(label, newChildren, kinds);
+        }
+
+        private static Node[] inserted(Node[] nodes, int index, Node node) {
+            Node[] copy = new Node[nodes.length + 1];
+            System.arraycopy(nodes, 0, copy, 0, index);
+            copy[index] = node;
+            System.arraycopy(nodes, index, copy, index + 1, nodes.length - index);
+            return copy;
+        }
+
+        private static Node[] removedAt(Node[] nodes, int index) {
+            if (nodes.length == 1) {
+                return NO_CHILDREN;
+            }
+            Node[] copy = new Node[nodes.length - 1];
+            System.arraycopy(nodes, 0, copy, 0, index);
+            System.arraycopy(nodes, index + 1, copy, index, nodes.length - index - 1);
+            return copy;
+        }
+
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.example.slshopping_ut_answer.suggest;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.slshopping_ut_answer.brand.BrandRepository;
+import com.example.slshopping_ut_answer.cache.CacheInvalidation;
+import com.example.slshopping_ut_answer.cache.CacheInvalidationListener;
+import com.example.slshopping_ut_answer.category.CategoryRepository;
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.product.ProductRepository;
+
+/**
+ * 商品名・ブランド名・カテゴリー名の入力候補
+ * 全ての名前をメモリ上のトライ木に保持し、データベースを検索せずに前方一致する名前を返す
+ * 最初に入力候補を求められたときにデータベースから読み込み、以降は各サービスの登録・更新・削除に合わせて更新する
+ * 他のノードでの登録・更新・削除は、{@link com.example.slshopping_ut_answer.cache.CacheInvalidationBus}の通知を受けて反映する
+ */
+@Component
+public class SuggestIndex implements CacheInvalidationListener {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SuggestIndex.class);
+
+    /** 通知されたエンティティの種類に対応する入力候補の種類(管理者は入力候補にない) */
+    private static final Map<String, SuggestionType> TYPES = Map.of(
+        Product.class.getSimpleName(), SuggestionType.PRODUCT,
+        Brand.class.getSimpleName(), SuggestionType.BRAND,
+        Category.class.getSimpleName(), SuggestionType.CATEGORY);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    /** 読み込み前はnull 更新はこのインスタンスで同期し、検索は同期せずに参照する */
+    private volatile NameTrie trie;
+
+    /**
+     * 前方一致する名前を、文字コード順に指定件数まで返す
+     *
+     * @param prefix 名前の先頭の文字列
+     * @param limit 最大件数
+     * @return 入力候補のリスト
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        NameTrie current = trie;
+        if (current == null) {
+            current = load();
+        }
+        return current.prefixed(prefix, limit);
+    }
+
+    /**
+     * 名前を追加・変更する
+     * トランザクション内で呼ばれた場合は、コミット後に反映する(ロールバックした名前を候補に出さないため)
+     *
+     * @param type 種類
+     * @param oldName 変更前の名前 新規登録の場合はnull
+     * @param newName 変更後の名前
+     */
+    public void put(SuggestionType type, String oldName, String newName) {
+        if (newName != null && newName.equals(oldName)) {
+            return;
+        }
+        afterCommit(() -> update(type, oldName, newName));
+    }
+
+    /**
+     * 名前を削除する
+     * トランザクション内で呼ばれた場合は、コミット後に反映する
+     *
+     * @param type 種類
+     * @param name 削除する名前
+     */
+    public void remove(SuggestionType type, String name) {
+        afterCommit(() -> update(type, name, null));
+    }
+
+    /**
+     * 他のノードでコミットされた名前の変更を反映する
+     */
+    @Override
+    public void invalidate(CacheInvalidation invalidation) {
+        SuggestionType type = TYPES.get(invalidation.entityType());
+        if (type == null || (invalidation.newName() != null && invalidation.newName().equals(invalidation.oldName()))) {
+            return;
+        }
+        update(type, invalidation.oldName(), invalidation.newName());
+    }
+
+    /**
+     * 読み込んだ名前を破棄し、次に入力候補を求められたときにデータベースから読み込み直す
+     */
+    @Override
+    public synchronized void invalidateAll() {
+        trie = null;
+    }
+
+    /**
+     * データベースから全ての名前を読み込む
+     * 読み込み中の登録・更新・削除は、読み込みの完了を待ってから反映する(反映済みの変更を再度反映しても結果は変わらない)
+     */
+    private synchronized NameTrie load() {
+        if (trie != null) {
+            return trie;
+        }
+        long start = System.nanoTime();
+        NameTrie loaded = NameTrie.EMPTY;
+        for (String name : brandRepository.findAllNames()) {
+            loaded = loaded.add(name, SuggestionType.BRAND);
+        }
+        for (String name : categoryRepository.findAllNames()) {
+            loaded = loaded.add(name, SuggestionType.CATEGORY);
+        }
+        for (String name : productRepository.findAllNames()) {
+            loaded = loaded.add(name, SuggestionType.PRODUCT);
+        }
+        trie = loaded;
+        LOGGER.info("入力候補: {}件 {}ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    /**
+     * 読み込み済みの場合のみ、名前の変更を反映する(未読み込みの場合は、読み込み時にデータベースから反映される)
+     */
+    private synchronized void update(SuggestionType type, String oldName, String newName) {
+        NameTrie current = trie;
+        if (current == null) {
+            return;
+        }
+        if (oldName != null) {
+            current = current.remove(oldName, type);
+        }
+        if (newName != null) {
+            current = current.add(newName, type);
+        }
+        trie = current;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.example.slshopping_ut_answer.suggest;
+
+/**
+ * 入力候補
+ *
+ * @param name 名前
+ * @param type 種類(商品・ブランド・カテゴリー)
+ */
+public record Suggestion(String name, SuggestionType type) {
+}
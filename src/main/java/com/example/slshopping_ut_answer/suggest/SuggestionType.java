@@ -0,0 +1,17 @@
+package com.example.slshopping_ut_answer.suggest;
+
+/**
+ * 入力候補の種類
+ */
+public enum SuggestionType {
+
+    PRODUCT,
+    BRAND,
+    CATEGORY;
+
+    /** 名前ごとに持つ種類のビット */
+    int bit() {
+        return 1 << ordinal();
+    }
+
+}
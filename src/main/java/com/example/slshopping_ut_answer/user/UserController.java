@@ -14,12 +14,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.thymeleaf.context.LazyContextVariable;
 
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.entity.Role;
 import com.example.slshopping_ut_answer.entity.User;
 import com.example.slshopping_ut_answer.security.SLShopUserDetails;
+import com.example.slshopping_ut_answer.view.StreamingRows;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
@@ -29,28 +34,46 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     /**
      * ロールリストをmodelに追加する処理
      * 複数のハンドラメソッドでlistRolesをmodelに追加する必要があるため、共通化する
+     * 画面で参照された場合のみ取得し、一覧画面などでは取得しない
      *
      * @return
      */
     @ModelAttribute(name = "listRoles")
-    public List<Role> setRolesToModel() {
-        return userService.listRoles();
+    public LazyContextVariable<List<Role>> setRolesToModel() {
+        return new LazyContextVariable<>() {
+            @Override
+            protected List<Role> loadValue() {
+                return userService.listRoles();
+            }
+        };
     }
 
     /**
      * 管理者一覧画面表示
+     * 管理者情報はロール情報とともに、描画しながらID順に一定件数ずつ取得する
      *
      * @param model
+     * @param webRequest
+     * @param response
      * @return 管理者一覧画面
      */
     @GetMapping
-    public String listUsers(@RequestParam(name = "keyword", required = false) String keyword, Model model) {
-        // 全管理者情報の取得
-        List<User> listUsers = userService.listAll(keyword);
-        model.addAttribute("listUsers", listUsers);
+    public String listUsers(@RequestParam(name = "keyword", required = false) String keyword, Model model,
+            WebRequest webRequest, HttpServletResponse response) {
+        // 前回表示から管理者情報が更新されていない場合は、一覧を取得せずに304を返す
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        // 全管理者情報の取得(描画しながら取得する)
+        model.addAttribute("listUsers", new StreamingRows<User>(
+            (last, limit) -> userService.listAll(keyword, last == null ? 0L : last.getId(), limit),
+            response::flushBuffer));
         model.addAttribute("keyword", keyword);
         return "users/users";
     }
@@ -106,13 +129,22 @@ public class UserController {
      * @param id 管理者ID
      * @param model
      * @param ra
+     * @param webRequest
      * @return 管理者詳細画面
      */
     @GetMapping("/detail/{id}")
-    public String detailUser(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra) {
+    public String detailUser(@PathVariable(name = "id") Long id, Model model, RedirectAttributes ra,
+            WebRequest webRequest) {
+        // 前回表示から管理者情報が更新されていない場合は、管理者情報を取得せずに304を返す
+        if (catalogVersion.isNotModified(webRequest)) {
+            return null;
+        }
         try {
             // 管理者IDに紐づく管理者情報取得
             User user = userService.get(id);
+            if (catalogVersion.checkNotModified(webRequest, user.getUpdatedAt())) {
+                return null;
+            }
             model.addAttribute("user", user);
             return "users/user_detail";
         } catch (NotFoundException e) {
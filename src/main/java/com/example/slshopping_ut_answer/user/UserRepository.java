@@ -1,7 +1,9 @@
 package com.example.slshopping_ut_answer.user;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,21 +13,100 @@ import com.example.slshopping_ut_answer.entity.User;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * 管理者情報全件取得クエリ
+     * ロール情報を結合して取得し、管理者ごとのロール取得クエリを発行しない
+     *
+     * @return 管理者情報のリスト
+     */
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    public List<User> findAll();
+
+    /**
+     * IDに紐づく管理者情報取得クエリ
+     *
+     * @param id 管理者ID
+     * @return 管理者情報
+     */
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    public Optional<User> findById(Long id);
+
     /**
      * メールアドレスに紐づく管理者情報取得クエリ
+     * ログイン時に権限を判定するため、ロール情報も合わせて取得する
      *
      * @param email メールアドレス
      * @return 管理者情報
      */
+    @EntityGraph(attributePaths = "roles")
     public User findByEmail(String email);
 
     /**
      * 管理者情報検索クエリ
+     * メールアドレス・管理者名の各カラムに対して検索し、インデックスを利用できるようにする
      *
      * @param keyword 検索キーワード
      * @return 管理者情報のリスト
      */
-    @Query("SELECT u FROM User u WHERE CONCAT(u.id, ' ', u.email, ' ', u.name, ' ') LIKE %?1%")
+    @EntityGraph(attributePaths = "roles")
+    @Query("SELECT u FROM User u WHERE u.email LIKE %?1% OR u.name LIKE %?1%")
     public List<User> search(String keyword);
 
+    /**
+     * 管理者情報検索クエリ
+     * 検索キーワードが数値の場合に、主キーでの一致も検索条件に含める
+     *
+     * @param id 管理者ID
+     * @param keyword 検索キーワード
+     * @return 管理者情報のリスト
+     */
+    @EntityGraph(attributePaths = "roles")
+    @Query("SELECT u FROM User u WHERE u.id = ?1 OR u.email LIKE %?2% OR u.name LIKE %?2%")
+    public List<User> searchByIdOrKeyword(Long id, String keyword);
+
+    /**
+     * 管理者情報取得クエリ(ページ単位)
+     * 指定したIDより後の管理者情報を、ID順に指定件数まで取得する
+     * ロール情報を結合すると件数を指定できないため、副問い合わせで件数を絞った管理者にロール情報を結合する
+     *
+     * @param id このIDより後の管理者情報を取得する
+     * @param limit 取得件数
+     * @return 管理者情報のリスト
+     */
+    @EntityGraph(attributePaths = "roles")
+    @Query("SELECT u FROM User u WHERE u.id IN (SELECT s.id FROM User s WHERE s.id > ?1 ORDER BY s.id LIMIT ?2)"
+        + " ORDER BY u.id")
+    public List<User> findPage(Long id, int limit);
+
+    /**
+     * 管理者情報検索クエリ(ページ単位)
+     * 指定したIDより後の管理者情報を、ID順に指定件数まで取得する
+     *
+     * @param id このIDより後の管理者情報を取得する
+     * @param keyword 検索キーワード
+     * @param limit 取得件数
+     * @return 管理者情報のリスト
+     */
+    @EntityGraph(attributePaths = "roles")
+    @Query("SELECT u FROM User u WHERE u.id IN (SELECT s.id FROM User s WHERE s.id > ?1"
+        + " AND (s.email LIKE %?2% OR s.name LIKE %?2%) ORDER BY s.id LIMIT ?3) ORDER BY u.id")
+    public List<User> searchPage(Long id, String keyword, int limit);
+
+    /**
+     * 管理者情報検索クエリ(ページ単位)
+     * 検索キーワードが数値の場合に、主キーでの一致も検索条件に含める
+     *
+     * @param id このIDより後の管理者情報を取得する
+     * @param userId 管理者ID
+     * @param keyword 検索キーワード
+     * @param limit 取得件数
+     * @return 管理者情報のリスト
+     */
+    @EntityGraph(attributePaths = "roles")
+    @Query("SELECT u FROM User u WHERE u.id IN (SELECT s.id FROM User s WHERE s.id > ?1"
+        + " AND (s.id = ?2 OR s.email LIKE %?3% OR s.name LIKE %?3%) ORDER BY s.id LIMIT ?4) ORDER BY u.id")
+    public List<User> searchPageByIdOrKeyword(Long id, Long userId, String keyword, int limit);
+
 }
@@ -6,12 +6,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.slshopping_ut_answer.audit.AuditAction;
+import com.example.slshopping_ut_answer.audit.AuditLog;
+import com.example.slshopping_ut_answer.cache.CacheInvalidationBus;
 import com.example.slshopping_ut_answer.entity.Role;
 import com.example.slshopping_ut_answer.entity.User;
 
-import jakarta.transaction.Transactional;
-
 @Service
 public class UserService {
 
@@ -24,15 +26,27 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
     /**
      * 管理者情報検索処理
      *
      * @param keyword 検索キーワード
      * @return 管理者情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<User> listAll(String keyword) {
         // 検索キーワードがあった場合
         if (keyword != null && !keyword.isEmpty()) {
+            Long id = parseId(keyword);
+            // 検索キーワードが数値の場合は、IDでの一致も検索する
+            if (id != null) {
+                return userRepository.searchByIdOrKeyword(id, keyword);
+            }
             return userRepository.search(keyword);
         }
         // それ以外
@@ -41,11 +55,38 @@ public class UserService {
         }
     }
 
+    /**
+     * 管理者情報検索処理(ページ単位)
+     * 一覧画面を描画しながら一定件数ずつ取得するため、ID順に指定件数まで取得する
+     *
+     * @param keyword 検索キーワード
+     * @param afterId このIDより後の管理者情報を取得する
+     * @param limit 取得件数
+     * @return 管理者情報のリスト
+     */
+    @Transactional(readOnly = true)
+    public List<User> listAll(String keyword, Long afterId, int limit) {
+        // 検索キーワードがあった場合
+        if (keyword != null && !keyword.isEmpty()) {
+            Long id = parseId(keyword);
+            // 検索キーワードが数値の場合は、IDでの一致も検索する
+            if (id != null) {
+                return userRepository.searchPageByIdOrKeyword(afterId, id, keyword, limit);
+            }
+            return userRepository.searchPage(afterId, keyword, limit);
+        }
+        // それ以外
+        else {
+            return userRepository.findPage(afterId, limit);
+        }
+    }
+
     /**
      * ロール情報全件取得処理
      *
      * @return ロール情報のリスト
      */
+    @Transactional(readOnly = true)
     public List<Role> listRoles() {
         return roleRepository.findAll();
     }
@@ -57,6 +98,7 @@ public class UserService {
      * @return 管理者情報
      * @throws NotFoundException
      */
+    @Transactional(readOnly = true)
     public User get(Long id) throws NotFoundException {
         return userRepository.findById(id)
             .orElseThrow(() -> new NotFoundException());
@@ -70,6 +112,7 @@ public class UserService {
      */
     @Transactional
     public User save(User user) {
+        AuditAction action = user.getId() == null ? AuditAction.CREATE : AuditAction.UPDATE;
         // 管理者情報を更新する場合
         if (user.getId() != null) {
             // 更新対象の管理者情報を取得
@@ -92,7 +135,10 @@ public class UserService {
             // ハッシュ化したパスワードを格納
             user.setPassword(encodedPassword);
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        auditLog.record(action, User.class, savedUser.getId(), savedUser.getEmail());
+        cacheInvalidationBus.publish(User.class, savedUser.getId(), null, null);
+        return savedUser;
     }
 
     /**
@@ -101,6 +147,7 @@ public class UserService {
      * @param name 重複確認したい管理者情報
      * @return true:重複なし false:重複あり
      */
+    @Transactional(readOnly = true)
     public boolean checkUnique(User user) {
         boolean isCreatingNew = (user.getId() == null || user.getId() == 0);
         User userByEmail = userRepository.findByEmail(user.getEmail());
@@ -123,10 +170,27 @@ public class UserService {
      * @param id 管理者ID
      * @throws NotFoundException
      */
+    @Transactional
     public void delete(Long id) throws NotFoundException {
         // IDに紐づく管理者情報が存在するか確認するため、getメソッドを呼び出す
         User user = get(id);
         userRepository.deleteById(user.getId());
+        auditLog.record(AuditAction.DELETE, User.class, user.getId(), user.getEmail());
+        cacheInvalidationBus.publish(User.class, user.getId(), null, null);
+    }
+
+    /**
+     * 検索キーワードを管理者IDに変換する
+     *
+     * @param keyword 検索キーワード
+     * @return 管理者ID 数値でない場合はnull
+     */
+    private Long parseId(String keyword) {
+        // 数字以外を含む場合、またはLongの範囲を超える桁数の場合は変換しない
+        if (keyword.length() > 18 || !keyword.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return null;
+        }
+        return Long.valueOf(keyword);
     }
 
     /**
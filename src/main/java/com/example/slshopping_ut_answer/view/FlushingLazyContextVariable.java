@@ -0,0 +1,37 @@
+package com.example.slshopping_ut_answer.view;
+
+import java.io.Flushable;
+
+import org.thymeleaf.context.LazyContextVariable;
+
+/**
+ * 画面で初めて参照された時に値を取得するLazyContextVariable
+ * 取得する前にレスポンスをフラッシュし、取得を待つ間に描画済みの部分(レイアウトの先頭など)を先に送信する
+ *
+ * @param <T> 値の型
+ */
+public abstract class FlushingLazyContextVariable<T> extends LazyContextVariable<T> {
+
+    private final Flushable output;
+
+    /**
+     * @param output 値を取得する前にフラッシュする出力先(HttpServletResponse::flushBuffer)
+     */
+    protected FlushingLazyContextVariable(Flushable output) {
+        this.output = output;
+    }
+
+    @Override
+    protected final T loadValue() {
+        StreamingRows.flush(output);
+        return load();
+    }
+
+    /**
+     * 値を取得する
+     *
+     * @return 値
+     */
+    protected abstract T load();
+
+}
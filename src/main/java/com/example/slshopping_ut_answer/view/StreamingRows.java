@@ -0,0 +1,152 @@
+package com.example.slshopping_ut_answer.view;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 一覧画面の行を、描画しながら一定件数(チャンク)ずつ取得するIterable
+ * 一覧を全件取得してから描画するのではなく、リストの代わりにモデルに格納してth:eachで繰り返す
+ *
+ * チャンクを取得する前にレスポンスをフラッシュし、描画済みの部分(レイアウトの先頭、前のチャンクの行)を先に送信する
+ * ブラウザは全件の取得を待たずに表示を始められ、ヒープに保持するのは1チャンク分の行のみとなる
+ * チャンクは前のチャンクの最後の行をキーに、それぞれ別の(短い)トランザクションで取得し、送信中に接続を保持しない
+ *
+ * 1回の描画で1回のみ繰り返すこと
+ *
+ * @param <T> 行の型
+ */
+public class StreamingRows<T> implements Iterable<T> {
+
+    /** 1回に取得する件数の初期値 */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * チャンクの取得処理
+     *
+     * @param <T> 行の型
+     */
+    @FunctionalInterface
+    public interface ChunkLoader<T> {
+
+        /**
+         * チャンクを取得する
+         *
+         * @param last 前のチャンクの最後の行 最初のチャンクの場合はnull
+         * @param limit 取得件数
+         * @return 行のリスト limit件未満の場合は最後のチャンクとする
+         */
+        List<T> load(T last, int limit);
+    }
+
+    private final ChunkLoader<T> loader;
+
+    private final int chunkSize;
+
+    private final int maxRows;
+
+    private final Flushable output;
+
+    private boolean iterated;
+
+    private T last;
+
+    private int count;
+
+    /**
+     * @param loader チャンクの取得処理
+     * @param chunkSize 1回に取得する件数
+     * @param maxRows 取得する行数の上限
+     * @param output チャンクを取得する前にフラッシュする出力先(HttpServletResponse::flushBuffer)
+     */
+    public StreamingRows(ChunkLoader<T> loader, int chunkSize, int maxRows, Flushable output) {
+        this.loader = loader;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.output = output;
+    }
+
+    /**
+     * 全件を初期値の件数ずつ取得する
+     *
+     * @param loader チャンクの取得処理
+     * @param output チャンクを取得する前にフラッシュする出力先(HttpServletResponse::flushBuffer)
+     */
+    public StreamingRows(ChunkLoader<T> loader, Flushable output) {
+        this(loader, DEFAULT_CHUNK_SIZE, Integer.MAX_VALUE, output);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("StreamingRows can be iterated only once");
+        }
+        iterated = true;
+        return new Iterator<>() {
+
+            private Iterator<T> chunk = Collections.emptyIterator();
+
+            /** 次のチャンクがある可能性があるか */
+            private boolean more = maxRows > 0;
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && more) {
+                    flush(output);
+                    int limit = Math.min(chunkSize, maxRows - count);
+                    List<T> rows = loader.load(last, limit);
+                    more = rows.size() == limit && count + rows.size() < maxRows;
+                    chunk = rows.iterator();
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = chunk.next();
+                count++;
+                return last;
+            }
+        };
+    }
+
+    /**
+     * 繰り返した最後の行を返す
+     *
+     * @return 最後の行 1行も繰り返していない場合はnull
+     */
+    public T getLast() {
+        return last;
+    }
+
+    /**
+     * 繰り返した行数を返す
+     *
+     * @return 行数
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * 描画済みの部分を送信する
+     * クライアントが切断していた場合は、描画を中断するため例外を投げる
+     *
+     * @param output 出力先
+     */
+    static void flush(Flushable output) {
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,5 @@
+-- 管理者名のB-treeインデックス(V2)を削除する
+-- 管理者の検索は部分一致(LIKE '%keyword%')のみで、管理者名での完全一致検索・並び替えはないため使われない
+-- 部分一致検索はPostgreSQLのtrigramインデックス(V3 idx_users_name_trgm)で行う
+
+DROP INDEX IF EXISTS idx_users_name;
@@ -0,0 +1,61 @@
+-- 初期スキーマ
+-- ddl-auto=updateで作成していたテーブルと同じ定義にする
+-- 既存のデータベースではベースライン(V1)として扱い、このスクリプトは実行しない
+
+CREATE TABLE brands (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(10) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_brands_name UNIQUE (name)
+);
+
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(32) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE products (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(10) NOT NULL,
+    description VARCHAR(50) NOT NULL,
+    price INTEGER NOT NULL,
+    image VARCHAR(255),
+    length FLOAT(53) NOT NULL,
+    width FLOAT(53) NOT NULL,
+    height FLOAT(53) NOT NULL,
+    weight FLOAT(53) NOT NULL,
+    category_id BIGINT NOT NULL,
+    brand_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_products_name UNIQUE (name),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id),
+    CONSTRAINT fk_products_brand FOREIGN KEY (brand_id) REFERENCES brands (id)
+);
+
+CREATE TABLE roles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(40) NOT NULL,
+    description VARCHAR(150) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email VARCHAR(50) NOT NULL,
+    password VARCHAR(64) NOT NULL,
+    name VARCHAR(10) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE users_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_users_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_users_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
@@ -0,0 +1,12 @@
+-- 外部キー・検索条件のインデックス
+-- 既存のデータベースにddl-auto=updateで作成済みのインデックスがあってもエラーにしない
+
+-- 商品一覧でのブランド・カテゴリーの結合、ブランド・カテゴリー削除時の参照チェック
+CREATE INDEX IF NOT EXISTS idx_products_brand_id ON products (brand_id);
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category_id);
+
+-- ロール削除時・ロールごとの管理者取得(主キーは user_id が先頭のため使えない)
+CREATE INDEX IF NOT EXISTS idx_users_roles_role_id ON users_roles (role_id);
+
+-- 管理者名での一致検索・並び替え(部分一致検索はPostgreSQLのV3で対応する)
+CREATE INDEX IF NOT EXISTS idx_users_name ON users (name);
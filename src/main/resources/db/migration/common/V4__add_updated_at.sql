@@ -0,0 +1,7 @@
+-- 更新日時
+-- 詳細画面のLast-Modifiedに使う 既存のデータはマイグレーション実行日時とする
+
+ALTER TABLE products ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE brands ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE categories ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE users ADD COLUMN updated_at TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
@@ -0,0 +1,54 @@
+-- 商品一覧の絞り込み(ブランド・カテゴリー・価格帯)の件数集計
+-- ブランド×カテゴリー×価格帯ごとの商品件数と、その小計(いずれかの項目を問わない件数)を保持し、
+-- 商品の登録・更新・削除時に増減させる 一覧表示時は条件ごとに1行ずつ読むだけで件数がわかる
+-- 項目を問わない小計は、ブランドID・カテゴリーIDを0、下限価格を-1で表す(そのため外部キーは設定しない)
+-- 価格帯はPriceRangeの下限価格で表す(境界を変更する場合は、集計を作り直すマイグレーションを追加すること)
+
+CREATE TABLE product_facets (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    brand_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    min_price INTEGER NOT NULL,
+    product_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_facets UNIQUE (brand_id, category_id, min_price)
+);
+
+-- ブランドごと・カテゴリーごとの件数の取得(価格帯ごとの件数は一意制約のインデックスを使う)
+CREATE INDEX idx_product_facets_category_id ON product_facets (category_id, min_price);
+CREATE INDEX idx_product_facets_brand_id ON product_facets (brand_id, min_price);
+
+-- 行の追加を直列化するためのロック用の行(件数は使わない)
+INSERT INTO product_facets (brand_id, category_id, min_price, product_count) VALUES (0, 0, -1, 0);
+
+-- 既存の商品の集計
+INSERT INTO product_facets (brand_id, category_id, min_price, product_count)
+SELECT brand_id, category_id, min_price, COUNT(*)
+FROM (
+    SELECT brand_id, category_id,
+        CASE
+            WHEN price < 1000 THEN 0
+            WHEN price < 3000 THEN 1000
+            WHEN price < 5000 THEN 3000
+            WHEN price < 10000 THEN 5000
+            WHEN price < 30000 THEN 10000
+            ELSE 30000
+        END AS min_price
+    FROM products
+) p
+GROUP BY brand_id, category_id, min_price;
+
+-- 小計はブランド×カテゴリー×価格帯の行から順に求める
+-- (ブランド×カテゴリー) → (ブランド×価格帯)・(ブランド) → (カテゴリー×価格帯)・(カテゴリー) → (価格帯)
+INSERT INTO product_facets (brand_id, category_id, min_price, product_count)
+SELECT brand_id, category_id, -1, SUM(product_count) FROM product_facets WHERE min_price <> -1
+GROUP BY brand_id, category_id;
+INSERT INTO product_facets (brand_id, category_id, min_price, product_count)
+SELECT brand_id, 0, min_price, SUM(product_count) FROM product_facets WHERE brand_id <> 0 AND category_id <> 0
+GROUP BY brand_id, min_price;
+INSERT INTO product_facets (brand_id, category_id, min_price, product_count)
+SELECT 0, category_id, min_price, SUM(product_count) FROM product_facets WHERE brand_id <> 0 AND category_id <> 0
+GROUP BY category_id, min_price;
+INSERT INTO product_facets (brand_id, category_id, min_price, product_count)
+SELECT 0, 0, min_price, SUM(product_count) FROM product_facets WHERE brand_id <> 0 AND category_id = 0 AND min_price <> -1
+GROUP BY min_price;
@@ -0,0 +1,17 @@
+-- 商品一覧の並び替え・範囲での絞り込みのインデックス
+-- 並び順の列とIDの組をキーにし、ページの続き((列, id) > (前ページ最後の値, id))を並べ替えなしで読み出す
+-- 名前順は一意制約(uk_products_name)のインデックスを使う
+
+-- 金額順
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);
+
+-- ブランド・カテゴリーで絞り込んだ金額順・ID順
+-- V2の単一列のインデックスは、H2では外部キー制約が使っているため削除しない
+CREATE INDEX IF NOT EXISTS idx_products_brand_id_price_id ON products (brand_id, price, id);
+CREATE INDEX IF NOT EXISTS idx_products_category_id_price_id ON products (category_id, price, id);
+
+-- 寸法・重さの範囲での絞り込み
+CREATE INDEX IF NOT EXISTS idx_products_length ON products (length);
+CREATE INDEX IF NOT EXISTS idx_products_width ON products (width);
+CREATE INDEX IF NOT EXISTS idx_products_height ON products (height);
+CREATE INDEX IF NOT EXISTS idx_products_weight ON products (weight);
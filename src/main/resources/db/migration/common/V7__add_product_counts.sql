@@ -0,0 +1,9 @@
+-- ブランド・カテゴリーごとの商品件数
+-- 商品の登録・更新・削除と同じトランザクションで増減させ、一覧画面の表示と削除前の使用中チェックに使う
+-- 既存のデータは、マイグレーション実行時に数える
+
+ALTER TABLE brands ADD COLUMN product_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE categories ADD COLUMN product_count BIGINT DEFAULT 0 NOT NULL;
+
+UPDATE brands SET product_count = (SELECT COUNT(*) FROM products p WHERE p.brand_id = brands.id);
+UPDATE categories SET product_count = (SELECT COUNT(*) FROM products p WHERE p.category_id = categories.id);
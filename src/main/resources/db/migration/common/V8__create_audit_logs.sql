@@ -0,0 +1,19 @@
+-- 管理者による商品・ブランド・カテゴリー・管理者の登録・更新・削除の記録
+-- 変更をコミットした後にまとめて書き込む(AuditLog) 記録した時点の管理者・対象の名前を保持する
+-- 管理者・対象の削除後も記録を残すため、外部キーは設定しない
+
+CREATE TABLE audit_logs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    user_id BIGINT,
+    user_email VARCHAR(50),
+    action VARCHAR(8) NOT NULL,
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    entity_name VARCHAR(50),
+    PRIMARY KEY (id)
+);
+
+-- 対象ごとの変更履歴・期間ごとの変更履歴の参照
+CREATE INDEX idx_audit_logs_entity ON audit_logs (entity_type, entity_id, occurred_at);
+CREATE INDEX idx_audit_logs_occurred_at ON audit_logs (occurred_at);
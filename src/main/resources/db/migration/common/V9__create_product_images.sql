@@ -0,0 +1,18 @@
+-- 商品画像のギャラリー(1商品に複数の画像を表示順に保持する)
+-- width・heightは元画像の大きさ 縮小画像(srcset)の選択と、遅延読み込み前の表示領域の確保に使う
+-- 既存の商品画像は1枚目の画像として移行する(大きさは不明のため、縮小画像なしで表示する)
+
+CREATE TABLE product_images (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id BIGINT NOT NULL,
+    display_order INTEGER NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    width INTEGER,
+    height INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_images_order UNIQUE (product_id, display_order),
+    CONSTRAINT fk_product_images_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+);
+
+INSERT INTO product_images (product_id, display_order, file_name)
+SELECT id, 0, image FROM products WHERE image IS NOT NULL;
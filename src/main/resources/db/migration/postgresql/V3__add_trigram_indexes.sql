@@ -0,0 +1,19 @@
+-- 部分一致検索(LIKE '%keyword%')のインデックス
+-- B-treeインデックスは中間一致に使えないため、pg_trgmのGINインデックスを作成する
+-- 各リポジトリのsearchクエリが検索するカラムに対応させる
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ProductRepository.search
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_description_trgm ON products USING gin (description gin_trgm_ops);
+
+-- BrandRepository.search / ProductRepository.search(ブランド名)
+CREATE INDEX IF NOT EXISTS idx_brands_name_trgm ON brands USING gin (name gin_trgm_ops);
+
+-- CategoryRepository.search / ProductRepository.search(カテゴリー名)
+CREATE INDEX IF NOT EXISTS idx_categories_name_trgm ON categories USING gin (name gin_trgm_ops);
+
+-- UserRepository.search
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (name gin_trgm_ops);
@@ -0,0 +1,326 @@
+package com.example.slshopping_ut_answer;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.slshopping_ut_answer.brand.BrandRepository;
+import com.example.slshopping_ut_answer.category.CategoryRepository;
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductImage;
+import com.example.slshopping_ut_answer.entity.Role;
+import com.example.slshopping_ut_answer.entity.User;
+import com.example.slshopping_ut_answer.product.ProductImageRepository;
+import com.example.slshopping_ut_answer.product.ProductRepository;
+import com.example.slshopping_ut_answer.security.SLShopUserDetails;
+import com.example.slshopping_ut_answer.user.RoleRepository;
+import com.example.slshopping_ut_answer.user.UserRepository;
+
+/**
+ * 画面ごとのSQL発行数の上限を検証するテスト
+ * 組み込みデータベースに複数件のデータを登録し、N+1問題が発生した場合に上限を超えるようにする
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.slshopping_ut_answer.SqlStatementCounter",
+    // 接続先のURLで判定する処理(CacheInvalidationBus)も、組み込みデータベースとして扱うようにする
+    "spring.datasource.url=jdbc:h2:mem:sql-statement-budget" })
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class SqlStatementBudgetTest {
+
+    /** 一覧画面に表示するデータの件数 */
+    private static final int ROWS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductImageRepository productImageRepository;
+
+    @Autowired
+    private BrandRepository brandRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private SLShopUserDetails loginUser;
+
+    private List<Product> products = new ArrayList<>();
+
+    private List<Brand> brands = new ArrayList<>();
+
+    private List<Category> categories = new ArrayList<>();
+
+    private List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        Role admin = roleRepository.save(new Role(null, "Admin", "管理者"));
+        Role editor = roleRepository.save(new Role(null, "Editor", "編集者"));
+        for (int i = 0; i < ROWS; i++) {
+            Brand brand = brandRepository.save(new Brand(null, "brand" + i));
+            Category category = categoryRepository.save(new Category(null, "category" + i));
+            brands.add(brand);
+            categories.add(category);
+            products.add(productRepository.save(new Product(null, "product" + i, "説明" + i, 100 * (i + 1), "image.png",
+                1.0, 1.0, 1.0, 1.0, category, brand)));
+            users.add(userRepository.save(new User(null, "user" + i + "@example.com", "password", "user" + i, true,
+                Set.of(admin, editor))));
+        }
+        // 詳細画面のギャラリー用に、1件目の商品に画像を2枚登録
+        productImageRepository.save(new ProductImage(products.get(0), 0, "0_image.png", 800, 600));
+        productImageRepository.save(new ProductImage(products.get(0), 1, "1_image.png", 200, 150));
+        // 削除用に、商品から参照されていないブランドとカテゴリーを登録
+        brands.add(brandRepository.save(new Brand(null, "unused")));
+        categories.add(categoryRepository.save(new Category(null, "unused")));
+        loginUser = new SLShopUserDetails(users.get(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        brandRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    /**
+     * 【概要】
+     * 商品画面のSQL発行数の検証<br>
+     *
+     * 【条件】
+     * 商品の一覧・検索・詳細・編集・削除画面にリクエストすること<br>
+     *
+     * 【結果】
+     * 各画面のSQL発行数が上限以下であること
+     */
+    @Test
+    void testProductEndpoints() throws Exception {
+        Long id = products.get(0).getId();
+
+        // 商品・商品件数の集計・ブランド・カテゴリー
+        assertBudget(get("/products"), 4)
+                .andExpect(status().isOk());
+        assertBudget(get("/products").param("keyword", "product"), 4)
+                .andExpect(status().isOk());
+        assertBudget(get("/products").param("brandId", String.valueOf(brands.get(0).getId()))
+                .param("categoryId", String.valueOf(categories.get(0).getId())).param("priceRange", "UNDER_1000"), 4)
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("listProducts", hasProperty("count", is(1))));
+        // 前のページの続きは、最後の商品の並び順の値の取得が加わる
+        assertBudget(get("/products").param("sort", "PRICE").param("order", "DESC").param("minWeight", "0.5")
+                .param("after", String.valueOf(products.get(ROWS - 1).getId())), 5)
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("listProducts", hasProperty("count", is(ROWS - 1))));
+        // 入力候補は最初のみ商品名・ブランド名・カテゴリー名を読み込み、以降はデータベースを参照しない
+        assertBudget(get("/products/suggest").param("q", "product"), 3)
+                .andExpect(status().isOk());
+        assertBudget(get("/products/suggest").param("q", "brand"), 0)
+                .andExpect(status().isOk());
+        // ギャラリーの画像も商品と結合して取得する
+        assertBudget(get("/products/detail/{id}", id), 1)
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("srcset=\"/product-images/" + id + "/w320/0_image.png 320w, "
+                    + "/product-images/" + id + "/w640/0_image.png 640w, /product-images/" + id + "/0_image.png 800w\"")))
+                .andExpect(content().string(stringContainsInOrder(
+                    "width=\"800\" height=\"600\"", "loading=\"eager\"", "width=\"200\" height=\"150\"", "loading=\"lazy\"")));
+        // 選択中のブランド・カテゴリーは、選択肢ごとに取得せずIDで判定する
+        assertBudget(get("/products/edit/{id}", id), 3)
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                    "<option value=\"" + brands.get(0).getId() + "\" selected=\"selected\">brand0</option>")))
+                .andExpect(content().string(containsString(
+                    "<option value=\"" + categories.get(0).getId() + "\" selected=\"selected\">category0</option>")));
+        // 商品・商品件数の集計・ブランドとカテゴリーの商品件数の更新
+        assertBudget(get("/products/delete/{id}", id), 5)
+                .andExpect(status().isFound());
+    }
+
+    /**
+     * 【概要】
+     * ブランド画面のSQL発行数の検証<br>
+     *
+     * 【条件】
+     * ブランドの一覧・検索・詳細・編集・削除画面にリクエストすること<br>
+     *
+     * 【結果】
+     * 各画面のSQL発行数が上限以下であること
+     */
+    @Test
+    void testBrandEndpoints() throws Exception {
+        Long id = brands.get(0).getId();
+
+        assertBudget(get("/brands"), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/brands").param("keyword", "brand"), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/brands/detail/{id}", id), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/brands/edit/{id}", id), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/brands/delete/{id}", brands.get(ROWS).getId()), 2)
+                .andExpect(status().isFound());
+    }
+
+    /**
+     * 【概要】
+     * カテゴリー画面のSQL発行数の検証<br>
+     *
+     * 【条件】
+     * カテゴリーの一覧・検索・詳細・編集・削除画面にリクエストすること<br>
+     *
+     * 【結果】
+     * 各画面のSQL発行数が上限以下であること
+     */
+    @Test
+    void testCategoryEndpoints() throws Exception {
+        Long id = categories.get(0).getId();
+
+        assertBudget(get("/categories"), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/categories").param("keyword", "category"), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/categories/detail/{id}", id), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/categories/edit/{id}", id), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/categories/delete/{id}", categories.get(ROWS).getId()), 2)
+                .andExpect(status().isFound());
+    }
+
+    /**
+     * 【概要】
+     * 一覧取得APIのSQL発行数の検証<br>
+     *
+     * 【条件】
+     * 商品・ブランド・カテゴリーの一覧取得APIに、2ページに分けてリクエストすること<br>
+     *
+     * 【結果】
+     * 各ページのSQL発行数が1件であること(関連する情報を商品ごとに取得しないこと)<br>
+     * 2ページ目は1ページ目の続きから返すこと
+     */
+    @Test
+    void testApiEndpoints() throws Exception {
+        assertBudget(get("/api/products").param("limit", "3"), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("product0", "product1", "product2")))
+                .andExpect(jsonPath("$.items[0].brand.name").value("brand0"))
+                .andExpect(jsonPath("$.next").value(products.get(2).getId()));
+        assertBudget(get("/api/products").param("after", String.valueOf(products.get(2).getId())).param("limit", "3"), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("product3", "product4")))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+        assertBudget(get("/api/brands").param("fields", "name"), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(ROWS + 1)));
+        assertBudget(get("/api/categories").param("fields", "name"), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(ROWS + 1)));
+    }
+
+    /**
+     * 【概要】
+     * 管理者画面のSQL発行数の検証<br>
+     *
+     * 【条件】
+     * 管理者の一覧・検索・詳細・編集・削除画面にリクエストすること<br>
+     *
+     * 【結果】
+     * 各画面のSQL発行数が上限以下であること
+     */
+    @Test
+    void testUserEndpoints() throws Exception {
+        Long id = users.get(1).getId();
+
+        assertBudget(get("/users"), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/users").param("keyword", "user"), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/users").param("keyword", String.valueOf(id)), 1)
+                .andExpect(status().isOk());
+        assertBudget(get("/users/detail/{id}", id), 1)
+                .andExpect(status().isOk());
+        // 選択中のロールは、選択肢ごとに取得せずIDで判定する
+        assertBudget(get("/users/edit/{id}", id), 2)
+                .andExpect(status().isOk())
+                .andExpect(content().string(stringContainsInOrder("value=\"", "\" checked=\"checked\"",
+                    "value=\"", "\" checked=\"checked\"")));
+        assertBudget(get("/users/delete/{id}", id), 3)
+                .andExpect(status().isFound());
+    }
+
+    /**
+     * 【概要】
+     * 前回表示から更新がない場合のSQL発行数の検証<br>
+     *
+     * 【条件】
+     * 同じセッションで、1回目のレスポンスのETagをIf-None-Matchに指定して、一覧・詳細画面に2回目のリクエストをすること<br>
+     *
+     * 【結果】
+     * 2回目は304を返し、SQLを発行しないこと<br>
+     * 商品の更新後は画面を描画すること
+     */
+    @Test
+    void testNotModified() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        Product product = products.get(0);
+        for (String url : List.of("/products", "/products/detail/" + product.getId(), "/brands", "/categories", "/users")) {
+            String etag = assertBudget(get(url).session(session), 4)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+            assertBudget(get(url).session(session).header("If-None-Match", etag), 0)
+                    .andExpect(status().isNotModified());
+        }
+
+        String etag = assertBudget(get("/products").session(session), 4)
+                .andReturn().getResponse().getHeader("ETag");
+        product.setPrice(999);
+        productRepository.save(product);
+        assertBudget(get("/products").session(session).header("If-None-Match", etag), 4)
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * ログイン済みの状態でリクエストし、SQL発行数が上限以下であることを検証する
+     *
+     * @param request リクエスト
+     * @param budget SQL発行数の上限
+     * @return ResultActions
+     * @throws Exception
+     */
+    private ResultActions assertBudget(MockHttpServletRequestBuilder request, int budget) throws Exception {
+        return this.mockMvc.perform(request.with(user(loginUser)).with(SqlStatementCounter.reset()))
+                .andExpect(SqlStatementCounter.atMost(budget));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.example.slshopping_ut_answer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+/**
+ * リクエストごとに発行されたSQLを数えるテスト用のクラス
+ * hibernate.session_factory.statement_inspectorに登録して利用する
+ *
+ * <pre>
+ * mockMvc.perform(get("/brands").with(SqlStatementCounter.reset()))
+ *     .andExpect(SqlStatementCounter.atMost(2));
+ * </pre>
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    /** MockMvcはリクエストを呼び出し元のスレッドで処理するため、スレッドごとに記録する */
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    /**
+     * リクエストの実行直前に記録済みのSQLを破棄する
+     *
+     * @return RequestPostProcessor
+     */
+    public static RequestPostProcessor reset() {
+        return request -> {
+            STATEMENTS.get().clear();
+            return request;
+        };
+    }
+
+    /**
+     * リクエスト中に発行されたSQLの数が上限以下であることを検証する
+     *
+     * @param budget SQL発行数の上限
+     * @return ResultMatcher
+     */
+    public static ResultMatcher atMost(int budget) {
+        return result -> {
+            List<String> statements = STATEMENTS.get();
+            if (statements.size() > budget) {
+                throw new AssertionError(String.format("%s %s: expected at most %d SQL statements but was %d%n%s",
+                    result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+                    budget, statements.size(), String.join(System.lineSeparator(), statements)));
+            }
+        };
+    }
+
+    /**
+     * 直近のリクエストで発行されたSQLの数を返す
+     *
+     * @return SQLの発行数
+     */
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.example.slshopping_ut_answer.audit;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogApiControllerTest {
+
+    /** モック化したクラス */
+    @Mock
+    private AuditLog mockAuditLog;
+
+    /** テスト対象クラスにモックを注入 */
+    @InjectMocks
+    private AuditLogApiController target;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        // MockMvcの生成
+        this.mockMvc = MockMvcBuilders.standaloneSetup(target).alwaysDo(log()).build();
+    }
+
+    /**
+     * 【概要】
+     * 監査ログの書き込み状況取得APIの検証<br>
+     *
+     * 【条件】
+     * GET通信の/api/audit-logs/metricsにリクエストすること<br>
+     * auditLogのmetricsメソッドは書き込み待ち5件・破棄2件の状況を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * 書き込み状況をJSONで返却すること
+     */
+    @Test
+    void testMetrics() throws Exception {
+        doReturn(new AuditLogMetrics(5, 120, 1000, 10, 2, 0)).when(this.mockAuditLog).metrics();
+
+        this.mockMvc.perform(get("/api/audit-logs/metrics"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pending").value(5))
+            .andExpect(jsonPath("$.maxPending").value(120))
+            .andExpect(jsonPath("$.written").value(1000))
+            .andExpect(jsonPath("$.dropped").value(2));
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.example.slshopping_ut_answer.audit;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.User;
+import com.example.slshopping_ut_answer.security.SLShopUserDetails;
+
+class AuditLogTest {
+
+    /** マイグレーションで監査ログのテーブルを作成したデータベース */
+    private static final DataSource DATA_SOURCE = new DriverManagerDataSource("jdbc:h2:mem:audit-log;DB_CLOSE_DELAY=-1");
+
+    private static final JdbcTemplate JDBC_TEMPLATE = new JdbcTemplate(DATA_SOURCE);
+
+    private static final DataSourceTransactionManager TRANSACTION_MANAGER = new DataSourceTransactionManager(DATA_SOURCE);
+
+    @BeforeAll
+    static void createTable() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V8__create_audit_logs.sql"))
+            .execute(DATA_SOURCE);
+    }
+
+    @AfterEach
+    void cleanup() {
+        JDBC_TEMPLATE.update("DELETE FROM audit_logs");
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 【概要】
+     * 監査ログの書き込みの検証<br>
+     *
+     * 【条件】
+     * ログインした管理者が、バッチの件数(2件)を超える3件の操作を記録すること<br>
+     *
+     * 【結果】
+     * 2回のバッチで3件書き込むこと<br>
+     * 操作した管理者・操作・対象を書き込むこと
+     */
+    @Test
+    void testFlush() {
+        AuditLog auditLog = new AuditLog(JDBC_TEMPLATE, TRANSACTION_MANAGER,
+            new AuditLogProperties(10, 2, Duration.ofSeconds(1)));
+        login(new User(1L, "admin@example.com", "password", "管理者", true, Set.of()));
+
+        auditLog.record(AuditAction.CREATE, Product.class, 1L, "product");
+        auditLog.record(AuditAction.UPDATE, Brand.class, 2L, "brand");
+        auditLog.record(AuditAction.DELETE, Product.class, 1L, "product");
+        auditLog.flush();
+
+        List<Map<String, Object>> rows = JDBC_TEMPLATE.queryForList(
+            "SELECT user_id, user_email, action, entity_type, entity_id, entity_name FROM audit_logs ORDER BY id");
+        assertThat(rows).extracting(row -> row.get("ACTION")).containsExactly("CREATE", "UPDATE", "DELETE");
+        assertThat(rows.get(1)).containsEntry("USER_ID", 1L)
+            .containsEntry("USER_EMAIL", "admin@example.com")
+            .containsEntry("ENTITY_TYPE", "Brand")
+            .containsEntry("ENTITY_ID", 2L)
+            .containsEntry("ENTITY_NAME", "brand");
+        assertThat(auditLog.metrics()).isEqualTo(new AuditLogMetrics(0, 3, 3, 2, 0, 0));
+    }
+
+    /**
+     * 【概要】
+     * トランザクション内で記録した監査ログの検証<br>
+     *
+     * 【条件】
+     * ログインしていない状態で、コミットするトランザクションとロールバックするトランザクションで操作を記録すること<br>
+     *
+     * 【結果】
+     * コミットした操作のみ、管理者なしで書き込むこと
+     */
+    @Test
+    void testRecord_transaction() {
+        AuditLog auditLog = new AuditLog(JDBC_TEMPLATE, TRANSACTION_MANAGER,
+            new AuditLogProperties(10, 2, Duration.ofSeconds(1)));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(TRANSACTION_MANAGER);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            auditLog.record(AuditAction.CREATE, Product.class, 1L, "committed");
+            // コミットするまでは書き込み待ちにしない
+            assertThat(auditLog.metrics().pending()).isZero();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            auditLog.record(AuditAction.CREATE, Product.class, 2L, "rolledback");
+            status.setRollbackOnly();
+        });
+        auditLog.flush();
+
+        List<Map<String, Object>> rows = JDBC_TEMPLATE.queryForList("SELECT user_id, entity_name FROM audit_logs");
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsEntry("ENTITY_NAME", "committed").containsEntry("USER_ID", null);
+    }
+
+    /**
+     * 【概要】
+     * 書き込み待ちが上限に達した場合の検証<br>
+     *
+     * 【条件】
+     * 上限(2件)を超える3件の操作を、書き込む前に記録すること<br>
+     *
+     * 【結果】
+     * 上限を超えた1件を破棄し、破棄した件数に数えること<br>
+     * 上限までの2件を書き込むこと
+     */
+    @Test
+    void testRecord_overCapacity() {
+        AuditLog auditLog = new AuditLog(JDBC_TEMPLATE, TRANSACTION_MANAGER,
+            new AuditLogProperties(2, 10, Duration.ofSeconds(1)));
+
+        auditLog.record(AuditAction.CREATE, Product.class, 1L, "product1");
+        auditLog.record(AuditAction.CREATE, Product.class, 2L, "product2");
+        auditLog.record(AuditAction.CREATE, Product.class, 3L, "product3");
+
+        assertThat(auditLog.metrics().dropped()).isEqualTo(1);
+        auditLog.flush();
+        assertThat(JDBC_TEMPLATE.queryForList("SELECT entity_name FROM audit_logs ORDER BY id", String.class))
+            .containsExactly("product1", "product2");
+        assertThat(auditLog.metrics()).isEqualTo(new AuditLogMetrics(0, 2, 2, 1, 1, 0));
+    }
+
+    /**
+     * 【概要】
+     * 書き込みに失敗した場合の検証<br>
+     *
+     * 【条件】
+     * 列の桁数を超える名前で操作を記録すること<br>
+     *
+     * 【結果】
+     * 例外を投げずに、失敗したバッチの件数を破棄した件数に数えること<br>
+     * 失敗したバッチを再度書き込まないこと
+     */
+    @Test
+    void testFlush_failed() {
+        AuditLog auditLog = new AuditLog(JDBC_TEMPLATE, TRANSACTION_MANAGER,
+            new AuditLogProperties(10, 10, Duration.ofSeconds(1)));
+
+        auditLog.record(AuditAction.CREATE, Product.class, 1L, "product");
+        auditLog.record(AuditAction.CREATE, Product.class, 2L, "x".repeat(51));
+        auditLog.flush();
+        auditLog.flush();
+
+        assertThat(JDBC_TEMPLATE.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class)).isZero();
+        assertThat(auditLog.metrics()).isEqualTo(new AuditLogMetrics(0, 2, 0, 0, 0, 2));
+    }
+
+    /**
+     * 【概要】
+     * 書き込みスレッドの検証<br>
+     *
+     * 【条件】
+     * 書き込みスレッドを開始し、バッチの件数分の操作を記録すること<br>
+     *
+     * 【結果】
+     * 書き込む間隔を待たずに書き込むこと<br>
+     * 停止時に書き込み待ちの操作を書き込むこと
+     */
+    @Test
+    void testWriter() throws Exception {
+        AuditLog auditLog = new AuditLog(JDBC_TEMPLATE, TRANSACTION_MANAGER,
+            new AuditLogProperties(10, 2, Duration.ofHours(1)));
+        auditLog.afterPropertiesSet();
+
+        auditLog.record(AuditAction.CREATE, Product.class, 1L, "product1");
+        auditLog.record(AuditAction.CREATE, Product.class, 2L, "product2");
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (auditLog.metrics().written() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(auditLog.metrics().written()).isEqualTo(2);
+
+        auditLog.record(AuditAction.CREATE, Product.class, 3L, "product3");
+        auditLog.destroy();
+
+        assertThat(JDBC_TEMPLATE.queryForObject("SELECT COUNT(*) FROM audit_logs", Long.class)).isEqualTo(3);
+    }
+
+    private static void login(User user) {
+        SLShopUserDetails userDetails = new SLShopUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+}
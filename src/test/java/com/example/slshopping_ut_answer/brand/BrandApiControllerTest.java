@@ -0,0 +1,72 @@
+package com.example.slshopping_ut_answer.brand;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class BrandApiControllerTest {
+
+    /** モック化したクラス */
+    @Mock
+    private BrandService mockBrandService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /** テスト対象クラスにモックを注入 */
+    @InjectMocks
+    private BrandApiController target;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        // MockMvcの生成
+        this.mockMvc = MockMvcBuilders.standaloneSetup(target).alwaysDo(log()).build();
+    }
+
+    /**
+     * 【概要】
+     * ブランド一覧取得APIの検証<br>
+     *
+     * 【条件】
+     * GET通信の/api/brandsにリクエストすること<br>
+     * クエリパラメーターlimitには2、fieldsにはnameを入力すること<br>
+     * brandServiceのlistAllメソッドはブランド2件を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * itemsにnameのみが格納されていること<br>
+     * nextに最後のブランドIDが格納されていること
+     */
+    @Test
+    void testListBrands() throws Exception {
+        List<Brand> brands = List.of(new Brand(1L, "brandA"), new Brand(2L, "brandB"));
+        doReturn(brands).when(this.mockBrandService).listAll(null, 0L, 2);
+
+        this.mockMvc.perform(get("/api/brands").param("limit", "2").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("brandA", "brandB")))
+                .andExpect(jsonPath("$.items[0].id").doesNotExist())
+                .andExpect(jsonPath("$.next").value(2));
+    }
+}
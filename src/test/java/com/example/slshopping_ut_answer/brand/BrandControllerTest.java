@@ -15,10 +15,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.view.StreamingRows;
 
 @ExtendWith(MockitoExtension.class) // JUnit5でMockito使うために書く
 class BrandControllerTest {
@@ -27,6 +30,9 @@ class BrandControllerTest {
     @Mock
     private BrandService mockBrandService;
 
+    @Mock
+    private CatalogVersion mockCatalogVersion;
+
     /** テスト対象クラスにモックを注入 */
     @InjectMocks
     private BrandController target;
@@ -46,23 +52,24 @@ class BrandControllerTest {
      * 【条件】
      * GET通信の/brandsにリクエストすること<br>
      * クエリパラメーターkeywordにはnullを入力すること<br>
-     * brandServiceのfindAllメソッドはブランドのリストを返却するようスタブ化すること<br>
+     * brandServiceのページ単位のlistAllメソッドはブランドのリストを返却するようスタブ化すること<br>
      *
      * 【結果】
      * ステータスが200であること<br>
      * brands/brands.htmlを表示すること<br>
-     * キー名listBrandsにブランドのリストが格納されていること<br>
+     * キー名listBrandsに、描画時にブランドのリストを返す一覧が格納されていること<br>
      * キー名keywordにnullが格納されていること
      */
     @Test
     void testListBrands() throws Exception {
         // 準備
         List<Brand> brands = new ArrayList<>();
+        brands.add(new Brand(1L, "brandA"));
         String keyword = null;
 
         // スタブを設定
         // doReturn(返り値の設定).when(対象のモック).対象のメソッド(引数)
-        doReturn(brands).when(this.mockBrandService).listAll(keyword);
+        doReturn(brands).when(this.mockBrandService).listAll(keyword, 0L, StreamingRows.DEFAULT_CHUNK_SIZE);
 
         // 検証
         /*
@@ -77,7 +84,7 @@ class BrandControllerTest {
         this.mockMvc.perform(get("/brands").param("keyword", keyword)) // リクエストの情報
                 .andExpect(status().isOk()) // ステータスの検証
                 .andExpect(view().name("brands/brands")) // テンプレートファイルの呼び出し検証
-                .andExpect(model().attribute("listBrands", brands)) // modelに格納されている要素の検証
+                .andExpect(model().attribute("listBrands", contains(brands.toArray()))) // modelに格納されている要素の検証
                 .andExpect(model().attribute("keyword", keyword));
 
     }
@@ -263,4 +270,32 @@ class BrandControllerTest {
                 .andExpect(redirectedUrl("/brands"))
                 .andExpect(flash().attribute("success_message", "削除に成功しました"));
     }
+
+    /**
+     * 【概要】
+     * 商品から参照されているブランドの削除処理の検証<br>
+     *
+     * 【条件】
+     * GET通信の/brands/delete/1にリクエストすること<br>
+     * brandServiceのdeleteメソッドはDataIntegrityViolationExceptionをスローするようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが302であること<br>
+     * /brandsにリダイレクトしていること<br>
+     * リダイレクト先にキー名error_messageに「商品に登録されているため削除できません」という文字列が格納されていること
+     */
+    @Test
+    void testDeleteBrand_inUse() throws Exception {
+        // 準備
+        Long id = 1L;
+
+        // スタブの設定
+        doThrow(new DataIntegrityViolationException("in use")).when(this.mockBrandService).delete(id);
+
+        // 検証
+        this.mockMvc.perform(get("/brands/delete/{id}", id))
+                .andExpect(status().isFound())
+                .andExpect(redirectedUrl("/brands"))
+                .andExpect(flash().attribute("error_message", "商品に登録されているため削除できません"));
+    }
 }
@@ -13,7 +13,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.data.domain.Limit;
 
 import com.example.slshopping_ut_answer.entity.Brand;
 
@@ -125,6 +127,52 @@ class BrandServiceTest {
         assertThat(target.listAll(keyword)).isEqualTo(expected);
     }
 
+    /**
+     * 【概要】
+     * ブランドをページ単位で検索<br>
+     *
+     * 【条件】
+     * brandServiceのlistAllメソッドにbrandという文字列、ID 10、件数2を渡すこと<br>
+     * brandRepositoryのsearchメソッドはBrandのリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ID 10より後のBrandを2件まで検索し、そのリストを返却すること
+     */
+    @Test
+    void testListAll_page() {
+        List<Brand> expected = Arrays.asList(
+            new Brand(11L, "brandA"),
+            new Brand(12L, "brandB")
+        );
+
+        doReturn(expected).when(this.mockBrandRepository).search(10L, "brand", Limit.of(2));
+
+        assertThat(target.listAll("brand", 10L, 2)).isEqualTo(expected);
+    }
+
+    /**
+     * 【概要】
+     * ブランドをページ単位で取得<br>
+     *
+     * 【条件】
+     * brandServiceのlistAllメソッドにnull、ID 10、件数2を渡すこと<br>
+     * brandRepositoryのfindByIdGreaterThanOrderByIdメソッドはBrandのリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ID 10より後のBrandを2件まで取得し、そのリストを返却すること
+     */
+    @Test
+    void testListAll_pageWithoutKeyword() {
+        List<Brand> expected = Arrays.asList(
+            new Brand(11L, "brandA"),
+            new Brand(12L, "brandB")
+        );
+
+        doReturn(expected).when(this.mockBrandRepository).findByIdGreaterThanOrderById(10L, Limit.of(2));
+
+        assertThat(target.listAll(null, 10L, 2)).isEqualTo(expected);
+    }
+
     /**
      * 【概要】
      * ブランド名の重複チェック<br>
@@ -251,4 +299,29 @@ class BrandServiceTest {
         // 検証
         assertThat(target.get(id)).isEqualTo(brand.get());
     }
+
+    /**
+     * 【概要】
+     * 商品から参照されているブランドの削除処理の検証<br>
+     *
+     * 【条件】
+     * brandRepositoryのfindByIdメソッドは商品件数が1件のブランドを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * DataIntegrityViolationExceptionが発生すること<br>
+     * 削除しないこと
+     */
+    @Test
+    void testDelete_inUse() {
+        Brand brand = new Brand(1L, "brand");
+        brand.setProductCount(1);
+
+        doReturn(Optional.of(brand)).when(this.mockBrandRepository).findById(1L);
+
+        assertThatThrownBy(() -> {
+            target.delete(1L);
+        })
+        .isInstanceOf(DataIntegrityViolationException.class);
+        verify(this.mockBrandRepository, never()).deleteById(any());
+    }
 }
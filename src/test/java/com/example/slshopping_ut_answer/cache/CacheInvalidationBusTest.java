@@ -0,0 +1,141 @@
+package com.example.slshopping_ut_answer.cache;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import com.example.slshopping_ut_answer.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+
+    /** モック化したクラス */
+    @Mock
+    private CacheInvalidationListener mockListener;
+
+    @Mock
+    private JdbcTemplate mockJdbcTemplate;
+
+    private CacheInvalidationBus target;
+
+    @BeforeEach
+    void setup() throws Exception {
+        target = bus("jdbc:h2:mem:cache-invalidation");
+        target.start();
+    }
+
+    /**
+     * 【概要】
+     * 他のノードからの通知の検証<br>
+     *
+     * 【条件】
+     * 他のノードでの商品名の変更の通知を受け取ること<br>
+     *
+     * 【結果】
+     * 通知の内容をリスナーに渡すこと
+     */
+    @Test
+    void testReceive() {
+        target.receive("{\"node\":\"node2\",\"entityType\":\"Product\",\"entityId\":1,"
+            + "\"oldName\":\"新バッグ1\",\"newName\":\"旧バッグ1\"}");
+
+        verify(this.mockListener).invalidate(new CacheInvalidation("node2", "Product", 1L, "新バッグ1", "旧バッグ1"));
+    }
+
+    /**
+     * 【概要】
+     * 不正な通知の検証<br>
+     *
+     * 【条件】
+     * JSONでない通知を受け取ること<br>
+     *
+     * 【結果】
+     * 例外を投げずに無視すること
+     */
+    @Test
+    void testReceive_invalidPayload() {
+        assertThatCode(() -> target.receive("invalid")).doesNotThrowAnyException();
+
+        verifyNoInteractions(this.mockListener);
+    }
+
+    /**
+     * 【概要】
+     * キャッシュ全体の無効化の検証<br>
+     *
+     * 【条件】
+     * invalidateAllメソッドを呼び出すこと<br>
+     *
+     * 【結果】
+     * リスナーのキャッシュ全体を無効にすること
+     */
+    @Test
+    void testInvalidateAll() {
+        target.invalidateAll();
+
+        verify(this.mockListener).invalidateAll();
+    }
+
+    /**
+     * 【概要】
+     * PostgreSQL以外のデータベースでの通知の検証<br>
+     *
+     * 【条件】
+     * H2に接続した状態で変更を通知すること<br>
+     *
+     * 【結果】
+     * 1ノードとみなし、SQLを発行しないこと
+     */
+    @Test
+    void testPublish_notPostgreSQL() throws Exception {
+        target.publish(Product.class, 1L, null, "product");
+        target.stop();
+
+        verifyNoInteractions(this.mockJdbcTemplate);
+        verify(this.mockListener, never()).invalidate(any());
+        assertThat(target.isRunning()).isFalse();
+    }
+
+    /**
+     * 【概要】
+     * PostgreSQLでの通知の検証(開始前)<br>
+     *
+     * 【条件】
+     * 接続できないPostgreSQLのURLを指定して作成し、開始せずに変更を通知すること<br>
+     *
+     * 【結果】
+     * 作成時にデータベースへ接続しないこと(例外が発生しないこと)<br>
+     * URLからPostgreSQLと判定し、pg_notifyで通知すること
+     */
+    @Test
+    void testPublish_postgreSQLBeforeStart() {
+        CacheInvalidationBus postgreSQLBus = bus("jdbc:postgresql://localhost:1/slshoput_db");
+
+        postgreSQLBus.publish(Product.class, 1L, null, "product");
+
+        verify(this.mockJdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+            eq(CacheInvalidationBus.CHANNEL), contains("\"entityType\":\"Product\""));
+        assertThat(postgreSQLBus.isRunning()).isFalse();
+    }
+
+    private CacheInvalidationBus bus(String url) {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(url);
+        return new CacheInvalidationBus(dataSourceProperties, mockJdbcTemplate, new ObjectMapper(),
+            List.of(mockListener));
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.slshopping_ut_answer.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+
+class CatalogVersionTest {
+
+    private CatalogVersion target = new CatalogVersion();
+
+    private MockHttpSession session = new MockHttpSession();
+
+    /**
+     * 【概要】
+     * 一覧画面の条件付きGETの検証<br>
+     *
+     * 【条件】
+     * 1回目のレスポンスのETagをIf-None-Matchに指定して、2回目のリクエストをすること<br>
+     *
+     * 【結果】
+     * 1回目は描画し、ETag・Last-Modified・Cache-Controlを返すこと<br>
+     * 2回目は304を返すこと
+     */
+    @Test
+    void testCheckNotModified_sameVersion() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(target.checkNotModified(request(null, first))).isFalse();
+        assertThat(first.getHeader("ETag")).startsWith("W/\"");
+        assertThat(first.getHeader("Last-Modified")).isNotNull();
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("private, no-cache");
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(target.checkNotModified(request(first.getHeader("ETag"), second))).isTrue();
+        assertThat(second.getStatus()).isEqualTo(304);
+    }
+
+    /**
+     * 【概要】
+     * 一覧画面の条件付きGETの検証(更新あり)<br>
+     *
+     * 【条件】
+     * 1回目のリクエスト後にincrementメソッドを呼び出すこと<br>
+     *
+     * 【結果】
+     * 2回目は描画し、1回目と異なるETagを返すこと
+     */
+    @Test
+    void testCheckNotModified_incremented() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        target.checkNotModified(request(null, first));
+
+        target.increment();
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(target.checkNotModified(request(first.getHeader("ETag"), second))).isFalse();
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getHeader("ETag")).isNotEqualTo(first.getHeader("ETag"));
+    }
+
+    /**
+     * 【概要】
+     * 一覧画面の条件付きGETの検証(別セッション)<br>
+     *
+     * 【条件】
+     * 1回目と異なるセッションで、1回目のETagを指定してリクエストすること<br>
+     *
+     * 【結果】
+     * 描画すること(ログイン情報・CSRFトークンが異なるため)
+     */
+    @Test
+    void testCheckNotModified_otherSession() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        target.checkNotModified(request(null, first));
+
+        session = new MockHttpSession();
+        assertThat(target.checkNotModified(request(first.getHeader("ETag"), new MockHttpServletResponse()))).isFalse();
+    }
+
+    /**
+     * 【概要】
+     * 一覧画面の条件付きGETの検証(フラッシュスコープあり)<br>
+     *
+     * 【条件】
+     * 登録・削除後のメッセージを表示するリクエストに、1回目のETagを指定すること<br>
+     *
+     * 【結果】
+     * 描画すること
+     */
+    @Test
+    void testCheckNotModified_flashAttributes() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        target.checkNotModified(request(null, first));
+
+        ServletWebRequest request = request(first.getHeader("ETag"), new MockHttpServletResponse());
+        request.getRequest().setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, new FlashMap());
+        assertThat(target.checkNotModified(request)).isFalse();
+    }
+
+    /**
+     * 【概要】
+     * 詳細画面の条件付きGETの検証<br>
+     *
+     * 【条件】
+     * 1回目は更新日時を指定して判定し、2回目は1回目のETagを指定してETagのみで判定すること<br>
+     *
+     * 【結果】
+     * 1回目は更新日時をLast-Modifiedとして返すこと<br>
+     * 2回目は304を返すこと<br>
+     * ETagを指定しない場合は、レスポンスを変更しないこと
+     */
+    @Test
+    void testIsNotModified() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        Instant updatedAt = Instant.parse("2024-04-01T00:00:00Z");
+        assertThat(target.checkNotModified(request(null, first), updatedAt, null)).isFalse();
+        assertThat(first.getDateHeader("Last-Modified")).isEqualTo(updatedAt.toEpochMilli());
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(target.isNotModified(request(first.getHeader("ETag"), second))).isTrue();
+        assertThat(second.getStatus()).isEqualTo(304);
+
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        assertThat(target.isNotModified(request(null, third))).isFalse();
+        assertThat(third.getHeader("ETag")).isNull();
+    }
+
+    private ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.setSession(session);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
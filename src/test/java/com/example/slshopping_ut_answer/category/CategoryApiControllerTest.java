@@ -0,0 +1,72 @@
+package com.example.slshopping_ut_answer.category;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.slshopping_ut_answer.entity.Category;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryApiControllerTest {
+
+    /** モック化したクラス */
+    @Mock
+    private CategoryService mockCategoryService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /** テスト対象クラスにモックを注入 */
+    @InjectMocks
+    private CategoryApiController target;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        // MockMvcの生成
+        this.mockMvc = MockMvcBuilders.standaloneSetup(target).alwaysDo(log()).build();
+    }
+
+    /**
+     * 【概要】
+     * カテゴリー一覧取得APIの検証<br>
+     *
+     * 【条件】
+     * GET通信の/api/categoriesにリクエストすること<br>
+     * クエリパラメーターlimitには2、fieldsにはnameを入力すること<br>
+     * categoryServiceのlistAllメソッドはカテゴリー2件を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * itemsにnameのみが格納されていること<br>
+     * nextに最後のカテゴリーIDが格納されていること
+     */
+    @Test
+    void testListCategories() throws Exception {
+        List<Category> categories = List.of(new Category(1L, "categoryA"), new Category(2L, "categoryB"));
+        doReturn(categories).when(this.mockCategoryService).listAll(null, 0L, 2);
+
+        this.mockMvc.perform(get("/api/categories").param("limit", "2").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].name", contains("categoryA", "categoryB")))
+                .andExpect(jsonPath("$.items[0].id").doesNotExist())
+                .andExpect(jsonPath("$.next").value(2));
+    }
+}
@@ -15,10 +15,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.view.StreamingRows;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryControllerTest {
@@ -27,6 +30,9 @@ class CategoryControllerTest {
     @Mock
     private CategoryService mockCategoryService;
 
+    @Mock
+    private CatalogVersion mockCatalogVersion;
+
     /** テスト対象クラスにモックを注入 */
     @InjectMocks
     private CategoryController target;
@@ -46,25 +52,26 @@ class CategoryControllerTest {
      * 【条件】
      * GET通信の/categoriesにリクエストすること<br>
      * クエリパラメーターkeywordにはnullを入力すること<br>
-     * categoryServiceのfindAllメソッドはカテゴリーのリストを返却するようスタブ化すること<br>
+     * categoryServiceのページ単位のlistAllメソッドはカテゴリーのリストを返却するようスタブ化すること<br>
      *
      * 【結果】
      * ステータスが200であること<br>
      * categories/categories.htmlを表示すること<br>
-     * キー名listCategoriesにカテゴリーのリストが格納されていること<br>
+     * キー名listCategoriesに、描画時にカテゴリーのリストを返す一覧が格納されていること<br>
      * キー名keywordにnullが格納されていること
      */
     @Test
     void testListCategories() throws Exception {
         List<Category> categories = new ArrayList<>();
+        categories.add(new Category(1L, "categoryA"));
         String keyword = null;
 
-        doReturn(categories).when(this.mockCategoryService).listAll(keyword);
+        doReturn(categories).when(this.mockCategoryService).listAll(keyword, 0L, StreamingRows.DEFAULT_CHUNK_SIZE);
 
         this.mockMvc.perform(get("/categories").param("keyword", keyword))
                 .andExpect(status().isOk())
                 .andExpect(view().name("categories/categories"))
-                .andExpect(model().attribute("listCategories", categories))
+                .andExpect(model().attribute("listCategories", contains(categories.toArray())))
                 .andExpect(model().attribute("keyword", keyword));
     }
 
@@ -224,4 +231,32 @@ class CategoryControllerTest {
                 .andExpect(redirectedUrl("/categories"))
                 .andExpect(flash().attribute("success_message", "削除に成功しました"));
     }
+
+    /**
+     * 【概要】
+     * 商品から参照されているカテゴリーの削除処理の検証<br>
+     *
+     * 【条件】
+     * GET通信の/categories/delete/1にリクエストすること<br>
+     * categoryServiceのdeleteメソッドはDataIntegrityViolationExceptionをスローするようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが302であること<br>
+     * /categoriesにリダイレクトしていること<br>
+     * リダイレクト先にキー名error_messageに「商品に登録されているため削除できません」という文字列が格納されていること
+     */
+    @Test
+    void testDeleteCategory_inUse() throws Exception {
+        // 準備
+        Long id = 1L;
+
+        // スタブの設定
+        doThrow(new DataIntegrityViolationException("in use")).when(this.mockCategoryService).delete(id);
+
+        // 検証
+        this.mockMvc.perform(get("/categories/delete/{id}", id))
+                .andExpect(status().isFound())
+                .andExpect(redirectedUrl("/categories"))
+                .andExpect(flash().attribute("error_message", "商品に登録されているため削除できません"));
+    }
 }
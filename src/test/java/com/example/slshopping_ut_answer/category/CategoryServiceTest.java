@@ -13,7 +13,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.data.domain.Limit;
 
 import com.example.slshopping_ut_answer.entity.Category;
 
@@ -121,6 +123,52 @@ class CategoryServiceTest {
         assertThat(target.listAll(keyword)).isEqualTo(expected);
     }
 
+    /**
+     * 【概要】
+     * カテゴリーをページ単位で検索<br>
+     *
+     * 【条件】
+     * categoryServiceのlistAllメソッドにcategoryという文字列、ID 10、件数2を渡すこと<br>
+     * categoryRepositoryのsearchメソッドはCategoryのリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ID 10より後のCategoryを2件まで検索し、そのリストを返却すること
+     */
+    @Test
+    void testListAll_page() {
+        List<Category> expected = Arrays.asList(
+            new Category(11L, "categoryA"),
+            new Category(12L, "categoryB")
+        );
+
+        doReturn(expected).when(this.mockCategoryRepository).search(10L, "category", Limit.of(2));
+
+        assertThat(target.listAll("category", 10L, 2)).isEqualTo(expected);
+    }
+
+    /**
+     * 【概要】
+     * カテゴリーをページ単位で取得<br>
+     *
+     * 【条件】
+     * categoryServiceのlistAllメソッドにnull、ID 10、件数2を渡すこと<br>
+     * categoryRepositoryのfindByIdGreaterThanOrderByIdメソッドはCategoryのリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ID 10より後のCategoryを2件まで取得し、そのリストを返却すること
+     */
+    @Test
+    void testListAll_pageWithoutKeyword() {
+        List<Category> expected = Arrays.asList(
+            new Category(11L, "categoryA"),
+            new Category(12L, "categoryB")
+        );
+
+        doReturn(expected).when(this.mockCategoryRepository).findByIdGreaterThanOrderById(10L, Limit.of(2));
+
+        assertThat(target.listAll(null, 10L, 2)).isEqualTo(expected);
+    }
+
     /**
      * 【概要】
      * カテゴリー名の重複チェック<br>
@@ -227,4 +275,29 @@ class CategoryServiceTest {
 
         assertThat(target.get(id)).isEqualTo(category.get());
     }
+
+    /**
+     * 【概要】
+     * 商品から参照されているカテゴリーの削除処理の検証<br>
+     *
+     * 【条件】
+     * categoryRepositoryのfindByIdメソッドは商品件数が1件のカテゴリーを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * DataIntegrityViolationExceptionが発生すること<br>
+     * 削除しないこと
+     */
+    @Test
+    void testDelete_inUse() {
+        Category category = new Category(1L, "category");
+        category.setProductCount(1);
+
+        doReturn(Optional.of(category)).when(this.mockCategoryRepository).findById(1L);
+
+        assertThatThrownBy(() -> {
+            target.delete(1L);
+        })
+        .isInstanceOf(DataIntegrityViolationException.class);
+        verify(this.mockCategoryRepository, never()).deleteById(any());
+    }
 }
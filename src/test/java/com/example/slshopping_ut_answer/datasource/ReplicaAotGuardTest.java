@@ -0,0 +1,72 @@
+package com.example.slshopping_ut_answer.datasource;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.SpringProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaAotGuardTest {
+
+    /** モック化したクラス */
+    @Mock
+    private ObjectProvider<ReplicaDataSourceConfig> mockReplicaDataSourceConfig;
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @AfterEach
+    void cleanup() {
+        SpringProperties.setProperty(AotDetector.AOT_ENABLED, null);
+    }
+
+    /**
+     * 【概要】
+     * AOTモードでレプリカの設定が無視される場合の検証<br>
+     *
+     * 【条件】
+     * AOTモードで、slshop.datasource.replica.urlを指定すること<br>
+     * レプリカの設定(ReplicaDataSourceConfig)はBean定義にないこと<br>
+     *
+     * 【結果】
+     * IllegalStateExceptionを投げ、起動を止めること
+     */
+    @Test
+    void testAfterPropertiesSet_replicaIgnoredByAot() {
+        SpringProperties.setProperty(AotDetector.AOT_ENABLED, "true");
+        environment.setProperty("slshop.datasource.replica.url", "jdbc:postgresql://replica:5432/slshoput_db");
+        doReturn(null).when(this.mockReplicaDataSourceConfig).getIfAvailable();
+
+        ReplicaAotGuard target = new ReplicaAotGuard(environment, mockReplicaDataSourceConfig);
+
+        assertThatThrownBy(target::afterPropertiesSet).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * 【概要】
+     * AOTモード以外でレプリカを指定した場合の検証<br>
+     *
+     * 【条件】
+     * AOTモードではなく、slshop.datasource.replica.urlを指定すること<br>
+     *
+     * 【結果】
+     * 例外が発生しないこと(条件は起動時に評価される)
+     */
+    @Test
+    void testAfterPropertiesSet_withoutAot() {
+        environment.setProperty("slshop.datasource.replica.url", "jdbc:postgresql://replica:5432/slshoput_db");
+
+        ReplicaAotGuard target = new ReplicaAotGuard(environment, mockReplicaDataSourceConfig);
+
+        assertThatCode(target::afterPropertiesSet).doesNotThrowAnyException();
+        verifyNoInteractions(this.mockReplicaDataSourceConfig);
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.example.slshopping_ut_answer.datasource;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class ReplicaRoutingDataSourceTest {
+
+    /** 接続先ごとに、接続先の名前を1行だけ持つデータベース */
+    private static final DataSource PRIMARY = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+
+    private static final DataSource REPLICA = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+
+    @BeforeAll
+    static void createTables() {
+        for (DataSource dataSource : new DataSource[] { PRIMARY, REPLICA }) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+            jdbcTemplate.update("INSERT INTO node VALUES (?)", dataSource == PRIMARY ? "primary" : "replica");
+        }
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * 【概要】
+     * 読み取り専用トランザクションの接続先の検証<br>
+     *
+     * 【条件】
+     * 読み取り専用トランザクションでSQLを発行すること<br>
+     *
+     * 【結果】
+     * レプリカに接続すること
+     */
+    @Test
+    void testRoute_readOnly() {
+        Routing routing = new Routing(Duration.ofSeconds(5));
+
+        assertThat(routing.query(true)).isEqualTo("replica");
+    }
+
+    /**
+     * 【概要】
+     * 読み取り専用でないトランザクション・トランザクション外の接続先の検証<br>
+     *
+     * 【条件】
+     * 読み取り専用でないトランザクションと、トランザクション外でSQLを発行すること<br>
+     *
+     * 【結果】
+     * いずれもプライマリに接続すること
+     */
+    @Test
+    void testRoute_readWrite() {
+        Routing routing = new Routing(Duration.ofSeconds(5));
+
+        assertThat(routing.query(false)).isEqualTo("primary");
+        assertThat(routing.jdbcTemplate.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+    }
+
+    /**
+     * 【概要】
+     * 更新直後の読み取り専用トランザクションの接続先の検証<br>
+     *
+     * 【条件】
+     * 同じセッションで読み取り専用でないトランザクションをコミットした直後に、読み取り専用トランザクションでSQLを発行すること<br>
+     *
+     * 【結果】
+     * 更新したセッションはプライマリに、別のセッションはレプリカに接続すること
+     */
+    @Test
+    void testRoute_afterWrite() {
+        Routing routing = new Routing(Duration.ofSeconds(5));
+        MockHttpSession session = new MockHttpSession();
+
+        startRequest(session);
+        routing.query(false);
+        assertThat(routing.query(true)).isEqualTo("primary");
+
+        startRequest(new MockHttpSession());
+        assertThat(routing.query(true)).isEqualTo("replica");
+    }
+
+    /**
+     * 【概要】
+     * 更新から時間が経った読み取り専用トランザクションの接続先の検証<br>
+     *
+     * 【条件】
+     * レプリカの遅延の上限を0として、更新をコミットしたセッションで読み取り専用トランザクションでSQLを発行すること<br>
+     *
+     * 【結果】
+     * レプリカに接続すること
+     */
+    @Test
+    void testRoute_lagGuardElapsed() {
+        Routing routing = new Routing(Duration.ZERO);
+
+        startRequest(new MockHttpSession());
+        routing.query(false);
+
+        assertThat(routing.query(true)).isEqualTo("replica");
+    }
+
+    /**
+     * 【概要】
+     * ロールバックしたトランザクションの検証<br>
+     *
+     * 【条件】
+     * 読み取り専用でないトランザクションをロールバックした直後に、読み取り専用トランザクションでSQLを発行すること<br>
+     *
+     * 【結果】
+     * レプリカに接続すること
+     */
+    @Test
+    void testRoute_afterRollback() {
+        Routing routing = new Routing(Duration.ofSeconds(5));
+
+        startRequest(new MockHttpSession());
+        routing.transactionTemplate.executeWithoutResult(status -> {
+            routing.jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            status.setRollbackOnly();
+        });
+
+        assertThat(routing.query(true)).isEqualTo("replica");
+    }
+
+    private static void startRequest(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    /**
+     * アプリケーションと同じく、振り分け用のDataSourceをLazyConnectionDataSourceProxyで包んで使う
+     */
+    private static class Routing {
+
+        final JdbcTemplate jdbcTemplate;
+
+        final TransactionTemplate transactionTemplate;
+
+        Routing(Duration lagGuard) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(PRIMARY, REPLICA, lagGuard));
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        /**
+         * トランザクション内で接続先の名前を取得する
+         */
+        String query(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.example.slshopping_ut_answer.product;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class ProductApiControllerTest {
+
+    /** モック化したクラス */
+    @Mock
+    private ProductService mockProductService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /** テスト対象クラスにモックを注入 */
+    @InjectMocks
+    private ProductApiController target;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        // MockMvcの生成
+        this.mockMvc = MockMvcBuilders.standaloneSetup(target).alwaysDo(log()).build();
+    }
+
+    /**
+     * 【概要】
+     * 商品一覧取得APIの検証<br>
+     *
+     * 【条件】
+     * GET通信の/api/productsにリクエストすること<br>
+     * クエリパラメーターlimitには2を入力すること<br>
+     * productServiceのlistPageメソッドは商品2件を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * itemsに商品の全項目が格納されていること<br>
+     * nextに最後の商品IDが格納されていること
+     */
+    @Test
+    void testListProducts() throws Exception {
+        stubListPage(0L, 2, List.of(product(1L, "商品A"), product(2L, "商品B")));
+
+        this.mockMvc.perform(get("/api/products").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json;charset=UTF-8"))
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("商品A"))
+                .andExpect(jsonPath("$.items[0].price").value(1000))
+                .andExpect(jsonPath("$.items[0].image").value("/product-images/1/image.png"))
+                .andExpect(jsonPath("$.items[0].brand.name").value("ブランド"))
+                .andExpect(jsonPath("$.items[0].category.name").value("カテゴリー"))
+                .andExpect(jsonPath("$.next").value(2));
+    }
+
+    /**
+     * 【概要】
+     * 商品一覧取得APIの検証(項目指定)<br>
+     *
+     * 【条件】
+     * GET通信の/api/productsにリクエストすること<br>
+     * クエリパラメーターafterには1、fieldsにはid,nameを入力すること<br>
+     * productServiceのlistPageメソッドは商品1件を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * itemsにidとnameのみが格納されていること<br>
+     * 件数が1ページ分に満たないため、nextがnullであること
+     */
+    @Test
+    void testListProducts_fields() throws Exception {
+        stubListPage(1L, 100, List.of(product(2L, "商品B")));
+
+        this.mockMvc.perform(get("/api/products").param("after", "1").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].*", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("商品B"))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    /**
+     * 【概要】
+     * 商品一覧取得APIの検証(存在しない項目指定)<br>
+     *
+     * 【条件】
+     * GET通信の/api/productsにリクエストすること<br>
+     * クエリパラメーターfieldsにはid,passwordを入力すること<br>
+     *
+     * 【結果】
+     * ステータスが400であること<br>
+     * productServiceのlistPageメソッドが呼ばれないこと
+     */
+    @Test
+    void testListProducts_unknownField() throws Exception {
+        this.mockMvc.perform(get("/api/products").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+
+        verify(this.mockProductService, never()).listPage(anyLong(), anyInt());
+    }
+
+    /**
+     * 【概要】
+     * 商品一覧取得APIの検証(件数の上限超過)<br>
+     *
+     * 【条件】
+     * GET通信の/api/productsにリクエストすること<br>
+     * クエリパラメーターlimitには1001を入力すること<br>
+     *
+     * 【結果】
+     * ステータスが400であること
+     */
+    @Test
+    void testListProducts_limitOutOfRange() throws Exception {
+        this.mockMvc.perform(get("/api/products").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void stubListPage(Long afterId, int limit, List<Product> products) {
+        doReturn(products).when(this.mockProductService).listPage(afterId, limit);
+    }
+
+    private static Product product(Long id, String name) {
+        return new Product(id, name, "説明", 1000, "image.png", 1, 2, 3, 4,
+            new Category(1L, "カテゴリー"), new Brand(1L, "ブランド"));
+    }
+}
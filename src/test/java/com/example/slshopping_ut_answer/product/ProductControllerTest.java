@@ -1,5 +1,6 @@
 package com.example.slshopping_ut_answer.product;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -12,17 +13,24 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.slshopping_ut_answer.brand.BrandService;
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.category.CategoryService;
 import com.example.slshopping_ut_answer.entity.Brand;
 import com.example.slshopping_ut_answer.entity.Category;
 import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.suggest.SuggestIndex;
+import com.example.slshopping_ut_answer.suggest.Suggestion;
+import com.example.slshopping_ut_answer.suggest.SuggestionType;
 
 @ExtendWith(MockitoExtension.class)
 class ProductControllerTest {
@@ -31,6 +39,9 @@ class ProductControllerTest {
     @Mock
     private ProductService mockProductService;
 
+    @Mock
+    private CatalogVersion mockCatalogVersion;
+
     @Mock
     private BrandService mockBrandService;
 
@@ -40,6 +51,9 @@ class ProductControllerTest {
     @Mock
     private ProductImageService mockProductImageService;
 
+    @Mock
+    private SuggestIndex mockSuggestIndex;
+
     /** テスト対象クラスにモックを注入 */
     @InjectMocks
     private ProductController target;
@@ -59,26 +73,218 @@ class ProductControllerTest {
      * 【条件】
      * GET通信の/productsにリクエストすること<br>
      * クエリパラメーターkeywordにはnullを入力すること<br>
-     * productServiceのfindAllメソッドは商品のリストを返却するようスタブ化すること<br>
+     * productServiceのsearchメソッドは商品のリストを返却するようスタブ化すること<br>
      *
      * 【結果】
      * ステータスが200であること<br>
      * products/products.htmlを表示すること<br>
-     * キー名listProductsに商品のリストが格納されていること<br>
-     * キー名keywordにnullが格納されていること
+     * キー名listProductsに、描画時に商品のリストを返す一覧が格納されていること<br>
+     * キー名conditionのkeywordにnull、並び順にID順・昇順が格納されていること<br>
+     * キー名nextUrlの値が、一覧の描画後にnullとなること
      */
     @Test
     void testListProducts() throws Exception {
         List<Product> products = new ArrayList<>();
         String keyword = null;
 
-        doReturn(products).when(this.mockProductService).listAll(keyword);
+        doReturn(products).when(this.mockProductService)
+                .search(ArgumentMatchers.any(ProductSearchCondition.class), ArgumentMatchers.eq(ProductController.CHUNK_SIZE));
 
         this.mockMvc.perform(get("/products").param("keyword", keyword))
                 .andExpect(status().isOk())
                 .andExpect(view().name("products/products"))
-                .andExpect(model().attribute("listProducts", products))
-                .andExpect(model().attribute("keyword", keyword));
+                .andExpect(model().attribute("listProducts", emptyIterable()))
+                .andExpect(model().attribute("condition", hasProperty("keyword", nullValue())))
+                .andExpect(model().attribute("condition", hasProperty("sort", is(ProductSort.ID))))
+                .andExpect(model().attribute("condition", hasProperty("order", is(Sort.Direction.ASC))))
+                .andExpect(model().attribute("nextUrl", hasProperty("value", nullValue())));
+    }
+
+    /**
+     * 【概要】
+     * 商品一覧表示画面の検証(絞り込み)<br>
+     *
+     * 【条件】
+     * GET通信の/productsにリクエストすること<br>
+     * クエリパラメーターbrandId・categoryId・priceRangeを入力すること<br>
+     * productServiceのsearchメソッドは商品のリスト、getFacetsメソッドは絞り込み条件ごとの商品件数を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * キー名listProductsに、描画時に商品のリストを返す一覧が格納されていること<br>
+     * キー名facetsに、描画時に絞り込み条件ごとの商品件数を返す値が格納されていること<br>
+     * キー名conditionのbrandId・categoryId・priceRangeに選択中の条件が格納されていること
+     */
+    @Test
+    void testListProducts_facets() throws Exception {
+        List<Product> products = new ArrayList<>();
+        ProductFacets facets = new ProductFacets();
+
+        doReturn(products).when(this.mockProductService)
+                .search(ArgumentMatchers.any(ProductSearchCondition.class), ArgumentMatchers.anyInt());
+        doReturn(facets).when(this.mockProductService).getFacets(null, 1L, 2L, PriceRange.FROM_1000);
+
+        this.mockMvc.perform(get("/products").param("brandId", "1").param("categoryId", "2")
+                .param("priceRange", "FROM_1000"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("products/products"))
+                .andExpect(model().attribute("listProducts", emptyIterable()))
+                .andExpect(model().attribute("facets", hasProperty("value", is(facets))))
+                .andExpect(model().attribute("condition", hasProperty("brandId", is(1L))))
+                .andExpect(model().attribute("condition", hasProperty("categoryId", is(2L))))
+                .andExpect(model().attribute("condition", hasProperty("priceRange", is(PriceRange.FROM_1000))));
+    }
+
+    /**
+     * 【概要】
+     * 商品一覧表示画面の検証(並び替え・範囲での絞り込み)<br>
+     *
+     * 【条件】
+     * GET通信の/productsにリクエストすること<br>
+     * クエリパラメーターsort・order・minPrice・maxWeight・afterを入力すること<br>
+     * productServiceのsearchメソッドは、afterの商品の次から指定した件数の商品のリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * 1ページ(50件)を20件・20件・10件の3回に分けて取得すること<br>
+     * 2回目以降は、入力した条件に前の回の最後の商品のIDと金額を加えて取得すること<br>
+     * キー名nextUrlの値が、一覧の描画後に、afterを最後の商品IDに置き換え、他の条件を引き継いだURLとなること
+     */
+    @Test
+    void testListProducts_sortAndRange() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= ProductController.PAGE_SIZE; id++) {
+            Product product = new Product();
+            product.setId(id + 100);
+            product.setPrice((int) (10000 - id));
+            products.add(product);
+        }
+        List<ProductSearchCondition> conditions = new ArrayList<>();
+
+        doAnswer(invocation -> {
+            ProductSearchCondition condition = invocation.getArgument(0);
+            conditions.add(condition);
+            int from = (int) (condition.getAfter() - 100);
+            return products.subList(from, Math.min(from + (int) invocation.getArgument(1), products.size()));
+        }).when(this.mockProductService)
+                .search(ArgumentMatchers.argThat(condition -> condition.getSort() == ProductSort.PRICE
+                        && condition.getOrder() == Sort.Direction.DESC
+                        && condition.getMinPrice() == 1000
+                        && condition.getMaxWeight() == 2.5), ArgumentMatchers.anyInt());
+
+        this.mockMvc.perform(get("/products?sort=PRICE&order=DESC&minPrice=1000&maxWeight=2.5&after=100"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("listProducts", contains(products.toArray())))
+                .andExpect(model().attribute("nextUrl", hasProperty("value",
+                        is("/products?sort=PRICE&order=DESC&minPrice=1000&maxWeight=2.5&after=" + (100 + ProductController.PAGE_SIZE)))));
+
+        verify(this.mockProductService, times(2))
+                .search(ArgumentMatchers.any(ProductSearchCondition.class), ArgumentMatchers.eq(ProductController.CHUNK_SIZE));
+        verify(this.mockProductService, times(1))
+                .search(ArgumentMatchers.any(ProductSearchCondition.class), ArgumentMatchers.eq(10));
+        assertThat(conditions).extracting(ProductSearchCondition::getAfter).containsExactly(100L, 120L, 140L);
+        assertThat(conditions).extracting(ProductSearchCondition::getAfterKey).containsExactly(null, 9980, 9960);
+    }
+
+    /**
+     * 【概要】
+     * 検索キーワードの入力候補の検証<br>
+     *
+     * 【条件】
+     * GET通信の/products/suggestにリクエストすること<br>
+     * クエリパラメーターqに前後に空白のある文字列、limitに上限を超える件数を入力すること<br>
+     * suggestIndexのsuggestメソッドは入力候補のリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * 前後の空白を除いた文字列・上限の件数で入力候補を取得すること<br>
+     * 入力候補の名前と種類をJSONで返すこと
+     */
+    @Test
+    void testSuggest() throws Exception {
+        List<Suggestion> suggestions = List.of(new Suggestion("サクラ堂", SuggestionType.BRAND));
+
+        doReturn(suggestions).when(this.mockSuggestIndex).suggest("サクラ", ProductController.MAX_SUGGESTIONS);
+
+        this.mockMvc.perform(get("/products/suggest").param("q", " サクラ ").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("サクラ堂"))
+                .andExpect(jsonPath("$[0].type").value("BRAND"));
+    }
+
+    /**
+     * 【概要】
+     * 検索キーワードの入力候補の検証(最大件数が0以下)<br>
+     *
+     * 【条件】
+     * GET通信の/products/suggestにリクエストすること<br>
+     * クエリパラメーターlimitに0、負の数を入力すること<br>
+     * suggestIndexのsuggestメソッドは入力候補のリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスが200であること<br>
+     * いずれも最大件数1で入力候補を取得すること
+     */
+    @Test
+    void testSuggest_nonPositiveLimit() throws Exception {
+        List<Suggestion> suggestions = List.of(new Suggestion("サクラ堂", SuggestionType.BRAND));
+
+        doReturn(suggestions).when(this.mockSuggestIndex).suggest("サ", 1);
+
+        this.mockMvc.perform(get("/products/suggest").param("q", "サ").param("limit", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("サクラ堂"));
+        this.mockMvc.perform(get("/products/suggest").param("q", "サ").param("limit", "-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("サクラ堂"));
+
+        verify(this.mockSuggestIndex, times(2)).suggest("サ", 1);
+    }
+
+    /**
+     * 【概要】
+     * 商品一覧表示画面の検証(前回表示から更新なし)<br>
+     *
+     * 【条件】
+     * GET通信の/productsにリクエストすること<br>
+     * catalogVersionのcheckNotModifiedメソッドは304を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスコード304を返すこと<br>
+     * productServiceのsearchメソッドが呼ばれないこと
+     */
+    @Test
+    void testListProducts_notModified() throws Exception {
+        doAnswer(invocation -> invocation.<WebRequest>getArgument(0).checkNotModified("\"1\""))
+                .when(this.mockCatalogVersion).checkNotModified(ArgumentMatchers.any(WebRequest.class));
+
+        this.mockMvc.perform(get("/products").header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified());
+
+        verify(this.mockProductService, never()).search(ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    /**
+     * 【概要】
+     * 商品詳細画面の検証(前回表示から更新なし)<br>
+     *
+     * 【条件】
+     * GET通信の/products/detail/1にリクエストすること<br>
+     * catalogVersionのisNotModifiedメソッドは304を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータスコード304を返すこと<br>
+     * productServiceのgetメソッドが呼ばれないこと
+     */
+    @Test
+    void testDetailProduct_notModified() throws Exception {
+        doAnswer(invocation -> invocation.<WebRequest>getArgument(0).checkNotModified("\"1\""))
+                .when(this.mockCatalogVersion).isNotModified(ArgumentMatchers.any(WebRequest.class));
+
+        this.mockMvc.perform(get("/products/detail/{id}", 1L).header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified());
+
+        verify(this.mockProductService, never()).get(ArgumentMatchers.any());
     }
 
     /**
@@ -152,6 +358,8 @@ class ProductControllerTest {
     void testDetailProduct() throws Exception {
         Long id = 1L;
         Product product = new Product();
+        product.setBrand(new Brand());
+        product.setCategory(new Category());
 
         doReturn(product).when(this.mockProductService).get(id);
 
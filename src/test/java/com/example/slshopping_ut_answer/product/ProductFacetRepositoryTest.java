@@ -0,0 +1,136 @@
+package com.example.slshopping_ut_answer.product;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductFacet;
+
+@DataJpaTest
+class ProductFacetRepositoryTest {
+
+    /** テスト対象クラス */
+    @Autowired
+    private ProductFacetRepository target;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Brand brand;
+
+    private Category category;
+
+    @BeforeEach
+    void setup() {
+        this.brand = entityManager.persist(new Brand(null, "brand"));
+        this.category = entityManager.persist(new Category(null, "category"));
+    }
+
+    /**
+     * 【概要】
+     * 商品件数の増減の検証<br>
+     *
+     * 【条件】
+     * ブランド×カテゴリー×価格帯の2つの組み合わせについて、集計の行を登録すること<br>
+     * 1つ目の組み合わせの件数を2増やし、2つ目の組み合わせの件数を1増やすこと<br>
+     *
+     * 【結果】
+     * 商品1件が属する7行の件数をまとめて増やすこと(ロック用の行は除く)<br>
+     * 両方の組み合わせが属する小計には、両方の件数を加算すること
+     */
+    @Test
+    void testAddProductCount() {
+        ProductFacets.rollups(brand.getId(), category.getId(), 0, 0).forEach(entityManager::persist);
+        ProductFacets.rollups(brand.getId(), category.getId(), 1000, 0).stream()
+            .filter(facet -> facet.getMinPrice() == 1000)
+            .forEach(entityManager::persist);
+
+        assertThat(target.countRollups(brand.getId(), category.getId(), 0)).isEqualTo(7);
+        assertThat(target.countRollups(brand.getId(), category.getId(), 1000)).isEqualTo(7);
+        assertThat(target.addProductCount(brand.getId(), category.getId(), 0, 2)).isEqualTo(7);
+        assertThat(target.addProductCount(brand.getId(), category.getId(), 1000, 1)).isEqualTo(7);
+        entityManager.clear();
+
+        List<ProductFacet> actual = target.findRollups(brand.getId(), category.getId(), 0);
+        assertThat(actual).hasSize(7);
+        assertThat(actual).filteredOn(facet -> facet.getMinPrice() == 0)
+            .extracting(ProductFacet::getProductCount).containsOnly(2L);
+        assertThat(actual).filteredOn(facet -> facet.getMinPrice() == ProductFacet.ALL_PRICE)
+            .extracting(ProductFacet::getProductCount).containsOnly(3L);
+        assertThat(target.lockForInsert().orElseThrow().getProductCount()).isZero();
+    }
+
+    /**
+     * 【概要】
+     * 絞り込み条件ごとの商品件数取得の検証<br>
+     *
+     * 【条件】
+     * 2つの組み合わせの集計の行を登録し、カテゴリーのみ選択中としてfindFacetsを呼び出すこと<br>
+     *
+     * 【結果】
+     * ブランドごと・価格帯ごとの件数はカテゴリーで絞り込んだ小計を返すこと<br>
+     * カテゴリーごとの件数はカテゴリーを問わない小計を返すこと
+     */
+    @Test
+    void testFindFacets() {
+        Category other = entityManager.persist(new Category(null, "other"));
+        ProductFacets.rollups(brand.getId(), category.getId(), 0, 1).forEach(entityManager::persist);
+        target.save(new ProductFacet(brand.getId(), other.getId(), 0, 2));
+        target.save(new ProductFacet(brand.getId(), other.getId(), ProductFacet.ALL_PRICE, 2));
+        target.save(new ProductFacet(ProductFacet.ALL_ID, other.getId(), 0, 2));
+        target.save(new ProductFacet(ProductFacet.ALL_ID, other.getId(), ProductFacet.ALL_PRICE, 2));
+
+        ProductFacets actual = ProductFacets.of(
+            target.findFacets(ProductFacet.ALL_ID, category.getId(), ProductFacet.ALL_PRICE),
+            null, category.getId(), null);
+
+        assertThat(actual.brandCount(brand.getId())).isEqualTo(1);
+        assertThat(actual.categoryCount(category.getId())).isEqualTo(1);
+        assertThat(actual.categoryCount(other.getId())).isEqualTo(2);
+        assertThat(actual.priceRangeCount(PriceRange.UNDER_1000)).isEqualTo(1);
+        assertThat(actual.getTotal()).isEqualTo(1);
+    }
+
+    /**
+     * 【概要】
+     * 検索キーワードに該当する商品の件数集計の検証<br>
+     *
+     * 【条件】
+     * 価格の異なる商品3件(うち2件は同じ価格)を登録し、2件に該当するキーワードでcountFacetsを呼び出すこと<br>
+     *
+     * 【結果】
+     * キーワードに該当する商品を、ブランド×カテゴリー×価格ごとに数えること
+     */
+    @Test
+    void testCountFacets() {
+        persistProduct("りんご1", 100);
+        persistProduct("りんご2", 100);
+        persistProduct("みかん", 2000);
+
+        List<ProductFacet> actual = productRepository.countFacets("りんご");
+
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getBrandId()).isEqualTo(brand.getId());
+        assertThat(actual.get(0).getCategoryId()).isEqualTo(category.getId());
+        assertThat(actual.get(0).getMinPrice()).isEqualTo(100);
+        assertThat(actual.get(0).getProductCount()).isEqualTo(2);
+    }
+
+    private Product persistProduct(String name, int price) {
+        return entityManager.persistFlushFind(new Product(null, name, "説明", price, null, 1.0, 1.0, 1.0, 1.0,
+            category, brand));
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.example.slshopping_ut_answer.product;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import com.example.slshopping_ut_answer.cache.CacheInvalidation;
+import com.example.slshopping_ut_answer.storage.ImageMetadata;
+import com.example.slshopping_ut_answer.storage.ImageStorage;
+import com.example.slshopping_ut_answer.storage.StoredImage;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImageCacheTest {
+
+    /** モック化したクラス */
+    @Mock
+    private ImageStorage mockImageStorage;
+
+    /**
+     * 【概要】
+     * キャッシュした画像の取得の検証<br>
+     *
+     * 【条件】
+     * 同じ画像を2回取得すること<br>
+     *
+     * 【結果】
+     * 保存先からは1回のみ読み込み、2回とも同じ内容・種類を返却すること<br>
+     * ヒット率を0.5とすること
+     */
+    @Test
+    void testLoad_hit() throws IOException {
+        ProductImageCache target = cache(100, 100);
+        stubImage("1/0_image.png", 3);
+
+        byte[] first = read(target.load("1/0_image.png"));
+        StoredImage second = target.load("1/0_image.png").orElseThrow();
+
+        assertThat(first).containsExactly(0, 1, 2);
+        assertThat(second.content().readAllBytes()).containsExactly(0, 1, 2);
+        assertThat(second.contentLength()).isEqualTo(3);
+        assertThat(second.contentType()).isEqualTo("image/png");
+        verify(this.mockImageStorage, times(1)).load("1/0_image.png");
+        assertThat(target.metrics()).isEqualTo(new ProductImageCacheMetrics(1, 1, 0.5, 1, 3, 100, 0));
+    }
+
+    /**
+     * 【概要】
+     * 上限を超えた場合の追い出しの検証<br>
+     *
+     * 【条件】
+     * 上限10バイトのキャッシュに4バイトの画像A・Bを取得し、Aを再度取得してから4バイトの画像Cを取得すること<br>
+     *
+     * 【結果】
+     * 最近取得していない画像Bのみを追い出すこと
+     */
+    @Test
+    void testLoad_evictLeastRecentlyUsed() throws IOException {
+        ProductImageCache target = cache(10, 10);
+        stubImage("1/a.png", 4);
+        stubImage("1/b.png", 4);
+        stubImage("1/c.png", 4);
+
+        read(target.load("1/a.png"));
+        read(target.load("1/b.png"));
+        read(target.load("1/a.png"));
+        read(target.load("1/c.png"));
+        read(target.load("1/a.png"));
+        read(target.load("1/b.png"));
+
+        verify(this.mockImageStorage, times(1)).load("1/a.png");
+        verify(this.mockImageStorage, times(2)).load("1/b.png");
+        assertThat(target.metrics().evictions()).isEqualTo(2);
+        assertThat(target.metrics().bytes()).isEqualTo(8);
+    }
+
+    /**
+     * 【概要】
+     * 大きな画像の取得の検証<br>
+     *
+     * 【条件】
+     * 1枚の上限(4バイト)より大きい5バイトの画像を2回取得すること<br>
+     *
+     * 【結果】
+     * キャッシュせず、2回とも保存先から読み込むこと
+     */
+    @Test
+    void testLoad_tooLarge() throws IOException {
+        ProductImageCache target = cache(100, 4);
+        stubImage("1/0_image.png", 5);
+
+        assertThat(read(target.load("1/0_image.png"))).hasSize(5);
+        assertThat(read(target.load("1/0_image.png"))).hasSize(5);
+
+        verify(this.mockImageStorage, times(2)).load("1/0_image.png");
+        assertThat(target.metrics().entries()).isZero();
+    }
+
+    /**
+     * 【概要】
+     * 商品の画像の無効化の検証<br>
+     *
+     * 【条件】
+     * 商品ID 1・10の画像を取得してから、商品ID 1の画像を無効にすること<br>
+     *
+     * 【結果】
+     * 商品ID 1の画像(縮小画像を含む)のみを保存先から読み込み直すこと
+     */
+    @Test
+    void testInvalidate() throws IOException {
+        ProductImageCache target = cache(100, 100);
+        stubImage("1/0_image.png", 1);
+        stubImage("1/w320/0_image.png", 1);
+        stubImage("10/0_image.png", 1);
+        for (int i = 0; i < 2; i++) {
+            read(target.load("1/0_image.png"));
+            read(target.load("1/w320/0_image.png"));
+            read(target.load("10/0_image.png"));
+            target.invalidate(1L);
+        }
+
+        verify(this.mockImageStorage, times(2)).load("1/0_image.png");
+        verify(this.mockImageStorage, times(2)).load("1/w320/0_image.png");
+        verify(this.mockImageStorage, times(1)).load("10/0_image.png");
+        assertThat(target.metrics().bytes()).isEqualTo(1);
+    }
+
+    /**
+     * 【概要】
+     * 読み込み中に無効にされた画像の検証<br>
+     *
+     * 【条件】
+     * 保存先からの読み込み中に、画像の商品を無効にすること(画像の再アップロードと同時に表示した場合)<br>
+     *
+     * 【結果】
+     * 読み込んだ画像を返却するが、キャッシュしないこと
+     */
+    @Test
+    void testLoad_invalidatedWhileLoading() throws IOException {
+        ProductImageCache target = cache(100, 100);
+        doAnswer(invocation -> {
+            target.invalidate(1L);
+            return Optional.of(new StoredImage(new ByteArrayInputStream(new byte[] { 9 }), 1, "image/png"));
+        }).when(this.mockImageStorage).load("1/0_image.png");
+
+        assertThat(read(target.load("1/0_image.png"))).containsExactly(9);
+
+        assertThat(target.metrics().entries()).isZero();
+    }
+
+    /**
+     * 【概要】
+     * 他のノードでの変更の通知の検証<br>
+     *
+     * 【条件】
+     * 商品ID 1の画像をキャッシュしてから、他のノードでのブランドID 1の変更と、商品ID 1の画像の変更を通知すること<br>
+     *
+     * 【結果】
+     * ブランドの変更では削除せず、商品画像の変更で削除すること
+     */
+    @Test
+    void testInvalidate_otherNode() throws IOException {
+        ProductImageCache target = cache(100, 100);
+        stubImage("1/0_image.png", 1);
+        read(target.load("1/0_image.png"));
+
+        target.invalidate(new CacheInvalidation("node2", "Brand", 1L, "旧ブランド", "新ブランド"));
+        assertThat(target.metrics().entries()).isEqualTo(1);
+
+        target.invalidate(new CacheInvalidation("node2", "ProductImage", 1L, null, null));
+        assertThat(target.metrics().entries()).isZero();
+    }
+
+    /**
+     * 【概要】
+     * 画像の情報の取得の検証<br>
+     *
+     * 【条件】
+     * キャッシュしていない画像の情報を取得し、画像を取得してから再度情報を取得すること<br>
+     *
+     * 【結果】
+     * キャッシュしていない場合は保存先から取得した情報を返却すること<br>
+     * キャッシュした後は保存先に問い合わせず、読み込んだ時点の最終更新日時・ETagを返却すること<br>
+     * ヒット・ミスの回数は画像の取得の分のみとすること
+     */
+    @Test
+    void testMetadata() throws IOException {
+        ProductImageCache target = cache(100, 100);
+        ImageMetadata metadata = new ImageMetadata(3, "image/png", 1700000000000L, "\"3-18bcfe56800\"");
+        doReturn(Optional.of(metadata)).when(this.mockImageStorage).metadata("1/0_image.png");
+        doAnswer(invocation -> Optional.of(new StoredImage(new ByteArrayInputStream(new byte[] { 0, 1, 2 }), 3,
+            "image/png", 1700000000000L, "\"3-18bcfe56800\""))).when(this.mockImageStorage).load("1/0_image.png");
+
+        assertThat(target.metadata("1/0_image.png")).contains(metadata);
+        read(target.load("1/0_image.png"));
+        assertThat(target.metadata("1/0_image.png")).contains(metadata);
+
+        verify(this.mockImageStorage, times(1)).metadata("1/0_image.png");
+        assertThat(target.metrics()).isEqualTo(new ProductImageCacheMetrics(0, 1, 0, 1, 3, 100, 0));
+    }
+
+    private ProductImageCache cache(long maxSize, long maxEntrySize) {
+        return new ProductImageCache(this.mockImageStorage,
+            new ProductImageCacheProperties(DataSize.ofBytes(maxSize), DataSize.ofBytes(maxEntrySize)));
+    }
+
+    /**
+     * 指定したバイト数(内容は0, 1, 2...)の画像を、読み込むたびに返すようスタブ化する
+     */
+    private void stubImage(String key, int size) throws IOException {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        doAnswer(invocation -> Optional.of(new StoredImage(new ByteArrayInputStream(content), size, "image/png")))
+            .when(this.mockImageStorage).load(key);
+    }
+
+    private static byte[] read(Optional<StoredImage> image) throws IOException {
+        try (StoredImage storedImage = image.orElseThrow()) {
+            return storedImage.content().readAllBytes();
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.example.slshopping_ut_answer.product;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.slshopping_ut_answer.storage.ImageMetadata;
+import com.example.slshopping_ut_answer.storage.StoredImage;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImageControllerTest {
+
+    /** 画像のETag */
+    private static final String ETAG = "\"3-18c8d2e4a00\"";
+
+    /** 画像の最終更新日時 */
+    private static final long LAST_MODIFIED = 1700000000000L;
+
+    /** モック化したクラス */
+    @Mock
+    private ProductImageCache mockProductImageCache;
+
+    /** テスト対象クラスにモックを注入 */
+    @InjectMocks
+    private ProductImageController target;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        // MockMvcの生成
+        this.mockMvc = MockMvcBuilders.standaloneSetup(target).alwaysDo(log()).build();
+    }
+
+    /**
+     * 【概要】
+     * 商品画像の取得の検証<br>
+     *
+     * 【条件】
+     * GET通信の/product-images/1/w320/0_image.pngにリクエストすること<br>
+     * productImageCacheのmetadataメソッドはETag・最終更新日時を返却するようスタブ化すること<br>
+     * productImageCacheのloadメソッドは種類が不明な3バイトの画像を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * キー「1/w320/0_image.png」の画像の内容を、拡張子から求めた種類とバイト数とともに返却すること<br>
+     * ETag・Last-Modifiedと、再検証させるCache-Controlを返却すること
+     */
+    @Test
+    void testImage() throws Exception {
+        doReturn(Optional.of(new ImageMetadata(3, null, LAST_MODIFIED, ETAG)))
+            .when(this.mockProductImageCache).metadata("1/w320/0_image.png");
+        doReturn(Optional.of(new StoredImage(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 3, null,
+            LAST_MODIFIED, ETAG))).when(this.mockProductImageCache).load("1/w320/0_image.png");
+
+        this.mockMvc.perform(get("/product-images/1/w320/0_image.png"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("image/png"))
+            .andExpect(header().longValue("Content-Length", 3))
+            .andExpect(header().string("ETag", ETAG))
+            .andExpect(header().dateValue("Last-Modified", LAST_MODIFIED))
+            .andExpect(header().string("Cache-Control", "private, no-cache"))
+            .andExpect(content().bytes(new byte[] { 1, 2, 3 }));
+    }
+
+    /**
+     * 【概要】
+     * 変更がない商品画像の取得(条件付きGET)の検証<br>
+     *
+     * 【条件】
+     * GET通信の/product-images/1/0_image.pngに、前回のETagをIf-None-Matchに指定してリクエストすること<br>
+     * productImageCacheのmetadataメソッドは同じETagを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータス304を、内容なしで返却すること<br>
+     * 画像の内容は読み込まないこと
+     */
+    @Test
+    void testImage_notModified() throws Exception {
+        doReturn(Optional.of(new ImageMetadata(3, null, LAST_MODIFIED, ETAG)))
+            .when(this.mockProductImageCache).metadata("1/0_image.png");
+
+        this.mockMvc.perform(get("/product-images/1/0_image.png").header("If-None-Match", ETAG))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", ETAG))
+            .andExpect(content().bytes(new byte[0]));
+        verify(this.mockProductImageCache, never()).load(anyString());
+    }
+
+    /**
+     * 【概要】
+     * 存在しない商品画像の取得の検証<br>
+     *
+     * 【条件】
+     * GET通信の/product-images/1/0_image.pngにリクエストすること<br>
+     * productImageCacheのmetadataメソッドは空を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ステータス404を返却すること
+     */
+    @Test
+    void testImage_notFound() throws Exception {
+        doReturn(Optional.empty()).when(this.mockProductImageCache).metadata("1/0_image.png");
+
+        this.mockMvc.perform(get("/product-images/1/0_image.png"))
+            .andExpect(status().isNotFound());
+        verify(this.mockProductImageCache, never()).load(anyString());
+    }
+
+    /**
+     * 【概要】
+     * 商品画像のキャッシュの状況取得APIの検証<br>
+     *
+     * 【条件】
+     * GET通信の/api/product-images/cacheにリクエストすること<br>
+     * productImageCacheのmetricsメソッドはヒット3回・ミス1回の状況を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * キャッシュの状況をJSONで返却すること
+     */
+    @Test
+    void testCacheMetrics() throws Exception {
+        doReturn(new ProductImageCacheMetrics(3, 1, 0.75, 1, 2048, 67108864, 0))
+            .when(this.mockProductImageCache).metrics();
+
+        this.mockMvc.perform(get("/api/product-images/cache"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hits").value(3))
+            .andExpect(jsonPath("$.misses").value(1))
+            .andExpect(jsonPath("$.hitRate").value(0.75))
+            .andExpect(jsonPath("$.bytes").value(2048));
+    }
+
+}
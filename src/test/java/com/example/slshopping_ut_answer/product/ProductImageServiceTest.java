@@ -0,0 +1,210 @@
+package com.example.slshopping_ut_answer.product;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductImage;
+import com.example.slshopping_ut_answer.storage.LocalImageStorage;
+
+class ProductImageServiceTest {
+
+    /** 他のテストの商品と重ならない商品ID */
+    private static final long PRODUCT_ID = 990001L;
+
+    private LocalImageStorage imageStorage = new LocalImageStorage(Path.of("product-images"));
+
+    private ProductImageCache productImageCache = new ProductImageCache(imageStorage,
+        new ProductImageCacheProperties(DataSize.ofMegabytes(1), DataSize.ofMegabytes(1)));
+
+    private ProductService mockProductService = mock(ProductService.class);
+
+    private ProductImageService target = new ProductImageService(imageStorage, productImageCache, mockProductService);
+
+    @AfterEach
+    void cleanup() {
+        target.delete(PRODUCT_ID);
+    }
+
+    /**
+     * 【概要】
+     * 複数の画像のアップロードの検証<br>
+     *
+     * 【条件】
+     * 幅800pxのPNG画像・幅200pxのJPEG画像・未選択の入力欄(空のファイル)をアップロードすること<br>
+     *
+     * 【結果】
+     * 添付された画像のみを、アップロードごとのディレクトリに選択した順に表示順を付けて保存すること<br>
+     * 元画像より幅の小さい縮小画像のみを保存すること<br>
+     * 保存した画像に商品の画像を切り替えること<br>
+     * 元画像の大きさを返し、縮小画像と元画像をsrcsetに並べること
+     */
+    @Test
+    void testSaveUploadedImages() throws IOException {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        List<MultipartFile> files = List.of(
+            image("files", "large.png", "png", 800, 400),
+            new MockMultipartFile("files", "", "application/octet-stream", new byte[0]),
+            image("files", "small.jpg", "jpg", 200, 100));
+
+        List<ProductImage> images = target.saveUploadedImages(files, product);
+
+        String uploadDir = images.get(0).getFileName().substring(0, images.get(0).getFileName().indexOf('/'));
+        assertThat(images).extracting(ProductImage::getFileName)
+            .containsExactly(uploadDir + "/0_large.png", uploadDir + "/1_small.jpg");
+        assertThat(images).extracting(ProductImage::getWidth).containsExactly(800, 200);
+        verify(mockProductService).saveImages(PRODUCT_ID, images);
+        Path dir = Path.of("product-images", String.valueOf(PRODUCT_ID), uploadDir);
+        assertThat(dir.resolve("0_large.png")).exists();
+        assertThat(ImageIO.read(dir.resolve("w320/0_large.png").toFile()).getHeight()).isEqualTo(160);
+        assertThat(dir.resolve("w640/0_large.png")).exists();
+        assertThat(dir.resolve("w1280/0_large.png")).doesNotExist();
+        assertThat(dir.resolve("w320/1_small.jpg")).doesNotExist();
+
+        images.forEach(image -> image.setProduct(product));
+        String url = "/product-images/990001/" + uploadDir;
+        assertThat(images.get(0).getSrcset()).isEqualTo(url + "/w320/0_large.png 320w, "
+            + url + "/w640/0_large.png 640w, " + url + "/0_large.png 800w");
+        assertThat(images.get(1).getSrcset()).isEqualTo(url + "/1_small.jpg 200w");
+    }
+
+    /**
+     * 【概要】
+     * 再アップロードの検証<br>
+     *
+     * 【条件】
+     * 移行前の画像(アップロードごとのディレクトリなし)を保存した商品に、画像を2回アップロードすること<br>
+     * productServiceのsaveImagesメソッドは切り替え前の画像のファイル名を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * 切り替え前の元画像・縮小画像を削除し、キャッシュからも削除すること<br>
+     * 最後にアップロードした画像のみが残ること
+     */
+    @Test
+    void testSaveUploadedImages_replace() throws IOException {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        store("0_legacy.png");
+        store("w320/0_legacy.png");
+        productImageCache.load(PRODUCT_ID + "/0_legacy.png").orElseThrow().close();
+        doReturn(List.of("0_legacy.png")).when(mockProductService).saveImages(eq(PRODUCT_ID), anyList());
+
+        List<ProductImage> oldImages = target.saveUploadedImages(
+            List.of(image("files", "old.png", "png", 800, 400)), product);
+        String oldFileName = oldImages.get(0).getFileName();
+        productImageCache.load(PRODUCT_ID + "/" + oldFileName).orElseThrow().close();
+        doReturn(List.of(oldFileName)).when(mockProductService).saveImages(eq(PRODUCT_ID), anyList());
+
+        List<ProductImage> images = target.saveUploadedImages(
+            List.of(image("files", "new.png", "png", 400, 200)), product);
+
+        String fileName = images.get(0).getFileName();
+        assertThat(storedFiles()).containsExactlyInAnyOrder(fileName, ProductImage.variantFileName(fileName, 320));
+        assertThat(productImageCache.load(PRODUCT_ID + "/0_legacy.png")).isEmpty();
+        assertThat(productImageCache.load(PRODUCT_ID + "/" + oldFileName)).isEmpty();
+    }
+
+    /**
+     * 【概要】
+     * アップロードの失敗の検証<br>
+     *
+     * 【条件】
+     * 画像を保存した商品に、3枚の画像をアップロードすること<br>
+     * 2枚目の画像の保存はIOExceptionを投げること<br>
+     *
+     * 【結果】
+     * IOExceptionを投げること<br>
+     * 商品の画像を切り替えないこと<br>
+     * 保存済みの画像を削除せず、今回保存した画像は残さないこと
+     */
+    @Test
+    void testSaveUploadedImages_failure() throws IOException {
+        Product product = new Product();
+        product.setId(PRODUCT_ID);
+        store("current/0_current.png");
+        ProductImageService failing = new ProductImageService(new LocalImageStorage(Path.of("product-images")) {
+            @Override
+            public void store(String key, InputStream content, long contentLength, String contentType)
+                    throws IOException {
+                if (key.endsWith("/1_broken.png")) {
+                    throw new IOException("Storage unavailable");
+                }
+                super.store(key, content, contentLength, contentType);
+            }
+        }, productImageCache, mockProductService);
+
+        assertThatThrownBy(() -> failing.saveUploadedImages(List.of(
+            image("files", "first.png", "png", 800, 400),
+            image("files", "broken.png", "png", 800, 400),
+            image("files", "third.png", "png", 800, 400)), product))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Storage unavailable");
+
+        verify(mockProductService, never()).saveImages(any(), any());
+        assertThat(storedFiles()).containsExactly("current/0_current.png");
+    }
+
+    /**
+     * 【概要】
+     * 画像の枚数のチェックの検証<br>
+     *
+     * 【条件】
+     * 上限の10枚と、上限を超える11枚の画像をチェックすること<br>
+     *
+     * 【結果】
+     * 10枚はtrue、11枚はfalseを返却すること
+     */
+    @Test
+    void testIsValid_count() {
+        List<MultipartFile> files = new ArrayList<>(Collections.nCopies(ProductImageService.MAX_IMAGES,
+            new MockMultipartFile("files", "image.png", "image/png", new byte[] { 1 })));
+
+        assertThat(target.isValid(files)).isTrue();
+        files.add(new MockMultipartFile("files", "image.png", "image/png", new byte[] { 1 }));
+        assertThat(target.isValid(files)).isFalse();
+    }
+
+    private void store(String fileName) throws IOException {
+        imageStorage.store(PRODUCT_ID + "/" + fileName, new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+    }
+
+    /**
+     * 商品のディレクトリに保存されているファイル(商品のディレクトリからの相対パス)
+     */
+    private static List<String> storedFiles() throws IOException {
+        Path dir = Path.of("product-images", String.valueOf(PRODUCT_ID));
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).map(dir::relativize).map(Path::toString).toList();
+        }
+    }
+
+    private static MockMultipartFile image(String name, String fileName, String formatName, int width, int height)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), formatName, bytes);
+        return new MockMultipartFile(name, fileName, "image/" + formatName, bytes.toByteArray());
+    }
+
+}
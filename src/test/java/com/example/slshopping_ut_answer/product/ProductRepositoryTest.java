@@ -0,0 +1,221 @@
+package com.example.slshopping_ut_answer.product;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
+import com.example.slshopping_ut_answer.entity.Product;
+
+@DataJpaTest
+class ProductRepositoryTest {
+
+    /** テスト対象クラス */
+    @Autowired
+    private ProductRepository target;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Brand brand;
+
+    private Category category;
+
+    /** 登録した商品(登録順) */
+    private List<Product> products;
+
+    @BeforeEach
+    void setup() {
+        this.brand = entityManager.persist(new Brand(null, "brand"));
+        Brand otherBrand = entityManager.persist(new Brand(null, "other"));
+        this.category = entityManager.persist(new Category(null, "category"));
+
+        // 同じ価格の商品を含め、名前・価格・重さが登録順と異なる順になるようにする
+        int[] prices = { 500, 300, 300, 800, 100, 300, 700 };
+        String[] names = { "e", "c", "g", "a", "f", "b", "d" };
+        this.products = new ArrayList<>();
+        for (int i = 0; i < prices.length; i++) {
+            Product product = new Product(null, names[i], "説明", prices[i], "image.png", 10.0 + i, 5.0, 5.0,
+                    i % 3 + 0.5, category, i == 6 ? otherBrand : brand);
+            products.add(entityManager.persist(product));
+        }
+        entityManager.clear();
+    }
+
+    /**
+     * 【概要】
+     * 金額順のページ単位取得の検証<br>
+     *
+     * 【条件】
+     * 金額の昇順で、前のページの最後の商品IDを指定しながら3件ずつ取得すること<br>
+     *
+     * 【結果】
+     * 金額の昇順、同じ金額の商品はIDの昇順で、重複・欠落なく全件を取得すること
+     */
+    @Test
+    void testSearch_priceAscending() {
+        ProductSearchCondition condition = new ProductSearchCondition();
+        condition.setSort(ProductSort.PRICE);
+
+        assertThat(readAll(condition, 3)).extracting(Product::getName)
+            .containsExactly("f", "c", "g", "b", "e", "d", "a");
+    }
+
+    /**
+     * 【概要】
+     * 名前の降順のページ単位取得の検証<br>
+     *
+     * 【条件】
+     * 名前の降順で、前のページの最後の商品IDを指定しながら2件ずつ取得すること<br>
+     *
+     * 【結果】
+     * 名前の降順で、重複・欠落なく全件を取得すること
+     */
+    @Test
+    void testSearch_nameDescending() {
+        ProductSearchCondition condition = new ProductSearchCondition();
+        condition.setSort(ProductSort.NAME);
+        condition.setOrder(Sort.Direction.DESC);
+
+        assertThat(readAll(condition, 2)).extracting(Product::getName)
+            .containsExactly("g", "f", "e", "d", "c", "b", "a");
+    }
+
+    /**
+     * 【概要】
+     * 範囲・ブランドでの絞り込みの検証<br>
+     *
+     * 【条件】
+     * ブランド・金額の範囲・重さの上限を指定し、ID順で取得すること<br>
+     *
+     * 【結果】
+     * 全ての条件に該当する商品のみを、ID順に取得すること(範囲の境界の値を含む)<br>
+     * ブランド・カテゴリーを取得済みであること
+     */
+    @Test
+    void testSearch_range() {
+        ProductSearchCondition condition = new ProductSearchCondition();
+        condition.setBrandId(brand.getId());
+        condition.setMinPrice(300);
+        condition.setMaxPrice(700);
+        condition.setMaxWeight(1.5);
+
+        List<Product> actual = target.search(condition, 10);
+
+        assertThat(actual).extracting(Product::getName).containsExactly("e", "c");
+        assertThat(actual.get(0).getBrand().getName()).isEqualTo("brand");
+        assertThat(actual.get(0).getCategory().getName()).isEqualTo("category");
+    }
+
+    /**
+     * 【概要】
+     * 前のページの最後の商品が削除された場合の検証<br>
+     *
+     * 【条件】
+     * 存在しない商品IDをafterに指定し、金額順で取得すること<br>
+     *
+     * 【結果】
+     * 先頭のページを取得すること
+     */
+    @Test
+    void testSearch_afterDeleted() {
+        ProductSearchCondition condition = new ProductSearchCondition();
+        condition.setSort(ProductSort.PRICE);
+        condition.setAfter(-1L);
+
+        assertThat(target.search(condition, 2)).extracting(Product::getName).containsExactly("f", "c");
+    }
+
+    /**
+     * 【概要】
+     * 前のチャンクの最後の商品の次からの取得の検証<br>
+     *
+     * 【条件】
+     * 金額の昇順で3件取得し、最後の商品を削除してから、その商品の次から取得する検索条件で取得すること<br>
+     *
+     * 【結果】
+     * 削除した商品のIDと金額の次から、残りの商品を取得すること(先頭のページに戻らないこと)
+     */
+    @Test
+    void testSearch_continueAfter() {
+        ProductSearchCondition condition = new ProductSearchCondition();
+        condition.setSort(ProductSort.PRICE);
+        List<Product> first = target.search(condition, 3);
+        Product last = first.get(first.size() - 1);
+        target.deleteById(last.getId());
+        entityManager.flush();
+
+        assertThat(target.search(condition.continueAfter(last), 10)).extracting(Product::getName)
+            .containsExactly("b", "e", "d", "a");
+        assertThat(condition.getAfter()).isNull();
+    }
+
+    /**
+     * 【概要】
+     * 商品名全件取得の検証<br>
+     *
+     * 【条件】
+     * 永続化コンテキストをクリアした後にfindAllNamesを呼び出すこと<br>
+     *
+     * 【結果】
+     * 登録した全ての商品名を返すこと
+     */
+    @Test
+    void testFindAllNames() {
+        assertThat(target.findAllNames()).containsExactlyInAnyOrder("a", "b", "c", "d", "e", "f", "g");
+    }
+
+    /**
+     * 【概要】
+     * 1枚目の画像のファイル名の更新の検証<br>
+     *
+     * 【条件】
+     * 画像のファイル名をnullにした商品情報を保存した後に、updateImageで画像のファイル名を更新すること<br>
+     *
+     * 【結果】
+     * 商品情報の保存では画像のファイル名を変更せず、updateImageで指定した画像のファイル名・更新日時に変更すること
+     */
+    @Test
+    void testUpdateImage() {
+        Product product = products.get(0);
+        product.setImage(null);
+        target.saveAndFlush(product);
+        entityManager.clear();
+        assertThat(target.findById(product.getId()).orElseThrow().getImage()).endsWith("/image.png");
+        entityManager.clear();
+
+        Instant updatedAt = Instant.parse("2030-01-01T00:00:00Z");
+        assertThat(target.updateImage(product.getId(), "upload/0_new.png", updatedAt)).isEqualTo(1);
+        entityManager.clear();
+
+        Product updated = target.findById(product.getId()).orElseThrow();
+        assertThat(updated.getImage()).isEqualTo("/product-images/" + product.getId() + "/upload/0_new.png");
+        assertThat(updated.getUpdatedAt()).isEqualTo(updatedAt);
+    }
+
+    /**
+     * 前のページの最後の商品IDを指定しながら、最後のページまで取得する
+     */
+    private List<Product> readAll(ProductSearchCondition condition, int limit) {
+        List<Product> all = new ArrayList<>();
+        while (true) {
+            List<Product> page = target.search(condition, limit);
+            all.addAll(page);
+            if (page.size() < limit) {
+                return all;
+            }
+            condition.setAfter(page.get(page.size() - 1).getId());
+        }
+    }
+
+}
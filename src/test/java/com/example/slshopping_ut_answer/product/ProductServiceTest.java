@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -11,11 +12,24 @@ import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
-
+import org.springframework.data.domain.Limit;
+
+import com.example.slshopping_ut_answer.audit.AuditAction;
+import com.example.slshopping_ut_answer.audit.AuditLog;
+import com.example.slshopping_ut_answer.brand.BrandRepository;
+import com.example.slshopping_ut_answer.cache.CacheInvalidationBus;
+import com.example.slshopping_ut_answer.category.CategoryRepository;
+import com.example.slshopping_ut_answer.entity.Brand;
+import com.example.slshopping_ut_answer.entity.Category;
 import com.example.slshopping_ut_answer.entity.Product;
+import com.example.slshopping_ut_answer.entity.ProductFacet;
+import com.example.slshopping_ut_answer.entity.ProductImage;
+import com.example.slshopping_ut_answer.suggest.SuggestIndex;
+import com.example.slshopping_ut_answer.suggest.SuggestionType;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
@@ -24,6 +38,27 @@ class ProductServiceTest {
     @Mock
     private ProductRepository mockProductRepository;
 
+    @Mock
+    private ProductFacetRepository mockProductFacetRepository;
+
+    @Mock
+    private ProductImageRepository mockProductImageRepository;
+
+    @Mock
+    private BrandRepository mockBrandRepository;
+
+    @Mock
+    private CategoryRepository mockCategoryRepository;
+
+    @Mock
+    private SuggestIndex mockSuggestIndex;
+
+    @Mock
+    private AuditLog mockAuditLog;
+
+    @Mock
+    private CacheInvalidationBus mockCacheInvalidationBus;
+
     /** テスト対象クラスにモックを注入 */
     @InjectMocks
     private ProductService target;
@@ -230,4 +265,377 @@ class ProductServiceTest {
 
         assertThat(target.get(id)).isEqualTo(product.get());
     }
+
+    /**
+     * 【概要】
+     * 商品情報のページ単位取得処理の検証<br>
+     *
+     * 【条件】
+     * productRepositoryのfindByIdGreaterThanOrderByIdメソッドは商品のリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * 指定したIDより後の商品を、指定件数で取得したリストを返却すること
+     */
+    @Test
+    void testListPage() {
+        List<Product> expected = Arrays.asList(
+            new Product(),
+            new Product()
+        );
+
+        doReturn(expected).when(this.mockProductRepository).findByIdGreaterThanOrderById(10L, Limit.of(2));
+
+        assertThat(target.listPage(10L, 2)).isEqualTo(expected);
+    }
+
+    /**
+     * 【概要】
+     * 商品を絞り込み<br>
+     *
+     * 【条件】
+     * productServiceのsearchメソッドに検索条件と取得件数を渡すこと<br>
+     * productRepositoryのsearchメソッドはProductのリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * 同じ検索条件・取得件数で検索すること<br>
+     * Productのリストを返却すること
+     */
+    @Test
+    void testSearch() {
+        List<Product> expected = Arrays.asList(
+            new Product(),
+            new Product()
+        );
+        ProductSearchCondition condition = new ProductSearchCondition();
+        condition.setBrandId(1L);
+        condition.setPriceRange(PriceRange.FROM_30000);
+
+        doReturn(expected).when(this.mockProductRepository).search(condition, 50);
+
+        assertThat(target.search(condition, 50)).isEqualTo(expected);
+    }
+
+    /**
+     * 【概要】
+     * 絞り込み条件ごとの商品件数を取得<br>
+     *
+     * 【条件】
+     * 検索キーワードなし、ブランドID1を選択中とすること<br>
+     * productFacetRepositoryのfindFacetsメソッドは商品件数の小計を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ブランドを問わない小計(ブランドID0)で検索すること<br>
+     * ブランドの件数は、ブランドごとの小計であること<br>
+     * カテゴリー・価格帯の件数は、ブランドID1の小計であること<br>
+     * 合計はブランドID1の件数であること
+     */
+    @Test
+    void testGetFacets() {
+        doReturn(Arrays.asList(
+            new ProductFacet(1L, 0L, -1, 5),
+            new ProductFacet(2L, 0L, -1, 4),
+            new ProductFacet(1L, 10L, -1, 3),
+            new ProductFacet(1L, 20L, -1, 2),
+            new ProductFacet(1L, 0L, 0, 3),
+            new ProductFacet(1L, 0L, 1000, 2)
+        )).when(this.mockProductFacetRepository).findFacets(1L, 0L, -1);
+
+        ProductFacets actual = target.getFacets(null, 1L, null, null);
+
+        assertThat(actual.brandCount(1L)).isEqualTo(5);
+        assertThat(actual.brandCount(2L)).isEqualTo(4);
+        assertThat(actual.categoryCount(10L)).isEqualTo(3);
+        assertThat(actual.categoryCount(20L)).isEqualTo(2);
+        assertThat(actual.priceRangeCount(PriceRange.UNDER_1000)).isEqualTo(3);
+        assertThat(actual.priceRangeCount(PriceRange.FROM_1000)).isEqualTo(2);
+        assertThat(actual.priceRangeCount(PriceRange.FROM_3000)).isZero();
+        assertThat(actual.getTotal()).isEqualTo(5);
+        verify(this.mockProductRepository, never()).countFacets(any());
+    }
+
+    /**
+     * 【概要】
+     * 絞り込み条件ごとの商品件数を取得(条件をすべて選択)<br>
+     *
+     * 【条件】
+     * ブランドID1・カテゴリーID10・価格帯1,000円未満を選択中とすること<br>
+     * productFacetRepositoryのfindFacetsメソッドは商品件数の小計を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ブランド×カテゴリー×価格帯の行は、各条件の件数に含めること<br>
+     * 合計は選択中の全条件に該当する件数であること
+     */
+    @Test
+    void testGetFacets_allSelected() {
+        doReturn(Arrays.asList(
+            new ProductFacet(1L, 10L, 0, 2),
+            new ProductFacet(2L, 10L, 0, 1),
+            new ProductFacet(1L, 20L, 0, 4),
+            new ProductFacet(1L, 10L, 1000, 3)
+        )).when(this.mockProductFacetRepository).findFacets(1L, 10L, 0);
+
+        ProductFacets actual = target.getFacets("", 1L, 10L, PriceRange.UNDER_1000);
+
+        assertThat(actual.brandCount(1L)).isEqualTo(2);
+        assertThat(actual.brandCount(2L)).isEqualTo(1);
+        assertThat(actual.categoryCount(10L)).isEqualTo(2);
+        assertThat(actual.categoryCount(20L)).isEqualTo(4);
+        assertThat(actual.priceRangeCount(PriceRange.UNDER_1000)).isEqualTo(2);
+        assertThat(actual.priceRangeCount(PriceRange.FROM_1000)).isEqualTo(3);
+        assertThat(actual.getTotal()).isEqualTo(2);
+    }
+
+    /**
+     * 【概要】
+     * 検索キーワードがある場合の、絞り込み条件ごとの商品件数を取得<br>
+     *
+     * 【条件】
+     * productRepositoryのcountFacetsメソッドは価格ごとの商品件数を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * 価格を価格帯ごとに合計すること<br>
+     * 商品件数の集計を使わないこと
+     */
+    @Test
+    void testGetFacets_keyword() {
+        doReturn(Arrays.asList(
+            new ProductFacet(1L, 10L, 1200, 1),
+            new ProductFacet(1L, 10L, 2980, 2)
+        )).when(this.mockProductRepository).countFacets("product");
+
+        ProductFacets actual = target.getFacets("product", null, null, null);
+
+        assertThat(actual.priceRangeCount(PriceRange.FROM_1000)).isEqualTo(3);
+        assertThat(actual.getTotal()).isEqualTo(3);
+        verify(this.mockProductFacetRepository, never()).findFacets(any(), any(), anyInt());
+    }
+
+    /**
+     * 【概要】
+     * 商品の新規登録時の商品件数の集計を検証<br>
+     *
+     * 【条件】
+     * IDがnullの商品を登録すること<br>
+     * productFacetRepositoryのcountRollupsメソッドは0を返却するようスタブ化すること(集計の行がない)<br>
+     *
+     * 【結果】
+     * ロック用の行をロックしてから、件数0の集計の行を7行追加すること<br>
+     * 価格帯の下限価格で、集計の行の件数を1増やすこと<br>
+     * 入力候補に商品名を追加すること<br>
+     * 登録を監査ログに記録し、他のノードに通知すること<br>
+     * ブランド・カテゴリーの商品件数を1増やすこと
+     */
+    @Test
+    void testSave_newFacet() {
+        Product product = new Product(null, "product", "説明", 1500, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand"));
+
+        doReturn(product).when(this.mockProductRepository).save(product);
+
+        assertThat(target.save(product)).isEqualTo(product);
+
+        verify(this.mockProductFacetRepository).lockForInsert();
+        verify(this.mockProductFacetRepository, times(7)).save(argThat(facet -> facet.getProductCount() == 0));
+        verify(this.mockProductFacetRepository).save(argThat(facet -> facet.getBrandId() == 10L
+            && facet.getCategoryId() == 20L && facet.getMinPrice() == 1000));
+        verify(this.mockProductFacetRepository).addProductCount(10L, 20L, 1000, 1);
+        verify(this.mockSuggestIndex).put(SuggestionType.PRODUCT, null, "product");
+        verify(this.mockAuditLog).record(AuditAction.CREATE, Product.class, null, "product");
+        verify(this.mockCacheInvalidationBus).publish(Product.class, null, null, "product");
+        verify(this.mockBrandRepository).addProductCount(10L, 1);
+        verify(this.mockCategoryRepository).addProductCount(20L, 1);
+    }
+
+    /**
+     * 【概要】
+     * 商品の更新時の商品件数の集計を検証<br>
+     *
+     * 【条件】
+     * 価格帯が変わるように商品を更新すること<br>
+     * productRepositoryのfindByIdメソッドは更新前の商品を返却するようスタブ化すること<br>
+     * productFacetRepositoryのcountRollupsメソッドは7を返却するようスタブ化すること(集計の行がある)<br>
+     *
+     * 【結果】
+     * 更新前の価格帯の件数を1減らし、更新後の価格帯の件数を1増やすこと<br>
+     * 集計の行を追加しないこと<br>
+     * ブランド・カテゴリーの商品件数を更新しないこと
+     */
+    @Test
+    void testSave_priceRangeChanged() {
+        Product product = new Product(1L, "product", "説明", 5000, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand"));
+
+        doReturn(Optional.of(new Product(1L, "product", "説明", 4980, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand")))).when(this.mockProductRepository).findById(1L);
+        doReturn(product).when(this.mockProductRepository).save(product);
+        doReturn(7L).when(this.mockProductFacetRepository).countRollups(10L, 20L, 5000);
+
+        target.save(product);
+
+        verify(this.mockProductFacetRepository).addProductCount(10L, 20L, 3000, -1);
+        verify(this.mockProductFacetRepository).addProductCount(10L, 20L, 5000, 1);
+        verify(this.mockProductFacetRepository, never()).lockForInsert();
+        verify(this.mockProductFacetRepository, never()).save(any());
+        verifyNoInteractions(this.mockBrandRepository, this.mockCategoryRepository);
+    }
+
+    /**
+     * 【概要】
+     * 商品の更新時のブランドごとの商品件数を検証<br>
+     *
+     * 【条件】
+     * ブランドのみが変わるように商品を更新すること<br>
+     * productFacetRepositoryのcountRollupsメソッドは7を返却するようスタブ化すること(集計の行がある)<br>
+     *
+     * 【結果】
+     * 更新前のブランドの商品件数を1減らし、更新後のブランドの商品件数を1増やすこと<br>
+     * カテゴリーの商品件数を更新しないこと
+     */
+    @Test
+    void testSave_brandChanged() {
+        Product product = new Product(1L, "product", "説明", 1500, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(11L, "brand2"));
+
+        doReturn(Optional.of(new Product(1L, "product", "説明", 1500, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand")))).when(this.mockProductRepository).findById(1L);
+        doReturn(product).when(this.mockProductRepository).save(product);
+        doReturn(7L).when(this.mockProductFacetRepository).countRollups(11L, 20L, 1000);
+
+        target.save(product);
+
+        verify(this.mockBrandRepository).addProductCount(10L, -1);
+        verify(this.mockBrandRepository).addProductCount(11L, 1);
+        verifyNoInteractions(this.mockCategoryRepository);
+    }
+
+    /**
+     * 【概要】
+     * 商品の更新時の商品件数の更新順を検証<br>
+     *
+     * 【条件】
+     * ブランド・カテゴリーのIDが小さくなるように商品を更新すること<br>
+     * productFacetRepositoryのcountRollupsメソッドは7を返却するようスタブ化すること(集計の行がある)<br>
+     *
+     * 【結果】
+     * ブランド・カテゴリー・集計の順に、それぞれキーの小さい行(更新後の行)から件数を増減すること
+     * (逆向きに移動する更新と同時に行われても、同じ順に行をロックする)
+     */
+    @Test
+    void testSave_keyOrder() {
+        Product product = new Product(1L, "product", "説明", 1500, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand"));
+
+        doReturn(Optional.of(new Product(1L, "product", "説明", 1500, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(21L, "category2"), new Brand(11L, "brand2")))).when(this.mockProductRepository).findById(1L);
+        doReturn(product).when(this.mockProductRepository).save(product);
+        doReturn(7L).when(this.mockProductFacetRepository).countRollups(10L, 20L, 1000);
+
+        target.save(product);
+
+        InOrder inOrder = inOrder(this.mockBrandRepository, this.mockCategoryRepository,
+            this.mockProductFacetRepository);
+        inOrder.verify(this.mockBrandRepository).addProductCount(10L, 1);
+        inOrder.verify(this.mockBrandRepository).addProductCount(11L, -1);
+        inOrder.verify(this.mockCategoryRepository).addProductCount(20L, 1);
+        inOrder.verify(this.mockCategoryRepository).addProductCount(21L, -1);
+        inOrder.verify(this.mockProductFacetRepository).addProductCount(10L, 20L, 1000, 1);
+        inOrder.verify(this.mockProductFacetRepository).addProductCount(11L, 21L, 1000, -1);
+    }
+
+    /**
+     * 【概要】
+     * 商品の更新時の商品件数の集計を検証(集計区分の変更なし)<br>
+     *
+     * 【条件】
+     * ブランド・カテゴリー・価格帯が変わらないように商品を更新すること<br>
+     *
+     * 【結果】
+     * 商品件数の集計を更新しないこと<br>
+     * 入力候補に変更前・変更後の商品名を渡すこと<br>
+     * 更新を監査ログに記録すること
+     */
+    @Test
+    void testSave_facetUnchanged() {
+        Product product = new Product(1L, "product", "説明", 1500, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand"));
+
+        doReturn(Optional.of(new Product(1L, "product", "説明", 1980, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand")))).when(this.mockProductRepository).findById(1L);
+        doReturn(product).when(this.mockProductRepository).save(product);
+
+        target.save(product);
+
+        verifyNoInteractions(this.mockProductFacetRepository);
+        verify(this.mockSuggestIndex).put(SuggestionType.PRODUCT, "product", "product");
+        verify(this.mockAuditLog).record(AuditAction.UPDATE, Product.class, 1L, "product");
+    }
+
+    /**
+     * 【概要】
+     * 商品の削除時の商品件数の集計を検証<br>
+     *
+     * 【条件】
+     * productRepositoryのfindByIdメソッドは商品を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * 商品を削除し、削除した商品の価格帯の件数を1減らすこと<br>
+     * 入力候補から商品名を削除すること<br>
+     * 削除を監査ログに記録し、他のノードに通知すること<br>
+     * ブランド・カテゴリーの商品件数を1減らすこと<br>
+     * 集計の行の有無を確認しないこと
+     */
+    @Test
+    void testDelete() throws Exception {
+        Product product = new Product(1L, "product", "説明", 30000, null, 1.0, 1.0, 1.0, 1.0,
+            new Category(20L, "category"), new Brand(10L, "brand"));
+
+        doReturn(Optional.of(product)).when(this.mockProductRepository).findById(1L);
+
+        target.delete(1L);
+
+        verify(this.mockProductRepository).deleteById(1L);
+        verify(this.mockSuggestIndex).remove(SuggestionType.PRODUCT, "product");
+        verify(this.mockAuditLog).record(AuditAction.DELETE, Product.class, 1L, "product");
+        verify(this.mockCacheInvalidationBus).publish(Product.class, 1L, "product", null);
+        verify(this.mockProductFacetRepository).addProductCount(10L, 20L, 30000, -1);
+        verify(this.mockBrandRepository).addProductCount(10L, -1);
+        verify(this.mockCategoryRepository).addProductCount(20L, -1);
+        verify(this.mockProductFacetRepository, never()).countRollups(any(), any(), anyInt());
+    }
+
+    /**
+     * 【概要】
+     * 商品画像の切り替えの検証<br>
+     *
+     * 【条件】
+     * productRepositoryのgetReferenceByIdメソッドは商品を返却するようスタブ化すること<br>
+     * productImageRepositoryのfindFileNamesByProductIdメソッドは切り替え前の画像のファイル名を返却するようスタブ化すること<br>
+     * 画像2枚を登録すること<br>
+     *
+     * 【結果】
+     * 商品の行の1枚目の画像名を更新(ロック)してから、切り替え前の画像のファイル名を取得すること<br>
+     * 登録済みの画像を削除してから、商品に紐づけた画像を保存すること<br>
+     * 他のノードに通知し、切り替え前の画像のファイル名を返すこと
+     */
+    @Test
+    void testSaveImages() {
+        Product product = new Product();
+        product.setId(1L);
+        List<ProductImage> images = List.of(new ProductImage(null, 0, "upload/0_a.png", 800, 600),
+            new ProductImage(null, 1, "upload/1_b.png", 400, 300));
+
+        doReturn(product).when(this.mockProductRepository).getReferenceById(1L);
+        doReturn(List.of("old/0_old.png")).when(this.mockProductImageRepository).findFileNamesByProductId(1L);
+
+        List<String> replaced = target.saveImages(1L, images);
+
+        InOrder inOrder = inOrder(this.mockProductRepository, this.mockProductImageRepository);
+        inOrder.verify(this.mockProductRepository).updateImage(eq(1L), eq("upload/0_a.png"), any(Instant.class));
+        inOrder.verify(this.mockProductImageRepository).findFileNamesByProductId(1L);
+        inOrder.verify(this.mockProductImageRepository).deleteByProductId(1L);
+        inOrder.verify(this.mockProductImageRepository).saveAll(images);
+        assertThat(images).allMatch(image -> image.getProduct() == product);
+        assertThat(replaced).containsExactly("old/0_old.png");
+        verify(this.mockCacheInvalidationBus).publish(ProductImage.class, 1L, null, null);
+    }
 }
@@ -0,0 +1,98 @@
+package com.example.slshopping_ut_answer.querylog;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.stereotype.Service;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+@ExtendWith(OutputCaptureExtension.class)
+class QueryLogListenerTest {
+
+    @Test
+    void testAfterQuery_slowQuery(CapturedOutput output) throws Exception {
+        QueryLogListener listener = new QueryLogListener(new QueryLogProperties(Duration.ofMillis(100), 0, true));
+        QueryInfo query = query("/* ProductService.listAll */ select * from products where name like ?", "%バッグ%");
+
+        listener.afterQuery(execution(150), List.of(query));
+
+        assertThat(output).contains("slow query 150ms origin=ProductService.listAll");
+        assertThat(output).contains("params=[1:'%バッグ%']");
+    }
+
+    @Test
+    void testAfterQuery_fastQueryNotSampled(CapturedOutput output) throws Exception {
+        QueryLogListener listener = new QueryLogListener(new QueryLogProperties(Duration.ofMillis(100), 0, true));
+
+        listener.afterQuery(execution(99), List.of(query("select * from products where id = ?", 1L)));
+
+        assertThat(output).doesNotContain("query");
+    }
+
+    @Test
+    void testAfterQuery_fastQuerySampled(CapturedOutput output) throws Exception {
+        QueryLogListener listener = new QueryLogListener(new QueryLogProperties(Duration.ofMillis(100), 1, true));
+
+        listener.afterQuery(execution(5), List.of(query("select * from products where id = ?", 1L)));
+
+        assertThat(output).contains("sampled query 5ms origin=- sql=select * from products where id = ?");
+    }
+
+    @Test
+    void testParameters_passwordMasked() throws Exception {
+        QueryInfo query = query("insert into users (email, password) values (?, ?)", "a@example.com");
+        query.getParametersList().get(0).add(parameter(2, "$2a$10$hash"));
+
+        assertThat(QueryLogListener.parameters(query)).isEqualTo("[1:***, 2:***]");
+    }
+
+    @Test
+    void testTag_fromService() {
+        String sql = new DummyService().select();
+
+        assertThat(sql).isEqualTo("/* DummyService.select */ select 1");
+        assertThat(QueryOrigin.of(sql)).contains("DummyService.select");
+    }
+
+    @Test
+    void testTag_noOrigin() {
+        assertThat(QueryOrigin.tag("select 1")).isEqualTo("select 1");
+    }
+
+    @Service
+    static class DummyService {
+
+        String select() {
+            return QueryOrigin.tag("select 1");
+        }
+    }
+
+    private static ExecutionInfo execution(long elapsed) {
+        ExecutionInfo execution = new ExecutionInfo();
+        execution.setElapsedTime(elapsed);
+        execution.setSuccess(true);
+        return execution;
+    }
+
+    private static QueryInfo query(String sql, Object value) throws Exception {
+        QueryInfo query = new QueryInfo(sql);
+        query.getParametersList().add(new ArrayList<>(List.of(parameter(1, value))));
+        return query;
+    }
+
+    private static ParameterSetOperation parameter(int index, Object value) throws Exception {
+        return new ParameterSetOperation(
+            PreparedStatement.class.getMethod("setObject", int.class, Object.class), new Object[] { index, value });
+    }
+}
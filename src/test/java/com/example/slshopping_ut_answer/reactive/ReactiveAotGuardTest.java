@@ -0,0 +1,105 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.SpringProperties;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAotGuardTest {
+
+    /** モック化したクラス */
+    @Mock
+    private ObjectProvider<ReactiveCatalogConfig> mockReactiveCatalogConfig;
+
+    @Mock
+    private ObjectProvider<SecurityWebFilterChain> mockSecurityWebFilterChain;
+
+    @Mock
+    private ReactiveCatalogConfig mockConfig;
+
+    private final MockEnvironment environment = new MockEnvironment();
+
+    @AfterEach
+    void cleanup() {
+        SpringProperties.setProperty(AotDetector.AOT_ENABLED, null);
+    }
+
+    /**
+     * 【概要】
+     * AOTモードでreactiveプロファイルが無視される場合の検証<br>
+     *
+     * 【条件】
+     * AOTモードで、reactiveプロファイルを有効にすること<br>
+     * リアクティブ版の設定(ReactiveCatalogConfig)はBean定義にないこと<br>
+     *
+     * 【結果】
+     * IllegalStateExceptionを投げ、起動を止めること
+     */
+    @Test
+    void testAfterPropertiesSet_reactiveIgnoredByAot() {
+        SpringProperties.setProperty(AotDetector.AOT_ENABLED, "true");
+        environment.setActiveProfiles("reactive");
+        doReturn(null).when(this.mockReactiveCatalogConfig).getIfAvailable();
+
+        ReactiveAotGuard target = new ReactiveAotGuard(environment, mockReactiveCatalogConfig,
+            mockSecurityWebFilterChain);
+
+        assertThatThrownBy(target::afterPropertiesSet).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * 【概要】
+     * devプロファイルでビルドしたAOTモードの検証<br>
+     *
+     * 【条件】
+     * AOTモードで、reactiveプロファイルのみを有効にすること<br>
+     * リアクティブ版の設定はあり、Basic認証(SecurityWebFilterChain)はBean定義にないこと<br>
+     *
+     * 【結果】
+     * IllegalStateExceptionを投げ、起動を止めること(認証なしで待ち受けないこと)
+     */
+    @Test
+    void testAfterPropertiesSet_securityIgnoredByAot() {
+        SpringProperties.setProperty(AotDetector.AOT_ENABLED, "true");
+        environment.setActiveProfiles("reactive");
+        doReturn(mockConfig).when(this.mockReactiveCatalogConfig).getIfAvailable();
+        doReturn(null).when(this.mockSecurityWebFilterChain).getIfAvailable();
+
+        ReactiveAotGuard target = new ReactiveAotGuard(environment, mockReactiveCatalogConfig,
+            mockSecurityWebFilterChain);
+
+        assertThatThrownBy(target::afterPropertiesSet).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * 【概要】
+     * AOTモード以外でreactiveプロファイルを指定した場合の検証<br>
+     *
+     * 【条件】
+     * AOTモードではなく、reactiveプロファイルを有効にすること<br>
+     *
+     * 【結果】
+     * 例外が発生しないこと(プロファイルは起動時に評価される)
+     */
+    @Test
+    void testAfterPropertiesSet_withoutAot() {
+        environment.setActiveProfiles("reactive");
+
+        ReactiveAotGuard target = new ReactiveAotGuard(environment, mockReactiveCatalogConfig,
+            mockSecurityWebFilterChain);
+
+        assertThatCode(target::afterPropertiesSet).doesNotThrowAnyException();
+        verifyNoInteractions(this.mockReactiveCatalogConfig, this.mockSecurityWebFilterChain);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.WebFilterChainProxy;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+class ReactiveCatalogConfigTest {
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    /** 管理画面のユーザー(admin@example.com、パスワードはpassword) */
+    private final UserDetailsService userDetailsService = email -> {
+        if (!email.equals("admin@example.com")) {
+            throw new UsernameNotFoundException("ユーザが見つかりません");
+        }
+        return User.withUsername(email).password(passwordEncoder.encode("password")).roles("ADMIN").build();
+    };
+
+    private ReactiveCatalogConfig target;
+
+    @BeforeEach
+    void setup() {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:reactive-catalog-config;DB_CLOSE_DELAY=-1");
+        this.target = new ReactiveCatalogConfig(new ReactiveCatalogProperties(0, 1), dataSourceProperties);
+    }
+
+    @AfterEach
+    void cleanup() {
+        target.destroy();
+    }
+
+    /**
+     * 【概要】
+     * JDBCの接続先からのR2DBCの接続先の変換の検証<br>
+     *
+     * 【条件】
+     * PostgreSQL(パラメーターあり)、H2のインメモリデータベース、MySQLのURLを指定すること<br>
+     *
+     * 【結果】
+     * PostgreSQLは同じホスト・ポート・データベース・パラメーターのURLを返却すること<br>
+     * H2は同じ名前のインメモリデータベースのURLを返却すること<br>
+     * MySQLはIllegalStateExceptionを投げ、起動を止めること
+     */
+    @Test
+    void testR2dbcUrl() {
+        assertThat(ReactiveCatalogConfig.r2dbcUrl("jdbc:postgresql://db:5433/slshoput_db?connectTimeout=5"))
+            .isEqualTo("r2dbc:postgresql://db:5433/slshoput_db?connectTimeout=5");
+        assertThat(ReactiveCatalogConfig.r2dbcUrl("jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1"))
+            .isEqualTo("r2dbc:h2:mem:///testdb;DB_CLOSE_DELAY=-1");
+        assertThatThrownBy(() -> ReactiveCatalogConfig.r2dbcUrl("jdbc:mysql://db:3306/slshoput_db"))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * 【概要】
+     * リアクティブ版の商品カタログの認証の検証<br>
+     *
+     * 【条件】
+     * 認証情報なし、パスワード誤り、存在しないユーザー、正しい認証情報(Basic認証)で/api/productsにリクエストすること<br>
+     *
+     * 【結果】
+     * 正しい認証情報の場合のみステータスコード200を返却すること<br>
+     * それ以外はステータスコード401とBasic認証を求めるWWW-Authenticateを返却すること
+     */
+    @Test
+    void testCatalogSecurityWebFilterChain() {
+        WebTestClient client = WebTestClient
+            .bindToRouterFunction(RouterFunctions.route().GET("/api/products",
+                request -> ServerResponse.ok().bodyValue("products")).build())
+            .webFilter(new WebFilterChainProxy(
+                target.catalogSecurityWebFilterChain(userDetailsService, passwordEncoder)))
+            .build();
+
+        client.get().uri("/api/products").exchange()
+            .expectStatus().isUnauthorized()
+            .expectHeader().value(HttpHeaders.WWW_AUTHENTICATE, value -> assertThat(value).startsWith("Basic"));
+        client.get().uri("/api/products").headers(headers -> headers.setBasicAuth("admin@example.com", "wrong"))
+            .exchange()
+            .expectStatus().isUnauthorized();
+        client.get().uri("/api/products").headers(headers -> headers.setBasicAuth("none@example.com", "password"))
+            .exchange()
+            .expectStatus().isUnauthorized();
+        client.get().uri("/api/products").headers(headers -> headers.setBasicAuth("admin@example.com", "password"))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo("products");
+    }
+
+}
@@ -0,0 +1,309 @@
+package com.example.slshopping_ut_answer.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.slshopping_ut_answer.product.ProductImageCache;
+import com.example.slshopping_ut_answer.storage.ImageMetadata;
+import com.example.slshopping_ut_answer.storage.ImageStorage;
+import com.example.slshopping_ut_answer.storage.LocalImageStorage;
+import com.example.slshopping_ut_answer.storage.StoredImage;
+
+import io.r2dbc.spi.ConnectionFactories;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveProductHandlerTest {
+
+    /** マイグレーションで商品・商品画像のテーブルを作成したデータベース(JDBCで登録し、R2DBCで読み込む) */
+    private static final DataSource DATA_SOURCE = new DriverManagerDataSource(
+        "jdbc:h2:mem:reactive-catalog;DB_CLOSE_DELAY=-1");
+
+    private static final ReactiveProductRepository PRODUCT_REPOSITORY = new R2dbcRepositoryFactory(
+        new R2dbcEntityTemplate(ConnectionFactories.get("r2dbc:h2:mem:///reactive-catalog;DB_CLOSE_DELAY=-1")))
+        .getRepository(ReactiveProductRepository.class);
+
+    /** モック化したクラス */
+    @Mock
+    private ProductImageCache mockProductImageCache;
+
+    @Mock
+    private ImageStorage mockImageStorage;
+
+    @TempDir
+    Path baseDir;
+
+    @BeforeAll
+    static void createTables() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__create_tables.sql"),
+            new ClassPathResource("db/migration/common/V9__create_product_images.sql"))
+            .execute(DATA_SOURCE);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(DATA_SOURCE);
+        jdbcTemplate.update("INSERT INTO brands (id, name) VALUES (1, 'ブランドA'), (2, 'ブランドB')");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'バッグ')");
+        jdbcTemplate.update("INSERT INTO products "
+            + "(id, name, description, price, image, length, width, height, weight, brand_id, category_id) VALUES "
+            + "(1, '商品1', '説明1', 1000, '0_a.png', 10, 5, 5, 1, 1, 1), "
+            + "(2, '商品2', '説明2', 2000, NULL, 10, 5, 5, 1, 2, 1), "
+            + "(3, '商品3', '説明3', 3000, NULL, 10, 5, 5, 1, 1, 1)");
+        jdbcTemplate.update("INSERT INTO product_images (product_id, display_order, file_name, width, height) VALUES "
+            + "(1, 1, '1_b.png', NULL, NULL), (1, 0, '0_a.png', 640, 480)");
+    }
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setup() {
+        ReactiveProductHandler target = new ReactiveProductHandler(PRODUCT_REPOSITORY,
+            new LocalImageStorage(baseDir), mockProductImageCache);
+        this.webTestClient = WebTestClient.bindToRouterFunction(target.routes()).build();
+    }
+
+    /**
+     * 【概要】
+     * 商品情報一覧取得APIの検証<br>
+     *
+     * 【条件】
+     * 2件ずつ、前のページのnextの値をafterに指定して取得すること<br>
+     *
+     * 【結果】
+     * 1ページ目はID 1〜2の商品情報と、ブランド・カテゴリーのIDと名前を返却し、nextに2を返却すること<br>
+     * 2ページ目はID 3の商品情報のみを返却し、nextにnullを返却すること
+     */
+    @Test
+    void testListProducts() {
+        this.webTestClient.get().uri("/api/products?limit=2").exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.items.length()").isEqualTo(2)
+            .jsonPath("$.items[0].id").isEqualTo(1)
+            .jsonPath("$.items[0].name").isEqualTo("商品1")
+            .jsonPath("$.items[0].price").isEqualTo(1000)
+            .jsonPath("$.items[0].image").isEqualTo("/product-images/1/0_a.png")
+            .jsonPath("$.items[0].imageFile").doesNotExist()
+            .jsonPath("$.items[0].brand.id").isEqualTo(1)
+            .jsonPath("$.items[0].brand.name").isEqualTo("ブランドA")
+            .jsonPath("$.items[0].category.name").isEqualTo("バッグ")
+            .jsonPath("$.items[0].brandId").doesNotExist()
+            .jsonPath("$.items[1].id").isEqualTo(2)
+            .jsonPath("$.next").isEqualTo(2);
+
+        this.webTestClient.get().uri("/api/products?after=2&limit=2").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.items.length()").isEqualTo(1)
+            .jsonPath("$.items[0].id").isEqualTo(3)
+            .jsonPath("$.items[0].image").isEmpty()
+            .jsonPath("$.next").isEmpty();
+    }
+
+    /**
+     * 【概要】
+     * 商品情報一覧取得API(項目指定)の検証<br>
+     *
+     * 【条件】
+     * afterに1、fieldsにid,brandを指定すること<br>
+     *
+     * 【結果】
+     * idとbrandのみの商品情報(ID 2、3)を返却すること<br>
+     * 件数が1ページ分に満たないため、nextにnullを返却すること
+     */
+    @Test
+    void testListProducts_fields() {
+        this.webTestClient.get().uri("/api/products?after=1&fields=id,brand").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.items.length()").isEqualTo(2)
+            .jsonPath("$.items[0].length()").isEqualTo(2)
+            .jsonPath("$.items[0].id").isEqualTo(2)
+            .jsonPath("$.items[0].brand.name").isEqualTo("ブランドB")
+            .jsonPath("$.items[0].name").doesNotExist()
+            .jsonPath("$.items[1].id").isEqualTo(3)
+            .jsonPath("$.next").isEmpty();
+    }
+
+    /**
+     * 【概要】
+     * 商品情報一覧取得API(存在しない項目指定)の検証<br>
+     *
+     * 【条件】
+     * fieldsにid,passwordを指定すること<br>
+     *
+     * 【結果】
+     * ステータスコード400と、指定できる項目名を返却すること
+     */
+    @Test
+    void testListProducts_unknownField() {
+        this.webTestClient.get().uri("/api/products?fields=id,password").exchange()
+            .expectStatus().isBadRequest()
+            .expectBody(String.class).value(body -> assertThat(body).contains("password", "[id, name"));
+    }
+
+    /**
+     * 【概要】
+     * 商品情報一覧取得API(件数が範囲外)の検証<br>
+     *
+     * 【条件】
+     * 件数に0を指定すること<br>
+     *
+     * 【結果】
+     * ステータスコード400を返却すること
+     */
+    @Test
+    void testListProducts_invalidLimit() {
+        this.webTestClient.get().uri("/api/products?limit=0").exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    /**
+     * 【概要】
+     * 商品情報詳細取得APIの検証<br>
+     *
+     * 【条件】
+     * 画像が2枚ある商品のIDを指定すること<br>
+     *
+     * 【結果】
+     * 商品情報と、表示順に並べたギャラリーの画像(URLを含む)を返却すること
+     */
+    @Test
+    void testGetProduct() {
+        this.webTestClient.get().uri("/api/products/1").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(1)
+            .jsonPath("$.name").isEqualTo("商品1")
+            .jsonPath("$.brand.name").isEqualTo("ブランドA")
+            .jsonPath("$.images.length()").isEqualTo(2)
+            .jsonPath("$.images[0].fileName").isEqualTo("0_a.png")
+            .jsonPath("$.images[0].width").isEqualTo(640)
+            .jsonPath("$.images[0].url").isEqualTo("/product-images/1/0_a.png")
+            .jsonPath("$.images[1].fileName").isEqualTo("1_b.png");
+    }
+
+    /**
+     * 【概要】
+     * 商品情報詳細取得API(存在しない商品)の検証<br>
+     *
+     * 【条件】
+     * 存在しない商品のIDを指定すること<br>
+     *
+     * 【結果】
+     * ステータスコード404を返却すること
+     */
+    @Test
+    void testGetProduct_notFound() {
+        this.webTestClient.get().uri("/api/products/999").exchange()
+            .expectStatus().isNotFound();
+    }
+
+    /**
+     * 【概要】
+     * 商品画像(ローカルのディレクトリ)の取得の検証<br>
+     *
+     * 【条件】
+     * ローカルのディレクトリに保存した画像、存在しない画像、ディレクトリ外のファイルを指定すること<br>
+     *
+     * 【結果】
+     * 保存した画像はファイルの内容と画像の種類を返却すること<br>
+     * それ以外はステータスコード404を返却すること<br>
+     * キャッシュから読み込まないこと
+     */
+    @Test
+    void testImage_localFile() throws IOException {
+        Files.createDirectories(baseDir.resolve("1"));
+        Files.write(baseDir.resolve("1/0_a.png"), new byte[] { 1, 2, 3 });
+
+        this.webTestClient.get().uri("/product-images/1/0_a.png").exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.IMAGE_PNG)
+            .expectHeader().contentLength(3)
+            .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+            .expectBody(byte[].class).isEqualTo(new byte[] { 1, 2, 3 });
+        this.webTestClient.get().uri("/product-images/1/none.png").exchange()
+            .expectStatus().isNotFound();
+        this.webTestClient.get().uri("/product-images/1/../../secret.png").exchange()
+            .expectStatus().isNotFound();
+        verifyNoInteractions(this.mockProductImageCache);
+    }
+
+    /**
+     * 【概要】
+     * 変更がない商品画像(ローカルのディレクトリ)の取得(条件付きGET)の検証<br>
+     *
+     * 【条件】
+     * ローカルのディレクトリに保存した画像を取得し、返却されたETagをIf-None-Matchに指定して再度取得すること<br>
+     *
+     * 【結果】
+     * 2回目はステータスコード304を、内容なしで返却すること
+     */
+    @Test
+    void testImage_localFileNotModified() throws IOException {
+        Files.createDirectories(baseDir.resolve("1"));
+        Files.write(baseDir.resolve("1/0_a.png"), new byte[] { 1, 2, 3 });
+
+        String etag = this.webTestClient.get().uri("/product-images/1/0_a.png").exchange()
+            .expectStatus().isOk()
+            .returnResult(byte[].class).getResponseHeaders().getETag();
+
+        this.webTestClient.get().uri("/product-images/1/0_a.png").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+    }
+
+    /**
+     * 【概要】
+     * 商品画像(ファイルとして読み込めない保存先)の取得の検証<br>
+     *
+     * 【条件】
+     * 保存先はファイルのパスを返さないこと<br>
+     * productImageCacheのmetadataメソッドはETag・最終更新日時を返却するようスタブ化すること<br>
+     * productImageCacheのloadメソッドは画像を返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * キャッシュから読み込んだ画像の内容と画像の種類を、ETag・Last-Modifiedとともに返却すること
+     */
+    @Test
+    void testImage_storage() throws IOException {
+        ReactiveProductHandler target = new ReactiveProductHandler(PRODUCT_REPOSITORY, mockImageStorage,
+            mockProductImageCache);
+        doReturn(Optional.empty()).when(this.mockImageStorage).localFile("1/w320/0_a.png");
+        doReturn(Optional.of(new ImageMetadata(2, "image/png", 1700000000000L, "\"etag-1\"")))
+            .when(this.mockProductImageCache).metadata("1/w320/0_a.png");
+        doReturn(Optional.of(new StoredImage(new ByteArrayInputStream(new byte[] { 4, 5 }), 2, "image/png")))
+            .when(this.mockProductImageCache).load("1/w320/0_a.png");
+
+        WebTestClient.bindToRouterFunction(target.routes()).build()
+            .get().uri("/product-images/1/w320/0_a.png").exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.IMAGE_PNG)
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"etag-1\"")
+            .expectHeader().lastModified(1700000000000L)
+            .expectBody(byte[].class).isEqualTo(new byte[] { 4, 5 });
+    }
+
+}
@@ -0,0 +1,255 @@
+package com.example.slshopping_ut_answer.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * テスト用のS3互換サーバー(MinIOの代わり)
+ * 1つのバケットのオブジェクトをメモリ上に保持し、S3ImageStorageが使うAPIのみに応答する
+ * リクエストの署名を検証し、一致しない場合は403を返す
+ */
+class InMemoryS3Server implements AutoCloseable {
+
+    private static final Pattern SIGNED_HEADERS = Pattern.compile("SignedHeaders=([^,]+)");
+
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+        .withZone(ZoneOffset.UTC);
+
+    /** 保存したオブジェクト(キーの順) */
+    final NavigableMap<String, byte[]> objects = new ConcurrentSkipListMap<>();
+
+    /** 保存したオブジェクトの種類 */
+    final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+
+    /** 保存したオブジェクトの最終更新日時(秒単位) */
+    final Map<String, Instant> lastModified = new ConcurrentHashMap<>();
+
+    /** 実行中のマルチパートアップロード(アップロードID→パート番号→内容) */
+    final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    /** 受け付けたリクエスト(「メソッド パス?クエリ」) */
+    final List<String> requests = new CopyOnWriteArrayList<>();
+
+    /** 一覧の1ページの件数 */
+    volatile int listPageSize = 1000;
+
+    private final String bucket;
+
+    private final AwsV4Signer signer;
+
+    private final HttpServer server;
+
+    InMemoryS3Server(String bucket, String accessKey, String secretKey) throws IOException {
+        this.bucket = bucket;
+        this.signer = new AwsV4Signer("us-east-1", accessKey, secretKey);
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            String method = exchange.getRequestMethod();
+            requests.add(method + " " + uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : ""));
+            byte[] body = exchange.getRequestBody().readAllBytes();
+
+            if (!signatureMatches(exchange)) {
+                respond(exchange, 403, "<Error><Code>SignatureDoesNotMatch</Code></Error>");
+                return;
+            }
+            Map<String, String> query = query(uri.getRawQuery());
+            String bucketPath = "/" + bucket;
+            if (uri.getPath().equals(bucketPath) && method.equals("GET")) {
+                list(exchange, query.get("prefix"), query.get("continuation-token"));
+                return;
+            }
+            if (!uri.getPath().startsWith(bucketPath + "/")) {
+                respond(exchange, 404, "<Error><Code>NoSuchBucket</Code></Error>");
+                return;
+            }
+            String key = uri.getPath().substring(bucketPath.length() + 1);
+            String uploadId = query.get("uploadId");
+            switch (method) {
+                case "PUT" -> {
+                    if (uploadId != null) {
+                        uploads.get(uploadId).put(Integer.valueOf(query.get("partNumber")), body);
+                    } else {
+                        objects.put(key, body);
+                        contentTypes.put(key, exchange.getRequestHeaders().getFirst("content-type"));
+                        lastModified.put(key, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+                    }
+                    exchange.getResponseHeaders().set("ETag", "\"" + UUID.randomUUID() + "\"");
+                    respond(exchange, 200, "");
+                }
+                case "POST" -> {
+                    if (query.containsKey("uploads")) {
+                        String newUploadId = UUID.randomUUID().toString();
+                        uploads.put(newUploadId, new ConcurrentHashMap<>());
+                        contentTypes.put(key, exchange.getRequestHeaders().getFirst("content-type"));
+                        respond(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + newUploadId
+                            + "</UploadId></InitiateMultipartUploadResult>");
+                        return;
+                    }
+                    Map<Integer, byte[]> parts = uploads.remove(uploadId);
+                    ByteArrayOutputStream content = new ByteArrayOutputStream();
+                    Matcher partNumbers = PART_NUMBER.matcher(new String(body, StandardCharsets.UTF_8));
+                    while (partNumbers.find()) {
+                        content.write(parts.get(Integer.valueOf(partNumbers.group(1))));
+                    }
+                    objects.put(key, content.toByteArray());
+                    lastModified.put(key, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+                    respond(exchange, 200, "<CompleteMultipartUploadResult><Key>" + escape(key)
+                        + "</Key></CompleteMultipartUploadResult>");
+                }
+                case "DELETE" -> {
+                    if (uploadId != null) {
+                        uploads.remove(uploadId);
+                    } else {
+                        objects.remove(key);
+                    }
+                    respond(exchange, 204, null);
+                }
+                case "GET", "HEAD" -> {
+                    byte[] object = objects.get(key);
+                    if (object == null) {
+                        respond(exchange, 404, method.equals("GET") ? "<Error><Code>NoSuchKey</Code></Error>" : null);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("Content-Type", contentTypes.get(key));
+                    exchange.getResponseHeaders().set("ETag", "\"" + Integer.toHexString(Arrays.hashCode(object)) + "\"");
+                    exchange.getResponseHeaders().set("Last-Modified",
+                        DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified.get(key).atZone(ZoneOffset.UTC)));
+                    if (method.equals("HEAD")) {
+                        exchange.sendResponseHeaders(200, -1);
+                        return;
+                    }
+                    exchange.sendResponseHeaders(200, object.length);
+                    exchange.getResponseBody().write(object);
+                }
+                default -> respond(exchange, 405, "");
+            }
+        }
+    }
+
+    /**
+     * ListObjectsV2 続きのトークンは前のページの最後のキーとする
+     */
+    private void list(HttpExchange exchange, String prefix, String continuationToken) throws IOException {
+        NavigableMap<String, byte[]> candidates = continuationToken != null
+            ? objects.tailMap(continuationToken, false)
+            : objects;
+        StringBuilder xml = new StringBuilder();
+        String lastKey = null;
+        int count = 0;
+        boolean truncated = false;
+        for (String key : candidates.keySet()) {
+            if (!key.startsWith(prefix)) {
+                continue;
+            }
+            if (count == listPageSize) {
+                truncated = true;
+                break;
+            }
+            xml.append("<Contents><Key>").append(escape(key)).append("</Key></Contents>");
+            lastKey = key;
+            count++;
+        }
+        respond(exchange, 200, "<ListBucketResult><IsTruncated>" + truncated + "</IsTruncated>" + xml
+            + (truncated ? "<NextContinuationToken>" + escape(lastKey) + "</NextContinuationToken>" : "")
+            + "</ListBucketResult>");
+    }
+
+    /**
+     * 受け取ったリクエストを同じ手順で署名し、Authorizationヘッダーと一致するか検証する
+     */
+    private boolean signatureMatches(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("authorization");
+        if (authorization == null) {
+            return false;
+        }
+        Matcher signedHeaders = SIGNED_HEADERS.matcher(authorization);
+        if (!signedHeaders.find()) {
+            return false;
+        }
+        Map<String, String> headers = new HashMap<>();
+        for (String name : signedHeaders.group(1).split(";")) {
+            if (!List.of("host", "x-amz-date", "x-amz-content-sha256").contains(name)) {
+                headers.put(name, exchange.getRequestHeaders().getFirst(name));
+            }
+        }
+        URI uri = URI.create("http://" + exchange.getRequestHeaders().getFirst("host")
+            + exchange.getRequestURI().getRawPath()
+            + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : ""));
+        Instant date = DATE_TIME.parse(exchange.getRequestHeaders().getFirst("x-amz-date"), Instant::from);
+        Map<String, String> expected = signer.sign(exchange.getRequestMethod(), uri, headers,
+            exchange.getRequestHeaders().getFirst("x-amz-content-sha256"), date);
+        return authorization.equals(expected.get("authorization"));
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        if (rawQuery == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> query = new TreeMap<>();
+        for (String parameter : rawQuery.split("&")) {
+            String[] nameValue = parameter.split("=", 2);
+            query.put(URLDecoder.decode(nameValue[0], StandardCharsets.UTF_8),
+                nameValue.length > 1 ? URLDecoder.decode(nameValue[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.example.slshopping_ut_answer.storage;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalImageStorageTest {
+
+    @TempDir
+    Path baseDir;
+
+    /**
+     * 【概要】
+     * 画像の保存・読み込みの検証<br>
+     *
+     * 【条件】
+     * 縮小画像のディレクトリを含むキーで画像を保存し、同じキーで別の画像を保存してから読み込むこと<br>
+     *
+     * 【結果】
+     * 後から保存した画像の内容とバイト数を返却し、一時ファイルを残さないこと
+     */
+    @Test
+    void testStoreAndLoad() throws IOException {
+        LocalImageStorage target = new LocalImageStorage(baseDir);
+
+        target.store("1/w320/0_image.png", new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 3, "image/png");
+        target.store("1/w320/0_image.png", new ByteArrayInputStream(new byte[] { 4, 5 }), 2, "image/png");
+
+        try (StoredImage image = target.load("1/w320/0_image.png").orElseThrow()) {
+            assertThat(image.content().readAllBytes()).containsExactly(4, 5);
+            assertThat(image.contentLength()).isEqualTo(2);
+        }
+        try (Stream<Path> files = Files.list(baseDir.resolve("1/w320"))) {
+            assertThat(files).containsExactly(baseDir.resolve("1/w320/0_image.png"));
+        }
+    }
+
+    /**
+     * 【概要】
+     * 存在しない画像の読み込みの検証<br>
+     *
+     * 【条件】
+     * 保存していないキーで読み込むこと<br>
+     *
+     * 【結果】
+     * 空を返却すること
+     */
+    @Test
+    void testLoad_notFound() throws IOException {
+        LocalImageStorage target = new LocalImageStorage(baseDir);
+
+        assertThat(target.load("1/0_image.png")).isEqualTo(Optional.empty());
+    }
+
+    /**
+     * 【概要】
+     * ディレクトリの削除の検証<br>
+     *
+     * 【条件】
+     * 商品ID 1・10の画像を保存し、商品ID 1のディレクトリを削除すること<br>
+     *
+     * 【結果】
+     * 商品ID 1の元画像・縮小画像のみを削除すること
+     */
+    @Test
+    void testDeleteDirectory() throws IOException {
+        LocalImageStorage target = new LocalImageStorage(baseDir);
+        target.store("1/0_image.png", new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+        target.store("1/w320/0_image.png", new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+        target.store("10/0_image.png", new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+
+        target.deleteDirectory("1");
+
+        assertThat(baseDir.resolve("1")).doesNotExist();
+        assertThat(baseDir.resolve("10/0_image.png")).exists();
+    }
+
+    /**
+     * 【概要】
+     * 画像の削除の検証<br>
+     *
+     * 【条件】
+     * 画像を2件保存し、1件と存在しないキーを削除すること<br>
+     *
+     * 【結果】
+     * 指定した画像のみを削除し、存在しないキーではエラーにしないこと
+     */
+    @Test
+    void testDelete() throws IOException {
+        LocalImageStorage target = new LocalImageStorage(baseDir);
+        target.store("1/0_image.png", new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+        target.store("1/w320/0_image.png", new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+
+        target.delete("1/0_image.png");
+        target.delete("1/none.png");
+
+        assertThat(baseDir.resolve("1/0_image.png")).doesNotExist();
+        assertThat(baseDir.resolve("1/w320/0_image.png")).exists();
+    }
+
+    /**
+     * 【概要】
+     * 保存先のディレクトリ外のキーの検証<br>
+     *
+     * 【条件】
+     * 「..」で保存先のディレクトリ外を指すキーで保存すること<br>
+     *
+     * 【結果】
+     * IllegalArgumentExceptionを投げ、ファイルを保存しないこと
+     */
+    @Test
+    void testStore_outsideBaseDir() {
+        LocalImageStorage target = new LocalImageStorage(baseDir.resolve("product-images"));
+
+        assertThatThrownBy(() -> target.store("../escaped.png", new ByteArrayInputStream(new byte[] { 1 }), 1,
+            "image/png")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(baseDir.resolve("escaped.png")).doesNotExist();
+    }
+
+    /**
+     * 【概要】
+     * 画像のファイルのパスの取得の検証<br>
+     *
+     * 【条件】
+     * 縮小画像のキーと、保存先のディレクトリ外を指すキーを指定すること<br>
+     *
+     * 【結果】
+     * 縮小画像のキーは保存先のディレクトリ配下のパスを返却すること<br>
+     * ディレクトリ外を指すキーはIllegalArgumentExceptionを投げること
+     */
+    @Test
+    void testLocalFile() {
+        LocalImageStorage target = new LocalImageStorage(baseDir);
+
+        assertThat(target.localFile("1/w320/0_image.png")).contains(baseDir.resolve("1/w320/0_image.png"));
+        assertThatThrownBy(() -> target.localFile("../escaped.png")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 【概要】
+     * 画像の情報の取得の検証<br>
+     *
+     * 【条件】
+     * 画像を保存し、最終更新日時を変更してから情報を取得すること<br>
+     * 保存していないキー、ディレクトリのキーでも取得すること<br>
+     *
+     * 【結果】
+     * 保存した画像はバイト数・最終更新日時と、最終更新日時が変わると変わるETagを返却すること<br>
+     * 読み込んだ画像も同じ最終更新日時・ETagを持つこと<br>
+     * 保存していないキー、ディレクトリのキーは空を返却すること
+     */
+    @Test
+    void testMetadata() throws IOException {
+        LocalImageStorage target = new LocalImageStorage(baseDir);
+        target.store("1/0_image.png", new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 3, "image/png");
+        Files.setLastModifiedTime(baseDir.resolve("1/0_image.png"), FileTime.fromMillis(1700000000000L));
+
+        ImageMetadata metadata = target.metadata("1/0_image.png").orElseThrow();
+        Files.setLastModifiedTime(baseDir.resolve("1/0_image.png"), FileTime.fromMillis(1700000001000L));
+
+        assertThat(metadata.contentLength()).isEqualTo(3);
+        assertThat(metadata.lastModified()).isEqualTo(1700000000000L);
+        assertThat(metadata.etag()).startsWith("\"").endsWith("\"");
+        ImageMetadata modified = target.metadata("1/0_image.png").orElseThrow();
+        assertThat(modified.etag()).isNotEqualTo(metadata.etag());
+        try (StoredImage image = target.load("1/0_image.png").orElseThrow()) {
+            assertThat(image.metadata()).isEqualTo(modified);
+        }
+        assertThat(target.metadata("1/none.png")).isEqualTo(Optional.empty());
+        assertThat(target.metadata("1")).isEqualTo(Optional.empty());
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.example.slshopping_ut_answer.storage;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class S3ImageStorageTest {
+
+    private static final String BUCKET = "product-images";
+
+    private static final String ACCESS_KEY = "slshop";
+
+    private static final String SECRET_KEY = "slshop-secret";
+
+    /** MinIOの代わりのS3互換サーバー */
+    private InMemoryS3Server server;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = new InMemoryS3Server(BUCKET, ACCESS_KEY, SECRET_KEY);
+    }
+
+    @AfterEach
+    void cleanup() {
+        server.close();
+    }
+
+    /**
+     * 【概要】
+     * 画像の保存・読み込みの検証<br>
+     *
+     * 【条件】
+     * マルチパートアップロードの閾値より小さい画像を、日本語・空白を含むキーで保存してから読み込むこと<br>
+     *
+     * 【結果】
+     * 1回のPUTで保存し、保存した内容・バイト数・種類を返却すること
+     */
+    @Test
+    void testStoreAndLoad() throws IOException {
+        S3ImageStorage target = storage(SECRET_KEY, 1024, 5);
+        byte[] content = "png image".getBytes(StandardCharsets.UTF_8);
+
+        target.store("1/0_商品 画像.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        assertThat(server.requests).containsExactly(
+            "PUT /product-images/1/0_%E5%95%86%E5%93%81%20%E7%94%BB%E5%83%8F.png");
+        try (StoredImage image = target.load("1/0_商品 画像.png").orElseThrow()) {
+            assertThat(image.content().readAllBytes()).isEqualTo(content);
+            assertThat(image.contentLength()).isEqualTo(content.length);
+            assertThat(image.contentType()).isEqualTo("image/png");
+        }
+    }
+
+    /**
+     * 【概要】
+     * 大きな画像の保存の検証<br>
+     *
+     * 【条件】
+     * マルチパートアップロードの閾値(10バイト)以上の12バイトの画像を、パートの大きさを5バイトにして保存すること<br>
+     *
+     * 【結果】
+     * 5・5・2バイトの3パートに分けてアップロードし、結合した内容で保存すること
+     */
+    @Test
+    void testStore_multipart() throws IOException {
+        S3ImageStorage target = storage(SECRET_KEY, 10, 5);
+        byte[] content = "0123456789ab".getBytes(StandardCharsets.UTF_8);
+
+        target.store("1/0_large.jpg", new ByteArrayInputStream(content), content.length, "image/jpeg");
+
+        assertThat(server.requests).hasSize(5);
+        assertThat(server.requests.get(0)).isEqualTo("POST /product-images/1/0_large.jpg?uploads");
+        assertThat(server.requests.subList(1, 4)).allMatch(request -> request.startsWith("PUT ")
+            && request.contains("uploadId="));
+        assertThat(server.requests.get(4)).startsWith("POST /product-images/1/0_large.jpg?uploadId=");
+        assertThat(server.objects.get("1/0_large.jpg")).isEqualTo(content);
+        assertThat(server.contentTypes.get("1/0_large.jpg")).isEqualTo("image/jpeg");
+        assertThat(server.uploads).isEmpty();
+    }
+
+    /**
+     * 【概要】
+     * マルチパートアップロード中の失敗の検証<br>
+     *
+     * 【条件】
+     * 1パート目の送信後に読み込みに失敗する、大きさが不明な画像を保存すること<br>
+     *
+     * 【結果】
+     * 読み込みのIOExceptionを投げ、アップロードを中止して画像を保存しないこと
+     */
+    @Test
+    void testStore_multipartAborted() {
+        S3ImageStorage target = storage(SECRET_KEY, 10, 5);
+        InputStream broken = new SequenceInputStream(new ByteArrayInputStream(new byte[5]), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+
+        assertThatThrownBy(() -> target.store("1/0_large.jpg", broken, -1, "image/jpeg"))
+            .isInstanceOf(IOException.class).hasMessage("connection reset");
+
+        assertThat(server.requests.get(server.requests.size() - 1))
+            .startsWith("DELETE /product-images/1/0_large.jpg?uploadId=");
+        assertThat(server.uploads).isEmpty();
+        assertThat(server.objects).isEmpty();
+    }
+
+    /**
+     * 【概要】
+     * 存在しない画像の読み込みの検証<br>
+     *
+     * 【条件】
+     * 保存していないキーで読み込むこと<br>
+     *
+     * 【結果】
+     * 空を返却すること
+     */
+    @Test
+    void testLoad_notFound() throws IOException {
+        S3ImageStorage target = storage(SECRET_KEY, 1024, 5);
+
+        assertThat(target.load("1/0_image.png")).isEqualTo(Optional.empty());
+    }
+
+    /**
+     * 【概要】
+     * 画像の情報の取得の検証<br>
+     *
+     * 【条件】
+     * 画像を保存してから情報を取得し、保存していないキーでも取得すること<br>
+     *
+     * 【結果】
+     * HEADで取得し、読み込んだ画像と同じ種類・最終更新日時・ETagを返却すること<br>
+     * 保存していないキーは空を返却すること
+     */
+    @Test
+    void testMetadata() throws IOException {
+        S3ImageStorage target = storage(SECRET_KEY, 1024, 5);
+        byte[] content = "png image".getBytes(StandardCharsets.UTF_8);
+        target.store("1/0_image.png", new ByteArrayInputStream(content), content.length, "image/png");
+
+        ImageMetadata metadata = target.metadata("1/0_image.png").orElseThrow();
+
+        assertThat(server.requests).containsExactly("PUT /product-images/1/0_image.png",
+            "HEAD /product-images/1/0_image.png");
+        assertThat(metadata.contentType()).isEqualTo("image/png");
+        assertThat(metadata.lastModified()).isEqualTo(server.lastModified.get("1/0_image.png").toEpochMilli());
+        assertThat(metadata.etag()).isNotNull();
+        try (StoredImage image = target.load("1/0_image.png").orElseThrow()) {
+            assertThat(image.lastModified()).isEqualTo(metadata.lastModified());
+            assertThat(image.etag()).isEqualTo(metadata.etag());
+        }
+        assertThat(target.metadata("1/none.png")).isEqualTo(Optional.empty());
+    }
+
+    /**
+     * 【概要】
+     * ディレクトリの削除の検証<br>
+     *
+     * 【条件】
+     * 商品ID 1の画像3件と商品ID 10の画像1件を保存し、一覧の1ページを2件にして商品ID 1のディレクトリを削除すること<br>
+     *
+     * 【結果】
+     * 一覧の続きも取得して商品ID 1の画像のみをすべて削除すること
+     */
+    @Test
+    void testDeleteDirectory() throws IOException {
+        S3ImageStorage target = storage(SECRET_KEY, 1024, 5);
+        for (String key : new String[] { "1/0_image.png", "1/1_image.png", "1/w320/0_image.png", "10/0_image.png" }) {
+            target.store(key, new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+        }
+        server.listPageSize = 2;
+
+        target.deleteDirectory("1");
+
+        assertThat(server.objects).containsOnlyKeys("10/0_image.png");
+    }
+
+    /**
+     * 【概要】
+     * 画像の削除の検証<br>
+     *
+     * 【条件】
+     * 画像を2件保存し、1件と存在しないキーを削除すること<br>
+     *
+     * 【結果】
+     * 指定した画像のみを削除し、存在しないキーではエラーにしないこと
+     */
+    @Test
+    void testDelete() throws IOException {
+        S3ImageStorage target = storage(SECRET_KEY, 1024, 5);
+        for (String key : new String[] { "1/0_image.png", "1/w320/0_image.png" }) {
+            target.store(key, new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png");
+        }
+
+        target.delete("1/0_image.png");
+        target.delete("1/none.png");
+
+        assertThat(server.objects).containsOnlyKeys("1/w320/0_image.png");
+    }
+
+    /**
+     * 【概要】
+     * 認証情報の誤りの検証<br>
+     *
+     * 【条件】
+     * サーバーと異なるシークレットキーで画像を保存すること<br>
+     *
+     * 【結果】
+     * ステータスを含むIOExceptionを投げること
+     */
+    @Test
+    void testStore_invalidSecretKey() {
+        S3ImageStorage target = storage("wrong-secret", 1024, 5);
+
+        assertThatThrownBy(() -> target.store("1/0_image.png", new ByteArrayInputStream(new byte[] { 1 }), 1,
+            "image/png")).isInstanceOf(IOException.class).hasMessageContaining("status 403");
+    }
+
+    private S3ImageStorage storage(String secretKey, long multipartThreshold, long partSize) {
+        return new S3ImageStorage(new S3ImageStorageProperties(server.endpoint(), "us-east-1", BUCKET, ACCESS_KEY,
+            secretKey, DataSize.ofBytes(multipartThreshold), DataSize.ofBytes(partSize), Duration.ofSeconds(5)));
+    }
+
+}
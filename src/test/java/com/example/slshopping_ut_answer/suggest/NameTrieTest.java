@@ -0,0 +1,147 @@
+package com.example.slshopping_ut_answer.suggest;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class NameTrieTest {
+
+    /**
+     * 【概要】
+     * 前方一致検索の検証<br>
+     *
+     * 【条件】
+     * 先頭が共通する名前を、文字コード順と異なる順に追加すること<br>
+     *
+     * 【結果】
+     * 節の途中・末尾で終わる文字列のどちらでも、前方一致する名前を文字コード順に返すこと<br>
+     * 一致しない文字列の場合は、空のリストを返すこと
+     */
+    @Test
+    void testPrefixed() {
+        NameTrie target = NameTrie.EMPTY
+            .add("軽量バッグ2", SuggestionType.PRODUCT)
+            .add("軽量バッグ10", SuggestionType.PRODUCT)
+            .add("軽量傘1", SuggestionType.PRODUCT)
+            .add("軽量バッグ1", SuggestionType.PRODUCT)
+            .add("高級財布1", SuggestionType.PRODUCT);
+
+        assertThat(names(target.prefixed("軽量", 10))).containsExactly("軽量バッグ1", "軽量バッグ10", "軽量バッグ2", "軽量傘1");
+        assertThat(names(target.prefixed("軽量バ", 10))).containsExactly("軽量バッグ1", "軽量バッグ10", "軽量バッグ2");
+        assertThat(names(target.prefixed("軽量バッグ1", 10))).containsExactly("軽量バッグ1", "軽量バッグ10");
+        assertThat(target.prefixed("軽量バッグ3", 10)).isEmpty();
+        assertThat(target.prefixed("新", 10)).isEmpty();
+        assertThat(target.prefixed("", 10)).isEmpty();
+        assertThat(target.size()).isEqualTo(5);
+    }
+
+    /**
+     * 【概要】
+     * 最大件数・種類の検証<br>
+     *
+     * 【条件】
+     * 同じ名前を商品・ブランドとして追加し、最大件数を指定して検索すること<br>
+     *
+     * 【結果】
+     * 同じ名前は種類ごとに返すこと<br>
+     * 最大件数を超えて返さないこと<br>
+     * 最大件数が0以下の場合は空のリストを返すこと
+     */
+    @Test
+    void testPrefixed_typesAndLimit() {
+        NameTrie target = NameTrie.EMPTY
+            .add("サクラ", SuggestionType.BRAND)
+            .add("サクラ", SuggestionType.PRODUCT)
+            .add("サクラ堂", SuggestionType.BRAND);
+
+        assertThat(target.prefixed("サ", 10)).containsExactly(
+            new Suggestion("サクラ", SuggestionType.PRODUCT),
+            new Suggestion("サクラ", SuggestionType.BRAND),
+            new Suggestion("サクラ堂", SuggestionType.BRAND));
+        assertThat(target.prefixed("サ", 2)).hasSize(2);
+        assertThat(target.prefixed("サ", 0)).isEmpty();
+        assertThat(target.prefixed("サ", -1)).isEmpty();
+        assertThat(target.size()).isEqualTo(3);
+    }
+
+    /**
+     * 【概要】
+     * 追加・削除の検証<br>
+     *
+     * 【条件】
+     * 名前を追加・削除した木を作ること<br>
+     *
+     * 【結果】
+     * 元の木は変更されないこと<br>
+     * 登録済みの名前の追加・未登録の名前の削除では、同じ木を返すこと<br>
+     * 削除した名前のみ返さなくなること
+     */
+    @Test
+    void testAddAndRemove() {
+        NameTrie before = NameTrie.EMPTY.add("abc", SuggestionType.PRODUCT).add("abd", SuggestionType.PRODUCT);
+
+        NameTrie after = before.remove("abc", SuggestionType.PRODUCT);
+
+        assertThat(names(before.prefixed("ab", 10))).containsExactly("abc", "abd");
+        assertThat(names(after.prefixed("ab", 10))).containsExactly("abd");
+        assertThat(after.size()).isEqualTo(1);
+        assertThat(before.add("abc", SuggestionType.PRODUCT)).isSameAs(before);
+        assertThat(before.remove("abc", SuggestionType.BRAND)).isSameAs(before);
+        assertThat(before.remove("ab", SuggestionType.PRODUCT)).isSameAs(before);
+        assertThat(before.remove("abcd", SuggestionType.PRODUCT)).isSameAs(before);
+    }
+
+    /**
+     * 【概要】
+     * 多数の名前の追加・削除の検証<br>
+     *
+     * 【条件】
+     * 乱数で生成した名前の追加・削除を繰り返すこと<br>
+     *
+     * 【結果】
+     * 各文字列の前方一致の結果が、同じ操作をしたソート済みの集合と一致すること
+     */
+    @Test
+    void testRandomOperations() {
+        Random random = new Random(42);
+        NameTrie target = NameTrie.EMPTY;
+        TreeSet<String> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            String name = randomName(random);
+            if (random.nextInt(3) == 0) {
+                target = target.remove(name, SuggestionType.PRODUCT);
+                expected.remove(name);
+            } else {
+                target = target.add(name, SuggestionType.PRODUCT);
+                expected.add(name);
+            }
+        }
+
+        assertThat(target.size()).isEqualTo(expected.size());
+        for (int i = 0; i < 200; i++) {
+            String name = randomName(random);
+            String prefix = name.substring(0, 1 + random.nextInt(name.length()));
+            List<String> matched = new ArrayList<>(expected.subSet(prefix, prefix + Character.MAX_VALUE));
+            assertThat(names(target.prefixed(prefix, 5))).isEqualTo(matched.subList(0, Math.min(5, matched.size())));
+        }
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(4)));
+        }
+        return name.toString();
+    }
+
+    private static List<String> names(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::name).toList();
+    }
+
+}
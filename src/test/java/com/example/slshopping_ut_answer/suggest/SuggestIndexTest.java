@@ -0,0 +1,179 @@
+package com.example.slshopping_ut_answer.suggest;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.slshopping_ut_answer.brand.BrandRepository;
+import com.example.slshopping_ut_answer.cache.CacheInvalidation;
+import com.example.slshopping_ut_answer.category.CategoryRepository;
+import com.example.slshopping_ut_answer.product.ProductRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestIndexTest {
+
+    /** モック化したクラス */
+    @Mock
+    private ProductRepository mockProductRepository;
+
+    @Mock
+    private BrandRepository mockBrandRepository;
+
+    @Mock
+    private CategoryRepository mockCategoryRepository;
+
+    /** テスト対象クラスにモックを注入 */
+    @InjectMocks
+    private SuggestIndex target;
+
+    /**
+     * 【概要】
+     * 入力候補の読み込みの検証<br>
+     *
+     * 【条件】
+     * 各リポジトリのfindAllNamesメソッドは名前のリストを返却するようスタブ化すること<br>
+     * suggestメソッドを2回呼び出すこと<br>
+     *
+     * 【結果】
+     * 商品名・ブランド名・カテゴリー名から前方一致する名前を返すこと<br>
+     * データベースからの読み込みは1回のみであること
+     */
+    @Test
+    void testSuggest_loadsOnce() {
+        doReturn(List.of("サクラ腕時計1", "新バッグ1")).when(this.mockProductRepository).findAllNames();
+        doReturn(List.of("サクラ堂")).when(this.mockBrandRepository).findAllNames();
+        doReturn(List.of("生活雑貨/定番")).when(this.mockCategoryRepository).findAllNames();
+
+        assertThat(target.suggest("サクラ", 10)).containsExactly(
+            new Suggestion("サクラ堂", SuggestionType.BRAND),
+            new Suggestion("サクラ腕時計1", SuggestionType.PRODUCT));
+        assertThat(target.suggest("生活", 10)).containsExactly(
+            new Suggestion("生活雑貨/定番", SuggestionType.CATEGORY));
+
+        verify(this.mockProductRepository, times(1)).findAllNames();
+    }
+
+    /**
+     * 【概要】
+     * 名前の追加・変更・削除の検証<br>
+     *
+     * 【条件】
+     * 読み込み後に、トランザクション外で名前の追加・変更・削除をすること<br>
+     *
+     * 【結果】
+     * 変更をすぐに反映すること
+     */
+    @Test
+    void testPutAndRemove() {
+        doReturn(List.of("新バッグ1", "新バッグ2")).when(this.mockProductRepository).findAllNames();
+        target.suggest("新", 10);
+
+        target.put(SuggestionType.PRODUCT, null, "新バッグ3");
+        target.put(SuggestionType.PRODUCT, "新バッグ1", "旧バッグ1");
+        target.remove(SuggestionType.PRODUCT, "新バッグ2");
+
+        assertThat(target.suggest("新", 10)).containsExactly(new Suggestion("新バッグ3", SuggestionType.PRODUCT));
+        assertThat(target.suggest("旧", 10)).containsExactly(new Suggestion("旧バッグ1", SuggestionType.PRODUCT));
+    }
+
+    /**
+     * 【概要】
+     * トランザクション内での名前の追加の検証<br>
+     *
+     * 【条件】
+     * トランザクションの同期を有効にして名前を追加すること<br>
+     *
+     * 【結果】
+     * コミット前は反映しないこと<br>
+     * コミット後に反映すること
+     */
+    @Test
+    void testPut_afterCommit() {
+        target.suggest("新", 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            target.put(SuggestionType.PRODUCT, null, "新バッグ1");
+            assertThat(target.suggest("新", 10)).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(target.suggest("新", 10)).containsExactly(new Suggestion("新バッグ1", SuggestionType.PRODUCT));
+    }
+
+    /**
+     * 【概要】
+     * 読み込み前の名前の追加の検証<br>
+     *
+     * 【条件】
+     * 読み込み前に名前を追加すること<br>
+     *
+     * 【結果】
+     * データベースから読み込まず、追加した名前は読み込み時にデータベースから反映されること
+     */
+    @Test
+    void testPut_beforeLoad() {
+        target.put(SuggestionType.BRAND, null, "サクラ堂");
+
+        verifyNoInteractions(this.mockBrandRepository);
+
+        doReturn(List.of("サクラ堂")).when(this.mockBrandRepository).findAllNames();
+        assertThat(target.suggest("サ", 10)).containsExactly(new Suggestion("サクラ堂", SuggestionType.BRAND));
+    }
+
+    /**
+     * 【概要】
+     * 他のノードでの名前の変更の検証<br>
+     *
+     * 【条件】
+     * 読み込み後に、他のノードでの商品名の変更と、入力候補にない管理者の変更を通知すること<br>
+     *
+     * 【結果】
+     * 商品名の変更をすぐに反映すること<br>
+     * 管理者の変更は無視すること
+     */
+    @Test
+    void testInvalidate() {
+        doReturn(List.of("新バッグ1")).when(this.mockProductRepository).findAllNames();
+        target.suggest("新", 10);
+
+        target.invalidate(new CacheInvalidation("node2", "Product", 1L, "新バッグ1", "旧バッグ1"));
+        target.invalidate(new CacheInvalidation("node2", "User", 1L, null, null));
+
+        assertThat(target.suggest("新", 10)).isEmpty();
+        assertThat(target.suggest("旧", 10)).containsExactly(new Suggestion("旧バッグ1", SuggestionType.PRODUCT));
+    }
+
+    /**
+     * 【概要】
+     * キャッシュ全体の無効化の検証<br>
+     *
+     * 【条件】
+     * 読み込み後にinvalidateAllメソッドを呼び出すこと<br>
+     *
+     * 【結果】
+     * 次の入力候補の検索時に、データベースから読み込み直すこと
+     */
+    @Test
+    void testInvalidateAll() {
+        doReturn(List.of("新バッグ1")).when(this.mockProductRepository).findAllNames();
+        target.suggest("新", 10);
+
+        target.invalidateAll();
+        target.suggest("新", 10);
+
+        verify(this.mockProductRepository, times(2)).findAllNames();
+    }
+}
@@ -19,8 +19,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.example.slshopping_ut_answer.cache.CatalogVersion;
 import com.example.slshopping_ut_answer.entity.Role;
 import com.example.slshopping_ut_answer.entity.User;
+import com.example.slshopping_ut_answer.view.StreamingRows;
 
 @ExtendWith(MockitoExtension.class)
 class UserControllerTest {
@@ -29,6 +31,9 @@ class UserControllerTest {
     @Mock
     private UserService mockUserService;
 
+    @Mock
+    private CatalogVersion mockCatalogVersion;
+
     /** テスト対象クラスにモックを注入 */
     @InjectMocks
     private UserController target;
@@ -48,25 +53,26 @@ class UserControllerTest {
      * 【条件】
      * GET通信の/usersにリクエストすること<br>
      * クエリパラメーターkeywordにはnullを入力すること<br>
-     * userServiceのfindAllメソッドは管理者のリストを返却するようスタブ化すること<br>
+     * userServiceのページ単位のlistAllメソッドは管理者のリストを返却するようスタブ化すること<br>
      *
      * 【結果】
      * ステータスが200であること<br>
      * users/users.htmlを表示すること<br>
-     * キー名listUsersに管理者のリストが格納されていること<br>
+     * キー名listUsersに、描画時に管理者のリストを返す一覧が格納されていること<br>
      * キー名keywordにnullが格納されていること
      */
     @Test
     void testListUsers() throws Exception {
         List<User> users = new ArrayList<>();
+        users.add(new User(1L, "userA@example.com", "password", "userA", true, Set.of()));
         String keyword = null;
 
-        doReturn(users).when(this.mockUserService).listAll(keyword);
+        doReturn(users).when(this.mockUserService).listAll(keyword, 0L, StreamingRows.DEFAULT_CHUNK_SIZE);
 
         this.mockMvc.perform(get("/users").param("keyword", keyword))
                 .andExpect(status().isOk())
                 .andExpect(view().name("users/users"))
-                .andExpect(model().attribute("listUsers", users))
+                .andExpect(model().attribute("listUsers", contains(users.toArray())))
                 .andExpect(model().attribute("keyword", keyword));
 
     }
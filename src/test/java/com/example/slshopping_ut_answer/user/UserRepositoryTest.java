@@ -0,0 +1,172 @@
+package com.example.slshopping_ut_answer.user;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.example.slshopping_ut_answer.entity.Role;
+import com.example.slshopping_ut_answer.entity.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryTest {
+
+    /** テスト対象クラス */
+    @Autowired
+    private UserRepository target;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Role admin;
+
+    private Role editor;
+
+    @BeforeEach
+    void setup() {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.admin = entityManager.persist(new Role(null, "Admin", "管理者"));
+        this.editor = entityManager.persist(new Role(null, "Editor", "編集者"));
+    }
+
+    /**
+     * 【概要】
+     * 管理者一覧取得時のSQL発行数の検証<br>
+     *
+     * 【条件】
+     * 管理者を3件登録した場合と10件登録した場合で、それぞれfindAllを呼び出し全管理者のロールを参照すること<br>
+     *
+     * 【結果】
+     * SQLの発行数が2以下であること<br>
+     * 管理者の件数が増えてもSQLの発行数が変わらないこと
+     */
+    @Test
+    void testFindAll_statementCountIsConstant() {
+        long fewUsers = countStatements(3, () -> target.findAll());
+        long manyUsers = countStatements(10, () -> target.findAll());
+
+        assertThat(fewUsers).isLessThanOrEqualTo(2);
+        assertThat(manyUsers).isEqualTo(fewUsers);
+    }
+
+    /**
+     * 【概要】
+     * 管理者検索時のSQL発行数の検証<br>
+     *
+     * 【条件】
+     * 管理者を3件登録した場合と10件登録した場合で、それぞれsearchを呼び出し全管理者のロールを参照すること<br>
+     *
+     * 【結果】
+     * SQLの発行数が2以下であること<br>
+     * 管理者の件数が増えてもSQLの発行数が変わらないこと
+     */
+    @Test
+    void testSearch_statementCountIsConstant() {
+        long fewUsers = countStatements(3, () -> target.search("example"));
+        long manyUsers = countStatements(10, () -> target.search("example"));
+
+        assertThat(fewUsers).isLessThanOrEqualTo(2);
+        assertThat(manyUsers).isEqualTo(fewUsers);
+    }
+
+    /**
+     * 【概要】
+     * 管理者情報のページ単位取得の検証<br>
+     *
+     * 【条件】
+     * ロールを2件持つ管理者を5件登録し、2件ずつfindPageを呼び出すこと<br>
+     *
+     * 【結果】
+     * 前のページの最後の管理者の次から、ID順に2件ずつ(最後は1件)返却すること<br>
+     * 各ページのSQLの発行数が1であること(ロールを結合した上で件数を絞ること)
+     */
+    @Test
+    void testFindPage() {
+        persistUsers(5);
+        Long afterId = 0L;
+        for (int expected : new int[] { 2, 2, 1 }) {
+            statistics.clear();
+            List<User> users = target.findPage(afterId, 2);
+            users.forEach(user -> assertThat(user.getRoles()).hasSize(2));
+
+            assertThat(users).hasSize(expected);
+            assertThat(users).extracting(User::getId).isSorted();
+            assertThat(users.get(0).getId()).isGreaterThan(afterId);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            afterId = users.get(users.size() - 1).getId();
+        }
+        assertThat(target.findPage(afterId, 2)).isEmpty();
+    }
+
+    /**
+     * 【概要】
+     * メールアドレスに紐づく管理者情報取得の検証<br>
+     *
+     * 【条件】
+     * ロールを2件持つ管理者を登録し、永続化コンテキストをクリアした後にfindByEmailを呼び出すこと<br>
+     *
+     * 【結果】
+     * 永続化コンテキストの外でもロールを参照できること
+     */
+    @Test
+    void testFindByEmail_loadsRoles() {
+        persistUsers(1);
+
+        User user = target.findByEmail("user0@example.com");
+        entityManager.clear();
+
+        assertThat(user.getRoles()).containsExactlyInAnyOrder(admin, editor);
+    }
+
+    /**
+     * 指定件数の管理者を追加登録し、一覧取得とロール参照で発行されたSQLの数を返す
+     *
+     * @param userCount 登録済みの管理者を含めた件数
+     * @param query 一覧取得処理
+     * @return SQLの発行数
+     */
+    private long countStatements(int userCount, Supplier<List<User>> query) {
+        persistUsers(userCount);
+
+        statistics.clear();
+        List<User> users = query.get();
+        users.forEach(user -> user.getRoles().size());
+        long count = statistics.getPrepareStatementCount();
+
+        assertThat(users).hasSize(userCount);
+        return count;
+    }
+
+    /**
+     * 管理者が指定件数になるまで登録し、永続化コンテキストをクリアする
+     *
+     * @param userCount 管理者の件数
+     */
+    private void persistUsers(int userCount) {
+        long existing = target.count();
+        for (long i = existing; i < userCount; i++) {
+            entityManager.persist(new User(null, "user" + i + "@example.com", "password", "user" + i, true,
+                new HashSet<>(Set.of(admin, editor))));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+}
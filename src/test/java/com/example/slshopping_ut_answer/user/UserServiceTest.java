@@ -99,6 +99,60 @@ class UserServiceTest {
         assertThat(target.listAll(keyword)).isEqualTo(expected);
     }
 
+    /**
+     * 【概要】
+     * 管理者を検索<br>
+     *
+     * 【条件】
+     * userServiceのlistAllメソッドに12という数値の文字列を渡すこと<br>
+     * userRepositoryのsearchByIdOrKeywordメソッドはUserのリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * Userのリストを返却すること<br>
+     * userRepositoryのsearchメソッドが呼ばれないこと
+     */
+    @Test
+    void testListAll_argumentIsNumeric() {
+        String keyword = "12";
+
+        List<User> expected = Arrays.asList(
+            new User(),
+            new User()
+        );
+
+        doReturn(expected).when(this.mockUserRepository).searchByIdOrKeyword(12L, keyword);
+
+        assertThat(target.listAll(keyword)).isEqualTo(expected);
+        verify(this.mockUserRepository, never()).search(anyString());
+    }
+
+    /**
+     * 【概要】
+     * 管理者をページ単位で検索<br>
+     *
+     * 【条件】
+     * userServiceのlistAllメソッドに12という数値の文字列、ID 10、件数2を渡すこと<br>
+     * userRepositoryのsearchPageByIdOrKeywordメソッドはUserのリストを返却するようスタブ化すること<br>
+     *
+     * 【結果】
+     * ID 10より後の管理者を、ID 12との一致も含めて2件まで検索し、そのリストを返却すること<br>
+     * userRepositoryのsearchPageメソッドが呼ばれないこと
+     */
+    @Test
+    void testListAll_page() {
+        String keyword = "12";
+
+        List<User> expected = Arrays.asList(
+            new User(),
+            new User()
+        );
+
+        doReturn(expected).when(this.mockUserRepository).searchPageByIdOrKeyword(10L, 12L, keyword, 2);
+
+        assertThat(target.listAll(keyword, 10L, 2)).isEqualTo(expected);
+        verify(this.mockUserRepository, never()).searchPage(anyLong(), anyString(), anyInt());
+    }
+
    /**
      * 【概要】
      * 管理メールアドレスの重複チェック<br>
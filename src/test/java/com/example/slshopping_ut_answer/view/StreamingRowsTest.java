@@ -0,0 +1,112 @@
+package com.example.slshopping_ut_answer.view;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class StreamingRowsTest {
+
+    /** 取得・フラッシュの順序の記録 */
+    private final List<String> events = new ArrayList<>();
+
+    /**
+     * 【概要】
+     * チャンクごとの取得の検証<br>
+     *
+     * 【条件】
+     * ID 1〜5の行を、2件ずつ取得するよう繰り返すこと<br>
+     *
+     * 【結果】
+     * 前のチャンクの最後の行をキーに、3回に分けて全ての行を返却すること<br>
+     * 各チャンクの取得前にフラッシュすること(1件目は、繰り返しを始めるまで取得しないこと)
+     */
+    @Test
+    void testIterator() {
+        StreamingRows<Long> target = new StreamingRows<>(this::load, 2, Integer.MAX_VALUE,
+            () -> events.add("flush"));
+        assertThat(events).isEmpty();
+
+        List<Long> rows = new ArrayList<>();
+        for (Long row : target) {
+            rows.add(row);
+            events.add("row" + row);
+        }
+
+        assertThat(rows).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(events).containsExactly("flush", "load0", "row1", "row2", "flush", "load2", "row3", "row4",
+            "flush", "load4", "row5");
+        assertThat(target.getLast()).isEqualTo(5L);
+        assertThat(target.getCount()).isEqualTo(5);
+    }
+
+    /**
+     * 【概要】
+     * 行数の上限の検証<br>
+     *
+     * 【条件】
+     * ID 1〜5の行を、2件ずつ上限3件まで取得するよう繰り返すこと<br>
+     *
+     * 【結果】
+     * 2回目は残りの1件のみ取得し、3件で終了すること
+     */
+    @Test
+    void testIterator_maxRows() {
+        StreamingRows<Long> target = new StreamingRows<>(this::load, 2, 3, () -> events.add("flush"));
+
+        assertThat(target).containsExactly(1L, 2L, 3L);
+        assertThat(events).containsExactly("flush", "load0", "flush", "load2");
+        assertThat(target.getCount()).isEqualTo(3);
+    }
+
+    /**
+     * 【概要】
+     * 件数がチャンクの件数ちょうどの場合の検証<br>
+     *
+     * 【条件】
+     * ID 1〜5の行を、5件ずつ取得するよう繰り返すこと<br>
+     *
+     * 【結果】
+     * 全ての行を返却した後に、続きがないことを確認するため1回のみ追加で取得すること
+     */
+    @Test
+    void testIterator_exactChunk() {
+        StreamingRows<Long> target = new StreamingRows<>(this::load, 5, Integer.MAX_VALUE, () -> events.add("flush"));
+
+        assertThat(target).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(events).containsExactly("flush", "load0", "flush", "load5");
+    }
+
+    /**
+     * 【概要】
+     * 2回目の繰り返しの検証<br>
+     *
+     * 【条件】
+     * 1回繰り返した後に、もう一度繰り返すこと<br>
+     *
+     * 【結果】
+     * IllegalStateExceptionを投げること(取得し直さないこと)
+     */
+    @Test
+    void testIterator_twice() {
+        StreamingRows<Long> target = new StreamingRows<>(this::load, () -> events.add("flush"));
+        target.forEach(row -> {
+        });
+
+        assertThatThrownBy(target::iterator).isInstanceOf(IllegalStateException.class);
+        assertThat(events).containsExactly("flush", "load0");
+    }
+
+    /**
+     * ID 1〜5の行のうち、前のチャンクの最後の行より後を指定件数まで返す
+     */
+    private List<Long> load(Long last, int limit) {
+        long after = last == null ? 0 : last;
+        events.add("load" + after);
+        return LongStream.rangeClosed(after + 1, 5).limit(limit).boxed().toList();
+    }
+
+}